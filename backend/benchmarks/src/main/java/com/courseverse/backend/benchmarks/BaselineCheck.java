@@ -0,0 +1,102 @@
+package com.courseverse.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against a committed baseline.
+ *
+ * Usage:
+ * BaselineCheck check results.json baselines/baseline.json [tolerance]
+ * BaselineCheck record results.json baselines/baseline.json
+ *
+ * "check" exits with status 1 when any benchmark is slower than its baseline
+ * by more than the tolerance (default 0.10, i.e. 10%).
+ */
+public final class BaselineCheck {
+
+    private static final double DEFAULT_TOLERANCE = 0.10;
+
+    private record Score(String mode, double value, String unit) {
+    }
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: BaselineCheck check|record <results.json> <baseline.json> [tolerance]");
+            System.exit(2);
+        }
+        Path results = Path.of(args[1]);
+        Path baseline = Path.of(args[2]);
+
+        if ("record".equals(args[0])) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + results + " as baseline " + baseline);
+            return;
+        }
+
+        double tolerance = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_TOLERANCE;
+        Map<String, Score> current = load(results);
+        Map<String, Score> expected = load(baseline);
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = expected.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW         %-70s %12.3f %s%n", entry.getKey(), now.value(), now.unit());
+                continue;
+            }
+            double change = relativeSlowdown(before, now);
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-11s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSION" : "ok", entry.getKey(), before.value(), now.value(), now.unit(),
+                    change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + (tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    /** Positive when the current run is slower, whatever the benchmark mode. */
+    private static double relativeSlowdown(Score before, Score now) {
+        if ("thrpt".equals(now.mode())) {
+            return (before.value() - now.value()) / before.value();
+        }
+        return (now.value() - before.value()) / before.value();
+    }
+
+    private static Map<String, Score> load(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(run.path("mode").asText(),
+                    metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
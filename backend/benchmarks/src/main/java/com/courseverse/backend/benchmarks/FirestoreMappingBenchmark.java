@@ -0,0 +1,104 @@
+package com.courseverse.backend.benchmarks;
+
+import com.courseverse.backend.model.Course;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The POJO mapping behind DocumentSnapshot.toObject(Course.class) for large
+ * nested courses. DocumentSnapshot cannot be constructed outside the client
+ * library, so this calls the same CustomClassMapper.convertToCustomClass that
+ * toObject delegates to, on document data shaped the way Firestore returns it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FirestoreMappingBenchmark {
+
+    // The mapper moved packages between client versions
+    private static final String[] MAPPER_CLASSES = {
+            "com.google.cloud.firestore.encoding.CustomClassMapper",
+            "com.google.cloud.firestore.CustomClassMapper"
+    };
+
+    @Param({ "5", "40" })
+    public int modules;
+
+    @Param({ "10" })
+    public int lessonsPerModule;
+
+    private Firestore firestore;
+    private DocumentReference reference;
+    private Map<String, Object> documentData;
+    private MethodHandle convertToCustomClass;
+
+    @Setup
+    public void setUp() throws Exception {
+        // No RPC is ever made; the reference only feeds the @DocumentId field
+        firestore = FirestoreOptions.newBuilder()
+                .setProjectId("courseverse-benchmarks")
+                .setCredentials(NoCredentials.getInstance())
+                .build()
+                .getService();
+        reference = firestore.collection("courses").document("course-1");
+
+        Map<String, Object> data = new ObjectMapper().convertValue(
+                SampleCourses.course(1, modules, lessonsPerModule), new TypeReference<Map<String, Object>>() {
+                });
+        data.remove("uid"); // The id lives on the reference, not in the document
+        data.put("enrollmentCount", ((Number) data.get("enrollmentCount")).longValue()); // Firestore integers are longs
+        documentData = data;
+
+        convertToCustomClass = findMapper();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        firestore.close();
+    }
+
+    @Benchmark
+    public Course toObject() throws Throwable {
+        return (Course) convertToCustomClass.invoke((Object) documentData, Course.class, reference);
+    }
+
+    private static MethodHandle findMapper() throws ReflectiveOperationException {
+        for (String className : MAPPER_CLASSES) {
+            try {
+                Class<?> mapper = Class.forName(className);
+                Method method = mapper.getDeclaredMethod("convertToCustomClass",
+                        Object.class, Class.class, DocumentReference.class);
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                // Try the next location
+            }
+        }
+        throw new ClassNotFoundException("CustomClassMapper.convertToCustomClass not found in Firestore client");
+    }
+}
@@ -0,0 +1,53 @@
+package com.courseverse.backend.benchmarks;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.service.CourseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The module/lesson scan done by getLessonContent, looking up the last lesson
+ * of the last module (the worst case for the linear search).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonLookupBenchmark {
+
+    @Param({ "5", "40" })
+    public int modules;
+
+    @Param({ "10" })
+    public int lessonsPerModule;
+
+    private Course course;
+    private String moduleId;
+    private String lessonId;
+
+    @Setup
+    public void setUp() {
+        course = SampleCourses.course(1, modules, lessonsPerModule);
+        moduleId = "module-" + (modules - 1);
+        lessonId = "lesson-" + (modules - 1) + "-" + (lessonsPerModule - 1);
+    }
+
+    @Benchmark
+    public Lesson findLastLesson() {
+        return CourseService.findLesson(course, moduleId, lessonId);
+    }
+}
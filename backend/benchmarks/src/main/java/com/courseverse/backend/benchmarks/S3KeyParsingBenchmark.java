@@ -0,0 +1,44 @@
+package com.courseverse.backend.benchmarks;
+
+import com.courseverse.backend.service.S3ObjectKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two legacy URL-to-key parsers used for old thumbnails and lesson videos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class S3KeyParsingBenchmark {
+
+    private String presignedUrl;
+
+    @Setup
+    public void setUp() {
+        presignedUrl = SampleCourses.course(1, 1, 1).getThumbnailUrl();
+    }
+
+    @Benchmark
+    public String extractS3KeyFromUrl() {
+        return S3ObjectKeys.extractS3KeyFromUrl(presignedUrl);
+    }
+
+    @Benchmark
+    public String extractObjectKeyFromUrl() {
+        return S3ObjectKeys.extractObjectKeyFromUrl(presignedUrl);
+    }
+}
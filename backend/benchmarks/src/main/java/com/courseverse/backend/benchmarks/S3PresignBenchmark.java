@@ -0,0 +1,62 @@
+package com.courseverse.backend.benchmarks;
+
+import com.courseverse.backend.service.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SigV4 signing cost of S3Service.generatePresignedReadUrl. Presigning is pure
+ * CPU (no network), and the catalog presigns one thumbnail per course.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3PresignBenchmark {
+
+    private S3Presigner presigner;
+    private S3Client client;
+    private S3Service s3Service;
+    private String objectKey;
+
+    @Setup
+    public void setUp() {
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIAEXAMPLEEXAMPLE", "benchmark-secret-key-not-used-for-network"));
+        Region region = Region.of(SampleCourses.REGION);
+        presigner = S3Presigner.builder().region(region).credentialsProvider(credentials).build();
+        client = S3Client.builder().region(region).credentialsProvider(credentials).build();
+        s3Service = new S3Service(presigner, client, SampleCourses.BUCKET, new SimpleMeterRegistry());
+        objectKey = SampleCourses.course(1, 1, 1).getThumbnailObjectKey();
+    }
+
+    @TearDown
+    public void tearDown() {
+        presigner.close();
+        client.close();
+    }
+
+    @Benchmark
+    public String presignReadUrl() {
+        return s3Service.generatePresignedReadUrl(objectKey);
+    }
+}
@@ -0,0 +1,72 @@
+package com.courseverse.backend.benchmarks;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic course fixtures shaped like real catalog documents.
+ */
+final class SampleCourses {
+
+    static final String BUCKET = "courseverse-media";
+    static final String REGION = "ap-south-1";
+
+    private SampleCourses() {
+    }
+
+    static Course course(int index, int modules, int lessonsPerModule) {
+        Course course = new Course();
+        course.setUid("course-" + index);
+        course.setTitle("Course " + index + ": Building Production Spring Boot Services");
+        course.setDescription("A hands-on course covering REST APIs, security, persistence and deployment. ".repeat(4));
+        course.setInstructorId("instructor-" + (index % 20));
+        course.setInstructorName("Instructor " + (index % 20));
+        course.setThumbnailObjectKey("lessons/" + uuidLike(index) + "/thumbnail.png");
+        course.setThumbnailUrl(presignedStyleUrl(course.getThumbnailObjectKey()));
+        course.setEnrollmentCount(index * 7);
+        course.setPublishStatus("Published");
+
+        List<Module> moduleList = new ArrayList<>(modules);
+        for (int m = 0; m < modules; m++) {
+            Module module = new Module();
+            module.setModuleId("module-" + m);
+            module.setTitle("Module " + m);
+            List<Lesson> lessons = new ArrayList<>(lessonsPerModule);
+            for (int l = 0; l < lessonsPerModule; l++) {
+                Lesson lesson = new Lesson();
+                lesson.setLessonId("lesson-" + m + "-" + l);
+                lesson.setTitle("Lesson " + l + " of module " + m);
+                lesson.setVideoUrl("lessons/" + uuidLike(index * 1000 + m * 100 + l) + "/video.mp4");
+                lesson.setTextContent("Lesson notes with code samples and explanations. ".repeat(20));
+                lessons.add(lesson);
+            }
+            module.setLessons(lessons);
+            moduleList.add(module);
+        }
+        course.setModules(moduleList);
+        return course;
+    }
+
+    static List<Course> catalog(int size, int modules, int lessonsPerModule) {
+        List<Course> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            courses.add(course(i, modules, lessonsPerModule));
+        }
+        return courses;
+    }
+
+    static String presignedStyleUrl(String objectKey) {
+        return "https://" + BUCKET + ".s3." + REGION + ".amazonaws.com/" + objectKey
+                + "?X-Amz-Algorithm=AWS4-HMAC-SHA256&X-Amz-Date=20250101T000000Z&X-Amz-SignedHeaders=host"
+                + "&X-Amz-Expires=3600&X-Amz-Credential=AKIAEXAMPLE%2F20250101%2F" + REGION + "%2Fs3%2Faws4_request"
+                + "&X-Amz-Signature=" + "0123456789abcdef".repeat(4);
+    }
+
+    private static String uuidLike(int seed) {
+        return String.format("%08x-0000-4000-8000-%012x", seed, (long) seed * 31);
+    }
+}
@@ -0,0 +1,91 @@
+package com.courseverse.backend.benchmarks;
+
+import com.courseverse.backend.model.Course;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON against CBOR for the catalog response sent to clients that ask for
+ * it with Accept: application/cbor: encoding on the server and decoding as a
+ * client would. The CBOR mapper is derived from the JSON one the same way
+ * WebConfig derives it. Payload sizes, plain and gzipped, are printed once
+ * per trial since JMH only reports times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<Course>> CATALOG = new TypeReference<>() {
+    };
+
+    @Param({ "20", "200" })
+    public int courses;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private List<Course> catalog;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = jsonMapper.copyWith(new CBORFactory());
+        catalog = SampleCourses.catalog(courses, 6, 8);
+        json = jsonMapper.writeValueAsBytes(catalog);
+        cbor = cborMapper.writeValueAsBytes(catalog);
+        System.out.printf("%n%d courses: JSON %d bytes (%d gzipped), CBOR %d bytes (%d gzipped)%n", courses,
+                json.length, gzippedSize(json), cbor.length, gzippedSize(cbor));
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public List<Course> decodeJson() throws IOException {
+        return jsonMapper.readValue(json, CATALOG);
+    }
+
+    @Benchmark
+    public List<Course> decodeCbor() throws IOException {
+        return cborMapper.readValue(cbor, CATALOG);
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Cold-start comparison of the regular backend jar and the fast-start build
+# (Spring AOT + AppCDS, see the fast-start profile in backend/pom.xml).
+#
+#   ./startup-benchmark.sh            # 5 runs of each
+#   RUNS=10 ./startup-benchmark.sh
+#
+# Each run starts a fresh JVM and measures wall-clock time until
+# /actuator/health/liveness answers 200 (context refreshed, web server up),
+# plus the "Started ... in N seconds" time Spring Boot logs. Both builds run
+# with the prod profile against the Firebase emulator code path and dummy AWS
+# settings, so nothing needs to be running; the warm-up that follows liveness
+# is not part of the measurement.
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+WORK_DIR="$BACKEND_DIR/target/startup-benchmark"
+JAR=backend-0.0.1-SNAPSHOT.jar
+
+cd "$BACKEND_DIR"
+echo "Building the regular jar..."
+mvn -B -q -DskipTests package
+mkdir -p "$WORK_DIR/regular"
+cp "target/$JAR" "$WORK_DIR/regular/$JAR"
+
+echo "Building the fast-start jar (AOT + CDS training run)..."
+mvn -B -q -DskipTests -Pfast-start package
+rm -rf "$WORK_DIR/fast-start"
+cp -r target/fast-start "$WORK_DIR/fast-start"
+
+export FIRESTORE_EMULATOR_HOST=localhost:8081
+export FIREBASE_AUTH_EMULATOR_HOST=localhost:9099
+COMMON_PROPS=(-Dspring.profiles.active=prod -Dserver.port="$PORT"
+    -Dspring.cloud.aws.credentials.access-key=benchmark -Dspring.cloud.aws.credentials.secret-key=benchmark
+    -Dapp.aws.s3.bucket-name=benchmark -Dapp.catalog-snapshot.path="$WORK_DIR/catalog.snapshot")
+
+# Prints "<wall ms> <spring-reported ms>" for one cold start
+measure() {
+    local dir=$1
+    shift
+    local log="$WORK_DIR/run.log"
+    local start end
+    start=$(date +%s%N)
+    (cd "$dir" && exec java "$@" "${COMMON_PROPS[@]}" -jar "$JAR") >"$log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health/liveness"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Backend exited during startup, see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    local reported
+    reported=$(sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' "$log" | head -1)
+    echo "$(((end - start) / 1000000)) $(awk -v s="${reported:-0}" 'BEGIN { printf "%d", s * 1000 }')"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+report() {
+    local label=$1 results=$2
+    printf "%-12s wall p50 %6s ms   spring p50 %6s ms   (runs: %s)\n" "$label" \
+        "$(cut -d' ' -f1 <<<"$results" | median)" "$(cut -d' ' -f2 <<<"$results" | median)" \
+        "$(cut -d' ' -f1 <<<"$results" | paste -sd, -)"
+}
+
+regular="" fast=""
+for ((i = 1; i <= RUNS; i++)); do
+    echo "Run $i/$RUNS"
+    regular+="$(measure "$WORK_DIR/regular")"$'\n'
+    fast+="$(measure "$WORK_DIR/fast-start" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true)"$'\n'
+done
+
+echo
+report "regular" "${regular%$'\n'}"
+report "fast-start" "${fast%$'\n'}"
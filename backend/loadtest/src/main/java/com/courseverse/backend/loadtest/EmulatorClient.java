@@ -0,0 +1,84 @@
+package com.courseverse.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * REST calls to the Firebase emulators: wiping data between runs and minting
+ * ID tokens through the Auth emulator's sign-up and refresh endpoints. The
+ * emulator accepts any API key.
+ */
+public class EmulatorClient {
+
+    private static final String API_KEY = "fake-api-key";
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String authHost;
+    private final String firestoreHost;
+    private final String projectId;
+
+    public EmulatorClient(HttpClient http, LoadTestOptions options) {
+        this.http = http;
+        this.authHost = "http://" + options.authEmulator();
+        this.firestoreHost = "http://" + options.firestoreEmulator();
+        this.projectId = options.projectId();
+    }
+
+    public void resetAll() throws IOException, InterruptedException {
+        delete(authHost + "/emulator/v1/projects/" + projectId + "/accounts");
+        delete(firestoreHost + "/emulator/v1/projects/" + projectId + "/databases/(default)/documents");
+    }
+
+    /** Creates an Auth emulator account and returns it with a fresh ID token. */
+    public TestUser signUp(String email, String password, String displayName, String role)
+            throws IOException, InterruptedException {
+        JsonNode body = post(authHost + "/identitytoolkit.googleapis.com/v1/accounts:signUp?key=" + API_KEY,
+                "application/json", json.writeValueAsString(Map.of(
+                        "email", email,
+                        "password", password,
+                        "displayName", displayName,
+                        "returnSecureToken", true)));
+        return new TestUser(body.path("localId").asText(), email, displayName, role,
+                body.path("idToken").asText(), body.path("refreshToken").asText());
+    }
+
+    /** Replaces the user's ID token before it expires (emulator tokens last an hour). */
+    public void refresh(TestUser user) throws IOException, InterruptedException {
+        String form = "grant_type=refresh_token&refresh_token="
+                + URLEncoder.encode(user.refreshToken(), StandardCharsets.UTF_8);
+        JsonNode body = post(authHost + "/securetoken.googleapis.com/v1/token?key=" + API_KEY,
+                "application/x-www-form-urlencoded", form);
+        user.updateTokens(body.path("id_token").asText(), body.path("refresh_token").asText());
+    }
+
+    private JsonNode post(String url, String contentType, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Emulator call " + url + " failed with " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return json.readTree(response.body());
+    }
+
+    private void delete(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).DELETE().build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Emulator reset " + url + " failed with " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.courseverse.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one endpoint (method + path template).
+ * Latencies are recorded in microseconds.
+ */
+public class EndpointStats {
+
+    private final String endpoint;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder firestoreReads = new LongAdder();
+    private final LongAdder presigns = new LongAdder();
+    private final LongAdder costSamples = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(long latencyMicros, int status, boolean error, String requestCost) {
+        latencies.recordValue(Math.max(1, latencyMicros));
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (requestCost != null) {
+            recordCost(requestCost);
+        }
+    }
+
+    /** Parses the backend's X-Request-Cost header, e.g. "firestore-reads=3, ... presigns=1". */
+    private void recordCost(String header) {
+        costSamples.increment();
+        for (String part : header.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                continue;
+            }
+            switch (pair[0]) {
+                case "firestore-reads" -> firestoreReads.add(Long.parseLong(pair[1]));
+                case "presigns" -> presigns.add(Long.parseLong(pair[1]));
+                default -> {
+                    // Not reported
+                }
+            }
+        }
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Map<Integer, LongAdder> statuses() {
+        return statuses;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+
+    /** Average Firestore documents read per request, or -1 if the backend sent no cost header. */
+    public double averageFirestoreReads() {
+        long samples = costSamples.sum();
+        return samples == 0 ? -1 : (double) firestoreReads.sum() / samples;
+    }
+
+    public double averagePresigns() {
+        long samples = costSamples.sum();
+        return samples == 0 ? -1 : (double) presigns.sum() / samples;
+    }
+}
@@ -0,0 +1,104 @@
+package com.courseverse.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Entry point: waits for the backend, resets and seeds the emulators, drives
+ * the workload and reports. Exits with status 1 when a regression gate fails.
+ */
+public final class LoadTest {
+
+    private static final Duration BACKEND_STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        EmulatorClient emulator = new EmulatorClient(http, options);
+
+        awaitBackend(http, options.baseUrl());
+
+        if (options.reset()) {
+            System.out.println("Resetting emulators for project " + options.projectId());
+            emulator.resetAll();
+        }
+        SeedData seed = new Seeder(options, emulator, http).seed();
+
+        System.out.printf("Running %d virtual users: %ds warm-up, %ds measured, mix %s%n",
+                options.virtualUsers(), options.warmup().toSeconds(), options.duration().toSeconds(),
+                options.mix());
+        if (options.faultsFile() != null) {
+            applyFaults(http, options, seed.admin());
+        }
+        Map<String, EndpointStats> stats;
+        try {
+            stats = new Workload(options, seed, http, emulator).run();
+        } finally {
+            if (options.faultsFile() != null) {
+                clearFaults(http, options, seed.admin());
+            }
+        }
+
+        boolean passed = new Report(options).publish(stats);
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static void applyFaults(HttpClient http, LoadTestOptions options, TestUser admin)
+            throws IOException, InterruptedException {
+        ObjectMapper json = new ObjectMapper();
+        for (JsonNode rule : json.readTree(new File(options.faultsFile()))) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl() + "/actuator/faults"))
+                    .header("Authorization", "Bearer " + admin.idToken())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(rule)))
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Could not apply fault rule " + rule + ": " + response.statusCode() + " "
+                        + response.body());
+            }
+            System.out.println("Applied fault rule: " + response.body());
+        }
+    }
+
+    private static void clearFaults(HttpClient http, LoadTestOptions options, TestUser admin)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl() + "/actuator/faults"))
+                .header("Authorization", "Bearer " + admin.idToken())
+                .DELETE()
+                .build();
+        http.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static void awaitBackend(HttpClient http, String baseUrl) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).GET().build();
+        long deadline = System.nanoTime() + BACKEND_STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (Exception e) {
+                // Not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Backend at " + baseUrl + " did not become ready within "
+                + BACKEND_STARTUP_TIMEOUT);
+    }
+}
@@ -0,0 +1,182 @@
+package com.courseverse.backend.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as --name=value (or a bare --flag for true).
+ * Every option has a default matching docker-compose.yml, so a bare run works
+ * against the local stack.
+ */
+public final class LoadTestOptions {
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals == -1) {
+                values.put(arg.substring(2), "true"); // Bare flag, e.g. --fetch-media
+            } else {
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return new LoadTestOptions(values);
+    }
+
+    // --- Targets ---
+
+    public String baseUrl() {
+        return string("base-url", "http://localhost:8080");
+    }
+
+    public String firestoreEmulator() {
+        return string("firestore-emulator", "localhost:8081");
+    }
+
+    public String authEmulator() {
+        return string("auth-emulator", "localhost:9099");
+    }
+
+    public String projectId() {
+        return string("project", "courseverse-loadtest");
+    }
+
+    // --- Seeding ---
+
+    /** Wipes both emulators before seeding; seeding twice would collide on emails. */
+    public boolean reset() {
+        return bool("reset", true);
+    }
+
+    public long randomSeed() {
+        return integer("random-seed", 42);
+    }
+
+    public int students() {
+        return integer("students", 200);
+    }
+
+    public int instructors() {
+        return integer("instructors", 10);
+    }
+
+    public int courses() {
+        return integer("courses", 100);
+    }
+
+    public int modulesPerCourse() {
+        return integer("modules", 5);
+    }
+
+    public int lessonsPerModule() {
+        return integer("lessons", 8);
+    }
+
+    public int enrollmentsPerStudent() {
+        return integer("enrollments-per-student", 3);
+    }
+
+    public int mediaObjects() {
+        return integer("media-objects", 5);
+    }
+
+    public int mediaSizeKb() {
+        return integer("media-size-kb", 512);
+    }
+
+    // --- Workload ---
+
+    public int virtualUsers() {
+        return integer("virtual-users", 50);
+    }
+
+    public Duration warmup() {
+        return Duration.ofSeconds(integer("warmup-seconds", 10));
+    }
+
+    public Duration duration() {
+        return Duration.ofSeconds(integer("duration-seconds", 60));
+    }
+
+    public long thinkTimeMillis() {
+        return integer("think-time-ms", 100);
+    }
+
+    public boolean fetchMedia() {
+        return bool("fetch-media", true);
+    }
+
+    /**
+     * Relative weights of each scenario, e.g.
+     * --mix=browse-catalog:50,view-course:20,my-courses:10,enroll:5,play-lesson:15
+     */
+    public Map<String, Integer> mix() {
+        String raw = string("mix", "browse-catalog:50,view-course:20,my-courses:10,enroll:5,play-lesson:15");
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : raw.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            mix.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * JSON array of fault rules posted to the backend's /actuator/faults before
+     * the run and removed after it (requires app.faults.enabled=true).
+     */
+    public String faultsFile() {
+        return string("faults-file", null);
+    }
+
+    // --- Reporting and gates ---
+
+    public String reportFile() {
+        return string("report", "target/loadtest-report.json");
+    }
+
+    public String baselineFile() {
+        return string("baseline", null);
+    }
+
+    /** Allowed relative p95 slowdown or throughput drop against the baseline. */
+    public double tolerance() {
+        return Double.parseDouble(string("tolerance", "0.20"));
+    }
+
+    public double maxErrorRate() {
+        return Double.parseDouble(string("max-error-rate", "0.01"));
+    }
+
+    /** Fails the run if any endpoint's p99 exceeds this; 0 disables the check. */
+    public long maxP99Millis() {
+        return integer("max-p99-ms", 0);
+    }
+
+    private String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    private int integer(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private boolean bool(String name, boolean defaultValue) {
+        String value = values.get(name);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
@@ -0,0 +1,140 @@
+package com.courseverse.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints per-endpoint throughput and latency percentiles, writes them as JSON
+ * and applies the regression gates: overall error rate, optional p99 ceiling,
+ * and an optional comparison against a previous report used as baseline.
+ */
+public class Report {
+
+    public record EndpointResult(String endpoint, long requests, long errors, double throughputPerSecond,
+            double p50Ms, double p90Ms, double p95Ms, double p99Ms, double maxMs,
+            double avgFirestoreReads, double avgPresigns, Map<Integer, Long> statuses) {
+    }
+
+    private final LoadTestOptions options;
+    private final ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public Report(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    /** Returns true when every gate passed. */
+    public boolean publish(Map<String, EndpointStats> stats) throws IOException {
+        double seconds = options.duration().toMillis() / 1000.0;
+        List<EndpointResult> results = new ArrayList<>();
+        for (EndpointStats s : stats.values()) {
+            Map<Integer, Long> statuses = new TreeMap<>();
+            s.statuses().forEach((status, count) -> statuses.put(status, count.sum()));
+            results.add(new EndpointResult(s.endpoint(), s.requests(), s.errors(), s.requests() / seconds,
+                    s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(95),
+                    s.percentileMillis(99), s.maxMillis(), s.averageFirestoreReads(), s.averagePresigns(),
+                    statuses));
+        }
+        results.sort(Comparator.comparing(EndpointResult::endpoint));
+
+        printTable(results);
+        Path reportPath = Path.of(options.reportFile());
+        if (reportPath.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        }
+        json.writeValue(reportPath.toFile(), results);
+        System.out.println("Report written to " + reportPath);
+
+        boolean passed = checkErrorRate(results);
+        passed &= checkP99(results);
+        if (options.baselineFile() != null) {
+            passed &= compareWithBaseline(results, Path.of(options.baselineFile()));
+        }
+        return passed;
+    }
+
+    private void printTable(List<EndpointResult> results) {
+        System.out.printf("%n%-86s %8s %6s %8s %8s %8s %8s %8s %8s %6s %6s%n", "endpoint", "requests",
+                "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms", "reads", "signs");
+        for (EndpointResult r : results) {
+            System.out.printf("%-86s %8d %6d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %6s %6s%n", r.endpoint(),
+                    r.requests(), r.errors(), r.throughputPerSecond(), r.p50Ms(), r.p90Ms(), r.p95Ms(), r.p99Ms(),
+                    r.maxMs(), cost(r.avgFirestoreReads()), cost(r.avgPresigns()));
+        }
+        System.out.println();
+    }
+
+    private static String cost(double average) {
+        return average < 0 ? "-" : String.format("%.1f", average);
+    }
+
+    private boolean checkErrorRate(List<EndpointResult> results) {
+        long requests = results.stream().mapToLong(EndpointResult::requests).sum();
+        long errors = results.stream().mapToLong(EndpointResult::errors).sum();
+        double rate = requests == 0 ? 1.0 : (double) errors / requests;
+        if (rate > options.maxErrorRate()) {
+            System.out.printf("FAIL: error rate %.2f%% exceeds %.2f%% (%d of %d requests)%n",
+                    rate * 100, options.maxErrorRate() * 100, errors, requests);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean checkP99(List<EndpointResult> results) {
+        if (options.maxP99Millis() <= 0) {
+            return true;
+        }
+        boolean passed = true;
+        for (EndpointResult r : results) {
+            if (r.p99Ms() > options.maxP99Millis()) {
+                System.out.printf("FAIL: %s p99 %.1f ms exceeds %d ms%n", r.endpoint(), r.p99Ms(),
+                        options.maxP99Millis());
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    private boolean compareWithBaseline(List<EndpointResult> results, Path baselinePath) throws IOException {
+        Map<String, JsonNode> baseline = new LinkedHashMap<>();
+        for (JsonNode node : json.readTree(baselinePath.toFile())) {
+            baseline.put(node.path("endpoint").asText(), node);
+        }
+
+        boolean passed = true;
+        for (EndpointResult r : results) {
+            JsonNode before = baseline.get(r.endpoint());
+            if (before == null) {
+                continue;
+            }
+            double p95Before = before.path("p95Ms").asDouble();
+            double throughputBefore = before.path("throughputPerSecond").asDouble();
+            if (p95Before > 0 && r.p95Ms() > p95Before * (1 + options.tolerance())) {
+                System.out.printf("REGRESSION: %s p95 %.1f ms -> %.1f ms%n", r.endpoint(), p95Before, r.p95Ms());
+                passed = false;
+            }
+            if (throughputBefore > 0 && r.throughputPerSecond() < throughputBefore * (1 - options.tolerance())) {
+                System.out.printf("REGRESSION: %s throughput %.1f -> %.1f req/s%n", r.endpoint(),
+                        throughputBefore, r.throughputPerSecond());
+                passed = false;
+            }
+            double readsBefore = before.path("avgFirestoreReads").asDouble(-1);
+            if (readsBefore >= 0 && r.avgFirestoreReads() > readsBefore + 0.5) {
+                System.out.printf("REGRESSION: %s Firestore reads per request %.1f -> %.1f%n", r.endpoint(),
+                        readsBefore, r.avgFirestoreReads());
+                passed = false;
+            }
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,16 @@
+package com.courseverse.backend.loadtest;
+
+import java.util.List;
+
+/**
+ * What the seeder created, so the workload can build valid requests.
+ */
+public record SeedData(List<TestUser> students, List<TestUser> instructors, TestUser admin,
+        List<SeededCourse> courses) {
+
+    public record SeededCourse(String courseId, List<SeededModule> modules) {
+    }
+
+    public record SeededModule(String moduleId, List<String> lessonIds) {
+    }
+}
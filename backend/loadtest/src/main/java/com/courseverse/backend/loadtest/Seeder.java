@@ -0,0 +1,253 @@
+package com.courseverse.backend.loadtest;
+
+import com.courseverse.backend.loadtest.SeedData.SeededCourse;
+import com.courseverse.backend.loadtest.SeedData.SeededModule;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Creates synthetic users, media, courses and enrollments at the configured
+ * scale. Accounts go through the Auth emulator (which mints their tokens),
+ * media through the backend's own presigned upload flow, and documents are
+ * written straight into the Firestore emulator in batches.
+ */
+public class Seeder {
+
+    private static final int BATCH_SIZE = 400; // Firestore allows 500 writes per batch
+    private static final int SIGN_UP_CONCURRENCY = 32;
+    private static final String PASSWORD = "loadtest-password";
+
+    private final LoadTestOptions options;
+    private final EmulatorClient emulator;
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final Random random;
+
+    public Seeder(LoadTestOptions options, EmulatorClient emulator, HttpClient http) {
+        this.options = options;
+        this.emulator = emulator;
+        this.http = http;
+        this.random = new Random(options.randomSeed());
+    }
+
+    public SeedData seed() throws Exception {
+        List<TestUser> students = signUpAll("student", options.students(), "ROLE_STUDENT");
+        List<TestUser> instructors = signUpAll("instructor", options.instructors(), "ROLE_INSTRUCTOR");
+        TestUser admin = signUpAll("admin", 1, "ROLE_ADMIN").get(0); // Drives /actuator/faults
+        System.out.printf("Created %d students and %d instructors%n", students.size(), instructors.size());
+
+        try (Firestore firestore = FirestoreOptions.newBuilder()
+                .setProjectId(options.projectId())
+                .setEmulatorHost(options.firestoreEmulator())
+                .setCredentials(NoCredentials.getInstance())
+                .build()
+                .getService()) {
+
+            writeUsers(firestore, students);
+            writeUsers(firestore, instructors);
+            writeUsers(firestore, List.of(admin));
+
+            // Uploading needs the instructor role to already be in Firestore
+            List<String> mediaKeys = uploadMedia(instructors.get(0));
+            System.out.printf("Uploaded %d media objects%n", mediaKeys.size());
+
+            List<SeededCourse> courses = new ArrayList<>();
+            Map<String, Map<String, Object>> courseDocuments = new LinkedHashMap<>();
+            for (int i = 0; i < options.courses(); i++) {
+                TestUser instructor = instructors.get(i % instructors.size());
+                String courseId = "loadtest-course-" + i;
+                courseDocuments.put(courseId, course(i, instructor, mediaKeys, courses));
+            }
+
+            Map<String, Integer> enrollmentCounts = new HashMap<>();
+            List<Map<String, Object>> enrollments = enrollments(students, courses, enrollmentCounts);
+            courseDocuments.forEach((id, doc) -> doc.put("enrollmentCount", enrollmentCounts.getOrDefault(id, 0)));
+
+            writeDocuments(firestore.collection("courses"), courseDocuments);
+            writeAutoIdDocuments(firestore.collection("enrollments"), enrollments);
+            System.out.printf("Wrote %d courses and %d enrollments%n", courses.size(), enrollments.size());
+
+            return new SeedData(students, instructors, admin, courses);
+        }
+    }
+
+    private List<TestUser> signUpAll(String prefix, int count, String role) throws Exception {
+        Semaphore permits = new Semaphore(SIGN_UP_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<TestUser>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String email = prefix + "-" + i + "@loadtest.courseverse.local";
+                String displayName = "Load Test " + prefix + " " + i;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return emulator.signUp(email, PASSWORD, displayName, role);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<TestUser> users = new ArrayList<>(count);
+            for (Future<TestUser> future : futures) {
+                users.add(future.get());
+            }
+            return users;
+        }
+    }
+
+    private void writeUsers(Firestore firestore, List<TestUser> users)
+            throws ExecutionException, InterruptedException {
+        Map<String, Map<String, Object>> documents = new LinkedHashMap<>();
+        for (TestUser user : users) {
+            Map<String, Object> document = new HashMap<>();
+            document.put("email", user.email());
+            document.put("displayName", user.displayName());
+            document.put("roles", List.of(user.role()));
+            documents.put(user.uid(), document);
+        }
+        writeDocuments(firestore.collection("users"), documents);
+    }
+
+    private List<String> uploadMedia(TestUser instructor) throws IOException, InterruptedException {
+        byte[] content = new byte[options.mediaSizeKb() * 1024];
+        random.nextBytes(content);
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < options.mediaObjects(); i++) {
+            HttpRequest presign = HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/v1/uploads/presign-url"))
+                    .header("Authorization", "Bearer " + instructor.idToken())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            json.writeValueAsString(Map.of("fileName", "loadtest-" + i + ".mp4"))))
+                    .build();
+            HttpResponse<String> presignResponse = http.send(presign, HttpResponse.BodyHandlers.ofString());
+            if (presignResponse.statusCode() != 200) {
+                throw new IOException("Presign failed with " + presignResponse.statusCode() + ": "
+                        + presignResponse.body());
+            }
+            JsonNode signed = json.readTree(presignResponse.body());
+
+            HttpRequest put = HttpRequest.newBuilder(URI.create(signed.path("url").asText()))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(content))
+                    .build();
+            HttpResponse<Void> putResponse = http.send(put, HttpResponse.BodyHandlers.discarding());
+            if (putResponse.statusCode() / 100 != 2) {
+                throw new IOException("Upload to the S3 stand-in failed with " + putResponse.statusCode());
+            }
+            keys.add(signed.path("objectKey").asText());
+        }
+        return keys;
+    }
+
+    private Map<String, Object> course(int index, TestUser instructor, List<String> mediaKeys,
+            List<SeededCourse> seeded) {
+        String courseId = "loadtest-course-" + index;
+        List<Map<String, Object>> modules = new ArrayList<>();
+        List<SeededModule> seededModules = new ArrayList<>();
+
+        for (int m = 0; m < options.modulesPerCourse(); m++) {
+            String moduleId = courseId + "-module-" + m;
+            List<Map<String, Object>> lessons = new ArrayList<>();
+            List<String> lessonIds = new ArrayList<>();
+            for (int l = 0; l < options.lessonsPerModule(); l++) {
+                String lessonId = moduleId + "-lesson-" + l;
+                Map<String, Object> lesson = new HashMap<>();
+                lesson.put("lessonId", lessonId);
+                lesson.put("title", "Lesson " + l);
+                lesson.put("videoUrl", mediaKeys.isEmpty() ? null : mediaKeys.get(random.nextInt(mediaKeys.size())));
+                lesson.put("textContent", "Synthetic lesson notes. ".repeat(40));
+                lessons.add(lesson);
+                lessonIds.add(lessonId);
+            }
+            Map<String, Object> module = new HashMap<>();
+            module.put("moduleId", moduleId);
+            module.put("title", "Module " + m);
+            module.put("lessons", lessons);
+            modules.add(module);
+            seededModules.add(new SeededModule(moduleId, lessonIds));
+        }
+
+        Map<String, Object> course = new HashMap<>();
+        course.put("title", "Load Test Course " + index);
+        course.put("description", "Synthetic course used for load testing. ".repeat(5));
+        course.put("instructorId", instructor.uid());
+        course.put("instructorName", instructor.displayName());
+        course.put("modules", modules);
+        course.put("thumbnailObjectKey", mediaKeys.isEmpty() ? null : mediaKeys.get(index % mediaKeys.size()));
+        course.put("publishStatus", "Published");
+        seeded.add(new SeededCourse(courseId, seededModules));
+        return course;
+    }
+
+    private List<Map<String, Object>> enrollments(List<TestUser> students, List<SeededCourse> courses,
+            Map<String, Integer> enrollmentCounts) {
+        List<Map<String, Object>> enrollments = new ArrayList<>();
+        List<SeededCourse> shuffled = new ArrayList<>(courses);
+        int perStudent = Math.min(options.enrollmentsPerStudent(), courses.size());
+
+        for (TestUser student : students) {
+            Collections.shuffle(shuffled, random);
+            for (SeededCourse course : shuffled.subList(0, perStudent)) {
+                Map<String, Object> enrollment = new HashMap<>();
+                enrollment.put("userId", student.uid());
+                enrollment.put("courseId", course.courseId());
+                enrollment.put("enrolledAt", new Date());
+                enrollment.put("progress", 0.0);
+                enrollments.add(enrollment);
+                student.enrolledCourseIds().add(course.courseId());
+                enrollmentCounts.merge(course.courseId(), 1, Integer::sum);
+            }
+        }
+        return enrollments;
+    }
+
+    private void writeDocuments(CollectionReference collection, Map<String, Map<String, Object>> documents)
+            throws ExecutionException, InterruptedException {
+        WriteBatch batch = collection.getFirestore().batch();
+        int pending = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : documents.entrySet()) {
+            batch.set(collection.document(entry.getKey()), entry.getValue());
+            if (++pending == BATCH_SIZE) {
+                batch.commit().get();
+                batch = collection.getFirestore().batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            batch.commit().get();
+        }
+    }
+
+    private void writeAutoIdDocuments(CollectionReference collection, List<Map<String, Object>> documents)
+            throws ExecutionException, InterruptedException {
+        Map<String, Map<String, Object>> withIds = new LinkedHashMap<>();
+        for (Map<String, Object> document : documents) {
+            withIds.put(collection.document().getId(), document);
+        }
+        writeDocuments(collection, withIds);
+    }
+}
@@ -0,0 +1,68 @@
+package com.courseverse.backend.loadtest;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A synthetic Auth emulator account. Students remember which courses they are
+ * enrolled in so the workload only plays lessons they may access.
+ */
+public class TestUser {
+
+    private final String uid;
+    private final String email;
+    private final String displayName;
+    private final String role;
+    private final Set<String> enrolledCourseIds = ConcurrentHashMap.newKeySet();
+
+    private volatile String idToken;
+    private volatile String refreshToken;
+    private volatile long tokenMintedAtMillis;
+
+    public TestUser(String uid, String email, String displayName, String role, String idToken,
+            String refreshToken) {
+        this.uid = uid;
+        this.email = email;
+        this.displayName = displayName;
+        this.role = role;
+        updateTokens(idToken, refreshToken);
+    }
+
+    public void updateTokens(String idToken, String refreshToken) {
+        this.idToken = idToken;
+        this.refreshToken = refreshToken;
+        this.tokenMintedAtMillis = System.currentTimeMillis();
+    }
+
+    public long tokenAgeMillis() {
+        return System.currentTimeMillis() - tokenMintedAtMillis;
+    }
+
+    public String uid() {
+        return uid;
+    }
+
+    public String email() {
+        return email;
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    public String role() {
+        return role;
+    }
+
+    public String idToken() {
+        return idToken;
+    }
+
+    public String refreshToken() {
+        return refreshToken;
+    }
+
+    public Set<String> enrolledCourseIds() {
+        return enrolledCourseIds;
+    }
+}
@@ -0,0 +1,261 @@
+package com.courseverse.backend.loadtest;
+
+import com.courseverse.backend.loadtest.SeedData.SeededCourse;
+import com.courseverse.backend.loadtest.SeedData.SeededModule;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop workload: each virtual user is a student who repeatedly picks a
+ * scenario by weight, runs it and pauses for a randomized think time.
+ * Requests made during the warm-up are sent but not recorded.
+ *
+ * Scenarios:
+ * - browse-catalog: anonymous GET /api/v1/courses
+ * - view-course: anonymous GET /api/v1/courses/{courseId}
+ * - my-courses: GET /api/v1/student/my-courses
+ * - enroll: POST /api/v1/student/enroll/{courseId} into a course not yet taken
+ * - play-lesson: GET lesson content, then (with --fetch-media) a ranged GET of
+ * the presigned video URL, like a player starting playback
+ * - progress: POST /api/v1/student/courses/{courseId}/progress, a playback
+ * heartbeat at a random position in an enrolled course's lesson
+ */
+public class Workload {
+
+    private static final long TOKEN_REFRESH_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(50);
+    private static final int MEDIA_RANGE_BYTES = 256 * 1024;
+
+    private final LoadTestOptions options;
+    private final SeedData seed;
+    private final HttpClient http;
+    private final EmulatorClient emulator;
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final List<String> scenarios = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private volatile long measureFromNanos;
+    private volatile long stopAtNanos;
+
+    public Workload(LoadTestOptions options, SeedData seed, HttpClient http, EmulatorClient emulator) {
+        this.options = options;
+        this.seed = seed;
+        this.http = http;
+        this.emulator = emulator;
+
+        Map<String, Integer> mix = options.mix();
+        this.cumulativeWeights = new int[mix.size()];
+        int sum = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            sum += entry.getValue();
+            cumulativeWeights[scenarios.size()] = sum;
+            scenarios.add(entry.getKey());
+        }
+        this.totalWeight = sum;
+    }
+
+    /** Runs warm-up plus measurement and returns the stats per endpoint. */
+    public Map<String, EndpointStats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + options.warmup().toNanos();
+        stopAtNanos = measureFromNanos + options.duration().toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.virtualUsers(); i++) {
+                TestUser student = seed.students().get(i % seed.students().size());
+                SplittableRandom random = new SplittableRandom(options.randomSeed() + i);
+                executor.submit(() -> virtualUser(student, random));
+            }
+        } // Waits for every virtual user to finish its last iteration
+        return stats;
+    }
+
+    private void virtualUser(TestUser student, SplittableRandom random) {
+        while (System.nanoTime() < stopAtNanos) {
+            try {
+                refreshTokenIfNeeded(student);
+                runScenario(pickScenario(random), student, random);
+                long think = options.thinkTimeMillis();
+                if (think > 0) {
+                    Thread.sleep(think / 2 + random.nextLong(think + 1)); // 0.5x to 1.5x
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Already recorded as an error by send(); keep the user going
+            }
+        }
+    }
+
+    private String pickScenario(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void runScenario(String scenario, TestUser student, SplittableRandom random)
+            throws IOException, InterruptedException {
+        switch (scenario) {
+            case "browse-catalog" -> send("GET /api/v1/courses", get("/api/v1/courses", null), 200);
+            case "view-course" -> {
+                SeededCourse course = randomCourse(random);
+                send("GET /api/v1/courses/{courseId}", get("/api/v1/courses/" + course.courseId(), null), 200);
+            }
+            case "my-courses" -> send("GET /api/v1/student/my-courses",
+                    get("/api/v1/student/my-courses", student), 200);
+            case "enroll" -> enroll(student, random);
+            case "play-lesson" -> playLesson(student, random);
+            case "progress" -> sendProgress(student, random);
+            default -> throw new IllegalArgumentException("Unknown scenario in --mix: " + scenario);
+        }
+    }
+
+    private void enroll(TestUser student, SplittableRandom random) throws IOException, InterruptedException {
+        SeededCourse course = randomCourse(random);
+        for (int attempt = 0; attempt < 5 && student.enrolledCourseIds().contains(course.courseId()); attempt++) {
+            course = randomCourse(random);
+        }
+        HttpRequest request = authorized(HttpRequest.newBuilder(
+                URI.create(options.baseUrl() + "/api/v1/student/enroll/" + course.courseId())), student)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        // 409 means this student already took the course: expected, not an error
+        HttpResponse<byte[]> response = send("POST /api/v1/student/enroll/{courseId}", request, 200, 201, 409);
+        if (response != null && response.statusCode() / 100 == 2) {
+            student.enrolledCourseIds().add(course.courseId());
+        }
+    }
+
+    private void playLesson(TestUser student, SplittableRandom random) throws IOException, InterruptedException {
+        List<String> enrolled = new ArrayList<>(student.enrolledCourseIds());
+        if (enrolled.isEmpty()) {
+            enroll(student, random);
+            return;
+        }
+        String courseId = enrolled.get(random.nextInt(enrolled.size()));
+        SeededCourse course = seed.courses().stream()
+                .filter(c -> c.courseId().equals(courseId))
+                .findFirst()
+                .orElseThrow();
+        SeededModule module = course.modules().get(random.nextInt(course.modules().size()));
+        String lessonId = module.lessonIds().get(random.nextInt(module.lessonIds().size()));
+
+        HttpResponse<byte[]> response = send(
+                "GET /api/v1/student/courses/{courseId}/modules/{moduleId}/lessons/{lessonId}/content",
+                get("/api/v1/student/courses/" + courseId + "/modules/" + module.moduleId()
+                        + "/lessons/" + lessonId + "/content", student),
+                200);
+        if (!options.fetchMedia() || response == null || response.statusCode() != 200) {
+            return;
+        }
+
+        JsonNode content = json.readTree(response.body());
+        String videoUrl = content.path("videoUrl").asText(null);
+        if (videoUrl != null) {
+            HttpRequest media = HttpRequest.newBuilder(URI.create(videoUrl))
+                    .header("Range", "bytes=0-" + (MEDIA_RANGE_BYTES - 1))
+                    .GET()
+                    .build();
+            send("GET media (first range)", media, 200, 206);
+        }
+    }
+
+    private void sendProgress(TestUser student, SplittableRandom random) throws IOException, InterruptedException {
+        List<String> enrolled = new ArrayList<>(student.enrolledCourseIds());
+        if (enrolled.isEmpty()) {
+            enroll(student, random);
+            return;
+        }
+        String courseId = enrolled.get(random.nextInt(enrolled.size()));
+        SeededCourse course = seed.courses().stream()
+                .filter(c -> c.courseId().equals(courseId))
+                .findFirst()
+                .orElseThrow();
+        SeededModule module = course.modules().get(random.nextInt(course.modules().size()));
+        String lessonId = module.lessonIds().get(random.nextInt(module.lessonIds().size()));
+
+        byte[] body = json.writeValueAsBytes(Map.of(
+                "lessonId", lessonId,
+                "positionSeconds", random.nextInt(600),
+                "durationSeconds", 600));
+        HttpRequest request = authorized(HttpRequest.newBuilder(
+                URI.create(options.baseUrl() + "/api/v1/student/courses/" + courseId + "/progress")), student)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        send("POST /api/v1/student/courses/{courseId}/progress", request, 202);
+    }
+
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest request, int... expectedStatuses)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            record(endpoint, start, 0, true, null);
+            throw e;
+        }
+
+        boolean expected = false;
+        for (int status : expectedStatuses) {
+            expected |= response.statusCode() == status;
+        }
+        record(endpoint, start, response.statusCode(), !expected,
+                response.headers().firstValue("X-Request-Cost").orElse(null));
+        return response;
+    }
+
+    private void record(String endpoint, long startNanos, int status, boolean error, String cost) {
+        long end = System.nanoTime();
+        if (startNanos < measureFromNanos || end > stopAtNanos) {
+            return; // Warm-up, or a straggler after the measurement window
+        }
+        stats.computeIfAbsent(endpoint, EndpointStats::new)
+                .record(TimeUnit.NANOSECONDS.toMicros(end - startNanos), status, error, cost);
+    }
+
+    private HttpRequest get(String path, TestUser user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + path)).GET();
+        return user == null ? builder.build() : authorized(builder, user).build();
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder, TestUser user) {
+        return builder.header("Authorization", "Bearer " + user.idToken());
+    }
+
+    private SeededCourse randomCourse(SplittableRandom random) {
+        return seed.courses().get(random.nextInt(seed.courses().size()));
+    }
+
+    private void refreshTokenIfNeeded(TestUser user) throws IOException, InterruptedException {
+        if (user.tokenAgeMillis() < TOKEN_REFRESH_AFTER_MILLIS) {
+            return;
+        }
+        synchronized (user) {
+            if (user.tokenAgeMillis() >= TOKEN_REFRESH_AFTER_MILLIS) {
+                emulator.refresh(user);
+            }
+        }
+    }
+}
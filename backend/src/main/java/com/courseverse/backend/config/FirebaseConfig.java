@@ -1,5 +1,6 @@
 package com.courseverse.backend.config;
 
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.firestore.Firestore;
 import com.google.firebase.FirebaseApp;
@@ -8,6 +9,8 @@ import com.google.firebase.cloud.FirestoreClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Profile;
 
 import javax.annotation.PostConstruct;
 import java.io.ByteArrayInputStream;
@@ -16,6 +19,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 @Configuration
+@ImportRuntimeHints(ModelRuntimeHints.class)
 public class FirebaseConfig {
 
     @Value("${app.firebase-config-file:}")
@@ -24,8 +28,16 @@ public class FirebaseConfig {
     @Value("${app.firebase-config-json:}")
     private String firebaseConfigJson;
 
+    @Value("${app.firebase-project-id:courseverse-local}")
+    private String emulatorProjectId;
+
     @PostConstruct
     public void initialize() {
+        if (isEmulatorConfigured()) {
+            initializeForEmulators();
+            return;
+        }
+
         try {
             InputStream serviceAccount;
             
@@ -61,8 +73,33 @@ public class FirebaseConfig {
         }
     }
 
+    /**
+     * The Firebase SDKs switch to the local emulators when these environment
+     * variables are set (see the load-test harness in /backend/loadtest).
+     */
+    private boolean isEmulatorConfigured() {
+        return System.getenv("FIRESTORE_EMULATOR_HOST") != null
+                || System.getenv("FIREBASE_AUTH_EMULATOR_HOST") != null;
+    }
+
+    private void initializeForEmulators() {
+        // The emulators ignore credentials, but the SDK still needs some and a project id
+        System.out.println("Firebase emulators detected, using project: " + emulatorProjectId);
+        FirebaseOptions options = FirebaseOptions.builder()
+                .setCredentials(GoogleCredentials.create(new AccessToken("owner", null)))
+                .setProjectId(emulatorProjectId)
+                .build();
+
+        if (FirebaseApp.getApps().isEmpty()) {
+            FirebaseApp.initializeApp(options);
+            System.out.println("Firebase app initialized against the emulators.");
+        }
+    }
+
     // --- ADD THIS NEW METHOD ---
+    // Not created under the "in-memory" profile, where no repository needs it
     @Bean
+    @Profile("!in-memory")
     public Firestore firestore() {
         // This bean provides the Firestore client to other parts of the app
         return FirestoreClient.getFirestore();
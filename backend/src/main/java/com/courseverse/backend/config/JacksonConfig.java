@@ -0,0 +1,34 @@
+package com.courseverse.backend.config;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.User;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets responses leave out Course and User properties the client did not
+ * select with ?fields=. Both types are tied to a property filter through a
+ * mix-in, so the model classes stay free of Jackson annotations; without a
+ * filter for a write (the usual case) every property is written.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /** Id of the property filter that fields= selections are applied through. */
+    public static final String SPARSE_FIELDS_FILTER = "sparseFields";
+
+    @JsonFilter(SPARSE_FIELDS_FILTER)
+    private interface SparseFieldsMixIn {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(Course.class, SparseFieldsMixIn.class)
+                .mixIn(User.class, SparseFieldsMixIn.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
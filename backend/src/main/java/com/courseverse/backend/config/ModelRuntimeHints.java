@@ -0,0 +1,50 @@
+package com.courseverse.backend.config;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Enrollment;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.model.User;
+import com.courseverse.backend.repository.CourseRepository;
+import com.courseverse.backend.repository.EnrollmentRepository;
+import com.courseverse.backend.repository.ObjectReferenceRepository;
+import com.courseverse.backend.repository.UserRepository;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.core.DecoratingProxy;
+
+/**
+ * Reflection and proxy hints for the AOT-processed build (the fast-start Maven
+ * profile), covering what Spring cannot infer from bean definitions:
+ *
+ * - Firestore's CustomClassMapper builds models reflectively, through their
+ * no-arg constructors, getters/setters and annotated fields (@DocumentId, @ServerTimestamp), for
+ * toObject() and for set()/add() writes. Nested modules and lessons are only
+ * reachable through generic List fields, so every model is listed.
+ * - FaultInjectionPostProcessor wraps repositories in JDK proxies of their
+ * interfaces.
+ */
+public class ModelRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] MODELS = { Course.class, Module.class, Lesson.class, Enrollment.class,
+            User.class };
+
+    private static final Class<?>[] PROXIED_REPOSITORIES = { CourseRepository.class, EnrollmentRepository.class,
+            UserRepository.class, ObjectReferenceRepository.class };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> model : MODELS) {
+            hints.reflection().registerType(model,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        for (Class<?> repository : PROXIED_REPOSITORIES) {
+            hints.proxies().registerJdkProxy(repository, SpringProxy.class, Advised.class, DecoratingProxy.class);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.courseverse.backend.config;
+
+import com.courseverse.backend.service.PreSerializedJson;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes pre-serialized JSON bodies straight to the response, with an exact
+ * Content-Length, instead of handing them to Jackson. Write-only.
+ */
+public class PreSerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<PreSerializedJson.Body> {
+
+    public PreSerializedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreSerializedJson.Body.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreSerializedJson.Body readInternal(Class<? extends PreSerializedJson.Body> clazz,
+            HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pre-serialized JSON cannot be read", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PreSerializedJson.Body body, MediaType contentType) {
+        return body.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(PreSerializedJson.Body body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
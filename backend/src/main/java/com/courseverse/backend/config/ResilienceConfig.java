@@ -0,0 +1,17 @@
+package com.courseverse.backend.config;
+
+import com.courseverse.backend.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker firestoreCircuitBreaker(
+            @Value("${app.firestore.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.firestore.circuit-breaker.open-duration-ms:10000}") long openDurationMs) {
+        return new CircuitBreaker("firestore", failureThreshold, openDurationMs);
+    }
+}
@@ -0,0 +1,27 @@
+package com.courseverse.backend.config;
+
+import com.courseverse.backend.tracing.InMemorySpanExporter;
+import com.courseverse.backend.tracing.LoggingSpanExporter;
+import com.courseverse.backend.tracing.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Chooses where finished spans go: "memory" (ring buffer, browsable at
+     * /actuator/spans), "log" (one line per span) or "none".
+     */
+    @Bean
+    public SpanExporter spanExporter(@Value("${app.tracing.exporter:memory}") String exporter,
+            @Value("${app.tracing.memory-capacity:10000}") int memoryCapacity) {
+        return switch (exporter) {
+            case "log" -> new LoggingSpanExporter();
+            case "none" -> span -> {
+            };
+            default -> new InMemorySpanExporter(memoryCapacity);
+        };
+    }
+}
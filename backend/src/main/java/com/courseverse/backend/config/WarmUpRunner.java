@@ -0,0 +1,215 @@
+package com.courseverse.backend.config;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.repository.CourseRepository;
+import com.courseverse.backend.service.CatalogCache;
+import com.courseverse.backend.service.CourseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.ImplFirebaseTrampolines;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Primes the cold paths of a starting instance before it takes traffic.
+ *
+ * Spring Boot only reports readiness (/actuator/health/readiness) as UP once
+ * every ApplicationRunner has returned, so this runner blocking on its steps
+ * keeps load balancers away until:
+ * - the Firestore gRPC channel is open (one document read)
+ * - Google's token-signing keys are cached by verifyIdToken
+ * - the catalog and the first courses are loaded and pre-serialized
+ * - S3 presigning and Jackson serialization have run enough to be compiled
+ *
+ * A failing step is logged and skipped; after timeout-ms the instance reports
+ * ready regardless, since serving cold beats not serving.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String PROBE_KEY = "warmup/probe";
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private final CourseRepository courseRepository;
+    private final CourseService courseService;
+    private final CatalogCache catalogCache;
+    private final S3Presigner s3Presigner;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String bucketName;
+    private final long timeoutMillis;
+    private final int iterations;
+    private final int preloadCourses;
+
+    public WarmUpRunner(CourseRepository courseRepository, CourseService courseService, CatalogCache catalogCache,
+            S3Presigner s3Presigner, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.aws.s3.bucket-name}") String bucketName,
+            @Value("${app.warmup.timeout-ms:60000}") long timeoutMillis,
+            @Value("${app.warmup.iterations:200}") int iterations,
+            @Value("${app.warmup.preload-courses:100}") int preloadCourses) {
+        this.courseRepository = courseRepository;
+        this.courseService = courseService;
+        this.catalogCache = catalogCache;
+        this.s3Presigner = s3Presigner;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.bucketName = bucketName;
+        this.timeoutMillis = timeoutMillis;
+        this.iterations = iterations;
+        this.preloadCourses = preloadCourses;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> steps = executor.submit(() -> {
+                step("firestore", () -> courseRepository.findById("warmup-probe"));
+                step("auth-keys", this::prefetchTokenKeys);
+                step("catalog", this::preloadCatalog);
+                step("jit", this::exerciseHotPaths);
+            });
+            steps.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            System.out.printf("Warm-up finished in %d ms, accepting traffic%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            System.err.println("Warm-up did not finish within " + timeoutMillis + " ms, accepting traffic anyway");
+        } catch (ExecutionException e) {
+            System.err.println("Warm-up failed: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void step(String name, Step step) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            step.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "error";
+        } catch (Exception e) {
+            outcome = "error";
+            System.err.println("Warm-up step '" + name + "' failed: " + e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("courseverse.warmup", "step", name, "outcome", outcome)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            System.out.printf("Warm-up step '%s': %s in %d ms%n", name, outcome,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * verifyIdToken downloads Google's public signing keys on first use. A
+     * well-formed token with a made-up key id passes the claim checks, makes
+     * the verifier fetch and cache those keys, and is then rejected.
+     */
+    private void prefetchTokenKeys() throws FirebaseAuthException {
+        String projectId = ImplFirebaseTrampolines.getProjectId(FirebaseApp.getInstance());
+        try {
+            FirebaseAuth.getInstance().verifyIdToken(probeToken(projectId));
+        } catch (FirebaseAuthException e) {
+            if (e.getAuthErrorCode() == AuthErrorCode.CERTIFICATE_FETCH_FAILED) {
+                throw e;
+            }
+            // Expected: the probe token's signature matches no real key
+        }
+    }
+
+    private static String probeToken(String projectId) {
+        long now = System.currentTimeMillis() / 1000;
+        String header = "{\"alg\":\"RS256\",\"kid\":\"warmup\",\"typ\":\"JWT\"}";
+        String payload = String.format("{\"aud\":\"%s\",\"iss\":\"https://securetoken.google.com/%s\","
+                + "\"sub\":\"warmup\",\"iat\":%d,\"exp\":%d,\"auth_time\":%d}",
+                projectId, projectId, now - 60, now + 300, now - 60);
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        return base64.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + base64.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + base64.encodeToString("warmup".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loads and pre-serializes the catalog, then caches the first courses from
+     * it under their own keys (the same data a per-course read would return)
+     * and pre-serializes those too, without a Firestore read per course.
+     */
+    private void preloadCatalog() {
+        courseService.lookupAllCoursesJson(0, true);
+        courseService.lookupAllCoursesJson(0, false);
+
+        CatalogCache.Lookup<List<Course>> catalog = catalogCache.peek(CatalogCache.CATALOG_KEY);
+        if (catalog == null) {
+            return;
+        }
+        long loadedAt = System.currentTimeMillis() - catalog.ageMillis();
+        for (Course course : catalog.value().stream().limit(preloadCourses).toList()) {
+            if (course.getUid() == null) {
+                continue;
+            }
+            catalogCache.seed(CatalogCache.courseKey(course.getUid()), Optional.of(course), loadedAt);
+            courseService.lookupCourseJsonById(course.getUid(), 0, true);
+            courseService.lookupCourseJsonById(course.getUid(), 0, false);
+        }
+    }
+
+    /**
+     * Runs SigV4 presigning and Jackson over a real course enough times for
+     * the JIT to compile them. Uses the presigner directly so these calls do
+     * not show up in S3 metrics.
+     */
+    private void exerciseHotPaths() throws Exception {
+        CatalogCache.Lookup<List<Course>> catalog = catalogCache.peek(CatalogCache.CATALOG_KEY);
+        Course sample = catalog != null && !catalog.value().isEmpty() ? catalog.value().get(0) : new Course();
+
+        GetObjectPresignRequest read = GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofHours(1))
+                .getObjectRequest(GetObjectRequest.builder().bucket(bucketName).key(PROBE_KEY).build())
+                .build();
+        PutObjectPresignRequest upload = PutObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(15))
+                .putObjectRequest(PutObjectRequest.builder().bucket(bucketName).key(PROBE_KEY).build())
+                .build();
+
+        for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+            s3Presigner.presignGetObject(read);
+            s3Presigner.presignPutObject(upload);
+            objectMapper.writeValueAsBytes(sample);
+        }
+    }
+}
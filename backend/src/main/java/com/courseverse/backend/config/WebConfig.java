@@ -1,12 +1,24 @@
 package com.courseverse.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -16,4 +28,15 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson, which would otherwise serialize the body as a bean
+        converters.add(0, new PreSerializedJsonHttpMessageConverter());
+        // CBOR for clients that ask for it (Accept: application/cbor), after the JSON converter so JSON stays
+        // the default. Spring's own CBOR converter uses a bare mapper; this one shares Boot's configuration,
+        // so both formats carry the same fields and date format.
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+    }
 }
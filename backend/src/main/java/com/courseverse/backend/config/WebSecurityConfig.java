@@ -1,6 +1,11 @@
 package com.courseverse.backend.config;
 
+import com.courseverse.backend.security.AdmissionControlFilter;
+import com.courseverse.backend.security.BulkheadFilter;
 import com.courseverse.backend.security.FirebaseJwtFilter;
+import com.courseverse.backend.security.MetricsScrapeFilter;
+import com.courseverse.backend.security.RateLimitFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -23,12 +28,21 @@ import org.springframework.beans.factory.annotation.Value;
 public class WebSecurityConfig {
 
     private final FirebaseJwtFilter firebaseJwtFilter;
+    private final AdmissionControlFilter admissionControlFilter;
+    private final BulkheadFilter bulkheadFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final MetricsScrapeFilter metricsScrapeFilter;
     
     @Value("${CORS_ALLOWED_ORIGINS:}")
     private String corsAllowedOrigins;
 
-    public WebSecurityConfig(FirebaseJwtFilter firebaseJwtFilter) {
+    public WebSecurityConfig(FirebaseJwtFilter firebaseJwtFilter, AdmissionControlFilter admissionControlFilter,
+            BulkheadFilter bulkheadFilter, RateLimitFilter rateLimitFilter, MetricsScrapeFilter metricsScrapeFilter) {
         this.firebaseJwtFilter = firebaseJwtFilter;
+        this.admissionControlFilter = admissionControlFilter;
+        this.bulkheadFilter = bulkheadFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.metricsScrapeFilter = metricsScrapeFilter;
     }
 
     @Bean
@@ -46,6 +60,15 @@ public class WebSecurityConfig {
         .authorizeHttpRequests(authz -> authz
                         // --- UPDATED RULES ---
                         .requestMatchers("/api/v1/courses/health").permitAll() // Old health check
+                        // Metrics reveal traffic and internals: admins, or a scraper holding
+                        // app.metrics.scrape-token (see MetricsScrapeFilter)
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, MetricsScrapeFilter.SCRAPE_PATH)
+                        .hasAnyAuthority("ROLE_ADMIN", MetricsScrapeFilter.METRICS_AUTHORITY)
+                        // Load balancer probes; /readiness stays down until WarmUpRunner is done
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/actuator/health",
+                                "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/spans").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/actuator/faults", "/actuator/faults/**").hasAuthority("ROLE_ADMIN")
             .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/v1/courses").permitAll() // Browse
                                                                                                                  // courses
@@ -59,11 +82,52 @@ public class WebSecurityConfig {
 
                 // Add our custom Firebase filter *before* the standard Spring authentication
                 // filter
-                .addFilterBefore(firebaseJwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(firebaseJwtFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Shed load globally before paying for token verification, then isolate the
+                // endpoint classes from each other so verification runs inside their bulkheads.
+                // The JWT filter rate limits token holders per uid before loading the user; the
+                // rate limit filter then covers anonymous callers per IP
+                .addFilterBefore(admissionControlFilter, FirebaseJwtFilter.class)
+                .addFilterBefore(bulkheadFilter, FirebaseJwtFilter.class)
+                .addFilterAfter(rateLimitFilter, FirebaseJwtFilter.class)
+                // A scraper's static token must be recognised before it is mistaken for a Firebase one
+                .addFilterBefore(metricsScrapeFilter, FirebaseJwtFilter.class);
 
         return http.build();
     }
 
+    // The load-shedding and scrape filters only belong in the security chain; stop Spring Boot
+    // from also registering them as plain servlet filters
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration() {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                admissionControlFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration() {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(bulkheadFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<MetricsScrapeFilter> metricsScrapeFilterRegistration() {
+        FilterRegistrationBean<MetricsScrapeFilter> registration = new FilterRegistrationBean<>(metricsScrapeFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -78,6 +142,9 @@ public class WebSecurityConfig {
         }
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Let browser clients read our cache and back-off headers
+        configuration.setExposedHeaders(List.of("Age", "X-Cache-Status", "Retry-After", "X-Request-Cost",
+                "traceparent"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -2,7 +2,10 @@ package com.courseverse.backend.controller;
 
 import com.courseverse.backend.model.User;
 import com.courseverse.backend.service.AdminService;
+import com.courseverse.backend.service.FieldSelection;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,10 +29,13 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("status", "Admin endpoint is running"));
     }
 
+    // fields: comma-separated user properties to return; only those are read from Firestore
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() throws ExecutionException, InterruptedException {
-        List<User> users = adminService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<MappingJacksonValue> getAllUsers(@RequestParam(required = false) String fields)
+            throws ExecutionException, InterruptedException {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.USER_FIELDS);
+        List<User> users = adminService.getAllUsers(selection);
+        return ResponseEntity.ok(WireFormats.select(users, selection));
     }
 
     @PutMapping("/users/{uid}/roles")
@@ -63,4 +69,9 @@ public class AdminController {
         adminService.deleteLesson(courseId, moduleId, lessonId);
         return ResponseEntity.ok(Map.of("message", "Lesson deleted successfully"));
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
 }
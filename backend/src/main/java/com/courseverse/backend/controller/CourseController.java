@@ -1,22 +1,32 @@
 package com.courseverse.backend.controller;
 
-import com.courseverse.backend.model.Course;
+import com.courseverse.backend.service.CatalogCache;
 import com.courseverse.backend.service.CourseService;
+import com.courseverse.backend.service.FieldSelection;
+import com.courseverse.backend.service.PreSerializedJson;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
-import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/courses") // --- UPDATED BASE PATH ---
 public class CourseController {
 
+    private static final String CACHE_STATUS_HEADER = "X-Cache-Status";
+
     private final CourseService courseService;
 
     public CourseController(CourseService courseService) {
@@ -24,15 +34,38 @@ public class CourseController {
     }
 
     // --- NEW PUBLIC ENDPOINT ---
+    // thumbWidth: display width of the card in pixels, to get a thumbnail resized to fit
+    // Accept: application/cbor gets the same data as CBOR, smaller and faster to parse on the device
+    // fields: comma-separated course properties to return, e.g. title,thumbnailUrl for cards
     @GetMapping
-    public ResponseEntity<List<Course>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<?> getAllCourses(
+            @RequestParam(defaultValue = "0") int thumbWidth,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.COURSE_FIELDS);
+        boolean cbor = WireFormats.prefersCbor(accept);
+        if (cbor || !selection.isAll()) {
+            return withCacheHeaders(courseService.lookupAllCourses(thumbWidth, selection), selection, cbor);
+        }
+        return withCacheHeaders(courseService.lookupAllCoursesJson(thumbWidth, acceptsGzip(acceptEncoding)));
     }
 
     // --- NEW PUBLIC ENDPOINT ---
     @GetMapping("/{courseId}")
-    public ResponseEntity<Course> getCourseById(@PathVariable String courseId) {
-        return ResponseEntity.ok(courseService.getCourseById(courseId));
+    public ResponseEntity<?> getCourseById(@PathVariable String courseId,
+            @RequestParam(defaultValue = "0") int thumbWidth,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.COURSE_FIELDS);
+        boolean cbor = WireFormats.prefersCbor(accept);
+        if (cbor || !selection.isAll()) {
+            return withCacheHeaders(courseService.lookupCourseById(courseId, thumbWidth, selection), selection,
+                    cbor);
+        }
+        return withCacheHeaders(
+                courseService.lookupCourseJsonById(courseId, thumbWidth, acceptsGzip(acceptEncoding)));
     }
 
     // --- We can keep these test endpoints for now, but move them ---
@@ -57,4 +90,64 @@ public class CourseController {
                 "message", "Welcome, Instructor!",
                 "your-uid", principal.getName()));
     }
+
+    /**
+     * Tells clients how old cached catalog data is, and whether it is being
+     * served stale because Firestore could not be reached. JSON bodies are
+     * pre-serialized, and gzipped up front when the client accepts it.
+     */
+    private ResponseEntity<PreSerializedJson.Body> withCacheHeaders(
+            CatalogCache.Lookup<PreSerializedJson.Body> lookup) {
+        ResponseEntity.BodyBuilder response = cacheHeaders(lookup).contentType(MediaType.APPLICATION_JSON);
+        if (lookup.value().gzip()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(lookup.value());
+    }
+
+    /**
+     * CBOR and field-filtered bodies are encoded per request by Jackson, as
+     * they vary too much to pre-serialize; CBOR and sparse JSON are compact
+     * enough to skip gzip.
+     */
+    private ResponseEntity<MappingJacksonValue> withCacheHeaders(CatalogCache.Lookup<?> lookup,
+            FieldSelection fields, boolean cbor) {
+        return cacheHeaders(lookup)
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .body(WireFormats.select(lookup.value(), fields));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    private static ResponseEntity.BodyBuilder cacheHeaders(CatalogCache.Lookup<?> lookup) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(lookup.ageMillis() / 1000))
+                .header(CACHE_STATUS_HEADER, lookup.stale() ? "STALE" : "FRESH")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /** True unless the client did not list gzip (or *) or gave it q=0. */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
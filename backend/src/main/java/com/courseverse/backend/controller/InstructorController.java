@@ -3,17 +3,22 @@ package com.courseverse.backend.controller;
 import com.courseverse.backend.dto.CourseCreationRequest;
 import com.courseverse.backend.model.Course;
 import com.courseverse.backend.service.CourseService;
+import com.courseverse.backend.service.FieldSelection;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/instructor")
@@ -36,10 +41,18 @@ public class InstructorController {
         return new ResponseEntity<>(newCourse, HttpStatus.CREATED);
     }
 
+    // fields: comma-separated course properties to return; only those are read from Firestore
     @GetMapping("/my-courses")
     @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
-    public ResponseEntity<List<Course>> getMyCourses(Principal principal) {
-        List<Course> courses = courseService.getCoursesByInstructor(principal);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<MappingJacksonValue> getMyCourses(
+            @RequestParam(required = false) String fields, Principal principal) {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.COURSE_FIELDS);
+        List<Course> courses = courseService.getCoursesByInstructor(principal, selection);
+        return ResponseEntity.ok(WireFormats.select(courses, selection));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
     }
 }
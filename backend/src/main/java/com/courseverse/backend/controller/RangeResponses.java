@@ -0,0 +1,155 @@
+package com.courseverse.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Range handling for responses whose body is produced by the controller
+ * (cached videos, course bundles): Accept-Ranges on every response, 206 with
+ * Content-Range for a satisfiable range, 416 for one past the end. Of a
+ * request for several ranges only the first is served, as a single 206 part
+ * under the same cap, rather than a multipart body players never ask for;
+ * the client asks again for the rest.
+ */
+final class RangeResponses {
+
+    // Tomcat's sendfile request attributes (the end is exclusive)
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** The part of the body to send. */
+    record Span(long start, long length) {
+        Span {
+            if (start < 0 || length < 0) {
+                throw new IllegalArgumentException("Invalid span of " + length + " bytes at " + start);
+            }
+        }
+    }
+
+    private RangeResponses() {
+    }
+
+    /**
+     * Sets status and headers for a body of the given size and returns the
+     * span to write, or null after answering 416. Ranges are capped at
+     * maxRangeBytes, so an open-ended "bytes=0-" need not tie up a request
+     * thread for the whole body; clients continue with the next range.
+     */
+    static Span begin(long size, MediaType contentType, String rangeHeader, long maxRangeBytes,
+            HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType.toString());
+
+        long start = 0;
+        long end = size - 1;
+        List<HttpRange> ranges = parse(rangeHeader);
+        if (!ranges.isEmpty()) {
+            HttpRange range = ranges.get(0);
+            start = rangeStart(range, size);
+            if (start < 0) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return null;
+            }
+            end = Math.min(range.getRangeEnd(size), start + Math.min(maxRangeBytes, size) - 1);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+
+        Span span = new Span(start, end - start + 1);
+        response.setContentLengthLong(span.length());
+        return span;
+    }
+
+    /** First byte begin() would send: that of the first requested range, or 0 without a usable one. */
+    static long start(String rangeHeader, long size) {
+        List<HttpRange> ranges = parse(rangeHeader);
+        if (ranges.isEmpty()) {
+            return 0;
+        }
+        // Unsatisfiable is answered with 416 without writing anything
+        return Math.max(0, rangeStart(ranges.get(0), size));
+    }
+
+    /**
+     * First byte of the range, or -1 if it starts at or past the end. Spring
+     * only rejects a start past the end on some versions, so check it here.
+     */
+    private static long rangeStart(HttpRange range, long size) {
+        try {
+            long start = range.getRangeStart(size);
+            return start < size ? start : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Sends the span of a file. When the connector supports it, Tomcat sends
+     * the span with sendfile after the handler returns, from the page cache
+     * straight to the socket. Tomcat opens the file by path then, so a file
+     * deleted in between fails the response; the client's retry is a fresh
+     * request. Otherwise the span is copied through the response stream.
+     */
+    static void writeFile(Path path, FileChannel file, Span span, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (span.length() > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            String fileName = canonicalName(path);
+            if (fileName != null) {
+                request.setAttribute(SENDFILE_FILENAME, fileName);
+                request.setAttribute(SENDFILE_START, span.start());
+                request.setAttribute(SENDFILE_END, span.start() + span.length());
+                return;
+            }
+        }
+
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = span.start();
+        long remaining = span.length();
+        while (remaining > 0) {
+            long written = file.transferTo(position, remaining, out);
+            if (written <= 0) {
+                throw new EOFException("File ended at " + position + ", expected " + remaining + " more bytes");
+            }
+            position += written;
+            remaining -= written;
+        }
+        response.flushBuffer();
+    }
+
+    /** The path Tomcat needs for sendfile, or null when the file is already gone. */
+    private static String canonicalName(Path path) {
+        try {
+            return path.toRealPath().toString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** The requested ranges; none for a missing or malformed header, which HTTP says to ignore. */
+    private static List<HttpRange> parse(String rangeHeader) {
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
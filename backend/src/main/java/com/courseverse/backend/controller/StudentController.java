@@ -1,16 +1,28 @@
 package com.courseverse.backend.controller;
 
 import com.courseverse.backend.dto.LessonContentResponse;
+import com.courseverse.backend.dto.ProgressHeartbeatRequest;
 import com.courseverse.backend.exception.AccessDeniedException;
 import com.courseverse.backend.model.Course;
 import com.courseverse.backend.model.Enrollment;
+import com.courseverse.backend.service.CourseBundleService;
 import com.courseverse.backend.service.CourseService;
 import com.courseverse.backend.service.EnrollmentService;
+import com.courseverse.backend.service.MediaCache;
+import com.courseverse.backend.service.ProgressBuffer;
+import com.courseverse.backend.service.S3Service;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +33,20 @@ public class StudentController {
 
     private final EnrollmentService enrollmentService;
     private final CourseService courseService;
+    private final ProgressBuffer progressBuffer;
+    private final MediaCache mediaCache;
+    private final S3Service s3Service;
+    private final CourseBundleService courseBundleService;
 
-    public StudentController(EnrollmentService enrollmentService, CourseService courseService) {
+    public StudentController(EnrollmentService enrollmentService, CourseService courseService,
+            ProgressBuffer progressBuffer, MediaCache mediaCache, S3Service s3Service,
+            CourseBundleService courseBundleService) {
         this.enrollmentService = enrollmentService;
         this.courseService = courseService;
+        this.progressBuffer = progressBuffer;
+        this.mediaCache = mediaCache;
+        this.s3Service = s3Service;
+        this.courseBundleService = courseBundleService;
     }
 
     @PostMapping("/enroll/{courseId}")
@@ -55,6 +77,92 @@ public class StudentController {
         return ResponseEntity.ok(content);
     }
 
+    /**
+     * Lesson video for use directly as a player source. Hot videos are served
+     * from the local disk cache with Range support; everything else (and
+     * everything when the cache is disabled) redirects to a presigned S3 URL.
+     */
+    @GetMapping("/courses/{courseId}/modules/{moduleId}/lessons/{lessonId}/video")
+    @PreAuthorize("hasAuthority('ROLE_STUDENT')")
+    public void streamLessonVideo(
+            @PathVariable String courseId,
+            @PathVariable String moduleId,
+            @PathVariable String lessonId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            Principal principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String objectKey = courseService.getLessonVideoKey(courseId, moduleId, lessonId, principal);
+        try (MediaCache.CachedObject cached = mediaCache.open(objectKey)) {
+            if (cached == null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store"); // The signed URL expires
+                response.sendRedirect(s3Service.generatePresignedReadUrl(objectKey));
+                return;
+            }
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=3600");
+            MediaType contentType = MediaTypeFactory.getMediaType(objectKey)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
+            RangeResponses.Span span = RangeResponses.begin(cached.size(), contentType, range,
+                    mediaCache.getMaxRangeBytes(), response);
+            if (span != null && !"HEAD".equals(request.getMethod())) {
+                RangeResponses.writeFile(cached.path(), cached.channel(), span, request, response);
+            }
+        }
+    }
+
+    /**
+     * The course (or, with ?lessons=a,b, just those lessons) as a ZIP for
+     * offline use, streamed as it is built. Interrupted downloads resume with
+     * Range and If-Range set to the ETag; see CourseBundleService.
+     */
+    @GetMapping("/courses/{courseId}/bundle")
+    @PreAuthorize("hasAuthority('ROLE_STUDENT')")
+    public void downloadCourseBundle(
+            @PathVariable String courseId,
+            @RequestParam(required = false) List<String> lessons,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            Principal principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Course course = courseService.getEnrolledCourse(courseId, principal);
+        CourseBundleService.Bundle bundle = courseBundleService.build(course, lessons);
+
+        response.setHeader(HttpHeaders.ETAG, bundle.eTag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-transform");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(bundle.fileName()).build().toString());
+        if (ifRange != null && !ifRange.equals(bundle.eTag())) {
+            range = null; // The course changed since the first part was downloaded, start over
+        } else if (!bundle.zip().isResumableAt(RangeResponses.start(range, bundle.zip().length()))) {
+            range = null; // A skipped video's CRC is unknown; sending it all beats reading it twice
+        }
+        RangeResponses.Span span = RangeResponses.begin(bundle.zip().length(), MediaType.valueOf("application/zip"),
+                range, Long.MAX_VALUE, response);
+        if (span != null && !"HEAD".equals(request.getMethod())) {
+            bundle.zip().write(response.getOutputStream(), span.start(), span.length());
+            response.flushBuffer();
+        }
+    }
+
+    /**
+     * Playback heartbeat, sent every few seconds while a lesson plays. The
+     * position is buffered and written to the enrollment in the background,
+     * hence 202 Accepted.
+     */
+    @PostMapping("/courses/{courseId}/progress")
+    @PreAuthorize("hasAuthority('ROLE_STUDENT')")
+    public ResponseEntity<Map<String, Double>> recordProgress(
+            @PathVariable String courseId,
+            @RequestBody ProgressHeartbeatRequest request,
+            Principal principal) {
+
+        double courseProgress = progressBuffer.record(principal.getName(), courseId, request);
+        return ResponseEntity.accepted().body(Map.of("courseProgress", courseProgress));
+    }
+
     // --- Add a custom exception handler for the "already enrolled" case ---
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Map<String, String>> handleIllegalState(IllegalStateException ex) {
@@ -0,0 +1,36 @@
+package com.courseverse.backend.controller;
+
+import com.courseverse.backend.dto.SyncResponse;
+import com.courseverse.backend.service.SyncService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // since: the token from the previous response; omit it for a full sync
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) String since, Principal principal) {
+        return ResponseEntity.ok(syncService.sync(since, principal));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -1,23 +1,49 @@
 package com.courseverse.backend.controller;
 
+import com.courseverse.backend.dto.ContentUploadRequest;
+import com.courseverse.backend.dto.ContentUploadResponse;
+import com.courseverse.backend.dto.MultipartCompleteRequest;
+import com.courseverse.backend.dto.MultipartPartUrlsRequest;
+import com.courseverse.backend.dto.MultipartUploadRequest;
+import com.courseverse.backend.dto.MultipartUploadResponse;
+import com.courseverse.backend.dto.PresignedPartUrl;
 import com.courseverse.backend.dto.SignedUrlRequest;
 import com.courseverse.backend.dto.SignedUrlResponse;
+import com.courseverse.backend.dto.UploadedPart;
+import com.courseverse.backend.exception.AccessDeniedException;
+import com.courseverse.backend.service.MultipartUploadService;
+import com.courseverse.backend.service.ObjectReferenceService;
 import com.courseverse.backend.service.S3Service;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
 @RestController
 @RequestMapping("/api/v1/uploads")
 public class UploadController {
 
     private final S3Service s3Service;
+    private final MultipartUploadService multipartUploadService;
+    private final ObjectReferenceService objectReferenceService;
 
-    public UploadController(S3Service s3Service) {
+    public UploadController(S3Service s3Service, MultipartUploadService multipartUploadService,
+            ObjectReferenceService objectReferenceService) {
         this.s3Service = s3Service;
+        this.multipartUploadService = multipartUploadService;
+        this.objectReferenceService = objectReferenceService;
     }
 
     @PostMapping("/presign-url")
@@ -28,4 +54,79 @@ public class UploadController {
         SignedUrlResponse response = s3Service.generatePresignedUploadUrl(request.getFileName());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Upload keyed by the file's SHA-256. When the same bytes were uploaded
+     * before, the existing key is returned with uploadRequired=false and the
+     * client skips the upload. Either way the key is leased until the course
+     * using it is created (app.uploads.content-lease-ms).
+     */
+    @PostMapping("/content-url")
+    @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
+    public ResponseEntity<ContentUploadResponse> getContentUploadUrl(
+            @RequestBody ContentUploadRequest request) throws ExecutionException, InterruptedException {
+
+        ContentUploadResponse response = objectReferenceService.generateContentUpload(request.getSha256(),
+                request.getContentType());
+        return ResponseEntity.ok(response);
+    }
+
+    // --- Multipart uploads, for videos too large for a single presigned PUT ---
+
+    @PostMapping("/multipart")
+    @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
+    public ResponseEntity<MultipartUploadResponse> initiateMultipartUpload(
+            @RequestBody MultipartUploadRequest request, Principal principal) {
+
+        MultipartUploadResponse response = multipartUploadService.initiate(principal.getName(),
+                request.getFileName(), request.getContentType(), request.getFileSize());
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/multipart/part-urls")
+    @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
+    public ResponseEntity<List<PresignedPartUrl>> getPartUrls(
+            @RequestBody MultipartPartUrlsRequest request, Principal principal) {
+
+        List<PresignedPartUrl> urls = multipartUploadService.presignParts(principal.getName(),
+                request.getObjectKey(), request.getUploadId(), request.getPartNumbers());
+        return ResponseEntity.ok(urls);
+    }
+
+    @GetMapping("/multipart/parts")
+    @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
+    public ResponseEntity<List<UploadedPart>> listUploadedParts(
+            @RequestParam String objectKey, @RequestParam String uploadId, Principal principal) {
+
+        return ResponseEntity.ok(multipartUploadService.listParts(principal.getName(), objectKey, uploadId));
+    }
+
+    @PostMapping("/multipart/complete")
+    @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
+    public ResponseEntity<Map<String, String>> completeMultipartUpload(
+            @RequestBody MultipartCompleteRequest request, Principal principal) {
+
+        String objectKey = multipartUploadService.complete(principal.getName(), request.getObjectKey(),
+                request.getUploadId(), request.getParts());
+        return ResponseEntity.ok(Map.of("objectKey", objectKey));
+    }
+
+    @DeleteMapping("/multipart")
+    @PreAuthorize("hasAuthority('ROLE_INSTRUCTOR')")
+    public ResponseEntity<Void> abortMultipartUpload(
+            @RequestParam String objectKey, @RequestParam String uploadId, Principal principal) {
+
+        multipartUploadService.abort(principal.getName(), objectKey, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, String>> handleAccessDenied(AccessDeniedException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.FORBIDDEN);
+    }
 }
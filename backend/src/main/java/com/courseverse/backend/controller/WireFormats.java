@@ -0,0 +1,63 @@
+package com.courseverse.backend.controller;
+
+import com.courseverse.backend.config.JacksonConfig;
+import com.courseverse.backend.service.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.List;
+
+/**
+ * Choice between JSON (the default) and CBOR for endpoints that build their
+ * JSON body themselves and so cannot leave it to Spring's negotiation, and
+ * the fields= filtering that applies to either format.
+ */
+final class WireFormats {
+
+    private WireFormats() {
+    }
+
+    /**
+     * True when the client lists application/cbor and prefers it: a higher q
+     * than an explicit application/json, and no lower than any wildcard.
+     * Browsers, which accept any type, keep getting JSON.
+     */
+    static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        double cbor = 0;
+        double json = 0;
+        double wildcard = 0;
+        for (MediaType type : types) {
+            double quality = type.getQualityValue();
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                cbor = Math.max(cbor, quality);
+            } else if (type.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                json = Math.max(json, quality);
+            } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                wildcard = Math.max(wildcard, quality);
+            }
+        }
+        return cbor > 0 && cbor > json && cbor >= wildcard;
+    }
+
+    /** Wraps a body (a Course or User, or a list of them) so only the selected properties are written. */
+    static MappingJacksonValue select(Object body, FieldSelection fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!fields.isAll()) {
+            value.setFilters(new SimpleFilterProvider().addFilter(JacksonConfig.SPARSE_FIELDS_FILTER,
+                    SimpleBeanPropertyFilter.filterOutAllExcept(fields.fields())));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,9 @@
+package com.courseverse.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class ContentUploadRequest {
+    private String sha256; // Hex SHA-256 of the file's bytes, computed by the client
+    private String contentType; // Optional, e.g. "video/mp4"
+}
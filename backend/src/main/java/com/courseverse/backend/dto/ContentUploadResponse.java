@@ -0,0 +1,15 @@
+package com.courseverse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ContentUploadResponse {
+    private String objectKey; // content/<sha256>, usable right away when uploadRequired is false
+    private boolean uploadRequired;
+    private String url; // Pre-signed PUT URL, null when the object already exists
+    private Map<String, String> headers; // Headers the PUT must send exactly, incl. the checksum
+}
@@ -0,0 +1,12 @@
+package com.courseverse.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MultipartCompleteRequest {
+    private String objectKey;
+    private String uploadId;
+    private List<UploadedPart> parts; // Optional; when empty the parts S3 has are used
+}
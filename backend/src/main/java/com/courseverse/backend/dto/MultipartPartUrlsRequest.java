@@ -0,0 +1,12 @@
+package com.courseverse.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MultipartPartUrlsRequest {
+    private String objectKey;
+    private String uploadId;
+    private List<Integer> partNumbers; // 1-based, at most app.multipart.max-urls-per-request
+}
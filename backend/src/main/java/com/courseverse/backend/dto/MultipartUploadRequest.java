@@ -0,0 +1,10 @@
+package com.courseverse.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class MultipartUploadRequest {
+    private String fileName;
+    private String contentType; // Optional, e.g. "video/mp4"
+    private long fileSize; // Total size in bytes, used to pick the part size
+}
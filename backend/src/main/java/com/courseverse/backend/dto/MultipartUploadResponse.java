@@ -0,0 +1,13 @@
+package com.courseverse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MultipartUploadResponse {
+    private String objectKey; // The final path/key of the object in S3
+    private String uploadId; // S3's id for this multipart upload session
+    private long partSize; // Every part except the last must be exactly this size
+    private int partCount;
+}
@@ -0,0 +1,11 @@
+package com.courseverse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PresignedPartUrl {
+    private int partNumber;
+    private String url; // Pre-signed PUT URL for this part
+}
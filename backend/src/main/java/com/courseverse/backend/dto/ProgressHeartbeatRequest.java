@@ -0,0 +1,10 @@
+package com.courseverse.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class ProgressHeartbeatRequest {
+    private String lessonId;
+    private double positionSeconds; // Current playback position
+    private double durationSeconds; // Length of the lesson video, 0 if unknown
+}
@@ -0,0 +1,21 @@
+package com.courseverse.backend.dto;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    private String token; // Pass as ?since= on the next sync
+    private boolean reset; // Full sync: drop everything stored locally before applying
+    private boolean hasMore; // More changes are waiting, sync again right away with token
+    private List<Course> courses; // Created or updated, to upsert
+    private List<String> deletedCourseIds; // To remove, applied after the upserts
+    private List<Enrollment> enrollments; // The caller's, created or updated
+}
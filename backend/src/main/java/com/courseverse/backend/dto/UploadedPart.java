@@ -0,0 +1,14 @@
+package com.courseverse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedPart {
+    private int partNumber;
+    private String etag; // ETag header S3 returned for the part's PUT
+    private long size;
+}
@@ -0,0 +1,15 @@
+package com.courseverse.backend.exception;
+
+public class CircuitOpenException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.courseverse.backend.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -20,5 +21,23 @@ public class GlobalExceptionHandler {
                 HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<Map<String, String>> handleCircuitOpenException(
+            CircuitOpenException ex, WebRequest request) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFullException(
+            BulkheadFullException ex, WebRequest request) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     // Add handlers for other exceptions here as needed
 }
@@ -0,0 +1,11 @@
+package com.courseverse.backend.fault;
+
+/**
+ * Failure produced by the FaultInjector in place of a real backend error.
+ */
+public class FaultInjectedException extends RuntimeException {
+
+    public FaultInjectedException(String operation) {
+        super("Injected fault for " + operation);
+    }
+}
@@ -0,0 +1,93 @@
+package com.courseverse.backend.fault;
+
+import com.courseverse.backend.repository.CourseRepository;
+import com.courseverse.backend.repository.EnrollmentRepository;
+import com.courseverse.backend.repository.ObjectReferenceRepository;
+import com.courseverse.backend.repository.UserRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Wraps the repositories, S3Client and S3Presigner in decorators that run
+ * every call through the FaultInjector. Only registered when
+ * app.faults.enabled=true, so normal runs have no extra proxy at all.
+ */
+@Component
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true")
+public class FaultInjectionPostProcessor implements BeanPostProcessor {
+
+    private static final List<Class<?>> REPOSITORY_TYPES = List.of(
+            CourseRepository.class, EnrollmentRepository.class, UserRepository.class,
+            ObjectReferenceRepository.class);
+
+    private static final Set<String> PASS_THROUGH_METHODS = Set.of(
+            "close", "serviceName", "serviceClientConfiguration", "utilities", "waiter",
+            "equals", "hashCode", "toString");
+
+    // Resolved lazily: a BeanPostProcessor's own dependencies must not be created too early
+    private final ObjectProvider<FaultInjector> faultInjector;
+
+    public FaultInjectionPostProcessor(ObjectProvider<FaultInjector> faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> repositoryType : REPOSITORY_TYPES) {
+            if (repositoryType.isInstance(bean)) {
+                return decorate(bean, repositoryType, "repository." + repositoryType.getSimpleName() + ".", true);
+            }
+        }
+        if (bean instanceof S3Client) {
+            return decorate(bean, S3Client.class, "s3.", false);
+        }
+        if (bean instanceof S3Presigner) {
+            return decorate(bean, S3Presigner.class, "s3.", false);
+        }
+        return bean;
+    }
+
+    private Object decorate(Object bean, Class<?> type, String prefix, boolean repository) {
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setInterfaces(type);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Method method = invocation.getMethod();
+            if (!PASS_THROUGH_METHODS.contains(method.getName())) {
+                inject(prefix + method.getName(), repository);
+            }
+            return invocation.proceed();
+        });
+        return proxyFactory.getProxy();
+    }
+
+    private void inject(String operation, boolean repository) throws Exception {
+        try {
+            faultInjector.getObject().beforeCall(operation);
+        } catch (FaultInjectedException e) {
+            // Fail the way the real backend would: repository methods declare
+            // ExecutionException, the AWS SDK throws unchecked SDK exceptions
+            if (repository) {
+                throw new ExecutionException(e);
+            }
+            throw SdkClientException.builder().message(e.getMessage()).cause(e).build();
+        } catch (InterruptedException e) {
+            if (repository) {
+                throw e;
+            }
+            Thread.currentThread().interrupt();
+            throw SdkClientException.builder().message("Interrupted").cause(e).build();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.courseverse.backend.fault;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Holds the active fault rules and applies them to calls. Only present when
+ * app.faults.enabled=true; never enable it in production.
+ *
+ * Injection points (operation names):
+ * - firestore.{read-operation}: each Firestore read attempt inside
+ * FirestoreReadExecutor, so deadlines, hedging and the circuit breaker react to
+ * the injected latency exactly as they would to a slow Firestore
+ * - repository.{Interface}.{method}: every repository call, including
+ * writes and the in-memory repositories
+ * - s3.{method}: S3Client and S3Presigner calls made by S3Service
+ */
+@Component
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true")
+public class FaultInjector {
+
+    /** Counters per operation, exposed through /actuator/faults. */
+    public static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder delayedMillis = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getDelayedMillis() {
+            return delayedMillis.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+    }
+
+    private record Decision(FaultRule rule, long delayMillis, boolean fail) {
+    }
+
+    private final Map<String, FaultRule> rules = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public FaultInjector() {
+        this.scheduler = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "fault-injector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        System.err.println("WARNING: fault injection is enabled (app.faults.enabled=true)");
+    }
+
+    public void put(FaultRule rule) {
+        rules.put(rule.operation(), rule);
+    }
+
+    public void remove(String operation) {
+        rules.remove(operation);
+    }
+
+    public void clear() {
+        rules.clear();
+        counters.clear();
+    }
+
+    public Collection<FaultRule> getRules() {
+        long now = System.currentTimeMillis();
+        rules.values().removeIf(rule -> rule.isExpired(now));
+        return rules.values();
+    }
+
+    public Map<String, Counters> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    /**
+     * Blocks for the injected latency, then throws FaultInjectedException if
+     * this call was chosen to fail. For synchronous calls.
+     */
+    public void beforeCall(String operation) throws InterruptedException {
+        Decision decision = decide(operation);
+        if (decision == null) {
+            return;
+        }
+        if (decision.delayMillis() > 0) {
+            Thread.sleep(decision.delayMillis());
+        }
+        if (decision.fail()) {
+            if (decision.rule().errorMode() == FaultRule.ErrorMode.HANG) {
+                Thread.sleep(decision.rule().hangMs());
+            }
+            throw new FaultInjectedException(operation);
+        }
+    }
+
+    /**
+     * Asynchronous variant for Firestore reads: the real call starts after the
+     * injected latency, and a failing call completes exceptionally (or, when
+     * hanging, never completes) without holding a thread.
+     */
+    public <T> ApiFuture<T> around(String operation, Supplier<ApiFuture<T>> call) {
+        Decision decision = decide(operation);
+        if (decision == null) {
+            return call.get();
+        }
+
+        SettableApiFuture<T> result = SettableApiFuture.create();
+        scheduler.schedule(() -> {
+            if (result.isDone()) {
+                return; // Cancelled by the caller's deadline
+            }
+            if (decision.fail()) {
+                if (decision.rule().errorMode() == FaultRule.ErrorMode.FAIL) {
+                    result.setException(new FaultInjectedException(operation));
+                }
+                return; // HANG: leave it to the caller's deadline
+            }
+            ApiFuture<T> real = call.get();
+            real.addListener(() -> {
+                try {
+                    result.set(real.get());
+                } catch (ExecutionException e) {
+                    result.setException(e.getCause() != null ? e.getCause() : e);
+                } catch (Exception e) {
+                    result.setException(e);
+                }
+            }, Runnable::run);
+        }, decision.delayMillis(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private Decision decide(String operation) {
+        FaultRule rule = ruleFor(operation);
+        if (rule == null) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Decision decision = new Decision(rule, rule.sampleLatencyMillis(random), rule.sampleFailure(random));
+
+        Counters operationCounters = counters.computeIfAbsent(operation, key -> new Counters());
+        operationCounters.calls.increment();
+        operationCounters.delayedMillis.add(decision.delayMillis());
+        if (decision.fail()) {
+            operationCounters.failures.increment();
+        }
+        return decision;
+    }
+
+    private FaultRule ruleFor(String operation) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        FaultRule best = null;
+        for (FaultRule rule : rules.values()) {
+            if (rule.isExpired(now)) {
+                rules.remove(rule.operation(), rule);
+            } else if (rule.matches(operation) && (best == null || rule.specificity() > best.specificity())) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,87 @@
+package com.courseverse.backend.fault;
+
+import java.util.Random;
+
+/**
+ * Latency and failures to inject into calls matching an operation pattern.
+ *
+ * Patterns are exact operation names ("firestore.course-find-by-id") or
+ * prefixes ending in '*' ("s3.*", "repository.CourseRepository.*", "*").
+ *
+ * Latency distributions:
+ * - none: no added latency
+ * - fixed: always fixedMs
+ * - normal: normally distributed around meanMs with stddevMs (never negative)
+ * - long-tail: log-normal with the given median and p99, e.g. median 20 ms and
+ * p99 800 ms models a backend with occasional very slow calls
+ *
+ * A fraction errorRate of calls fails. With errorMode "hang" a failing call
+ * never answers (async reads) or blocks for hangMs before failing (sync calls),
+ * which is how a partial outage usually looks. A rule with expiresAtMillis > 0
+ * removes itself at that time, so an outage can be scheduled for N seconds.
+ */
+public record FaultRule(String operation, Distribution distribution, double fixedMs, double meanMs,
+        double stddevMs, double medianMs, double p99Ms, double errorRate, ErrorMode errorMode, long hangMs,
+        long expiresAtMillis) {
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    public enum Distribution {
+        NONE, FIXED, NORMAL, LONG_TAIL;
+
+        public static Distribution parse(String value) {
+            return value == null ? NONE : valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    public enum ErrorMode {
+        FAIL, HANG;
+
+        public static ErrorMode parse(String value) {
+            return value == null ? FAIL : valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    public FaultRule {
+        if (operation == null || operation.isBlank()) {
+            throw new IllegalArgumentException("operation is required");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be between 0 and 1");
+        }
+        if (distribution == Distribution.LONG_TAIL && (medianMs <= 0 || p99Ms < medianMs)) {
+            throw new IllegalArgumentException("long-tail needs medianMs > 0 and p99Ms >= medianMs");
+        }
+    }
+
+    public boolean matches(String candidate) {
+        if (operation.endsWith("*")) {
+            return candidate.startsWith(operation.substring(0, operation.length() - 1));
+        }
+        return operation.equals(candidate);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis > 0 && nowMillis >= expiresAtMillis;
+    }
+
+    /** How specific the pattern is; the most specific matching rule wins. */
+    int specificity() {
+        return operation.endsWith("*") ? operation.length() - 1 : Integer.MAX_VALUE;
+    }
+
+    long sampleLatencyMillis(Random random) {
+        double millis = switch (distribution) {
+            case NONE -> 0;
+            case FIXED -> fixedMs;
+            case NORMAL -> meanMs + stddevMs * random.nextGaussian();
+            case LONG_TAIL -> medianMs * Math.exp(Math.log(p99Ms / medianMs) / Z_99 * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(millis));
+    }
+
+    boolean sampleFailure(Random random) {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+}
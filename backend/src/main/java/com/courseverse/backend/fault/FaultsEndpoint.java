@@ -0,0 +1,75 @@
+package com.courseverse.backend.fault;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/faults (admin only): inspect and change fault rules at runtime.
+ *
+ * GET    /actuator/faults               active rules and per-operation counters
+ * POST   /actuator/faults               add or replace a rule, e.g.
+ *        {"operation": "firestore.*", "distribution": "long-tail",
+ *         "medianMs": 20, "p99Ms": 800, "errorRate": 0.02}
+ *        {"operation": "s3.presignGetObject", "errorRate": 1.0,
+ *         "errorMode": "hang", "durationSeconds": 30}
+ * DELETE /actuator/faults/{operation}   remove one rule
+ * DELETE /actuator/faults               remove every rule and reset counters
+ */
+@Component
+@Endpoint(id = "faults")
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true")
+public class FaultsEndpoint {
+
+    private static final long DEFAULT_HANG_MS = 30_000;
+
+    private final FaultInjector faultInjector;
+
+    public FaultsEndpoint(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @ReadOperation
+    public Map<String, Object> faults() {
+        return Map.of(
+                "rules", faultInjector.getRules(),
+                "counters", faultInjector.getCounters());
+    }
+
+    @WriteOperation
+    public FaultRule put(String operation, @Nullable String distribution, @Nullable Double fixedMs,
+            @Nullable Double meanMs, @Nullable Double stddevMs, @Nullable Double medianMs, @Nullable Double p99Ms,
+            @Nullable Double errorRate, @Nullable String errorMode, @Nullable Long hangMs,
+            @Nullable Long durationSeconds) {
+        long expiresAt = durationSeconds != null && durationSeconds > 0
+                ? System.currentTimeMillis() + durationSeconds * 1000
+                : 0;
+        FaultRule rule = new FaultRule(operation, FaultRule.Distribution.parse(distribution),
+                orZero(fixedMs), orZero(meanMs), orZero(stddevMs), orZero(medianMs), orZero(p99Ms),
+                orZero(errorRate), FaultRule.ErrorMode.parse(errorMode), hangMs != null ? hangMs : DEFAULT_HANG_MS,
+                expiresAt);
+        faultInjector.put(rule);
+        return rule;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        faultInjector.clear();
+    }
+
+    @DeleteOperation
+    public void remove(@Selector String operation) {
+        faultInjector.remove(operation);
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0;
+    }
+}
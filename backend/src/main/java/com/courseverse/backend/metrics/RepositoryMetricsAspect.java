@@ -0,0 +1,55 @@
+package com.courseverse.backend.metrics;
+
+import com.courseverse.backend.exception.CircuitOpenException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Times every public repository method as courseverse.repository, tagged with
+ * the repository, the operation (method name) and the outcome.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.courseverse.backend.repository..*) "
+            + "&& @within(org.springframework.stereotype.Repository) && execution(public * *(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            outcome = outcomeOf(t);
+            throw t;
+        } finally {
+            sample.stop(meterRegistry.timer("courseverse.repository",
+                    "repository", joinPoint.getTarget().getClass().getSimpleName(),
+                    "operation", joinPoint.getSignature().getName(),
+                    "outcome", outcome));
+        }
+    }
+
+    static String outcomeOf(Throwable t) {
+        if (t instanceof CircuitOpenException) {
+            return "circuit_open";
+        }
+        if (t instanceof ExecutionException && t.getCause() instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,113 @@
+package com.courseverse.backend.metrics;
+
+/**
+ * Request-scoped counters for billable backend work: Firestore documents
+ * read and written, hedged Firestore reads, S3 API calls and URL presigns. Repositories and S3Service
+ * record into the scope bound to the current thread; outside a request (e.g.
+ * background revalidation) recording is a no-op.
+ */
+public final class RequestAccounting {
+
+    /** Mutable counters for one request. Only touched by the request thread. */
+    public static final class Counts {
+        private int documentsRead;
+        private int hedgedReads;
+        private int documentsWritten;
+        private int s3Calls;
+        private int presigns;
+
+        public int getDocumentsRead() {
+            return documentsRead;
+        }
+
+        /**
+         * Second attempts sent for slow Firestore reads. Their documents are
+         * not in documentsRead, but Firestore bills each hedge like the read
+         * it duplicates unless it is cancelled before the response.
+         */
+        public int getHedgedReads() {
+            return hedgedReads;
+        }
+
+        public int getDocumentsWritten() {
+            return documentsWritten;
+        }
+
+        public int getS3Calls() {
+            return s3Calls;
+        }
+
+        public int getPresigns() {
+            return presigns;
+        }
+
+        @Override
+        public String toString() {
+            return "firestore-reads=" + documentsRead + ", firestore-hedged-reads=" + hedgedReads
+                    + ", firestore-writes=" + documentsWritten
+                    + ", s3-calls=" + s3Calls + ", presigns=" + presigns;
+        }
+    }
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private RequestAccounting() {
+    }
+
+    public static Counts begin() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /** The counts of the current request, or null outside a request. */
+    public static Counts current() {
+        return CURRENT.get();
+    }
+
+    public static void recordReads(int documents) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.documentsRead += documents;
+        }
+    }
+
+    /**
+     * Firestore bills a query at least one read even when it matches nothing.
+     */
+    public static void recordQuery(int documentsReturned) {
+        recordReads(Math.max(1, documentsReturned));
+    }
+
+    public static void recordHedgedRead() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.hedgedReads++;
+        }
+    }
+
+    public static void recordWrites(int documents) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.documentsWritten += documents;
+        }
+    }
+
+    public static void recordS3Call() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.s3Calls++;
+        }
+    }
+
+    public static void recordPresign() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.presigns++;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.courseverse.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a RequestAccounting scope around each API request (including the
+ * security chain, so user lookups are counted) and publishes the totals per
+ * endpoint as distribution summaries, e.g. courseverse.request.firestore.reads
+ * tagged with method and uri pattern.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestAccountingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestAccountingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestAccounting.Counts counts = RequestAccounting.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestAccounting.end();
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestAccounting.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        summary("courseverse.request.firestore.reads", method, uri).record(counts.getDocumentsRead());
+        summary("courseverse.request.firestore.hedged_reads", method, uri).record(counts.getHedgedReads());
+        summary("courseverse.request.firestore.writes", method, uri).record(counts.getDocumentsWritten());
+        summary("courseverse.request.s3.calls", method, uri).record(counts.getS3Calls());
+        summary("courseverse.request.s3.presigns", method, uri).record(counts.getPresigns());
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .baseUnit("operations")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.courseverse.backend.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * When app.accounting.debug-header=true, adds an X-Request-Cost header with the
+ * request's Firestore/S3 accounting so load tests can spot read amplification.
+ * Written just before the body, when all backend work is done.
+ */
+@ControllerAdvice
+public class RequestCostHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Request-Cost";
+
+    private final boolean enabled;
+
+    public RequestCostHeaderAdvice(@Value("${app.accounting.debug-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestAccounting.Counts counts = RequestAccounting.current();
+        if (counts != null) {
+            response.getHeaders().set(HEADER, counts.toString());
+        }
+        return body;
+    }
+}
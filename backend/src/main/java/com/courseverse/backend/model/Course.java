@@ -1,10 +1,14 @@
 package com.courseverse.backend.model;
 
 import com.google.cloud.firestore.annotation.DocumentId;
+import com.google.cloud.firestore.annotation.Exclude;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -19,6 +23,32 @@ public class Course {
     private List<Module> modules;
     private String thumbnailUrl; // URL for the course thumbnail image
     private String thumbnailObjectKey; // S3 object key for the thumbnail
+    private Map<String, String> thumbnailVariants; // Width in pixels -> S3 key of a resized JPEG
     private int enrollmentCount = 0; // Number of students enrolled
     private String publishStatus = "Draft"; // "Published" or "Draft"
+    @ServerTimestamp
+    private Date updatedAt; // Set by CourseRepository on every write (Firestore's commit time), drives /api/v1/sync
+
+    /**
+     * Sum of the lesson durations known so far, or null if none are known.
+     * Derived from the lessons, so it is never stored in Firestore.
+     */
+    @Exclude
+    public Double getTotalDurationSeconds() {
+        if (modules == null) {
+            return null;
+        }
+        Double total = null;
+        for (Module module : modules) {
+            if (module.getLessons() == null) {
+                continue;
+            }
+            for (Lesson lesson : module.getLessons()) {
+                if (lesson.getDurationSeconds() != null) {
+                    total = (total != null ? total : 0.0) + lesson.getDurationSeconds();
+                }
+            }
+        }
+        return total;
+    }
 }
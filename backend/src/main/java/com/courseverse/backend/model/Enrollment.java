@@ -1,11 +1,13 @@
 package com.courseverse.backend.model;
 
 import com.google.cloud.firestore.annotation.DocumentId;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.Date;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -18,4 +20,9 @@ public class Enrollment {
     private String courseId; // UID of the course
     private Date enrolledAt;
     private double progress; // e.g., 0.0 to 1.0
+    private Map<String, Double> lessonProgress; // lessonId -> furthest fraction watched, 0.0 to 1.0
+    private Map<String, Double> lessonPositions; // lessonId -> last playback position, in seconds
+    private Date progressUpdatedAt;
+    @ServerTimestamp
+    private Date updatedAt; // Set by EnrollmentRepository on every write (Firestore's commit time), drives /api/v1/sync
 }
@@ -10,5 +10,14 @@ public class Lesson {
     private String title;
     private String videoUrl;
     private String textContent;
-    // We can add order, duration, etc. later
+    // Read from the video's MP4 header after upload; null until then or if it is not an MP4
+    private Double durationSeconds;
+    private Long videoSizeBytes;
+    private Integer videoWidth;
+    private Integer videoHeight;
+    private Long videoBitrate; // Average, in bits per second
+    // CRC-32 of the whole video as stored under videoETag, so bundle downloads can resume without re-reading it
+    private Long videoCrc32;
+    private String videoETag;
+    // We can add order, etc. later
 }
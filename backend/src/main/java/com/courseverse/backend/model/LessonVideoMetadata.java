@@ -0,0 +1,38 @@
+package com.courseverse.backend.model;
+
+import java.util.Map;
+
+/**
+ * Video facts read from a lesson's uploaded file. The MP4 fields are null
+ * for other formats; crc32 is that of the object with the given S3 ETag.
+ */
+public record LessonVideoMetadata(Double durationSeconds, long sizeBytes, Integer width, Integer height, Long bitrate,
+        Long crc32, String eTag) {
+
+    /** Copies metadata onto the course's matching lessons, returning whether any matched. */
+    public static boolean applyTo(Course course, Map<String, LessonVideoMetadata> metadataByLessonId) {
+        boolean changed = false;
+        if (course.getModules() == null) {
+            return false;
+        }
+        for (Module module : course.getModules()) {
+            if (module.getLessons() == null) {
+                continue;
+            }
+            for (Lesson lesson : module.getLessons()) {
+                LessonVideoMetadata metadata = metadataByLessonId.get(lesson.getLessonId());
+                if (metadata != null) {
+                    lesson.setDurationSeconds(metadata.durationSeconds());
+                    lesson.setVideoSizeBytes(metadata.sizeBytes());
+                    lesson.setVideoWidth(metadata.width());
+                    lesson.setVideoHeight(metadata.height());
+                    lesson.setVideoBitrate(metadata.bitrate());
+                    lesson.setVideoCrc32(metadata.crc32());
+                    lesson.setVideoETag(metadata.eTag());
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,43 @@
+package com.courseverse.backend.repository;
+
+import com.google.cloud.Timestamp;
+
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * A position in changes ordered by time, then document id, so paging never
+ * skips changes stamped with the same instant. The changes after it are
+ * those later than atMicros, or at atMicros with a greater id; a null id
+ * stands after every change at atMicros. Microseconds, as that is the
+ * precision of Firestore timestamps.
+ */
+public record ChangeCursor(long atMicros, String id) implements Comparable<ChangeCursor> {
+
+    private static final Comparator<ChangeCursor> ORDER = Comparator.comparingLong(ChangeCursor::atMicros)
+            .thenComparing(ChangeCursor::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /** After every change at or before the given time. */
+    public static ChangeCursor after(Date at) {
+        return new ChangeCursor(at.getTime() * 1000, null);
+    }
+
+    /** The position of a change, from a Firestore timestamp. */
+    public static ChangeCursor of(Timestamp at, String id) {
+        return new ChangeCursor(at.getSeconds() * 1_000_000 + at.getNanos() / 1000, id);
+    }
+
+    /** The position of a change, from a model's millisecond Date. */
+    public static ChangeCursor of(Date at, String id) {
+        return new ChangeCursor(at.getTime() * 1000, id);
+    }
+
+    public Timestamp timestamp() {
+        return Timestamp.ofTimeMicroseconds(atMicros);
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
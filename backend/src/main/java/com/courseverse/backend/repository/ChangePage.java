@@ -0,0 +1,28 @@
+package com.courseverse.backend.repository;
+
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/** Changes read after a cursor, oldest first, and the position of the last one (null when empty). */
+public record ChangePage<T>(List<T> items, ChangeCursor last) {
+
+    /**
+     * A page of Firestore results ordered by the given timestamp field, then
+     * document id. The cursor keeps the timestamp at full precision, which
+     * the model's Date would truncate to milliseconds.
+     */
+    static <T> ChangePage<T> of(QuerySnapshot querySnapshot, String field,
+            Function<QueryDocumentSnapshot, T> mapper) {
+        List<QueryDocumentSnapshot> documents = querySnapshot.getDocuments();
+        if (documents.isEmpty()) {
+            return new ChangePage<>(List.of(), null);
+        }
+        QueryDocumentSnapshot last = documents.get(documents.size() - 1);
+        return new ChangePage<>(documents.stream().map(mapper).collect(Collectors.toList()),
+                ChangeCursor.of(last.getTimestamp(field), last.getId()));
+    }
+}
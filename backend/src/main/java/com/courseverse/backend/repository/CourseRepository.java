@@ -1,121 +1,75 @@
 package com.courseverse.backend.repository;
 
 import com.courseverse.backend.model.Course;
-import com.courseverse.backend.model.Module;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.CollectionReference;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QuerySnapshot;
-import org.springframework.stereotype.Repository;
+import com.courseverse.backend.model.LessonVideoMetadata;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
-@Repository
-public class CourseRepository {
-
-    private final CollectionReference courseCollection;
-    private static final String COLLECTION_NAME = "courses";
-
-    public CourseRepository(Firestore firestore) {
-        this.courseCollection = firestore.collection(COLLECTION_NAME);
+/**
+ * Course storage. Implemented by FirestoreCourseRepository (default) and
+ * InMemoryCourseRepository (the "in-memory" profile).
+ *
+ * Every write stamps the course's updatedAt and every deletion leaves a
+ * tombstone, so clients can sync only what changed since they last looked
+ * (findUpdatedSince/findDeletedSince), paging by time and then course id.
+ */
+public interface CourseRepository {
+
+    /** Marks a deleted course, kept for a while so syncing clients learn about the deletion. */
+    record CourseTombstone(String courseId, Date deletedAt) {
     }
 
-    public List<Course> findAll() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = courseCollection.get();
-        QuerySnapshot querySnapshot = future.get();
+    List<Course> findAll() throws ExecutionException, InterruptedException;
 
-        return querySnapshot.getDocuments().stream()
-                .map(doc -> doc.toObject(Course.class))
-                .collect(Collectors.toList());
-    }
+    Optional<Course> findById(String courseId) throws ExecutionException, InterruptedException;
 
-    public Optional<Course> findById(String courseId) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = courseCollection.document(courseId);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        DocumentSnapshot document = future.get();
+    /** Stores a new course, assigning its generated uid. */
+    Course save(Course course) throws ExecutionException, InterruptedException;
 
-        if (document.exists()) {
-            return Optional.ofNullable(document.toObject(Course.class));
-        } else {
-            return Optional.empty();
-        }
-    }
+    void update(Course course) throws ExecutionException, InterruptedException;
 
-    public Course save(Course course) throws ExecutionException, InterruptedException {
-        // Let Firestore auto-generate the document ID
-        DocumentReference docRef = courseCollection.document();
+    /** Replaces only thumbnailVariants, leaving concurrent changes to other fields intact. */
+    void updateThumbnailVariants(String courseId, Map<String, String> variants)
+            throws ExecutionException, InterruptedException;
 
-        // Set the auto-generated ID back onto the object
-        course.setUid(docRef.getId());
+    /**
+     * Sets the video metadata of the given lessons (by lessonId), leaving the
+     * rest of the course as it is now rather than as it was when the videos
+     * were read. Lessons deleted in the meantime are skipped.
+     */
+    void updateLessonVideoMetadata(String courseId, Map<String, LessonVideoMetadata> metadataByLessonId)
+            throws ExecutionException, InterruptedException;
 
-        // Write the new course to Firestore
-        docRef.set(course).get(); // .get() waits for the operation to complete
+    List<Course> findByInstructorId(String instructorId) throws ExecutionException, InterruptedException;
 
-        return course;
-    }
+    /**
+     * Like findByInstructorId, reading only the given stored fields where the
+     * store supports it (Firestore field masks). The other fields are left
+     * at their defaults, so the results must never be written back.
+     */
+    List<Course> findByInstructorId(String instructorId, Collection<String> fields)
+            throws ExecutionException, InterruptedException;
 
-    public void update(Course course) throws ExecutionException, InterruptedException {
-        // Update existing course document
-        DocumentReference docRef = courseCollection.document(course.getUid());
-        docRef.set(course).get(); // .get() waits for the operation to complete
-    }
+    /** Deletes the course and leaves a tombstone for it. */
+    void deleteById(String courseId) throws ExecutionException, InterruptedException;
 
-    public List<Course> findByInstructorId(String instructorId) throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = courseCollection.whereEqualTo("instructorId", instructorId).get();
-        QuerySnapshot querySnapshot = future.get();
+    void deleteModule(String courseId, String moduleId) throws ExecutionException, InterruptedException;
 
-        return querySnapshot.getDocuments().stream()
-                .map(doc -> doc.toObject(Course.class))
-                .collect(Collectors.toList());
-    }
+    void deleteLesson(String courseId, String moduleId, String lessonId)
+            throws ExecutionException, InterruptedException;
 
-    public void deleteById(String courseId) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = courseCollection.document(courseId);
-        docRef.delete().get(); // .get() waits for the operation to complete
-    }
+    /** Up to limit courses written after the cursor, least recently written first. */
+    ChangePage<Course> findUpdatedSince(ChangeCursor after, int limit) throws ExecutionException, InterruptedException;
 
-    public void deleteModule(String courseId, String moduleId) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = courseCollection.document(courseId);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        DocumentSnapshot document = future.get();
-
-        if (document.exists()) {
-            Course course = document.toObject(Course.class);
-            if (course != null && course.getModules() != null) {
-                // Remove the module with the matching ID
-                course.setModules(course.getModules().stream()
-                        .filter(module -> !module.getModuleId().equals(moduleId))
-                        .collect(Collectors.toList()));
-                docRef.set(course).get();
-            }
-        }
-    }
+    /** Up to limit tombstones of courses deleted after the cursor, oldest first. */
+    ChangePage<CourseTombstone> findDeletedSince(ChangeCursor after, int limit)
+            throws ExecutionException, InterruptedException;
 
-    public void deleteLesson(String courseId, String moduleId, String lessonId)
-            throws ExecutionException, InterruptedException {
-        DocumentReference docRef = courseCollection.document(courseId);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        DocumentSnapshot document = future.get();
-
-        if (document.exists()) {
-            Course course = document.toObject(Course.class);
-            if (course != null && course.getModules() != null) {
-                // Find the module and remove the lesson
-                for (Module module : course.getModules()) {
-                    if (module.getModuleId().equals(moduleId) && module.getLessons() != null) {
-                        module.setLessons(module.getLessons().stream()
-                                .filter(lesson -> !lesson.getLessonId().equals(lessonId))
-                                .collect(Collectors.toList()));
-                        break;
-                    }
-                }
-                docRef.set(course).get();
-            }
-        }
-    }
+    /** Removes tombstones older than cutoff, returning how many were removed. */
+    int purgeTombstones(Date cutoff) throws ExecutionException, InterruptedException;
 }
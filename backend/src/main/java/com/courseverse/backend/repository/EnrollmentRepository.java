@@ -1,61 +1,73 @@
 package com.courseverse.backend.repository;
 
 import com.courseverse.backend.model.Enrollment;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.CollectionReference;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.Query;
-import com.google.cloud.firestore.QuerySnapshot;
-import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
-@Repository
-public class EnrollmentRepository {
+/**
+ * Enrollment storage. Implemented by FirestoreEnrollmentRepository (default)
+ * and InMemoryEnrollmentRepository (the "in-memory" profile).
+ */
+public interface EnrollmentRepository {
 
-    private final CollectionReference enrollmentCollection;
-    private static final String COLLECTION_NAME = "enrollments";
+    /**
+     * A progress write for one enrollment: only the lessons that changed,
+     * which are merged into the stored maps, and the course's lesson ids.
+     * Course-level progress is recomputed from the merged lessonProgress as
+     * part of the write, so instances that buffer different lessons of the
+     * same enrollment cannot roll it back.
+     */
+    record ProgressUpdate(String enrollmentId, Set<String> lessonIds, Map<String, Double> lessonProgress,
+            Map<String, Double> lessonPositions, Date updatedAt) {
 
-    public EnrollmentRepository(Firestore firestore) {
-        this.enrollmentCollection = firestore.collection(COLLECTION_NAME);
-    }
+        /**
+         * The stored lesson progress with this update's lessons merged in. A
+         * lesson keeps the higher of the two values: progress never goes down.
+         */
+        public Map<String, Double> mergeInto(Map<String, Double> stored) {
+            Map<String, Double> merged = stored != null ? new HashMap<>(stored) : new HashMap<>();
+            lessonProgress.forEach((lessonId, fraction) -> merged.merge(lessonId, fraction, Math::max));
+            return merged;
+        }
 
-    public Enrollment save(Enrollment enrollment) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = enrollmentCollection.document(); // Auto-gen ID
-        enrollment.setUid(docRef.getId());
-        docRef.set(enrollment).get(); // .get() waits for completion
-        return enrollment;
+        /** Mean of the lesson fractions over the course's lessons; lessons never watched count as 0. */
+        public static double courseProgress(Set<String> lessonIds, Map<String, Double> lessonProgress) {
+            if (lessonIds.isEmpty()) {
+                return 0.0;
+            }
+            double sum = 0;
+            for (String lessonId : lessonIds) {
+                sum += lessonProgress.getOrDefault(lessonId, 0.0);
+            }
+            return sum / lessonIds.size();
+        }
     }
 
-    // Check if a user is already enrolled in a specific course
-    public Optional<Enrollment> findByUserIdAndCourseId(String userId, String courseId)
-            throws ExecutionException, InterruptedException {
+    /** Stores a new enrollment, assigning its generated uid. */
+    Enrollment save(Enrollment enrollment) throws ExecutionException, InterruptedException;
 
-        Query query = enrollmentCollection
-                .whereEqualTo("userId", userId)
-                .whereEqualTo("courseId", courseId)
-                .limit(1);
+    Optional<Enrollment> findByUserIdAndCourseId(String userId, String courseId)
+            throws ExecutionException, InterruptedException;
 
-        ApiFuture<QuerySnapshot> future = query.get();
-        QuerySnapshot querySnapshot = future.get();
+    List<Enrollment> findByUserId(String userId) throws ExecutionException, InterruptedException;
 
-        if (!querySnapshot.isEmpty()) {
-            return Optional.of(querySnapshot.getDocuments().get(0).toObject(Enrollment.class));
-        }
-        return Optional.empty();
-    }
-
-    // Get all enrollments for a specific user
-    public List<Enrollment> findByUserId(String userId) throws ExecutionException, InterruptedException {
-        Query query = enrollmentCollection.whereEqualTo("userId", userId);
-        ApiFuture<QuerySnapshot> future = query.get();
+    /**
+     * Up to limit of the user's enrollments written after the cursor, least
+     * recently written first. Every write stamps updatedAt, progress
+     * updates included.
+     */
+    ChangePage<Enrollment> findByUserIdUpdatedSince(String userId, ChangeCursor after, int limit)
+            throws ExecutionException, InterruptedException;
 
-        return future.get().getDocuments().stream()
-                .map(doc -> doc.toObject(Enrollment.class))
-                .collect(Collectors.toList());
-    }
+    /**
+     * Applies progress updates in as few transactions as possible. Fails if
+     * any enrollment no longer exists; callers can retry updates one by one.
+     */
+    void updateProgress(List<ProgressUpdate> updates) throws ExecutionException, InterruptedException;
 }
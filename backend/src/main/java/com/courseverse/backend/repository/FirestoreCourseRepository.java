@@ -0,0 +1,256 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.metrics.RequestAccounting;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.LessonVideoMetadata;
+import com.courseverse.backend.model.Module;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * updatedAt and tombstone deletedAt are Firestore server timestamps (a null
+ * updatedAt on a Course is filled in on write, see @ServerTimestamp), so sync
+ * tokens compare times from one clock whichever instance wrote the change.
+ */
+@Repository
+@Profile("!in-memory")
+public class FirestoreCourseRepository implements CourseRepository {
+
+    private final Firestore firestore;
+    private final CollectionReference courseCollection;
+    private final CollectionReference tombstoneCollection;
+    private final FirestoreReadExecutor reads;
+    private static final String COLLECTION_NAME = "courses";
+    private static final String TOMBSTONE_COLLECTION_NAME = "courseTombstones";
+    private static final int MAX_BATCH_WRITES = 500; // Firestore's limit per batch
+
+    public FirestoreCourseRepository(Firestore firestore, FirestoreReadExecutor reads) {
+        this.firestore = firestore;
+        this.courseCollection = firestore.collection(COLLECTION_NAME);
+        this.tombstoneCollection = firestore.collection(TOMBSTONE_COLLECTION_NAME);
+        this.reads = reads;
+    }
+
+    @Override
+    public List<Course> findAll() throws ExecutionException, InterruptedException {
+        QuerySnapshot querySnapshot = reads.read("course-find-all", () -> courseCollection.get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return querySnapshot.getDocuments().stream()
+                .map(doc -> doc.toObject(Course.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Course> findById(String courseId) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = courseCollection.document(courseId);
+        DocumentSnapshot document = reads.read("course-find-by-id", () -> docRef.get());
+        RequestAccounting.recordReads(1);
+
+        if (document.exists()) {
+            return Optional.ofNullable(document.toObject(Course.class));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Course save(Course course) throws ExecutionException, InterruptedException {
+        // Let Firestore auto-generate the document ID
+        DocumentReference docRef = courseCollection.document();
+
+        // Set the auto-generated ID back onto the object
+        course.setUid(docRef.getId());
+        course.setUpdatedAt(null);
+
+        // Write the new course to Firestore
+        WriteResult result = docRef.set(course).get(); // .get() waits for the operation to complete
+        RequestAccounting.recordWrites(1);
+        course.setUpdatedAt(result.getUpdateTime().toDate()); // The server timestamp is the commit time
+
+        return course;
+    }
+
+    @Override
+    public void update(Course course) throws ExecutionException, InterruptedException {
+        // Update existing course document
+        DocumentReference docRef = courseCollection.document(course.getUid());
+        course.setUpdatedAt(null);
+        WriteResult result = docRef.set(course).get(); // .get() waits for the operation to complete
+        RequestAccounting.recordWrites(1);
+        course.setUpdatedAt(result.getUpdateTime().toDate());
+    }
+
+    @Override
+    public void updateThumbnailVariants(String courseId, Map<String, String> variants)
+            throws ExecutionException, InterruptedException {
+        courseCollection.document(courseId).update("thumbnailVariants", variants, "updatedAt",
+                FieldValue.serverTimestamp()).get();
+        RequestAccounting.recordWrites(1);
+    }
+
+    @Override
+    public void updateLessonVideoMetadata(String courseId, Map<String, LessonVideoMetadata> metadataByLessonId)
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = courseCollection.document(courseId);
+        // Lessons live in an array, so the course is rewritten; the transaction keeps concurrent edits intact
+        firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            Course course = document.exists() ? document.toObject(Course.class) : null;
+            if (course != null && LessonVideoMetadata.applyTo(course, metadataByLessonId)) {
+                course.setUpdatedAt(null);
+                transaction.set(docRef, course);
+            }
+            return null;
+        }).get();
+        RequestAccounting.recordReads(1);
+        RequestAccounting.recordWrites(1);
+    }
+
+    @Override
+    public List<Course> findByInstructorId(String instructorId) throws ExecutionException, InterruptedException {
+        QuerySnapshot querySnapshot = reads.read("course-find-by-instructor",
+                () -> courseCollection.whereEqualTo("instructorId", instructorId).get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return querySnapshot.getDocuments().stream()
+                .map(doc -> doc.toObject(Course.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Course> findByInstructorId(String instructorId, Collection<String> fields)
+            throws ExecutionException, InterruptedException {
+        QuerySnapshot querySnapshot = reads.read("course-find-by-instructor",
+                () -> courseCollection.whereEqualTo("instructorId", instructorId)
+                        .select(fields.toArray(String[]::new)).get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return querySnapshot.getDocuments().stream()
+                .map(doc -> doc.toObject(Course.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteById(String courseId) throws ExecutionException, InterruptedException {
+        // One batch, so a course is never gone without its tombstone
+        WriteBatch batch = firestore.batch();
+        batch.delete(courseCollection.document(courseId));
+        batch.set(tombstoneCollection.document(courseId), Map.of("courseId", courseId,
+                "deletedAt", FieldValue.serverTimestamp()));
+        batch.commit().get(); // .get() waits for the operation to complete
+        RequestAccounting.recordWrites(2);
+    }
+
+    @Override
+    public void deleteModule(String courseId, String moduleId) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = courseCollection.document(courseId);
+        DocumentSnapshot document = reads.read("course-find-by-id", () -> docRef.get());
+        RequestAccounting.recordReads(1);
+
+        if (document.exists()) {
+            Course course = document.toObject(Course.class);
+            if (course != null && course.getModules() != null) {
+                // Remove the module with the matching ID
+                course.setModules(course.getModules().stream()
+                        .filter(module -> !module.getModuleId().equals(moduleId))
+                        .collect(Collectors.toList()));
+                course.setUpdatedAt(null);
+                docRef.set(course).get();
+                RequestAccounting.recordWrites(1);
+            }
+        }
+    }
+
+    @Override
+    public void deleteLesson(String courseId, String moduleId, String lessonId)
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = courseCollection.document(courseId);
+        DocumentSnapshot document = reads.read("course-find-by-id", () -> docRef.get());
+        RequestAccounting.recordReads(1);
+
+        if (document.exists()) {
+            Course course = document.toObject(Course.class);
+            if (course != null && course.getModules() != null) {
+                // Find the module and remove the lesson
+                for (Module module : course.getModules()) {
+                    if (module.getModuleId().equals(moduleId) && module.getLessons() != null) {
+                        module.setLessons(module.getLessons().stream()
+                                .filter(lesson -> !lesson.getLessonId().equals(lessonId))
+                                .collect(Collectors.toList()));
+                        break;
+                    }
+                }
+                course.setUpdatedAt(null);
+                docRef.set(course).get();
+                RequestAccounting.recordWrites(1);
+            }
+        }
+    }
+
+    @Override
+    public ChangePage<Course> findUpdatedSince(ChangeCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        // Ordered by a single field and then the document id: served by the automatic index
+        QuerySnapshot querySnapshot = reads.read("course-find-updated-since",
+                () -> startAfter(courseCollection.orderBy("updatedAt"), after).limit(limit).get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return ChangePage.of(querySnapshot, "updatedAt", doc -> doc.toObject(Course.class));
+    }
+
+    @Override
+    public ChangePage<CourseTombstone> findDeletedSince(ChangeCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        QuerySnapshot querySnapshot = reads.read("course-find-deleted-since",
+                () -> startAfter(tombstoneCollection.orderBy("deletedAt"), after).limit(limit).get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return ChangePage.of(querySnapshot, "deletedAt",
+                doc -> new CourseTombstone(doc.getId(), doc.getDate("deletedAt")));
+    }
+
+    /** Continues a query ordered by a timestamp after the cursor, breaking ties on the document id. */
+    static Query startAfter(Query orderedByTime, ChangeCursor after) {
+        Query query = orderedByTime.orderBy(FieldPath.documentId());
+        return after.id() == null
+                ? query.startAfter(after.timestamp())
+                : query.startAfter(after.timestamp(), after.id());
+    }
+
+    @Override
+    public int purgeTombstones(Date cutoff) throws ExecutionException, InterruptedException {
+        int purged = 0;
+        while (true) {
+            QuerySnapshot querySnapshot = reads.read("course-purge-tombstones",
+                    () -> tombstoneCollection.whereLessThan("deletedAt", cutoff).limit(MAX_BATCH_WRITES).get());
+            RequestAccounting.recordQuery(querySnapshot.size());
+            if (querySnapshot.isEmpty()) {
+                return purged;
+            }
+            WriteBatch batch = firestore.batch();
+            querySnapshot.getDocuments().forEach(doc -> batch.delete(doc.getReference()));
+            batch.commit().get();
+            RequestAccounting.recordWrites(querySnapshot.size());
+            purged += querySnapshot.size();
+        }
+    }
+}
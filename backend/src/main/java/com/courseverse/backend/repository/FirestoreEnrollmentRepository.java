@@ -0,0 +1,154 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.metrics.RequestAccounting;
+import com.courseverse.backend.model.Enrollment;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteResult;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/** updatedAt is a Firestore server timestamp, like a course's (see FirestoreCourseRepository). */
+@Repository
+@Profile("!in-memory")
+public class FirestoreEnrollmentRepository implements EnrollmentRepository {
+
+    private final CollectionReference enrollmentCollection;
+    private final FirestoreReadExecutor reads;
+    private static final String COLLECTION_NAME = "enrollments";
+    private static final int MAX_BATCH_WRITES = 500; // Firestore's limit per batch
+
+    public FirestoreEnrollmentRepository(Firestore firestore, FirestoreReadExecutor reads) {
+        this.enrollmentCollection = firestore.collection(COLLECTION_NAME);
+        this.reads = reads;
+    }
+
+    @Override
+    public Enrollment save(Enrollment enrollment) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = enrollmentCollection.document(); // Auto-gen ID
+        enrollment.setUid(docRef.getId());
+        enrollment.setUpdatedAt(null);
+        WriteResult result = docRef.set(enrollment).get(); // .get() waits for completion
+        RequestAccounting.recordWrites(1);
+        enrollment.setUpdatedAt(result.getUpdateTime().toDate());
+        return enrollment;
+    }
+
+    // Check if a user is already enrolled in a specific course
+    @Override
+    public Optional<Enrollment> findByUserIdAndCourseId(String userId, String courseId)
+            throws ExecutionException, InterruptedException {
+
+        Query query = enrollmentCollection
+                .whereEqualTo("userId", userId)
+                .whereEqualTo("courseId", courseId)
+                .limit(1);
+
+        QuerySnapshot querySnapshot = reads.read("enrollment-find-by-user-and-course", () -> query.get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        if (!querySnapshot.isEmpty()) {
+            return Optional.of(querySnapshot.getDocuments().get(0).toObject(Enrollment.class));
+        }
+        return Optional.empty();
+    }
+
+    // Get all enrollments for a specific user
+    @Override
+    public List<Enrollment> findByUserId(String userId) throws ExecutionException, InterruptedException {
+        Query query = enrollmentCollection.whereEqualTo("userId", userId);
+        QuerySnapshot querySnapshot = reads.read("enrollment-find-by-user", () -> query.get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return querySnapshot.getDocuments().stream()
+                .map(doc -> doc.toObject(Enrollment.class))
+                .collect(Collectors.toList());
+    }
+
+    // Equality on userId ordered by updatedAt needs the composite index (userId ASC, updatedAt ASC)
+    @Override
+    public ChangePage<Enrollment> findByUserIdUpdatedSince(String userId, ChangeCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        Query query = FirestoreCourseRepository.startAfter(
+                enrollmentCollection.whereEqualTo("userId", userId).orderBy("updatedAt"), after)
+                .limit(limit);
+        QuerySnapshot querySnapshot = reads.read("enrollment-find-by-user-updated-since", () -> query.get());
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        return ChangePage.of(querySnapshot, "updatedAt", doc -> doc.toObject(Enrollment.class));
+    }
+
+    @Override
+    public void updateProgress(List<ProgressUpdate> updates) throws ExecutionException, InterruptedException {
+        Firestore firestore = enrollmentCollection.getFirestore();
+        for (int from = 0; from < updates.size(); from += MAX_BATCH_WRITES) {
+            List<ProgressUpdate> chunk = updates.subList(from, Math.min(updates.size(), from + MAX_BATCH_WRITES));
+            DocumentReference[] docRefs = chunk.stream()
+                    .map(update -> enrollmentCollection.document(update.enrollmentId()))
+                    .toArray(DocumentReference[]::new);
+            firestore.runTransaction(transaction -> {
+                // Read every enrollment in one round trip; snapshots come back in request order
+                List<DocumentSnapshot> snapshots = transaction.getAll(docRefs).get();
+                for (int i = 0; i < chunk.size(); i++) {
+                    ProgressUpdate update = chunk.get(i);
+                    DocumentSnapshot snapshot = snapshots.get(i);
+                    if (!snapshot.exists()) {
+                        throw new IllegalStateException("No enrollment document for id: " + update.enrollmentId());
+                    }
+                    // Course progress comes from the stored lessons with ours merged in, so
+                    // lessons buffered and written by other instances still count toward it
+                    Map<String, Double> lessonProgress = update.mergeInto(lessonProgressOf(snapshot));
+
+                    List<Object> moreFieldsAndValues = new ArrayList<>();
+                    moreFieldsAndValues.add(FieldPath.of("progressUpdatedAt"));
+                    moreFieldsAndValues.add(update.updatedAt());
+                    // Commit time, not the buffered progress time, so sync never misses a flush
+                    moreFieldsAndValues.add(FieldPath.of("updatedAt"));
+                    moreFieldsAndValues.add(FieldValue.serverTimestamp());
+                    // Field paths touch only the changed lessons
+                    for (String lessonId : update.lessonProgress().keySet()) {
+                        moreFieldsAndValues.add(FieldPath.of("lessonProgress", lessonId));
+                        moreFieldsAndValues.add(lessonProgress.get(lessonId));
+                    }
+                    for (Map.Entry<String, Double> lesson : update.lessonPositions().entrySet()) {
+                        moreFieldsAndValues.add(FieldPath.of("lessonPositions", lesson.getKey()));
+                        moreFieldsAndValues.add(lesson.getValue());
+                    }
+                    transaction.update(docRefs[i], FieldPath.of("progress"),
+                            ProgressUpdate.courseProgress(update.lessonIds(), lessonProgress),
+                            moreFieldsAndValues.toArray());
+                }
+                return null;
+            }).get();
+            RequestAccounting.recordReads(chunk.size());
+            RequestAccounting.recordWrites(chunk.size());
+        }
+    }
+
+    private static Map<String, Double> lessonProgressOf(DocumentSnapshot snapshot) {
+        Map<String, Double> lessonProgress = new HashMap<>();
+        if (snapshot.get("lessonProgress") instanceof Map<?, ?> stored) {
+            stored.forEach((lessonId, fraction) -> {
+                if (fraction instanceof Number number) {
+                    lessonProgress.put(String.valueOf(lessonId), number.doubleValue());
+                }
+            });
+        }
+        return lessonProgress;
+    }
+}
@@ -0,0 +1,78 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.metrics.RequestAccounting;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+@Repository
+@Profile("!in-memory")
+public class FirestoreObjectReferenceRepository implements ObjectReferenceRepository {
+
+    private static final String COLLECTION_NAME = "objectReferences";
+
+    private final Firestore firestore;
+    private final CollectionReference referenceCollection;
+
+    public FirestoreObjectReferenceRepository(Firestore firestore) {
+        this.firestore = firestore;
+        this.referenceCollection = firestore.collection(COLLECTION_NAME);
+    }
+
+    @Override
+    public long adjust(String objectKey, long delta) throws ExecutionException, InterruptedException {
+        return apply(objectKey, delta, 0, null);
+    }
+
+    @Override
+    public long lease(String objectKey, Date until) throws ExecutionException, InterruptedException {
+        return apply(objectKey, 0, 1, until);
+    }
+
+    @Override
+    public long claim(String objectKey) throws ExecutionException, InterruptedException {
+        return apply(objectKey, 1, -1, null);
+    }
+
+    private long apply(String objectKey, long countDelta, long leaseDelta, Date leaseUntil)
+            throws ExecutionException, InterruptedException {
+        // Document ids cannot contain '/', object keys always do
+        DocumentReference docRef = referenceCollection.document(objectKey.replace('/', '|'));
+        long holds = firestore.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(docRef).get();
+            Date now = new Date();
+            Long current = snapshot.exists() ? snapshot.getLong("count") : null;
+            Date leasedUntil = snapshot.exists() ? snapshot.getDate("leasedUntil") : null;
+            Long currentLeases = snapshot.exists() ? snapshot.getLong("leases") : null;
+            // Lapsed leases count for nothing
+            boolean live = leasedUntil != null && leasedUntil.after(now);
+
+            long count = Math.max(0, (current != null ? current : 0) + countDelta);
+            long leases = Math.max(0, (live && currentLeases != null ? currentLeases : 0) + leaseDelta);
+            Date until = live ? leasedUntil : null;
+            if (leaseUntil != null && (until == null || leaseUntil.after(until))) {
+                until = leaseUntil;
+            }
+
+            if (count + leases > 0) {
+                transaction.set(docRef, leases > 0
+                        ? Map.of("objectKey", objectKey, "count", count, "leases", leases, "leasedUntil", until,
+                                "updatedAt", now)
+                        : Map.of("objectKey", objectKey, "count", count, "updatedAt", now));
+            } else {
+                transaction.delete(docRef);
+            }
+            return count + leases;
+        }).get();
+        RequestAccounting.recordReads(1);
+        RequestAccounting.recordWrites(1);
+        return holds;
+    }
+}
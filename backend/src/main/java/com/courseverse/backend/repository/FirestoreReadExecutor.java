@@ -0,0 +1,249 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.fault.FaultInjector;
+import com.courseverse.backend.metrics.RequestAccounting;
+import com.courseverse.backend.resilience.CircuitBreaker;
+import com.courseverse.backend.tracing.Span;
+import com.courseverse.backend.tracing.Tracer;
+import com.google.api.core.ApiFuture;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs Firestore reads with a per-operation deadline and, when the first
+ * attempt is slower than the operation's observed latency percentile, issues
+ * a hedged second read and returns whichever completes first. The other
+ * attempt is cancelled as soon as one succeeds, and both are when the
+ * deadline passes, so abandoned RPCs do not keep running.
+ *
+ * All reads share the Firestore circuit breaker, so once Firestore is failing
+ * callers get a fast CircuitOpenException instead of waiting out the deadline.
+ *
+ * Deadlines are configured with app.firestore.deadline-ms.default and can be
+ * overridden per operation, e.g. app.firestore.deadline-ms.user-find-all=15000.
+ */
+@Component
+public class FirestoreReadExecutor {
+
+    private static final long HISTOGRAM_DECAY_THRESHOLD = 10_000;
+
+    private final Environment environment;
+    private final CircuitBreaker circuitBreaker;
+    private final Tracer tracer;
+    private final FaultInjector faultInjector; // Null unless app.faults.enabled=true
+    private final long defaultDeadlineMs;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMicros;
+    private final long hedgeMinSamples;
+    private final double hedgeBudgetRatio;
+
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final ScheduledThreadPoolExecutor hedgeScheduler;
+
+    public FirestoreReadExecutor(Environment environment, CircuitBreaker firestoreCircuitBreaker, Tracer tracer,
+            ObjectProvider<FaultInjector> faultInjector,
+            @Value("${app.firestore.deadline-ms.default:5000}") long defaultDeadlineMs,
+            @Value("${app.firestore.hedge.enabled:true}") boolean hedgingEnabled,
+            @Value("${app.firestore.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${app.firestore.hedge.min-delay-ms:20}") long hedgeMinDelayMs,
+            @Value("${app.firestore.hedge.min-samples:50}") long hedgeMinSamples,
+            @Value("${app.firestore.hedge.budget-ratio:0.1}") double hedgeBudgetRatio) {
+        this.environment = environment;
+        this.circuitBreaker = firestoreCircuitBreaker;
+        this.tracer = tracer;
+        this.faultInjector = faultInjector.getIfAvailable();
+        this.defaultDeadlineMs = defaultDeadlineMs;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayMicros = TimeUnit.MILLISECONDS.toMicros(hedgeMinDelayMs);
+        this.hedgeMinSamples = hedgeMinSamples;
+        this.hedgeBudgetRatio = hedgeBudgetRatio;
+
+        this.hedgeScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "firestore-hedge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hedgeScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Executes an idempotent read. The supplier may be invoked twice when the
+     * read is hedged, so it must only build and send the request.
+     */
+    public <T> T read(String operation, Supplier<ApiFuture<T>> call)
+            throws ExecutionException, InterruptedException {
+        circuitBreaker.acquirePermission();
+        try {
+            T value = readWithHedging(operation, call);
+            circuitBreaker.onSuccess();
+            return value;
+        } catch (InterruptedException e) {
+            circuitBreaker.onIgnored();
+            throw e;
+        } catch (ExecutionException | RuntimeException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+
+    private <T> T readWithHedging(String operation, Supplier<ApiFuture<T>> call)
+            throws ExecutionException, InterruptedException {
+        long deadlineMs = deadlineFor(operation);
+        LatencyHistogram histogram = histograms.computeIfAbsent(operation,
+                key -> new LatencyHistogram(HISTOGRAM_DECAY_THRESHOLD));
+        reads.incrementAndGet();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger inFlight = new AtomicInteger(1);
+        AtomicBoolean hedged = new AtomicBoolean();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        Queue<ApiFuture<T>> attempts = new ConcurrentLinkedQueue<>();
+        // However the read ends (first success, failure, deadline), stop whatever is still running
+        result.whenComplete((value, error) -> attempts.forEach(attempt -> attempt.cancel(true)));
+
+        ApiFuture<T> primary = attempt(operation, call);
+        attempts.add(primary);
+        forward(primary, System.nanoTime(), result, histogram, inFlight, timedOut);
+
+        ScheduledFuture<?> hedge = null;
+        long hedgeDelayMicros = hedgeDelayMicros(histogram, deadlineMs);
+        if (hedgeDelayMicros > 0) {
+            hedge = hedgeScheduler.schedule(tracer.wrap(() -> {
+                if (result.isDone() || !tryAcquireHedgeBudget()) {
+                    return;
+                }
+                try (Span span = tracer.startSpan("firestore.hedge")) {
+                    span.tag("operation", operation);
+                    inFlight.incrementAndGet();
+                    hedged.set(true);
+                    ApiFuture<T> hedgeAttempt = attempt(operation, call);
+                    attempts.add(hedgeAttempt);
+                    if (result.isDone()) {
+                        hedgeAttempt.cancel(true); // The primary won while this attempt was being sent
+                    }
+                    forward(hedgeAttempt, System.nanoTime(), result, histogram, inFlight, timedOut);
+                }
+            }), hedgeDelayMicros, TimeUnit.MICROSECONDS);
+        }
+
+        try {
+            return result.get(deadlineMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.set(true); // Set before the attempts are cancelled below, so they record the deadline
+            throw new ExecutionException(
+                    "Firestore read '" + operation + "' exceeded its deadline of " + deadlineMs + " ms", e);
+        } finally {
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            // No-op after a success; after a timeout or interrupt, cancels both attempts
+            result.cancel(false);
+            // Recorded here because accounting is bound to the request thread, not the hedge scheduler's
+            if (hedged.get()) {
+                RequestAccounting.recordHedgedRead();
+            }
+        }
+    }
+
+    private <T> ApiFuture<T> attempt(String operation, Supplier<ApiFuture<T>> call) {
+        return faultInjector != null ? faultInjector.around("firestore." + operation, call) : call.get();
+    }
+
+    /**
+     * Completes the read with the attempt's outcome and records its latency.
+     * Failed attempts and those cut off by the deadline are recorded too, at
+     * the time they took: leaving them out would make the percentile, and so
+     * the hedge delay, look fastest exactly when Firestore is struggling.
+     * Attempts cancelled because the other one won are not, as they are
+     * only as slow as the winner was fast.
+     */
+    private <T> void forward(ApiFuture<T> attempt, long startNanos, CompletableFuture<T> result,
+            LatencyHistogram histogram, AtomicInteger inFlight, AtomicBoolean timedOut) {
+        attempt.addListener(() -> {
+            try {
+                T value = attempt.get(); // Already complete, does not block
+                histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+                result.complete(value);
+            } catch (ExecutionException e) {
+                histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+                // Only fail the read once no other attempt can still succeed
+                if (inFlight.decrementAndGet() == 0) {
+                    result.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+                }
+            } catch (Exception e) {
+                if (e instanceof CancellationException && timedOut.get()) {
+                    histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+                }
+                if (inFlight.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        }, Runnable::run);
+    }
+
+    private long hedgeDelayMicros(LatencyHistogram histogram, long deadlineMs) {
+        if (!hedgingEnabled) {
+            return -1;
+        }
+        long threshold = histogram.percentile(hedgePercentile, hedgeMinSamples);
+        if (threshold < 0) {
+            return -1; // Not enough samples yet to know what "slow" means
+        }
+        long delay = Math.max(threshold, hedgeMinDelayMicros);
+        // A hedge that can only start after the deadline is pointless
+        return delay < TimeUnit.MILLISECONDS.toMicros(deadlineMs) ? delay : -1;
+    }
+
+    private boolean tryAcquireHedgeBudget() {
+        // Cap hedged reads to a fraction of all reads so a Firestore-wide slowdown
+        // cannot double our load
+        if (hedges.get() + 1 > reads.get() * hedgeBudgetRatio) {
+            return false;
+        }
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    private long deadlineFor(String operation) {
+        return deadlines.computeIfAbsent(operation, key -> environment.getProperty(
+                "app.firestore.deadline-ms." + key, Long.class, defaultDeadlineMs));
+    }
+
+    public long getHedgedReadCount() {
+        return hedges.get();
+    }
+
+    /** Latency histograms keyed by operation name, e.g. "course-find-by-id". */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.metrics.RequestAccounting;
+import com.courseverse.backend.model.User;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+@Repository
+@Profile("!in-memory")
+public class FirestoreUserRepository implements UserRepository {
+
+    private final Firestore firestore;
+    private final FirestoreReadExecutor reads;
+    private static final String COLLECTION_NAME = "users";
+
+    public FirestoreUserRepository(Firestore firestore, FirestoreReadExecutor reads) {
+        this.firestore = firestore;
+        this.reads = reads;
+    }
+
+    @Override
+    public Optional<User> findById(String uid) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(uid);
+        DocumentSnapshot document = reads.read("user-find-by-id", () -> docRef.get());
+        RequestAccounting.recordReads(1);
+
+        if (document.exists()) {
+            User user = document.toObject(User.class);
+            // Manually set the UID from the document ID
+            if (user != null) {
+                user.setUid(document.getId());
+            }
+            return Optional.ofNullable(user);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(User user) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(user.getUid());
+        ApiFuture<com.google.cloud.firestore.WriteResult> future = docRef.set(user);
+        future.get(); // Wait for the write operation to complete
+        RequestAccounting.recordWrites(1);
+    }
+
+    @Override
+    public List<User> findAll() throws ExecutionException, InterruptedException {
+        QuerySnapshot querySnapshot = reads.read("user-find-all",
+                () -> firestore.collection(COLLECTION_NAME).get());
+        return toUsers(querySnapshot);
+    }
+
+    @Override
+    public List<User> findAll(Collection<String> fields) throws ExecutionException, InterruptedException {
+        QuerySnapshot querySnapshot = reads.read("user-find-all",
+                () -> firestore.collection(COLLECTION_NAME).select(fields.toArray(String[]::new)).get());
+        return toUsers(querySnapshot);
+    }
+
+    private static List<User> toUsers(QuerySnapshot querySnapshot) {
+        RequestAccounting.recordQuery(querySnapshot.size());
+
+        List<User> users = new ArrayList<>();
+        querySnapshot.getDocuments().forEach(document -> {
+            User user = document.toObject(User.class);
+            if (user != null) {
+                user.setUid(document.getId());
+                users.add(user);
+            }
+        });
+
+        return users;
+    }
+
+    @Override
+    public void updateRoles(String uid, List<String> roles) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(uid);
+        ApiFuture<com.google.cloud.firestore.WriteResult> future = docRef.update("roles", roles);
+        future.get(); // Wait for the update operation to complete
+        RequestAccounting.recordWrites(1);
+    }
+}
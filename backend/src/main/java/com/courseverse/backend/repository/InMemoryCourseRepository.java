@@ -0,0 +1,250 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.LessonVideoMetadata;
+import com.courseverse.backend.model.Module;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Course storage in a ConcurrentHashMap with secondary indexes on
+ * instructorId and updatedAt. Each write runs inside compute() for its
+ * course, so the document and its index entries change together. Deleted
+ * courses leave a tombstone in a second, time-ordered index.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryCourseRepository implements CourseRepository {
+
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> courseIdsByInstructor = new ConcurrentHashMap<>();
+    private final NavigableSet<Change> updates = new ConcurrentSkipListSet<>();
+    private final NavigableSet<Change> tombstones = new ConcurrentSkipListSet<>();
+
+    /** An index entry: a course id at the time it was written or deleted. */
+    private record Change(long at, String courseId) implements Comparable<Change> {
+        @Override
+        public int compareTo(Change other) {
+            int byTime = Long.compare(at, other.at);
+            return byTime != 0 ? byTime : courseId.compareTo(other.courseId);
+        }
+
+        ChangeCursor cursor() {
+            return ChangeCursor.of(new Date(at), courseId);
+        }
+    }
+
+    @Override
+    public List<Course> findAll() {
+        return courses.values().stream()
+                .map(InMemoryDocuments::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Course> findById(String courseId) {
+        Course course = courses.get(courseId);
+        return course != null ? Optional.of(InMemoryDocuments.copy(course)) : Optional.empty();
+    }
+
+    @Override
+    public Course save(Course course) {
+        course.setUid(InMemoryDocuments.newId());
+        put(course);
+        return course;
+    }
+
+    @Override
+    public void update(Course course) {
+        put(course);
+    }
+
+    @Override
+    public void updateThumbnailVariants(String courseId, Map<String, String> variants) throws ExecutionException {
+        Course updated = courses.computeIfPresent(courseId, (id, existing) -> {
+            Course copy = InMemoryDocuments.copy(existing);
+            copy.setThumbnailVariants(new HashMap<>(variants));
+            return stamp(id, existing, copy);
+        });
+        if (updated == null) {
+            // Same outcome as Firestore's update() on a missing document
+            throw new ExecutionException(new IllegalStateException("No course document for id: " + courseId));
+        }
+    }
+
+    @Override
+    public void updateLessonVideoMetadata(String courseId, Map<String, LessonVideoMetadata> metadataByLessonId)
+            throws ExecutionException {
+        Course updated = courses.computeIfPresent(courseId, (id, existing) -> {
+            Course copy = InMemoryDocuments.copy(existing);
+            return LessonVideoMetadata.applyTo(copy, metadataByLessonId) ? stamp(id, existing, copy) : existing;
+        });
+        if (updated == null) {
+            throw new ExecutionException(new IllegalStateException("No course document for id: " + courseId));
+        }
+    }
+
+    @Override
+    public List<Course> findByInstructorId(String instructorId) {
+        Set<String> ids = courseIdsByInstructor.getOrDefault(instructorId, Set.of());
+        List<Course> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Course course = courses.get(id);
+            // Re-check: the course may have been reassigned since the index was read
+            if (course != null && instructorId.equals(course.getInstructorId())) {
+                result.add(InMemoryDocuments.copy(course));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Course> findByInstructorId(String instructorId, Collection<String> fields) {
+        return findByInstructorId(instructorId); // Whole documents cost nothing extra in memory
+    }
+
+    @Override
+    public void deleteById(String courseId) {
+        courses.computeIfPresent(courseId, (id, existing) -> {
+            unindex(id, existing.getInstructorId());
+            unindexUpdate(id, existing);
+            tombstones.add(new Change(System.currentTimeMillis(), id));
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteModule(String courseId, String moduleId) {
+        courses.computeIfPresent(courseId, (id, existing) -> {
+            if (existing.getModules() == null) {
+                return existing;
+            }
+            Course updated = InMemoryDocuments.copy(existing);
+            updated.setModules(updated.getModules().stream()
+                    .filter(module -> !module.getModuleId().equals(moduleId))
+                    .collect(Collectors.toList()));
+            return stamp(id, existing, updated);
+        });
+    }
+
+    @Override
+    public void deleteLesson(String courseId, String moduleId, String lessonId) {
+        courses.computeIfPresent(courseId, (id, existing) -> {
+            if (existing.getModules() == null) {
+                return existing;
+            }
+            Course updated = InMemoryDocuments.copy(existing);
+            for (Module module : updated.getModules()) {
+                if (module.getModuleId().equals(moduleId) && module.getLessons() != null) {
+                    module.setLessons(module.getLessons().stream()
+                            .filter(lesson -> !lesson.getLessonId().equals(lessonId))
+                            .collect(Collectors.toList()));
+                    break;
+                }
+            }
+            return stamp(id, existing, updated);
+        });
+    }
+
+    @Override
+    public ChangePage<Course> findUpdatedSince(ChangeCursor after, int limit) {
+        List<Course> result = new ArrayList<>();
+        ChangeCursor last = null;
+        for (Change change : tailAfter(updates, after)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Course course = courses.get(change.courseId());
+            // Re-check: the course may have been written again or deleted since the index was read
+            if (course != null && course.getUpdatedAt() != null && course.getUpdatedAt().getTime() == change.at()) {
+                result.add(InMemoryDocuments.copy(course));
+                last = change.cursor();
+            }
+        }
+        return new ChangePage<>(result, last);
+    }
+
+    @Override
+    public ChangePage<CourseTombstone> findDeletedSince(ChangeCursor after, int limit) {
+        List<Change> changes = tailAfter(tombstones, after).stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+        return new ChangePage<>(changes.stream()
+                .map(change -> new CourseTombstone(change.courseId(), new Date(change.at())))
+                .collect(Collectors.toList()),
+                changes.isEmpty() ? null : changes.get(changes.size() - 1).cursor());
+    }
+
+    /** The index entries after the cursor, whose time may fall inside a millisecond. */
+    private static NavigableSet<Change> tailAfter(NavigableSet<Change> index, ChangeCursor after) {
+        long atMillis = Math.floorDiv(after.atMicros(), 1000);
+        if (after.id() == null || after.atMicros() % 1000 != 0) {
+            return index.tailSet(new Change(atMillis + 1, ""), true);
+        }
+        return index.tailSet(new Change(atMillis, after.id()), false);
+    }
+
+    @Override
+    public int purgeTombstones(Date cutoff) {
+        NavigableSet<Change> expired = tombstones.headSet(new Change(cutoff.getTime(), ""), false);
+        int purged = expired.size();
+        expired.clear();
+        return purged;
+    }
+
+    private void put(Course course) {
+        course.setUpdatedAt(new Date());
+        Course stored = InMemoryDocuments.copy(course);
+        courses.compute(stored.getUid(), (id, existing) -> {
+            if (existing != null && !Objects.equals(existing.getInstructorId(), stored.getInstructorId())) {
+                unindex(id, existing.getInstructorId());
+            }
+            unindexUpdate(id, existing);
+            updates.add(new Change(stored.getUpdatedAt().getTime(), id));
+            if (stored.getInstructorId() != null) {
+                courseIdsByInstructor.computeIfAbsent(stored.getInstructorId(), key -> ConcurrentHashMap.newKeySet())
+                        .add(id);
+            }
+            return stored;
+        });
+    }
+
+    /** Sets updatedAt on a new version of a course and moves its updatedAt index entry. */
+    private Course stamp(String courseId, Course previous, Course updated) {
+        updated.setUpdatedAt(new Date());
+        unindexUpdate(courseId, previous);
+        updates.add(new Change(updated.getUpdatedAt().getTime(), courseId));
+        return updated;
+    }
+
+    private void unindexUpdate(String courseId, Course previous) {
+        if (previous != null && previous.getUpdatedAt() != null) {
+            updates.remove(new Change(previous.getUpdatedAt().getTime(), courseId));
+        }
+    }
+
+    private void unindex(String courseId, String instructorId) {
+        if (instructorId == null) {
+            return;
+        }
+        courseIdsByInstructor.computeIfPresent(instructorId, (key, ids) -> {
+            ids.remove(courseId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Enrollment;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.model.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Helpers shared by the in-memory repositories. Stored objects are deep
+ * copies in both directions, so callers can mutate what they get back (as
+ * the services do) exactly as they could a freshly deserialized Firestore
+ * document, without corrupting the store.
+ */
+final class InMemoryDocuments {
+
+    private static final String ID_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int ID_LENGTH = 20;
+
+    private InMemoryDocuments() {
+    }
+
+    /** A random 20-character id, the same shape as Firestore's auto-generated ids. */
+    static String newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[ID_LENGTH];
+        for (int i = 0; i < ID_LENGTH; i++) {
+            id[i] = ID_ALPHABET.charAt(random.nextInt(ID_ALPHABET.length()));
+        }
+        return new String(id);
+    }
+
+    static Course copy(Course course) {
+        Course copy = new Course();
+        copy.setUid(course.getUid());
+        copy.setTitle(course.getTitle());
+        copy.setDescription(course.getDescription());
+        copy.setInstructorId(course.getInstructorId());
+        copy.setInstructorName(course.getInstructorName());
+        copy.setThumbnailUrl(course.getThumbnailUrl());
+        copy.setThumbnailObjectKey(course.getThumbnailObjectKey());
+        copy.setThumbnailVariants(course.getThumbnailVariants() != null
+                ? new HashMap<>(course.getThumbnailVariants())
+                : null);
+        copy.setEnrollmentCount(course.getEnrollmentCount());
+        copy.setPublishStatus(course.getPublishStatus());
+        copy.setUpdatedAt(copy(course.getUpdatedAt()));
+        if (course.getModules() != null) {
+            List<Module> modules = new ArrayList<>(course.getModules().size());
+            for (Module module : course.getModules()) {
+                modules.add(copy(module));
+            }
+            copy.setModules(modules);
+        }
+        return copy;
+    }
+
+    static Module copy(Module module) {
+        Module copy = new Module();
+        copy.setModuleId(module.getModuleId());
+        copy.setTitle(module.getTitle());
+        if (module.getLessons() != null) {
+            List<Lesson> lessons = new ArrayList<>(module.getLessons().size());
+            for (Lesson lesson : module.getLessons()) {
+                lessons.add(copy(lesson));
+            }
+            copy.setLessons(lessons);
+        }
+        return copy;
+    }
+
+    static Lesson copy(Lesson lesson) {
+        Lesson copy = new Lesson();
+        copy.setLessonId(lesson.getLessonId());
+        copy.setTitle(lesson.getTitle());
+        copy.setVideoUrl(lesson.getVideoUrl());
+        copy.setTextContent(lesson.getTextContent());
+        copy.setDurationSeconds(lesson.getDurationSeconds());
+        copy.setVideoSizeBytes(lesson.getVideoSizeBytes());
+        copy.setVideoWidth(lesson.getVideoWidth());
+        copy.setVideoHeight(lesson.getVideoHeight());
+        copy.setVideoBitrate(lesson.getVideoBitrate());
+        copy.setVideoCrc32(lesson.getVideoCrc32());
+        copy.setVideoETag(lesson.getVideoETag());
+        return copy;
+    }
+
+    static Enrollment copy(Enrollment enrollment) {
+        return new Enrollment(enrollment.getUid(), enrollment.getUserId(), enrollment.getCourseId(),
+                copy(enrollment.getEnrolledAt()),
+                enrollment.getProgress(),
+                enrollment.getLessonProgress() != null ? new HashMap<>(enrollment.getLessonProgress()) : null,
+                enrollment.getLessonPositions() != null ? new HashMap<>(enrollment.getLessonPositions()) : null,
+                copy(enrollment.getProgressUpdatedAt()),
+                copy(enrollment.getUpdatedAt()));
+    }
+
+    static Date copy(Date date) {
+        return date != null ? new Date(date.getTime()) : null;
+    }
+
+    static User copy(User user) {
+        User copy = new User();
+        copy.setUid(user.getUid());
+        copy.setEmail(user.getEmail());
+        copy.setDisplayName(user.getDisplayName());
+        copy.setRoles(user.getRoles() != null ? new ArrayList<>(user.getRoles()) : null);
+        return copy;
+    }
+}
@@ -0,0 +1,114 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.model.Enrollment;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Enrollment storage in a ConcurrentHashMap, indexed by userId and by the
+ * (userId, courseId) pair so both lookups avoid scanning every enrollment.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryEnrollmentRepository implements EnrollmentRepository {
+
+    private final Map<String, Enrollment> enrollments = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> enrollmentIdsByUser = new ConcurrentHashMap<>();
+    private final Map<String, String> enrollmentIdByUserAndCourse = new ConcurrentHashMap<>();
+
+    @Override
+    public Enrollment save(Enrollment enrollment) {
+        enrollment.setUid(InMemoryDocuments.newId());
+        enrollment.setUpdatedAt(new Date());
+        Enrollment stored = InMemoryDocuments.copy(enrollment);
+        enrollments.put(stored.getUid(), stored);
+
+        // Indexes are written after the document so a reader never finds a dangling id
+        enrollmentIdsByUser.computeIfAbsent(stored.getUserId(), key -> ConcurrentHashMap.newKeySet())
+                .add(stored.getUid());
+        enrollmentIdByUserAndCourse.putIfAbsent(pairKey(stored.getUserId(), stored.getCourseId()), stored.getUid());
+        return enrollment;
+    }
+
+    @Override
+    public Optional<Enrollment> findByUserIdAndCourseId(String userId, String courseId) {
+        String id = enrollmentIdByUserAndCourse.get(pairKey(userId, courseId));
+        Enrollment enrollment = id != null ? enrollments.get(id) : null;
+        return enrollment != null ? Optional.of(InMemoryDocuments.copy(enrollment)) : Optional.empty();
+    }
+
+    @Override
+    public List<Enrollment> findByUserId(String userId) {
+        Set<String> ids = enrollmentIdsByUser.getOrDefault(userId, Set.of());
+        List<Enrollment> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Enrollment enrollment = enrollments.get(id);
+            if (enrollment != null) {
+                result.add(InMemoryDocuments.copy(enrollment));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ChangePage<Enrollment> findByUserIdUpdatedSince(String userId, ChangeCursor after, int limit) {
+        // A user has few enrollments, so filtering their index is as cheap as a second index would be
+        List<Enrollment> result = enrollmentIdsByUser.getOrDefault(userId, Set.of()).stream()
+                .map(enrollments::get)
+                .filter(enrollment -> enrollment != null && enrollment.getUpdatedAt() != null
+                        && cursor(enrollment).compareTo(after) > 0)
+                .sorted(Comparator.comparing(InMemoryEnrollmentRepository::cursor))
+                .limit(limit)
+                .map(InMemoryDocuments::copy)
+                .collect(Collectors.toList());
+        return new ChangePage<>(result, result.isEmpty() ? null : cursor(result.get(result.size() - 1)));
+    }
+
+    private static ChangeCursor cursor(Enrollment enrollment) {
+        return ChangeCursor.of(enrollment.getUpdatedAt(), enrollment.getUid());
+    }
+
+    @Override
+    public void updateProgress(List<ProgressUpdate> updates) throws ExecutionException {
+        // Not atomic across updates (Firestore batches are), but each document is
+        for (ProgressUpdate update : updates) {
+            Enrollment updated = enrollments.computeIfPresent(update.enrollmentId(), (key, existing) -> {
+                Enrollment copy = InMemoryDocuments.copy(existing);
+                Map<String, Double> lessonProgress = update.mergeInto(copy.getLessonProgress());
+                copy.setLessonProgress(lessonProgress);
+                copy.setProgress(ProgressUpdate.courseProgress(update.lessonIds(), lessonProgress));
+                copy.setLessonPositions(merged(copy.getLessonPositions(), update.lessonPositions()));
+                copy.setProgressUpdatedAt(new Date(update.updatedAt().getTime()));
+                copy.setUpdatedAt(new Date());
+                return copy;
+            });
+            if (updated == null) {
+                // Same outcome as Firestore's update() on a missing document
+                throw new ExecutionException(
+                        new IllegalStateException("No enrollment document for id: " + update.enrollmentId()));
+            }
+        }
+    }
+
+    private static Map<String, Double> merged(Map<String, Double> stored, Map<String, Double> changes) {
+        Map<String, Double> result = stored != null ? stored : new HashMap<>();
+        result.putAll(changes);
+        return result;
+    }
+
+    private static String pairKey(String userId, String courseId) {
+        return userId + '\u0000' + courseId;
+    }
+}
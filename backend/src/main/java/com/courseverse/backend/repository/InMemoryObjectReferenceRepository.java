@@ -0,0 +1,56 @@
+package com.courseverse.backend.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Object reference counts and leases in a ConcurrentHashMap keyed by object key.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryObjectReferenceRepository implements ObjectReferenceRepository {
+
+    private record Holds(long count, long leases, long leasedUntilMillis) {
+
+        long total() {
+            return count + leases;
+        }
+    }
+
+    private final Map<String, Holds> holds = new ConcurrentHashMap<>();
+
+    @Override
+    public long adjust(String objectKey, long delta) {
+        return apply(objectKey, delta, 0, 0);
+    }
+
+    @Override
+    public long lease(String objectKey, Date until) {
+        return apply(objectKey, 0, 1, until.getTime());
+    }
+
+    @Override
+    public long claim(String objectKey) {
+        return apply(objectKey, 1, -1, 0);
+    }
+
+    private long apply(String objectKey, long countDelta, long leaseDelta, long leaseUntilMillis) {
+        long now = System.currentTimeMillis();
+        Holds updated = holds.compute(objectKey, (key, current) -> {
+            long count = current != null ? current.count() : 0;
+            // Lapsed leases count for nothing
+            boolean live = current != null && current.leasedUntilMillis() > now;
+            long leases = live ? current.leases() : 0;
+            long until = live ? current.leasedUntilMillis() : 0;
+
+            Holds next = new Holds(Math.max(0, count + countDelta), Math.max(0, leases + leaseDelta),
+                    Math.max(until, leaseUntilMillis));
+            return next.total() > 0 ? next : null;
+        });
+        return updated != null ? updated.total() : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.model.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * User storage in a ConcurrentHashMap keyed by uid.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<User> findById(String uid) {
+        User user = users.get(uid);
+        return user != null ? Optional.of(InMemoryDocuments.copy(user)) : Optional.empty();
+    }
+
+    @Override
+    public void save(User user) {
+        users.put(user.getUid(), InMemoryDocuments.copy(user));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return users.values().stream()
+                .map(InMemoryDocuments::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<User> findAll(Collection<String> fields) {
+        return findAll();
+    }
+
+    @Override
+    public void updateRoles(String uid, List<String> roles) throws ExecutionException {
+        User updated = users.computeIfPresent(uid, (key, existing) -> {
+            User copy = InMemoryDocuments.copy(existing);
+            copy.setRoles(new ArrayList<>(roles));
+            return copy;
+        });
+        if (updated == null) {
+            // Same outcome as Firestore's update() on a missing document
+            throw new ExecutionException(new IllegalStateException("No user document for uid: " + uid));
+        }
+    }
+}
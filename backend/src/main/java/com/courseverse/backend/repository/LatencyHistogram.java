@@ -0,0 +1,96 @@
+package com.courseverse.backend.repository;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram (microsecond resolution).
+ * Counts are halved once enough samples accumulate so percentiles follow
+ * recent behaviour instead of the whole lifetime of the instance.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4; // Buckets per power of two (~19% precision)
+    private static final int MAX_EXPONENT = 40; // 2^40 us is far beyond any deadline
+    private static final int BUCKETS = MAX_EXPONENT * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicBoolean decaying = new AtomicBoolean();
+    private final long decayThreshold;
+
+    public LatencyHistogram(long decayThreshold) {
+        this.decayThreshold = decayThreshold;
+    }
+
+    public void record(long micros) {
+        counts.incrementAndGet(bucketFor(micros));
+        if (total.incrementAndGet() >= decayThreshold) {
+            decay();
+        }
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * Returns the upper bound (in microseconds) of the bucket holding the given
+     * percentile, or -1 if fewer than minSamples have been recorded.
+     */
+    public long percentile(double percentile, long minSamples) {
+        long n = total.get();
+        if (n < minSamples || n == 0) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(percentile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private void decay() {
+        // Only one thread halves the counts; concurrent increments may be lost,
+        // which is fine for an estimate.
+        if (!decaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long halved = counts.get(i) / 2;
+                counts.set(i, halved);
+                sum += halved;
+            }
+            total.set(sum);
+        } finally {
+            decaying.set(false);
+        }
+    }
+
+    static int bucketFor(long micros) {
+        if (micros < 1) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        long base = 1L << exponent;
+        int sub = (int) (((micros - base) * SUB_BUCKETS) >>> exponent);
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        return (1L << exponent) + (((sub + 1L) << exponent) / SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,33 @@
+package com.courseverse.backend.repository;
+
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reference counts for content-addressed S3 objects, which several courses
+ * can share, plus time-limited leases that protect an object between handing
+ * its key to a client and the course that uses it being saved. Implemented by
+ * FirestoreObjectReferenceRepository (default) and
+ * InMemoryObjectReferenceRepository (the "in-memory" profile).
+ *
+ * Every method returns the object's holds afterwards: its count plus one per
+ * unexpired lease. Zero holds means nothing may still use the object, and
+ * removes the record.
+ */
+public interface ObjectReferenceRepository {
+
+    /**
+     * Atomically adds delta (which may be negative) to the object's count,
+     * never below zero.
+     */
+    long adjust(String objectKey, long delta) throws ExecutionException, InterruptedException;
+
+    /** Atomically adds a lease on the object that lapses at until. */
+    long lease(String objectKey, Date until) throws ExecutionException, InterruptedException;
+
+    /**
+     * Atomically adds one to the object's count and drops one of its
+     * unexpired leases, if it has any: the lease has turned into a reference.
+     */
+    long claim(String objectKey) throws ExecutionException, InterruptedException;
+}
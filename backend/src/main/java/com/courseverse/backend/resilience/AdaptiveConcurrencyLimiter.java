@@ -0,0 +1,76 @@
+package com.courseverse.backend.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight request limit that adapts to observed latency (gradient
+ * algorithm). Samples should come from requests of similar cost, since a
+ * much faster kind of request sets a best RTT the others never reach. While latency stays near the best recently seen RTT the limit
+ * grows by roughly sqrt(limit); once requests start queueing and latency
+ * rises, the limit shrinks in proportion, shedding load before threads and
+ * Firestore quota are exhausted.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 2.0;
+    private static final int MIN_RTT_RESET_SAMPLES = 1_000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot. Only samples that reflect real backend work should be
+     * used to adapt the limit.
+     */
+    public void release(long rttNanos, boolean sample) {
+        inFlight.decrementAndGet();
+        if (sample) {
+            update(rttNanos);
+        }
+    }
+
+    private synchronized void update(long rttNanos) {
+        // Periodically forget the best RTT so a lasting shift is re-learned
+        if (++samples % MIN_RTT_RESET_SAMPLES == 0) {
+            minRttNanos = rttNanos;
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * minRttNanos / (double) Math.max(1, rttNanos)));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
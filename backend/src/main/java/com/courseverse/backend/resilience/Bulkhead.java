@@ -0,0 +1,75 @@
+package com.courseverse.backend.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit with a bounded wait queue. Up to maxConcurrent callers run
+ * at once; up to maxQueued more wait at most maxWaitMillis for a slot; anyone
+ * else is rejected immediately.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMillis;
+
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Returns true if a slot was acquired; the caller must then call release().
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejected.incrementAndGet();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,108 @@
+package com.courseverse.backend.resilience;
+
+import com.courseverse.backend.exception.CircuitOpenException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker. After failureThreshold failures in a
+ * row the circuit opens and calls fail fast for openDurationMillis; then a
+ * single probe call is let through to decide whether to close it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * Throws CircuitOpenException if the call must not be attempted.
+     * Every permitted call must be followed by exactly one of onSuccess,
+     * onFailure or onIgnored.
+     */
+    public void acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return;
+        }
+
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                throw openException();
+            }
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+
+        // Half-open: only one probe at a time
+        if (!probeInFlight.compareAndSet(false, true)) {
+            throw openException();
+        }
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            System.out.println("Circuit '" + name + "' closed again after a successful probe");
+            probeInFlight.set(false);
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            trip();
+            probeInFlight.set(false);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state.get() == State.CLOSED) {
+            trip();
+        }
+    }
+
+    /** The call ended without telling us anything about the backend (e.g. interrupted). */
+    public void onIgnored() {
+        if (state.get() == State.HALF_OPEN) {
+            probeInFlight.set(false);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void trip() {
+        openedAt = System.currentTimeMillis();
+        state.set(State.OPEN);
+        consecutiveFailures.set(0);
+        System.err.println("Circuit '" + name + "' opened for " + openDurationMillis + " ms");
+    }
+
+    private CircuitOpenException openException() {
+        long remainingMillis = Math.max(0, openDurationMillis - (System.currentTimeMillis() - openedAt));
+        long retryAfterSeconds = Math.max(1, (remainingMillis + 999) / 1000);
+        return new CircuitOpenException(
+                "Service temporarily unavailable (" + name + " circuit open)", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,56 @@
+package com.courseverse.backend.resilience;
+
+/**
+ * Traffic classes that get their own bulkhead, so a burst in one class
+ * (e.g. an admin bulk delete) cannot starve another (e.g. lesson playback).
+ */
+public enum EndpointClass {
+    PUBLIC_CATALOG("public-catalog"),
+    STUDENT("student"),
+    MEDIA("media"),
+    INSTRUCTOR("instructor"),
+    ADMIN("admin");
+
+    private final String key;
+
+    EndpointClass(String key) {
+        this.key = key;
+    }
+
+    /** Property/metric key, e.g. "public-catalog". */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Maps a request path to its traffic class, or null for paths that are not
+     * bulkheaded (health checks, actuator). Prefixes match whole path
+     * segments, so /api/v1/coursesX is not a catalog path.
+     */
+    public static EndpointClass classify(String path) {
+        if (path == null) {
+            return null;
+        }
+        if (under(path, "/api/v1/admin")) {
+            return ADMIN;
+        }
+        if (under(path, "/api/v1/instructor") || under(path, "/api/v1/uploads")) {
+            return INSTRUCTOR;
+        }
+        if (under(path, "/api/v1/student") && (path.endsWith("/video") || path.endsWith("/bundle"))) {
+            return MEDIA; // Long transfers, kept from holding every student slot
+        }
+        if (under(path, "/api/v1/student") || under(path, "/api/v1/sync")) {
+            return STUDENT;
+        }
+        if (under(path, "/api/v1/courses") && !path.equals("/api/v1/courses/health")) {
+            return PUBLIC_CATALOG;
+        }
+        return null;
+    }
+
+    private static boolean under(String path, String prefix) {
+        return path.startsWith(prefix)
+                && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+}
@@ -0,0 +1,11 @@
+package com.courseverse.backend.resilience;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A repository call, with the same checked exceptions the repositories declare.
+ */
+@FunctionalInterface
+public interface RepositoryCall<T> {
+    T call() throws ExecutionException, InterruptedException;
+}
@@ -0,0 +1,97 @@
+package com.courseverse.backend.security;
+
+import com.courseverse.backend.resilience.AdaptiveConcurrencyLimiter;
+import com.courseverse.backend.resilience.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control. Runs before token verification so that when the backend
+ * is saturated, excess requests are shed with 429 before they cost a
+ * verifyIdToken or a Firestore user lookup.
+ *
+ * Each endpoint class has its own limiter: a cached catalog hit and a
+ * Firestore-backed student call differ in latency by an order of magnitude,
+ * so a shared best RTT would read ordinary mixed traffic as queueing and
+ * shrink the limit to its minimum. Limits default to app.admission.*-limit
+ * and can be set per class, e.g. app.admission.admin.max-limit=20.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("app.admission.enabled", Boolean.class, true);
+        int initialLimit = environment.getProperty("app.admission.initial-limit", Integer.class, 50);
+        int minLimit = environment.getProperty("app.admission.min-limit", Integer.class, 10);
+        int maxLimit = environment.getProperty("app.admission.max-limit", Integer.class, 180);
+
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            if (endpointClass == EndpointClass.MEDIA) {
+                continue;
+            }
+            String prefix = "app.admission." + endpointClass.getKey() + ".";
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                    environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                    environment.getProperty(prefix + "max-limit", Integer.class, maxLimit));
+            limiters.put(endpointClass, limiter);
+            shed.put(endpointClass, Counter.builder("courseverse.admission.shed")
+                    .tag("endpoint_class", endpointClass.getKey())
+                    .register(meterRegistry));
+
+            Gauge.builder("courseverse.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("endpoint_class", endpointClass.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("courseverse.admission.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("endpoint_class", endpointClass.getKey())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // Media transfers last as long as the client's connection allows, so their latency is no load
+        // signal and they would pin permits for minutes; the media bulkhead bounds them instead. Health
+        // checks and other unclassified paths are not admission controlled either
+        EndpointClass endpointClass = EndpointClass.classify(request.getRequestURI());
+        AdaptiveConcurrencyLimiter limiter = endpointClass == null ? null : limiters.get(endpointClass);
+        if (!enabled || "OPTIONS".equals(request.getMethod()) || limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            shed.get(endpointClass).increment();
+            RateLimitFilter.TooManyRequests.write(response, 1, "Server is busy, please retry shortly");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sample = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Client errors and failures say nothing about how loaded we are
+            sample = response.getStatus() < 400;
+        } finally {
+            limiter.release(System.nanoTime() - start, sample);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.courseverse.backend.security;
+
+import com.courseverse.backend.resilience.Bulkhead;
+import com.courseverse.backend.resilience.EndpointClass;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits each API request through the bulkhead of its endpoint class. Runs
+ * before token verification, so a burst in one class cannot tie up request
+ * threads in verifyIdToken and the Firestore user lookup while another class
+ * waits.
+ *
+ * Limits are configured per class, e.g.
+ * app.bulkhead.admin.max-concurrent=4, app.bulkhead.admin.max-queued=4,
+ * app.bulkhead.admin.max-wait-ms=2000. Requests rejected by a full bulkhead
+ * get a 503 with Retry-After. Waiting requests hold a Tomcat thread, so the
+ * defaults keep max-concurrent plus max-queued summed over every class (173)
+ * below server.tomcat.threads.max (200).
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Long> retryAfterSeconds = new EnumMap<>(EndpointClass.class);
+
+    public BulkheadFilter(Environment environment, MeterRegistry meterRegistry) {
+        register(environment, meterRegistry, EndpointClass.PUBLIC_CATALOG, 50, 20, 500);
+        register(environment, meterRegistry, EndpointClass.STUDENT, 40, 20, 500);
+        register(environment, meterRegistry, EndpointClass.MEDIA, 10, 5, 500);
+        register(environment, meterRegistry, EndpointClass.INSTRUCTOR, 12, 8, 2000);
+        register(environment, meterRegistry, EndpointClass.ADMIN, 4, 4, 2000);
+    }
+
+    private void register(Environment environment, MeterRegistry meterRegistry, EndpointClass endpointClass,
+            int defaultMaxConcurrent, int defaultMaxQueued, long defaultMaxWaitMs) {
+        String prefix = "app.bulkhead." + endpointClass.getKey() + ".";
+        Bulkhead bulkhead = new Bulkhead(endpointClass.getKey(),
+                environment.getProperty(prefix + "max-concurrent", Integer.class, defaultMaxConcurrent),
+                environment.getProperty(prefix + "max-queued", Integer.class, defaultMaxQueued),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, defaultMaxWaitMs));
+        bulkheads.put(endpointClass, bulkhead);
+        retryAfterSeconds.put(endpointClass,
+                environment.getProperty(prefix + "retry-after-seconds", Long.class, 1L));
+
+        Gauge.builder("courseverse.bulkhead.active", bulkhead, Bulkhead::getActiveCount)
+                .tag("endpoint_class", endpointClass.getKey())
+                .register(meterRegistry);
+        Gauge.builder("courseverse.bulkhead.queue.depth", bulkhead, Bulkhead::getQueueDepth)
+                .tag("endpoint_class", endpointClass.getKey())
+                .register(meterRegistry);
+        Gauge.builder("courseverse.bulkhead.rejected", bulkhead, Bulkhead::getRejectedCount)
+                .tag("endpoint_class", endpointClass.getKey())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpointClass = EndpointClass.classify(path);
+        if (endpointClass == null || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds.get(endpointClass)));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Too many concurrent " + endpointClass.getKey()
+                    + " requests, please retry shortly\"}");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Streamed responses keep their slot until the async processing completes; the async
+            // dispatch itself is not filtered again
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(bulkhead));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    public Map<EndpointClass, Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    /** Releases the slot once async processing is over, however it ended. */
+    private record ReleaseOnComplete(Bulkhead bulkhead) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Followed by onComplete
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Followed by onComplete
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new async cycle drops its listeners; the slot carries over to it
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
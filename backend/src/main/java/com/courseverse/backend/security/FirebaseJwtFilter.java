@@ -1,7 +1,11 @@
 package com.courseverse.backend.security;
 
+import com.courseverse.backend.tracing.Span;
+import com.courseverse.backend.tracing.Tracer;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,15 +24,28 @@ public class FirebaseJwtFilter extends OncePerRequestFilter {
 
     // --- INJECT THE UserDetailsService ---
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final RateLimitFilter rateLimitFilter;
 
-    public FirebaseJwtFilter(UserDetailsService userDetailsService) {
+    public FirebaseJwtFilter(UserDetailsService userDetailsService, MeterRegistry meterRegistry, Tracer tracer,
+            RateLimitFilter rateLimitFilter) {
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            // Already authenticated by MetricsScrapeFilter, whose token is not a Firebase one
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String header = request.getHeader("Authorization");
 
         if (header == null || !header.startsWith("Bearer ")) {
@@ -41,13 +58,28 @@ public class FirebaseJwtFilter extends OncePerRequestFilter {
 
         String token = header.substring(7); // Remove "Bearer " prefix
 
+        FirebaseToken decodedToken;
+        try {
+            decodedToken = verifyIdToken(token);
+        } catch (Exception e) {
+            // Token is invalid (expired, wrong signature, etc.)
+            SecurityContextHolder.clearContext();
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT Token or User Not Found");
+            return;
+        }
+
+        // Rate limit on the verified uid before the user lookup, which costs a
+        // Firestore read (or a write for a first-time user)
+        if (!rateLimitFilter.admit(decodedToken, response)) {
+            return;
+        }
+
         try {
-            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
             String uid = decodedToken.getUid();
 
             // --- THIS IS THE UPDATED PART ---
             // Load user details (including roles) from our database
-            UserDetails userDetails = userDetailsService.loadUserByUsername(uid);
+            UserDetails userDetails = loadUser(uid);
             // ---------------------------------
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -60,7 +92,7 @@ public class FirebaseJwtFilter extends OncePerRequestFilter {
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
         } catch (Exception e) {
-            // Token is invalid (expired, wrong signature, etc.)
+            // User could not be loaded or provisioned
             // Clear the security context
             SecurityContextHolder.clearContext();
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT Token or User Not Found");
@@ -70,4 +102,32 @@ public class FirebaseJwtFilter extends OncePerRequestFilter {
         // Continue the filter chain
         filterChain.doFilter(request, response);
     }
+
+    private FirebaseToken verifyIdToken(String token) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try (Span span = tracer.startSpan("auth.verifyIdToken")) {
+            try {
+                FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
+                outcome = "success";
+                return decodedToken;
+            } catch (Exception e) {
+                span.error(e);
+                throw e;
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("courseverse.auth.verify_token", "outcome", outcome));
+        }
+    }
+
+    private UserDetails loadUser(String uid) {
+        try (Span span = tracer.startSpan("auth.loadUserByUsername")) {
+            try {
+                return userDetailsService.loadUserByUsername(uid);
+            } catch (RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
 }
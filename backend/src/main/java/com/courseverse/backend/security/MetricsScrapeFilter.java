@@ -0,0 +1,58 @@
+package com.courseverse.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Lets a Prometheus scraper, which cannot present a Firebase token, read
+ * /actuator/prometheus with a static bearer token (app.metrics.scrape-token).
+ * A matching request is authenticated with METRICS_AUTHORITY only, which
+ * grants nothing else; FirebaseJwtFilter then leaves it alone. With no token
+ * configured the endpoint is for admins only.
+ */
+@Component
+public class MetricsScrapeFilter extends OncePerRequestFilter {
+
+    public static final String METRICS_AUTHORITY = "ROLE_METRICS_SCRAPER";
+    public static final String SCRAPE_PATH = "/actuator/prometheus";
+
+    private final byte[] expectedHeader;
+
+    public MetricsScrapeFilter(@Value("${app.metrics.scrape-token:}") String scrapeToken) {
+        this.expectedHeader = scrapeToken.isBlank()
+                ? null
+                : ("Bearer " + scrapeToken.trim()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return expectedHeader == null || !"GET".equals(request.getMethod())
+                || !SCRAPE_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader("Authorization");
+        // Constant time, so response timing does not reveal how much of a guess was right
+        if (header != null && MessageDigest.isEqual(expectedHeader, header.getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "metrics-scraper", null, List.of(new SimpleGrantedAuthority(METRICS_AUTHORITY))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,162 @@
+package com.courseverse.backend.security;
+
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-client token-bucket rate limiting. Requests with a Firebase token are
+ * limited per uid by FirebaseJwtFilter, which calls admit() as soon as the
+ * token is verified and before the user is looked up in Firestore; the budget
+ * comes from the token's "roles" custom claim. This filter runs after it and
+ * limits everything still anonymous per client IP. Over-budget requests get
+ * 429 with Retry-After before they reach any Firestore-backed service.
+ *
+ * Budgets: app.rate-limit.<anonymous|student|instructor|admin>.capacity and
+ * .refill-per-second.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int EVICTION_INTERVAL = 10_000;
+
+    private record Budget(String name, double capacity, double refillPerSecond) {
+    }
+
+    private final boolean enabled;
+    private final int maxTrackedClients;
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("app.rate-limit.enabled", Boolean.class, true);
+        this.maxTrackedClients = environment.getProperty("app.rate-limit.max-tracked-clients", Integer.class,
+                100_000);
+        this.meterRegistry = meterRegistry;
+
+        register(environment, "anonymous", 60, 20);
+        register(environment, "student", 40, 10);
+        register(environment, "instructor", 60, 20);
+        register(environment, "admin", 100, 30);
+    }
+
+    private void register(Environment environment, String name, double defaultCapacity,
+            double defaultRefillPerSecond) {
+        String prefix = "app.rate-limit." + name + ".";
+        budgets.put(name, new Budget(name,
+                environment.getProperty(prefix + "capacity", Double.class, defaultCapacity),
+                environment.getProperty(prefix + "refill-per-second", Double.class, defaultRefillPerSecond)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Token holders were already limited by uid in FirebaseJwtFilter
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getPrincipal())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (consume("ip:" + request.getRemoteAddr(), budgets.get("anonymous"), response)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * Limits a caller whose Firebase token has just been verified. Called
+     * before the user is loaded, so a client over its budget costs no
+     * Firestore reads or provisioning writes. Returns false after writing a
+     * 429 when the request must stop here.
+     */
+    public boolean admit(FirebaseToken token, HttpServletResponse response) throws IOException {
+        if (!enabled) {
+            return true;
+        }
+        return consume("uid:" + token.getUid(), budgetFor(rolesClaim(token)), response);
+    }
+
+    private boolean consume(String clientKey, Budget budget, HttpServletResponse response) throws IOException {
+        // Budgets are per role, so a promoted user starts a fresh bucket
+        TokenBucket bucket = buckets.computeIfAbsent(clientKey + "|" + budget.name(),
+                key -> new TokenBucket(budget.capacity(), budget.refillPerSecond()));
+        long waitNanos = bucket.tryConsume();
+
+        if (requests.incrementAndGet() % EVICTION_INTERVAL == 0 && buckets.size() > maxTrackedClients) {
+            // Forget idle clients; a full bucket is identical to a new one
+            buckets.values().removeIf(TokenBucket::isFull);
+        }
+
+        if (waitNanos > 0) {
+            rejections.computeIfAbsent(budget.name(), role -> Counter.builder("courseverse.ratelimit.rejected")
+                    .tag("role", role)
+                    .register(meterRegistry)).increment();
+
+            TooManyRequests.write(response, TokenBucket.retryAfterSeconds(waitNanos),
+                    "Rate limit exceeded, please slow down");
+            return false;
+        }
+        return true;
+    }
+
+    // Tokens minted before the claim was first set carry none: student budget
+    private static Set<String> rolesClaim(FirebaseToken token) {
+        Object claim = token.getClaims().get(SecurityRoles.CLAIM);
+        if (!(claim instanceof Collection<?> roles)) {
+            return Set.of();
+        }
+        return roles.stream().map(String::valueOf).collect(Collectors.toSet());
+    }
+
+    private Budget budgetFor(Set<String> roles) {
+        if (roles.contains(SecurityRoles.ROLE_ADMIN.name())) {
+            return budgets.get("admin");
+        }
+        if (roles.contains(SecurityRoles.ROLE_INSTRUCTOR.name())) {
+            return budgets.get("instructor");
+        }
+        return budgets.get("student");
+    }
+
+    /** Writes a 429 with Retry-After and our usual JSON error body. */
+    static final class TooManyRequests {
+
+        private TooManyRequests() {
+        }
+
+        static void write(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"" + message + "\"}");
+        }
+    }
+}
@@ -3,5 +3,11 @@ package com.courseverse.backend.security;
 public enum SecurityRoles {
     ROLE_STUDENT,
     ROLE_INSTRUCTOR,
-    ROLE_ADMIN // Good to have for future use
+    ROLE_ADMIN; // Good to have for future use
+
+    /**
+     * Firebase custom claim mirroring the user's roles, so they can be read
+     * from a verified token without a Firestore lookup.
+     */
+    public static final String CLAIM = "roles";
 }
@@ -0,0 +1,65 @@
+package com.courseverse.backend.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket. The whole bucket state lives in one immutable
+ * record swapped with compare-and-set, so concurrent requests for the same
+ * uid never block each other.
+ */
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoTime;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(double capacity, double refillPerSecond, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.nanoTime = nanoTime;
+        this.state = new AtomicReference<>(new State(capacity, nanoTime.getAsLong()));
+    }
+
+    /** A wait returned by tryConsume() as whole seconds for Retry-After, rounded up and at least 1. */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, Math.ceilDiv(waitNanos, TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * Takes one token. Returns 0 on success, otherwise the number of
+     * nanoseconds until a token will be available.
+     */
+    public long tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = nanoTime.getAsLong();
+            double tokens = available(current, now);
+
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    /** True once the bucket has refilled completely, i.e. the client is idle. */
+    public boolean isFull() {
+        return available(state.get(), nanoTime.getAsLong()) >= capacity;
+    }
+
+    private double available(State current, long now) {
+        return Math.min(capacity, current.tokens() + (now - current.refilledAtNanos()) * refillPerNano);
+    }
+}
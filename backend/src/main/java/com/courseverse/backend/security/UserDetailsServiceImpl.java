@@ -4,6 +4,8 @@ import com.courseverse.backend.model.User;
 import com.courseverse.backend.repository.UserRepository;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.UserRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,9 +21,11 @@ import java.util.stream.Collectors;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -30,6 +34,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String uid) throws UsernameNotFoundException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             // 1. Try to find the user in our Firestore 'users' collection
             Optional<User> userOptional = userRepository.findById(uid);
@@ -38,10 +44,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             if (userOptional.isPresent()) {
                 // 2. User exists, use them
                 user = userOptional.get();
+                outcome = "existing";
             } else {
                 // 3. User NOT found. This is a NEW USER. Provision them.
                 System.out.println("User not found in Firestore, provisioning new user with UID: " + uid);
                 user = createNewStudentUser(uid);
+                outcome = "provisioned";
             }
 
             // 4. Convert our List<String> roles to Spring's List<GrantedAuthority>
@@ -56,7 +64,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     authorities);
 
         } catch (Exception e) {
+            outcome = "error";
             throw new UsernameNotFoundException("Error fetching or creating user: " + e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("courseverse.auth.load_user", "outcome", outcome));
         }
     }
 
@@ -64,6 +75,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * Helper method to create a new User document in Firestore.
      */
     private User createNewStudentUser(String uid) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             // 1. Fetch the user's data from Firebase Auth
             UserRecord userRecord = FirebaseAuth.getInstance().getUser(uid);
@@ -82,11 +95,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             userRepository.save(newUser);
 
             System.out.println("Successfully created new user: " + userRecord.getEmail());
+            outcome = "success";
             return newUser;
 
         } catch (Exception e) {
             // This is a critical failure (e.g., Firebase Auth is down)
             throw new RuntimeException("Could not provision new user: " + e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("courseverse.auth.provision_user", "outcome", outcome));
         }
     }
 }
@@ -8,9 +8,12 @@ import com.courseverse.backend.model.User;
 import com.courseverse.backend.repository.CourseRepository;
 import com.courseverse.backend.repository.UserRepository;
 import com.courseverse.backend.security.SecurityRoles;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
@@ -20,15 +23,28 @@ public class AdminService {
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
     private final S3Service s3Service;
+    private final ObjectReferenceService objectReferenceService;
+    private final CatalogCache catalogCache;
 
-    public AdminService(UserRepository userRepository, CourseRepository courseRepository, S3Service s3Service) {
+    public AdminService(UserRepository userRepository, CourseRepository courseRepository, S3Service s3Service,
+            ObjectReferenceService objectReferenceService, CatalogCache catalogCache) {
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
         this.s3Service = s3Service;
+        this.objectReferenceService = objectReferenceService;
+        this.catalogCache = catalogCache;
     }
 
     public List<User> getAllUsers() throws ExecutionException, InterruptedException {
-        return userRepository.findAll();
+        return getAllUsers(FieldSelection.ALL);
+    }
+
+    /** Every user, reading from Firestore only the selected fields (the uid is the document id). */
+    public List<User> getAllUsers(FieldSelection fields) throws ExecutionException, InterruptedException {
+        if (fields.isAll()) {
+            return userRepository.findAll();
+        }
+        return userRepository.findAll(fields.fields().stream().filter(field -> !field.equals("uid")).toList());
     }
 
     public void updateUserRoles(String uid, List<String> roles) throws ExecutionException, InterruptedException {
@@ -42,6 +58,16 @@ public class AdminService {
         }
 
         userRepository.updateRoles(uid, roles);
+
+        // Mirror the roles into the token so the rate limiter can pick the budget
+        // without a Firestore read; they take effect when the client refreshes its
+        // ID token. Authorization still uses the Firestore roles, so a failure here
+        // only leaves the user on the student budget for now.
+        try {
+            FirebaseAuth.getInstance().setCustomUserClaims(uid, Map.of(SecurityRoles.CLAIM, roles));
+        } catch (FirebaseAuthException | IllegalStateException e) {
+            System.err.println("Could not set role claims for " + uid + ": " + e.getMessage());
+        }
     }
 
     public void deleteCourse(String courseId) throws ExecutionException, InterruptedException {
@@ -53,31 +79,20 @@ public class AdminService {
 
         Course course = courseOptional.get();
 
-        // Delete all S3 objects associated with this course
-        // 1. Delete course thumbnail if it exists
-        if (course.getThumbnailObjectKey() != null && !course.getThumbnailObjectKey().isBlank()) {
-            s3Service.deleteObject(course.getThumbnailObjectKey());
+        // Release all S3 objects associated with this course (shared objects
+        // are only deleted once no other course uses them)
+        // 1. Course thumbnail, if it exists, and its resized variants (derived from it, so shared with it)
+        if (objectReferenceService.release(course.getThumbnailObjectKey())
+                && course.getThumbnailVariants() != null) {
+            course.getThumbnailVariants().values().forEach(s3Service::deleteObject);
         }
 
-        // 2. Delete all lesson videos
+        // 2. All lesson videos (videoUrl holds the object key, or a URL on old documents)
         if (course.getModules() != null) {
             for (Module module : course.getModules()) {
                 if (module.getLessons() != null) {
                     for (Lesson lesson : module.getLessons()) {
-                        // Extract object key from videoUrl or use a stored objectKey
-                        // For now, we'll assume videoUrl contains the S3 path
-                        if (lesson.getVideoUrl() != null && !lesson.getVideoUrl().isBlank()) {
-                            try {
-                                // Extract the object key from the S3 URL
-                                String objectKey = extractObjectKeyFromUrl(lesson.getVideoUrl());
-                                if (objectKey != null) {
-                                    s3Service.deleteObject(objectKey);
-                                }
-                            } catch (Exception e) {
-                                System.err.println("Error extracting object key from video URL: " + e.getMessage());
-                                // Continue with other deletions
-                            }
-                        }
+                        objectReferenceService.release(lesson.getVideoUrl());
                     }
                 }
             }
@@ -85,6 +100,7 @@ public class AdminService {
 
         // 3. Delete the course document from Firestore
         courseRepository.deleteById(courseId);
+        invalidateCatalog(courseId);
     }
 
     public void deleteModule(String courseId, String moduleId) throws ExecutionException, InterruptedException {
@@ -110,24 +126,16 @@ public class AdminService {
 
         Module module = moduleOptional.get();
 
-        // Delete all lesson videos in this module
+        // Release all lesson videos in this module
         if (module.getLessons() != null) {
             for (Lesson lesson : module.getLessons()) {
-                if (lesson.getVideoUrl() != null && !lesson.getVideoUrl().isBlank()) {
-                    try {
-                        String objectKey = extractObjectKeyFromUrl(lesson.getVideoUrl());
-                        if (objectKey != null) {
-                            s3Service.deleteObject(objectKey);
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Error extracting object key from video URL: " + e.getMessage());
-                    }
-                }
+                objectReferenceService.release(lesson.getVideoUrl());
             }
         }
 
         // Delete the module from Firestore
         courseRepository.deleteModule(courseId, moduleId);
+        invalidateCatalog(courseId);
     }
 
     public void deleteLesson(String courseId, String moduleId, String lessonId)
@@ -168,52 +176,16 @@ public class AdminService {
 
         Lesson lesson = lessonOptional.get();
 
-        // Delete lesson video from S3
-        if (lesson.getVideoUrl() != null && !lesson.getVideoUrl().isBlank()) {
-            try {
-                String objectKey = extractObjectKeyFromUrl(lesson.getVideoUrl());
-                if (objectKey != null) {
-                    s3Service.deleteObject(objectKey);
-                }
-            } catch (Exception e) {
-                System.err.println("Error extracting object key from video URL: " + e.getMessage());
-            }
-        }
+        // Release the lesson video in S3
+        objectReferenceService.release(lesson.getVideoUrl());
 
         // Delete the lesson from Firestore
         courseRepository.deleteLesson(courseId, moduleId, lessonId);
+        invalidateCatalog(courseId);
     }
 
-    /**
-     * Extract the S3 object key from a signed URL or direct S3 URL
-     * This method handles various URL formats
-     */
-    private String extractObjectKeyFromUrl(String videoUrl) {
-        if (videoUrl == null || videoUrl.isBlank()) {
-            return null;
-        }
-
-        try {
-            // Handle presigned URLs (contains query parameters)
-            if (videoUrl.contains("?")) {
-                videoUrl = videoUrl.substring(0, videoUrl.indexOf("?"));
-            }
-
-            // Extract the part after the bucket name
-            // Format: https://bucket-name.s3.region.amazonaws.com/object-key
-            // or: https://bucket-name.s3.amazonaws.com/object-key
-            if (videoUrl.contains(".s3")) {
-                int startIndex = videoUrl.indexOf(".s3");
-                int slashIndex = videoUrl.indexOf("/", startIndex);
-                if (slashIndex != -1 && slashIndex < videoUrl.length() - 1) {
-                    return videoUrl.substring(slashIndex + 1);
-                }
-            }
-
-            return null;
-        } catch (Exception e) {
-            System.err.println("Error extracting object key: " + e.getMessage());
-            return null;
-        }
+    private void invalidateCatalog(String courseId) {
+        catalogCache.invalidate(CatalogCache.courseKey(courseId));
+        catalogCache.invalidate(CatalogCache.CATALOG_KEY);
     }
 }
@@ -0,0 +1,236 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.resilience.RepositoryCall;
+import com.courseverse.backend.tracing.Span;
+import com.courseverse.backend.tracing.Tracer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Stale-while-revalidate cache for public catalog reads.
+ *
+ * - Fresh entries (younger than fresh-ttl) are served as-is.
+ * - Stale entries (up to max-stale) are served immediately while a single
+ * background task refreshes them from Firestore.
+ * - Older or invalidated entries are reloaded synchronously, but if that load
+ * fails (Firestore down, circuit open) the last known good value is served.
+ * - Not-found results (an empty Optional) are only kept for not-found-ttl and
+ * never served stale, so a course created since is not hidden for long.
+ *
+ * Course lookups are public and can name any id, so the cache holds at most
+ * max-entries keys and evicts the least recently used beyond that.
+ *
+ * Each invalidation stamps the entry with a new generation. A load that
+ * started before it may have read the data as it was before the change, so
+ * its result is dropped instead of being cached as fresh.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String CATALOG_KEY = "catalog";
+
+    /** A cached value together with how old it is. */
+    public record Lookup<T>(T value, long ageMillis, boolean stale) {
+
+        public <R> Lookup<R> map(Function<T, R> mapper) {
+            return new Lookup<>(mapper.apply(value), ageMillis, stale);
+        }
+    }
+
+    /** generation: the value of invalidations when this key was last invalidated. */
+    private record Entry(Object value, long loadedAt, boolean invalidated, long generation) {
+    }
+
+    private final long freshTtlMillis;
+    private final long maxStaleMillis;
+    private final long notFoundTtlMillis;
+    private final Map<String, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor revalidator;
+    private final Tracer tracer;
+
+    public CatalogCache(@Value("${app.catalog-cache.fresh-ttl-ms:30000}") long freshTtlMillis,
+            @Value("${app.catalog-cache.max-stale-ms:3600000}") long maxStaleMillis,
+            @Value("${app.catalog-cache.not-found-ttl-ms:5000}") long notFoundTtlMillis,
+            @Value("${app.catalog-cache.max-entries:10000}") int maxEntries,
+            Tracer tracer) {
+        this.tracer = tracer;
+        this.freshTtlMillis = freshTtlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        this.notFoundTtlMillis = Math.min(notFoundTtlMillis, freshTtlMillis);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        // Small and bounded on purpose: a slow Firestore must not pile up threads
+        this.revalidator = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(64), runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-revalidate");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Lookup<T> get(String key, RepositoryCall<T> loader) {
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+
+        if (entry != null && !entry.invalidated()) {
+            long age = now - entry.loadedAt();
+            if (isFresh(entry, age)) {
+                return new Lookup<>((T) entry.value(), age, false);
+            }
+            if (!isNotFound(entry.value()) && age <= maxStaleMillis) {
+                revalidateInBackground(key, loader);
+                return new Lookup<>((T) entry.value(), age, true);
+            }
+        }
+
+        try {
+            long startedAt = invalidations.get();
+            T loaded = loader.call();
+            Entry installed = install(key, loaded, startedAt);
+            // Invalidated while loading: serve what we read, as nothing newer is cached either
+            T value = installed == null || installed.invalidated() ? loaded : (T) installed.value();
+            return new Lookup<>(value, 0, false);
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (entry != null) {
+                // Serve the last known good value rather than an error
+                System.err.println("Serving stale '" + key + "' after load failure: " + e.getMessage());
+                return new Lookup<>((T) entry.value(), now - entry.loadedAt(), true);
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error fetching " + key, e);
+        }
+    }
+
+    /**
+     * The cached value for a key without loading or refreshing it, or null
+     * when nothing is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Lookup<T> peek(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long age = System.currentTimeMillis() - entry.loadedAt();
+        return new Lookup<>((T) entry.value(), age, entry.invalidated() || !isFresh(entry, age));
+    }
+
+    /**
+     * Installs a value that was loaded elsewhere (a snapshot on disk), aged from
+     * when it was loaded. Ignored when the key is already cached or the value is
+     * older than max-stale, which would only force a synchronous reload anyway.
+     */
+    public boolean seed(String key, Object value, long loadedAt) {
+        if (System.currentTimeMillis() - loadedAt > maxStaleMillis) {
+            return false;
+        }
+        return entries.putIfAbsent(key, new Entry(value, loadedAt, false, 0)) == null;
+    }
+
+    /** Reloads a key on the background revalidator, unless already in progress. */
+    public <T> void refreshInBackground(String key, RepositoryCall<T> loader) {
+        revalidateInBackground(key, loader);
+    }
+
+    /**
+     * Forces the next lookup of this key to reload, while keeping the old value
+     * as a fallback should that reload fail.
+     */
+    public void invalidate(String key) {
+        long generation = invalidations.incrementAndGet();
+        entries.computeIfPresent(key, (k, entry) -> new Entry(entry.value(), entry.loadedAt(), true, generation));
+    }
+
+    public static String courseKey(String courseId) {
+        return "course:" + courseId;
+    }
+
+    /** A not-found-ttl of 0 means not-found results are never reused. */
+    private boolean isFresh(Entry entry, long ageMillis) {
+        return isNotFound(entry.value()) ? ageMillis < notFoundTtlMillis : ageMillis <= freshTtlMillis;
+    }
+
+    private static boolean isNotFound(Object value) {
+        return value instanceof Optional<?> optional && optional.isEmpty();
+    }
+
+    /**
+     * Caches a value whose load started when invalidations was at startedAt,
+     * unless the key was invalidated since, and returns the entry now cached
+     * (null if none). A key that is not cached may have been invalidated after
+     * being evicted, so it is only filled when no invalidation happened at all.
+     */
+    private Entry install(String key, Object loaded, long startedAt) {
+        return entries.compute(key, (k, current) -> {
+            if (current == null ? invalidations.get() > startedAt : current.generation() > startedAt) {
+                return current;
+            }
+            long generation = current == null ? 0 : current.generation();
+            return new Entry(keepIfUnchanged(current, loaded), System.currentTimeMillis(), false, generation);
+        });
+    }
+
+    /**
+     * Keeps the cached instance when a reload returned equal data, so caches
+     * built from it by identity (CourseJsonCache) are only rebuilt on change.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T keepIfUnchanged(Entry entry, T value) {
+        return entry != null && Objects.equals(entry.value(), value) ? (T) entry.value() : value;
+    }
+
+    private <T> void revalidateInBackground(String key, RepositoryCall<T> loader) {
+        if (!refreshing.add(key)) {
+            return; // Someone is already refreshing this key
+        }
+        try {
+            revalidator.execute(tracer.wrap(() -> {
+                try (Span span = tracer.startSpan("catalog.revalidate")) {
+                    span.tag("key", key);
+                    long startedAt = invalidations.get();
+                    install(key, loader.call(), startedAt);
+                } catch (Exception e) {
+                    System.err.println("Background revalidation of '" + key + "' failed: " + e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revalidator.shutdownNow();
+    }
+}
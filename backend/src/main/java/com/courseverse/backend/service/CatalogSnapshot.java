@@ -0,0 +1,365 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps a binary snapshot of the course catalog on local disk so a starting
+ * instance can serve the catalog, course pages and lesson lookups before it
+ * has talked to Firestore.
+ *
+ * - On startup the file is memory-mapped, decoded and seeded into CatalogCache
+ * with its real age, then the catalog is reloaded from Firestore in the
+ * background; courses reconcile as they are read.
+ * - Every interval-ms the cached catalog is written back out if it changed,
+ * to a temporary file that is fsynced and atomically moved into place, so a
+ * reader never sees a partial snapshot.
+ *
+ * Snapshots older than app.catalog-cache.max-stale-ms are ignored.
+ */
+@Component
+@Profile("!in-memory")
+@ConditionalOnProperty(name = "app.catalog-snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogSnapshot {
+
+    private static final int MAGIC = 0x43565350; // "CVSP"
+    static final int VERSION = 5;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int CHECKSUM_BYTES = 4;
+
+    record Snapshot(long writtenAt, List<Course> courses) {
+    }
+
+    private final CatalogCache catalogCache;
+    private final CourseRepository courseRepository;
+    private final Path path;
+    private final long intervalMillis;
+    private final ScheduledThreadPoolExecutor writer;
+    private volatile List<Course> lastWritten;
+
+    public CatalogSnapshot(CatalogCache catalogCache, CourseRepository courseRepository,
+            @Value("${app.catalog-snapshot.path:${java.io.tmpdir}/courseverse/catalog.snapshot}") String path,
+            @Value("${app.catalog-snapshot.interval-ms:60000}") long intervalMillis) {
+        this.catalogCache = catalogCache;
+        this.courseRepository = courseRepository;
+        this.path = Path.of(path).toAbsolutePath();
+        this.intervalMillis = intervalMillis;
+        this.writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        restore();
+        writer.scheduleWithFixedDelay(this::writeIfChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        writeIfChanged();
+    }
+
+    void restore() {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        Snapshot snapshot;
+        try {
+            snapshot = read();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable catalog snapshot " + path + ": " + e.getMessage());
+            return;
+        }
+
+        long ageSeconds = (System.currentTimeMillis() - snapshot.writtenAt()) / 1000;
+        if (!catalogCache.seed(CatalogCache.CATALOG_KEY, snapshot.courses(), snapshot.writtenAt())) {
+            System.out.println("Catalog snapshot is " + ageSeconds + "s old, too stale to serve");
+            return;
+        }
+        for (Course course : snapshot.courses()) {
+            if (course.getUid() == null) {
+                continue;
+            }
+            catalogCache.seed(CatalogCache.courseKey(course.getUid()), Optional.of(course), snapshot.writtenAt());
+        }
+        // An unchanged reload keeps this instance, so it is not written back
+        lastWritten = snapshot.courses();
+        catalogCache.refreshInBackground(CatalogCache.CATALOG_KEY, courseRepository::findAll);
+
+        System.out.printf("Restored %d courses from catalog snapshot (%ds old) in %d ms%n",
+                snapshot.courses().size(), ageSeconds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    void writeIfChanged() {
+        CatalogCache.Lookup<List<Course>> catalog = catalogCache.peek(CatalogCache.CATALOG_KEY);
+        if (catalog == null || catalog.value() == lastWritten) {
+            return;
+        }
+        long loadedAt = System.currentTimeMillis() - catalog.ageMillis();
+        try {
+            write(catalog.value(), loadedAt);
+            lastWritten = catalog.value();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not write catalog snapshot " + path + ": " + e.getMessage());
+        }
+    }
+
+    /** Memory-maps and decodes the snapshot file. */
+    Snapshot read() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        }
+    }
+
+    void write(List<Course> courses, long loadedAt) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel));
+                CheckedOutputStream checked = new CheckedOutputStream(file, new CRC32());
+                DataOutputStream data = new DataOutputStream(checked);
+                encode(courses, loadedAt, data);
+                data.flush();
+                new DataOutputStream(file).writeInt((int) checked.getChecksum().getValue());
+                file.flush();
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void encode(List<Course> courses, long writtenAt, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(writtenAt);
+        out.writeInt(courses.size());
+        for (Course course : courses) {
+            writeString(out, course.getUid());
+            writeString(out, course.getTitle());
+            writeString(out, course.getDescription());
+            writeString(out, course.getInstructorId());
+            writeString(out, course.getInstructorName());
+            writeString(out, course.getThumbnailUrl());
+            writeString(out, course.getThumbnailObjectKey());
+            writeStringMap(out, course.getThumbnailVariants());
+            out.writeInt(course.getEnrollmentCount());
+            writeString(out, course.getPublishStatus());
+            writeNullableLong(out, course.getUpdatedAt() != null ? course.getUpdatedAt().getTime() : null);
+            writeSize(out, course.getModules());
+            if (course.getModules() == null) {
+                continue;
+            }
+            for (Module module : course.getModules()) {
+                writeString(out, module.getModuleId());
+                writeString(out, module.getTitle());
+                writeSize(out, module.getLessons());
+                if (module.getLessons() == null) {
+                    continue;
+                }
+                for (Lesson lesson : module.getLessons()) {
+                    writeString(out, lesson.getLessonId());
+                    writeString(out, lesson.getTitle());
+                    writeString(out, lesson.getVideoUrl());
+                    writeString(out, lesson.getTextContent());
+                    writeNullableDouble(out, lesson.getDurationSeconds());
+                    writeNullableLong(out, lesson.getVideoSizeBytes());
+                    writeNullableInt(out, lesson.getVideoWidth());
+                    writeNullableInt(out, lesson.getVideoHeight());
+                    writeNullableLong(out, lesson.getVideoBitrate());
+                    writeNullableLong(out, lesson.getVideoCrc32());
+                    writeString(out, lesson.getVideoETag());
+                }
+            }
+        }
+    }
+
+    private static Snapshot decode(ByteBuffer buffer) throws IOException {
+        int length = buffer.limit();
+        if (length < HEADER_BYTES + CHECKSUM_BYTES) {
+            throw new IOException("truncated snapshot");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, length - CHECKSUM_BYTES));
+        if ((int) crc.getValue() != buffer.getInt(length - CHECKSUM_BYTES)) {
+            throw new IOException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("not a version " + VERSION + " catalog snapshot");
+        }
+
+        long writtenAt = buffer.getLong();
+        int courseCount = buffer.getInt();
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            Course course = new Course();
+            course.setUid(readString(buffer));
+            course.setTitle(readString(buffer));
+            course.setDescription(readString(buffer));
+            course.setInstructorId(readString(buffer));
+            course.setInstructorName(readString(buffer));
+            course.setThumbnailUrl(readString(buffer));
+            course.setThumbnailObjectKey(readString(buffer));
+            course.setThumbnailVariants(readStringMap(buffer));
+            course.setEnrollmentCount(buffer.getInt());
+            course.setPublishStatus(readString(buffer));
+            Long updatedAt = readNullableLong(buffer);
+            course.setUpdatedAt(updatedAt != null ? new Date(updatedAt) : null);
+
+            int moduleCount = buffer.getInt();
+            if (moduleCount >= 0) {
+                List<Module> modules = new ArrayList<>(moduleCount);
+                for (int m = 0; m < moduleCount; m++) {
+                    Module module = new Module();
+                    module.setModuleId(readString(buffer));
+                    module.setTitle(readString(buffer));
+
+                    int lessonCount = buffer.getInt();
+                    if (lessonCount >= 0) {
+                        List<Lesson> lessons = new ArrayList<>(lessonCount);
+                        for (int l = 0; l < lessonCount; l++) {
+                            Lesson lesson = new Lesson();
+                            lesson.setLessonId(readString(buffer));
+                            lesson.setTitle(readString(buffer));
+                            lesson.setVideoUrl(readString(buffer));
+                            lesson.setTextContent(readString(buffer));
+                            lesson.setDurationSeconds(readNullableDouble(buffer));
+                            lesson.setVideoSizeBytes(readNullableLong(buffer));
+                            lesson.setVideoWidth(readNullableInt(buffer));
+                            lesson.setVideoHeight(readNullableInt(buffer));
+                            lesson.setVideoBitrate(readNullableLong(buffer));
+                            lesson.setVideoCrc32(readNullableLong(buffer));
+                            lesson.setVideoETag(readString(buffer));
+                            lessons.add(lesson);
+                        }
+                        module.setLessons(lessons);
+                    }
+                    modules.add(module);
+                }
+                course.setModules(modules);
+            }
+            courses.add(course);
+        }
+        return new Snapshot(writtenAt, courses);
+    }
+
+    private static void writeSize(DataOutputStream out, List<?> list) throws IOException {
+        out.writeInt(list == null ? -1 : list.size());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInt(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getInt() : null;
+    }
+
+    private static Double readNullableDouble(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getDouble() : null;
+    }
+
+    private static Long readNullableLong(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getLong() : null;
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map == null ? -1 : map.size());
+        if (map == null) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readStringMap(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(buffer), readString(buffer));
+        }
+        return map;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,198 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.exception.ResourceNotFoundException;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline course bundles for the mobile app: a ZIP of manifest.json (course,
+ * modules and lessons, with the paths of the files included for each
+ * lesson), each lesson's text and each lesson's video, piped from S3.
+ *
+ * The archive is a StreamingZip, so its layout is fixed by the entry sizes
+ * alone and interrupted downloads resume with a Range request. The bundle's
+ * ETag covers the manifest, the texts and the S3 ETags of the videos, so a
+ * resume against a changed course (If-Range mismatch) restarts cleanly.
+ * A resume needs the CRCs of the videos it skips, which come from S3 when
+ * the object was uploaded with a CRC32 checksum, from the lesson (stored by
+ * VideoMetadataExtractor) when it was computed for the same ETag, or from
+ * CRCs this instance computed on earlier downloads. Videos are never
+ * re-read for their CRC: without one the controller sends the whole bundle.
+ */
+@Service
+public class CourseBundleService {
+
+    private static final String MANIFEST = "manifest.json";
+
+    /** A laid-out bundle, ready to be written in whole or in part. */
+    public record Bundle(StreamingZip zip, String eTag, String fileName) {
+    }
+
+    private final S3Service s3Service;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Long> crcCache; // "<object key>|<S3 ETag>" -> CRC-32, least recently used evicted
+
+    public CourseBundleService(S3Service s3Service, ObjectMapper objectMapper,
+            @Value("${app.bundles.crc-cache-size:10000}") int crcCacheSize) {
+        this.s3Service = s3Service;
+        this.objectMapper = objectMapper;
+        this.crcCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > crcCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Lays out the bundle of a course, limited to the given lessons when
+     * lessonIds is non-empty. The manifest always lists every lesson, so
+     * partial bundles can be merged on the device.
+     */
+    public Bundle build(Course course, Collection<String> lessonIds) {
+        Set<String> selected = lessonIds == null ? Set.of() : new HashSet<>(lessonIds);
+        List<StreamingZip.Entry> files = new ArrayList<>();
+        Set<String> found = new HashSet<>();
+        MessageDigest version = sha256();
+
+        List<Map<String, Object>> modules = new ArrayList<>();
+        for (Module module : course.getModules() != null ? course.getModules() : List.<Module>of()) {
+            List<Map<String, Object>> lessons = new ArrayList<>();
+            for (Lesson lesson : module.getLessons() != null ? module.getLessons() : List.<Lesson>of()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("lessonId", lesson.getLessonId());
+                entry.put("title", lesson.getTitle());
+                entry.put("durationSeconds", lesson.getDurationSeconds());
+                if (selected.isEmpty() || selected.contains(lesson.getLessonId())) {
+                    found.add(lesson.getLessonId());
+                    entry.put("files", addLessonFiles(lesson, files, version));
+                }
+                lessons.add(entry);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("moduleId", module.getModuleId());
+            entry.put("title", module.getTitle());
+            entry.put("lessons", lessons);
+            modules.add(entry);
+        }
+        for (String lessonId : selected) {
+            if (!found.contains(lessonId)) {
+                throw new ResourceNotFoundException("Lesson not found: " + lessonId);
+            }
+        }
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("courseId", course.getUid());
+        manifest.put("title", course.getTitle());
+        manifest.put("description", course.getDescription());
+        manifest.put("instructorName", course.getInstructorName());
+        manifest.put("totalDurationSeconds", course.getTotalDurationSeconds());
+        manifest.put("modules", modules);
+        byte[] manifestBytes;
+        try {
+            manifestBytes = objectMapper.writeValueAsBytes(manifest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write bundle manifest", e);
+        }
+        files.add(0, StreamingZip.Entry.of(MANIFEST, manifestBytes));
+        version.update(manifestBytes);
+
+        StreamingZip zip = new StreamingZip(files, this::rememberCrc);
+        String eTag = "\"" + HexFormat.of().formatHex(version.digest(), 0, 16) + "\"";
+        return new Bundle(zip, eTag, fileName(course, selected));
+    }
+
+    /** Adds a lesson's text and video, returning their paths for the manifest. */
+    private Map<String, String> addLessonFiles(Lesson lesson, List<StreamingZip.Entry> files, MessageDigest version) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        String directory = "lessons/" + lesson.getLessonId() + "/";
+
+        if (lesson.getTextContent() != null && !lesson.getTextContent().isEmpty()) {
+            byte[] text = lesson.getTextContent().getBytes(StandardCharsets.UTF_8);
+            files.add(StreamingZip.Entry.of(directory + "text.txt", text));
+            paths.put("text", directory + "text.txt");
+            version.update(text);
+        }
+
+        String objectKey = S3ObjectKeys.objectKeyOf(lesson.getVideoUrl());
+        if (objectKey != null) {
+            S3Service.ObjectInfo video = s3Service.describeObject(objectKey);
+            String cacheKey = objectKey + "|" + video.eTag();
+            Long crc = video.crc32();
+            if (crc == null && lesson.getVideoCrc32() != null && video.eTag().equals(lesson.getVideoETag())) {
+                crc = lesson.getVideoCrc32();
+            }
+            if (crc == null) {
+                crc = crcCache.get(cacheKey);
+            }
+            String path = directory + "video" + extension(objectKey);
+            files.add(new StreamingZip.Entry(path, video.size(), crc, new VideoContent(cacheKey, objectKey,
+                    video.eTag(), s3Service)));
+            paths.put("video", path);
+            version.update(cacheKey.getBytes(StandardCharsets.UTF_8));
+        }
+        return paths;
+    }
+
+    private void rememberCrc(StreamingZip.Entry entry, long crc) {
+        if (entry.content() instanceof VideoContent video) {
+            crcCache.put(video.cacheKey(), crc);
+        }
+    }
+
+    /** Streams a range of a video from S3; If-Match makes a replaced object fail instead of corrupting the ZIP. */
+    private record VideoContent(String cacheKey, String objectKey, String eTag, S3Service s3Service)
+            implements StreamingZip.Content {
+
+        @Override
+        public void writeTo(OutputStream out, long offset, long length) throws IOException {
+            try (InputStream in = s3Service.openObject(objectKey, eTag, offset, length)) {
+                long copied = in.transferTo(out);
+                if (copied != length) {
+                    throw new IOException("Expected " + length + " bytes of " + objectKey + ", got " + copied);
+                }
+            }
+        }
+    }
+
+    private static String extension(String objectKey) {
+        String fileName = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 && fileName.length() - dot <= 6 ? fileName.substring(dot).toLowerCase() : ".mp4";
+    }
+
+    private static String fileName(Course course, Set<String> selected) {
+        String title = course.getTitle() != null ? course.getTitle().replaceAll("[^A-Za-z0-9._-]+", "-") : "";
+        String base = title.isBlank() || title.equals("-") ? course.getUid() : title;
+        return base + (selected.isEmpty() ? "" : "-partial") + ".zip";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.model.Course;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Serialized JSON for the public catalog and course responses, built once per
+ * cached value rather than by Jackson on every request.
+ *
+ * Entries are keyed like CatalogCache and remember the exact instance they
+ * were built from; CatalogCache keeps the same instance across reloads that
+ * return equal data, so JSON is only regenerated when a course really changes.
+ * Thumbnail URLs are left as holes and presigned per request, from the
+ * thumbnail variant that fits the requested width.
+ */
+@Component
+public class CourseJsonCache {
+
+    private record Entry(Object source, Document document) {
+    }
+
+    /** Serialized JSON plus, per thumbnail key, the resized variants it can be served from. */
+    public record Document(PreSerializedJson json, Map<String, NavigableMap<Integer, String>> variants) {
+
+        /** Presigns, for each thumbnail, the variant that fits thumbWidth (0 for the original). */
+        public PreSerializedJson.Body render(Function<String, String> presign, int thumbWidth, boolean gzip) {
+            if (thumbWidth <= 0 || variants.isEmpty()) {
+                return json.render(presign, gzip);
+            }
+            return json.render(
+                    key -> presign.apply(ThumbnailPipeline.select(key, variants.get(key), thumbWidth)), gzip);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean offHeap;
+    private final boolean gzip;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter builds;
+
+    public CourseJsonCache(ObjectMapper objectMapper,
+            @Value("${app.json-cache.off-heap:false}") boolean offHeap,
+            @Value("${app.json-cache.gzip:true}") boolean gzip,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.offHeap = offHeap;
+        this.gzip = gzip;
+        this.hits = meterRegistry.counter("courseverse.json_cache", "result", "hit");
+        this.builds = meterRegistry.counter("courseverse.json_cache", "result", "build");
+        Gauge.builder("courseverse.json_cache.bytes", entries,
+                map -> map.values().stream().mapToLong(entry -> entry.document().json().footprintBytes()).sum())
+                .register(meterRegistry);
+    }
+
+    public Document catalog(List<Course> courses) {
+        return get(CatalogCache.CATALOG_KEY, courses, courses, false);
+    }
+
+    public Document course(String courseId, Course course) {
+        return get(CatalogCache.courseKey(courseId), course, List.of(course), true);
+    }
+
+    /** Drops a key whose course no longer exists. */
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    private Document get(String key, Object source, List<Course> courses, boolean single) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.source() == source) {
+            hits.increment();
+            return entry.document();
+        }
+        // Concurrent misses may both build; the result is identical, so the last one wins
+        Document document = build(key, courses, single);
+        entries.put(key, new Entry(source, document));
+        builds.increment();
+        return document;
+    }
+
+    private Document build(String key, List<Course> courses, boolean single) {
+        // Random so course content can never be mistaken for a placeholder
+        String placeholder = "courseverse-thumbnail-" + UUID.randomUUID() + "-";
+        List<String> slotKeys = new ArrayList<>();
+        List<Course> templates = new ArrayList<>(courses.size());
+        Map<String, NavigableMap<Integer, String>> variants = new HashMap<>();
+
+        for (Course course : courses) {
+            Course template = CourseService.copyOf(course);
+            String objectKey = CourseService.thumbnailObjectKey(course);
+            if (objectKey != null) {
+                template.setThumbnailObjectKey(objectKey);
+                template.setThumbnailUrl(placeholder + slotKeys.size());
+                slotKeys.add(objectKey);
+                if (course.getThumbnailVariants() != null && !course.getThumbnailVariants().isEmpty()) {
+                    variants.put(objectKey, ThumbnailPipeline.byWidth(course.getThumbnailVariants()));
+                }
+            }
+            templates.add(template);
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(single ? templates.get(0) : templates);
+            return new Document(PreSerializedJson.split(json, placeholder, slotKeys, offHeap, gzip),
+                    Map.copyOf(variants));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error serializing " + key, e);
+        }
+    }
+}
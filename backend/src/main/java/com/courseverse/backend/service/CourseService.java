@@ -15,7 +15,10 @@ import com.courseverse.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
 import java.security.Principal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
@@ -27,67 +30,188 @@ public class CourseService {
     private final UserRepository userRepository;
     private final S3Service s3Service;
     private final EnrollmentService enrollmentService;
+    private final CatalogCache catalogCache;
+    private final CourseJsonCache courseJsonCache;
+    private final PresignedUrlCache presignedUrlCache;
+    private final ObjectReferenceService objectReferenceService;
+    private final ThumbnailPipeline thumbnailPipeline;
+    private final VideoMetadataExtractor videoMetadataExtractor;
 
     public CourseService(CourseRepository courseRepository, UserRepository userRepository,
-            S3Service s3Service, EnrollmentService enrollmentService) {
+            S3Service s3Service, EnrollmentService enrollmentService, CatalogCache catalogCache,
+            CourseJsonCache courseJsonCache, PresignedUrlCache presignedUrlCache,
+            ObjectReferenceService objectReferenceService, ThumbnailPipeline thumbnailPipeline,
+            VideoMetadataExtractor videoMetadataExtractor) {
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
         this.s3Service = s3Service;
         this.enrollmentService = enrollmentService;
+        this.catalogCache = catalogCache;
+        this.courseJsonCache = courseJsonCache;
+        this.presignedUrlCache = presignedUrlCache;
+        this.objectReferenceService = objectReferenceService;
+        this.thumbnailPipeline = thumbnailPipeline;
+        this.videoMetadataExtractor = videoMetadataExtractor;
     }
 
     public List<Course> getAllCourses() {
-        try {
-            List<Course> courses = courseRepository.findAll();
-            // Regenerate presigned URLs for thumbnails since they expire
-            courses.forEach(course -> {
-                // Handle both new courses (with thumbnailObjectKey) and legacy courses (URL
-                // only)
-                if (course.getThumbnailObjectKey() != null && !course.getThumbnailObjectKey().isBlank()) {
-                    // New courses: regenerate from object key
-                    String freshUrl = s3Service.generatePresignedReadUrl(course.getThumbnailObjectKey());
-                    course.setThumbnailUrl(freshUrl);
-                } else if (course.getThumbnailUrl() != null && !course.getThumbnailUrl().isBlank()) {
-                    // Legacy courses: extract object key from existing URL and regenerate
-                    String objectKey = extractS3KeyFromUrl(course.getThumbnailUrl());
-                    if (objectKey != null) {
-                        String freshUrl = s3Service.generatePresignedReadUrl(objectKey);
-                        course.setThumbnailUrl(freshUrl);
-                        course.setThumbnailObjectKey(objectKey); // Save for next time
-                    }
-                }
-            });
-            return courses;
-        } catch (ExecutionException | InterruptedException e) {
-            // Handle exception properly, maybe log it
-            throw new RuntimeException("Error fetching courses", e);
-        }
+        return lookupAllCourses().value();
+    }
+
+    /**
+     * Catalog read served through the stale-while-revalidate cache, so the
+     * homepage keeps working from the last known good data when Firestore is
+     * slow or down. The lookup carries the data age for response headers.
+     */
+    public CatalogCache.Lookup<List<Course>> lookupAllCourses() {
+        return lookupAllCourses(0);
+    }
+
+    /** Like lookupAllCourses, presigning the thumbnail variant that fits thumbWidth. */
+    public CatalogCache.Lookup<List<Course>> lookupAllCourses(int thumbWidth) {
+        return lookupAllCourses(thumbWidth, FieldSelection.ALL);
+    }
+
+    /** As above; thumbnails are only presigned when the selection includes thumbnailUrl. */
+    public CatalogCache.Lookup<List<Course>> lookupAllCourses(int thumbWidth, FieldSelection fields) {
+        return catalogCache.get(CatalogCache.CATALOG_KEY, courseRepository::findAll)
+                .map(courses -> courses.stream()
+                        .map(course -> withFreshThumbnailUrl(course, thumbWidth, fields))
+                        .collect(Collectors.toList()));
     }
 
     public Course getCourseById(String courseId) {
-        try {
-            Course course = courseRepository.findById(courseId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
-
-            // Regenerate presigned URL for thumbnail if it exists
-            if (course.getThumbnailObjectKey() != null && !course.getThumbnailObjectKey().isBlank()) {
-                // New courses: regenerate from object key
-                String freshUrl = s3Service.generatePresignedReadUrl(course.getThumbnailObjectKey());
-                course.setThumbnailUrl(freshUrl);
-            } else if (course.getThumbnailUrl() != null && !course.getThumbnailUrl().isBlank()) {
-                // Legacy courses: extract object key from existing URL and regenerate
-                String objectKey = extractS3KeyFromUrl(course.getThumbnailUrl());
-                if (objectKey != null) {
-                    String freshUrl = s3Service.generatePresignedReadUrl(objectKey);
-                    course.setThumbnailUrl(freshUrl);
-                    course.setThumbnailObjectKey(objectKey);
-                }
+        return lookupCourseById(courseId).value();
+    }
+
+    public CatalogCache.Lookup<Course> lookupCourseById(String courseId) {
+        return lookupCourseById(courseId, 0);
+    }
+
+    public CatalogCache.Lookup<Course> lookupCourseById(String courseId, int thumbWidth) {
+        return lookupCourseById(courseId, thumbWidth, FieldSelection.ALL);
+    }
+
+    public CatalogCache.Lookup<Course> lookupCourseById(String courseId, int thumbWidth, FieldSelection fields) {
+        CatalogCache.Lookup<Optional<Course>> lookup = catalogCache.get(CatalogCache.courseKey(courseId),
+                () -> courseRepository.findById(courseId));
+
+        Course course = lookup.value()
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+
+        return new CatalogCache.Lookup<>(withFreshThumbnailUrl(course, thumbWidth, fields), lookup.ageMillis(),
+                lookup.stale());
+    }
+
+    /**
+     * Same data as lookupAllCourses, as pre-serialized JSON with freshly
+     * presigned thumbnail URLs spliced in. A positive thumbWidth presigns the
+     * smallest thumbnail variant at least that wide instead of the original.
+     */
+    public CatalogCache.Lookup<PreSerializedJson.Body> lookupAllCoursesJson(int thumbWidth, boolean gzip) {
+        return catalogCache.get(CatalogCache.CATALOG_KEY, courseRepository::findAll)
+                .map(courses -> courseJsonCache.catalog(courses).render(presignedUrlCache::get, thumbWidth, gzip));
+    }
+
+    public CatalogCache.Lookup<PreSerializedJson.Body> lookupCourseJsonById(String courseId, int thumbWidth,
+            boolean gzip) {
+        String key = CatalogCache.courseKey(courseId);
+        CatalogCache.Lookup<Optional<Course>> lookup = catalogCache.get(key, () -> courseRepository.findById(courseId));
+
+        Course course = lookup.value().orElseThrow(() -> {
+            courseJsonCache.evict(key);
+            return new ResourceNotFoundException("Course not found with id: " + courseId);
+        });
+
+        return new CatalogCache.Lookup<>(
+                courseJsonCache.course(courseId, course).render(presignedUrlCache::get, thumbWidth, gzip),
+                lookup.ageMillis(), lookup.stale());
+    }
+
+    /**
+     * Returns a copy of a cached course with a freshly presigned thumbnail URL.
+     * Cached courses are shared between requests and must not be mutated, and
+     * presigned URLs expire while cached data may not.
+     */
+    Course withFreshThumbnailUrl(Course cached) {
+        return withFreshThumbnailUrl(cached, 0, FieldSelection.ALL);
+    }
+
+    /**
+     * As above, presigning the smallest thumbnail variant at least thumbWidth
+     * wide when positive, and nothing when the client did not ask for the URL.
+     */
+    Course withFreshThumbnailUrl(Course cached, int thumbWidth, FieldSelection fields) {
+        Course course = copyOf(cached);
+
+        // Handles both new courses (with thumbnailObjectKey) and legacy courses (URL only)
+        String objectKey = thumbnailObjectKey(cached);
+        if (objectKey != null) {
+            course.setThumbnailObjectKey(objectKey);
+        }
+        // Presigning is the costly part of a catalog card, skip it when the URL is filtered out anyway
+        if (objectKey != null && fields.includes("thumbnailUrl")) {
+            String variantKey = thumbWidth > 0
+                    ? ThumbnailPipeline.select(objectKey, ThumbnailPipeline.byWidth(cached.getThumbnailVariants()),
+                            thumbWidth)
+                    : objectKey;
+            course.setThumbnailUrl(presignedUrlCache.get(variantKey));
+        }
+
+        return course;
+    }
+
+    /** Shallow copy of every course field; modules are shared. */
+    static Course copyOf(Course cached) {
+        Course course = new Course();
+        course.setUid(cached.getUid());
+        course.setTitle(cached.getTitle());
+        course.setDescription(cached.getDescription());
+        course.setInstructorId(cached.getInstructorId());
+        course.setInstructorName(cached.getInstructorName());
+        course.setModules(cached.getModules());
+        course.setThumbnailUrl(cached.getThumbnailUrl());
+        course.setThumbnailObjectKey(cached.getThumbnailObjectKey());
+        course.setThumbnailVariants(cached.getThumbnailVariants());
+        course.setEnrollmentCount(cached.getEnrollmentCount());
+        course.setPublishStatus(cached.getPublishStatus());
+        course.setUpdatedAt(cached.getUpdatedAt());
+        return course;
+    }
+
+    /**
+     * The stored course fields behind a selection of response properties:
+     * uid is the document id, totalDurationSeconds is summed from the
+     * modules, and thumbnailUrl is presigned from the thumbnail's key.
+     */
+    static List<String> storedFields(FieldSelection fields) {
+        Set<String> stored = new LinkedHashSet<>();
+        for (String field : fields.fields()) {
+            if (field.equals("uid")) {
+                continue; // The document id, returned with every document
+            }
+            switch (field) {
+                case "totalDurationSeconds" -> stored.add("modules");
+                case "thumbnailUrl" -> stored.addAll(List.of("thumbnailUrl", "thumbnailObjectKey"));
+                default -> stored.add(field);
             }
+        }
+        return List.copyOf(stored);
+    }
 
-            return course;
-        } catch (ExecutionException | InterruptedException e) {
-            throw new RuntimeException("Error fetching course: " + courseId, e);
+    /**
+     * The S3 key a course's thumbnail should be presigned from: the stored key
+     * for new courses, or the key parsed out of the stored URL for legacy ones.
+     * Null when there is no thumbnail or a legacy URL cannot be parsed.
+     */
+    static String thumbnailObjectKey(Course course) {
+        if (course.getThumbnailObjectKey() != null && !course.getThumbnailObjectKey().isBlank()) {
+            return course.getThumbnailObjectKey();
+        }
+        if (course.getThumbnailUrl() != null && !course.getThumbnailUrl().isBlank()) {
+            return S3ObjectKeys.extractS3KeyFromUrl(course.getThumbnailUrl());
         }
+        return null;
     }
 
     public Course createCourse(CourseCreationRequest request, Principal principal) {
@@ -118,8 +242,18 @@ public class CourseService {
                     .collect(Collectors.toList());
             course.setModules(modules);
 
-            // 3. Save to repository
-            return courseRepository.save(course);
+            // 3. Count this course's uses of shared (content-addressed) uploads, then save
+            objectReferenceService.retain(course);
+            Course savedCourse = courseRepository.save(course);
+
+            // 4. Make the new course show up in the catalog right away
+            catalogCache.invalidate(CatalogCache.CATALOG_KEY);
+
+            // 5. Resized thumbnails and video durations are added to the course in the background
+            thumbnailPipeline.generate(savedCourse.getUid(), savedCourse.getThumbnailObjectKey());
+            videoMetadataExtractor.extract(savedCourse);
+
+            return savedCourse;
 
         } catch (ExecutionException | InterruptedException e) {
             throw new RuntimeException("Error creating course", e);
@@ -152,6 +286,32 @@ public class CourseService {
 
     public LessonContentResponse getLessonContent(String courseId, String moduleId, String lessonId,
             Principal principal) {
+        // 1-3. Check enrollment and find the lesson
+        Lesson lesson = findEnrolledLesson(courseId, moduleId, lessonId, principal);
+
+        // 4. Generate the pre-signed URL for the video
+        String videoUrl = s3Service.generatePresignedReadUrl(lesson.getVideoUrl());
+
+        // 5. Return the URL and the text content
+        return new LessonContentResponse(videoUrl, lesson.getTextContent());
+    }
+
+    /**
+     * The S3 object key of a lesson's video, after the same enrollment check
+     * as getLessonContent. Used by the media proxy, which serves the bytes
+     * itself instead of handing out a URL.
+     */
+    public String getLessonVideoKey(String courseId, String moduleId, String lessonId, Principal principal) {
+        Lesson lesson = findEnrolledLesson(courseId, moduleId, lessonId, principal);
+        String objectKey = S3ObjectKeys.objectKeyOf(lesson.getVideoUrl());
+        if (objectKey == null) {
+            throw new ResourceNotFoundException("Lesson has no video");
+        }
+        return objectKey;
+    }
+
+    /** A course the student is enrolled in, with the same check as getLessonContent. */
+    public Course getEnrolledCourse(String courseId, Principal principal) {
         String userId = principal.getName();
 
         // 1. Check if student is enrolled
@@ -160,10 +320,22 @@ public class CourseService {
         }
 
         // 2. Get the course
-        Course course = this.getCourseById(courseId); // Re-use existing method
+        return this.getCourseById(courseId); // Re-use existing method
+    }
+
+    private Lesson findEnrolledLesson(String courseId, String moduleId, String lessonId, Principal principal) {
+        Course course = getEnrolledCourse(courseId, principal);
 
         // 3. Find the specific lesson
-        Lesson lesson = course.getModules().stream()
+        return findLesson(course, moduleId, lessonId);
+    }
+
+    /**
+     * Finds a lesson inside a course, throwing ResourceNotFoundException when
+     * either the module or the lesson does not exist.
+     */
+    public static Lesson findLesson(Course course, String moduleId, String lessonId) {
+        return course.getModules().stream()
                 .filter(module -> module.getModuleId().equals(moduleId))
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Module not found"))
@@ -171,71 +343,28 @@ public class CourseService {
                 .filter(l -> l.getLessonId().equals(lessonId))
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
-
-        // 4. Generate the pre-signed URL for the video
-        String videoUrl = s3Service.generatePresignedReadUrl(lesson.getVideoUrl());
-
-        // 5. Return the URL and the text content
-        return new LessonContentResponse(videoUrl, lesson.getTextContent());
     }
 
     public List<Course> getCoursesByInstructor(Principal principal) {
-        try {
-            String instructorUid = principal.getName();
-            List<Course> courses = courseRepository.findByInstructorId(instructorUid);
-
-            // Regenerate presigned URLs for thumbnails since they expire
-            courses.forEach(course -> {
-                if (course.getThumbnailObjectKey() != null && !course.getThumbnailObjectKey().isBlank()) {
-                    // New courses: regenerate from object key
-                    String freshUrl = s3Service.generatePresignedReadUrl(course.getThumbnailObjectKey());
-                    course.setThumbnailUrl(freshUrl);
-                } else if (course.getThumbnailUrl() != null && !course.getThumbnailUrl().isBlank()) {
-                    // Legacy courses: extract object key from existing URL and regenerate
-                    String objectKey = extractS3KeyFromUrl(course.getThumbnailUrl());
-                    if (objectKey != null) {
-                        String freshUrl = s3Service.generatePresignedReadUrl(objectKey);
-                        course.setThumbnailUrl(freshUrl);
-                        course.setThumbnailObjectKey(objectKey);
-                    }
-                }
-            });
-
-            return courses;
-        } catch (ExecutionException | InterruptedException e) {
-            throw new RuntimeException("Error fetching instructor courses", e);
-        }
+        return getCoursesByInstructor(principal, FieldSelection.ALL);
     }
 
-    /**
-     * Helper method to extract S3 object key from a presigned URL
-     * Example URL:
-     * https://bucket.s3.region.amazonaws.com/path/to/file.png?X-Amz-Algorithm=...
-     * Returns: path/to/file.png
-     */
-    private String extractS3KeyFromUrl(String url) {
+    /** The instructor's courses, reading from Firestore only the fields the selection needs. */
+    public List<Course> getCoursesByInstructor(Principal principal, FieldSelection fields) {
         try {
-            if (url == null || url.isBlank()) {
-                return null;
-            }
-            // Find the start of the object key (after the bucket name)
-            // URL format: https://bucket.s3.region.amazonaws.com/OBJECT_KEY?query-params
-            int bucketEndIndex = url.indexOf(".amazonaws.com/");
-            if (bucketEndIndex == -1) {
-                return null;
-            }
-            int keyStartIndex = bucketEndIndex + ".amazonaws.com/".length();
-
-            // Find the end of the object key (before query parameters)
-            int queryStartIndex = url.indexOf("?", keyStartIndex);
-            if (queryStartIndex == -1) {
-                // No query parameters, key goes to end of URL
-                return url.substring(keyStartIndex);
+            String instructorUid = principal.getName();
+            List<Course> courses = fields.isAll()
+                    ? courseRepository.findByInstructorId(instructorUid)
+                    : courseRepository.findByInstructorId(instructorUid, storedFields(fields));
+            if (!fields.includes("thumbnailUrl")) {
+                return courses;
             }
-            return url.substring(keyStartIndex, queryStartIndex);
-        } catch (Exception e) {
-            System.err.println("Error extracting S3 key from URL: " + url);
-            return null;
+            // Presigned URLs expire, so stored ones are replaced by cached fresh ones
+            return courses.stream()
+                    .map(course -> withFreshThumbnailUrl(course, 0, fields))
+                    .collect(Collectors.toList());
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException("Error fetching instructor courses", e);
         }
     }
 }
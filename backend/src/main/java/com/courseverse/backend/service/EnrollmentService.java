@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.security.Principal;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
@@ -19,13 +20,15 @@ public class EnrollmentService {
 
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository; // To get course details
-    private final S3Service s3Service; // To regenerate presigned URLs
+    private final PresignedUrlCache presignedUrlCache; // To regenerate presigned URLs
+    private final CatalogCache catalogCache;
 
     public EnrollmentService(EnrollmentRepository enrollmentRepository, CourseRepository courseRepository,
-            S3Service s3Service) {
+            PresignedUrlCache presignedUrlCache, CatalogCache catalogCache) {
         this.enrollmentRepository = enrollmentRepository;
         this.courseRepository = courseRepository;
-        this.s3Service = s3Service;
+        this.presignedUrlCache = presignedUrlCache;
+        this.catalogCache = catalogCache;
     }
 
     public Enrollment enrollStudent(String courseId, Principal principal) {
@@ -44,12 +47,14 @@ public class EnrollmentService {
             }
 
             // 3. Create new enrollment
-            Enrollment newEnrollment = new Enrollment(null, userId, courseId, new Date(), 0.0);
+            Enrollment newEnrollment = new Enrollment(null, userId, courseId, new Date(), 0.0,
+                    new HashMap<>(), new HashMap<>(), null, null);
             Enrollment savedEnrollment = enrollmentRepository.save(newEnrollment);
 
             // 4. Increment the course enrollment count
             course.setEnrollmentCount(course.getEnrollmentCount() + 1);
             courseRepository.update(course);
+            catalogCache.invalidate(CatalogCache.courseKey(courseId));
 
             return savedEnrollment;
 
@@ -81,20 +86,13 @@ public class EnrollmentService {
                     .filter(course -> courseIds.contains(course.getUid()))
                     .collect(Collectors.toList());
 
-            // 4. Regenerate presigned URLs for thumbnails since they expire
+            // 4. Regenerate presigned URLs for thumbnails since they expire, reusing cached ones
             courses.forEach(course -> {
-                if (course.getThumbnailObjectKey() != null && !course.getThumbnailObjectKey().isBlank()) {
-                    // New courses: regenerate from object key
-                    String freshUrl = s3Service.generatePresignedReadUrl(course.getThumbnailObjectKey());
-                    course.setThumbnailUrl(freshUrl);
-                } else if (course.getThumbnailUrl() != null && !course.getThumbnailUrl().isBlank()) {
-                    // Legacy courses: extract object key from existing URL and regenerate
-                    String objectKey = extractS3KeyFromUrl(course.getThumbnailUrl());
-                    if (objectKey != null) {
-                        String freshUrl = s3Service.generatePresignedReadUrl(objectKey);
-                        course.setThumbnailUrl(freshUrl);
-                        course.setThumbnailObjectKey(objectKey);
-                    }
+                // Handles both new courses (with thumbnailObjectKey) and legacy courses (URL only)
+                String objectKey = CourseService.thumbnailObjectKey(course);
+                if (objectKey != null) {
+                    course.setThumbnailObjectKey(objectKey);
+                    course.setThumbnailUrl(presignedUrlCache.get(objectKey));
                 }
             });
 
@@ -115,28 +113,4 @@ public class EnrollmentService {
             return false;
         }
     }
-
-    /**
-     * Helper method to extract S3 object key from a presigned URL
-     */
-    private String extractS3KeyFromUrl(String url) {
-        try {
-            if (url == null || url.isBlank()) {
-                return null;
-            }
-            int bucketEndIndex = url.indexOf(".amazonaws.com/");
-            if (bucketEndIndex == -1) {
-                return null;
-            }
-            int keyStartIndex = bucketEndIndex + ".amazonaws.com/".length();
-            int queryStartIndex = url.indexOf("?", keyStartIndex);
-            if (queryStartIndex == -1) {
-                return url.substring(keyStartIndex);
-            }
-            return url.substring(keyStartIndex, queryStartIndex);
-        } catch (Exception e) {
-            System.err.println("Error extracting S3 key from URL: " + url);
-            return null;
-        }
-    }
 }
@@ -0,0 +1,87 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.User;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The top-level properties a client asked for with ?fields=a,b,c, so
+ * services can read and compute only those and responses can leave the rest
+ * out. The uid is always included, so clients can match partial objects to
+ * ones they already hold.
+ */
+public final class FieldSelection {
+
+    /** No fields= parameter: every property. */
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    /** Properties of a Course response; totalDurationSeconds is derived from the modules. */
+    public static final Set<String> COURSE_FIELDS = propertiesOf(Course.class, "totalDurationSeconds");
+
+    public static final Set<String> USER_FIELDS = propertiesOf(User.class);
+
+    private static final String ID_FIELD = "uid";
+
+    private final Set<String> fields; // Null for all
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma-separated fields parameter against the properties of the
+     * response type. Null or blank selects everything; an unknown name is an
+     * IllegalArgumentException, so typos fail loudly instead of returning
+     * objects with nothing in them.
+     */
+    public static FieldSelection parse(String fields, Set<String> known) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID_FIELD);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException(
+                        "Unknown field: " + name + ", expected some of " + new TreeSet<>(known));
+            }
+            selected.add(name);
+        }
+        return new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /** The selected property names; only meaningful when not isAll(). */
+    public Set<String> fields() {
+        return fields != null ? fields : Set.of();
+    }
+
+    private static Set<String> propertiesOf(Class<?> type, String... derived) {
+        return Stream.concat(
+                Arrays.stream(type.getDeclaredFields())
+                        .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                        .map(Field::getName),
+                Arrays.stream(derived))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,261 @@
+package com.courseverse.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of hot S3 objects (lesson videos), for the media-proxy
+ * mode where the backend serves popular videos itself instead of sending
+ * every student to S3.
+ *
+ * An object is only downloaded once it has been requested hot-after-requests
+ * times; until then, and while the download runs, callers get null and fall
+ * back to a presigned S3 URL. Files are evicted least recently used first
+ * once the cache exceeds max-bytes. Entries are handed out as open channels:
+ * an evicted file is unlinked but stays readable through channels already
+ * open on it, so eviction never breaks a response copied from the channel.
+ * Tomcat's sendfile reopens the file by path instead, so an eviction in the
+ * moment before it starts fails that one response (see RangeResponses).
+ */
+@Component
+public class MediaCache {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    /**
+     * An open, read-only view of a cached object, and the path it was opened
+     * at. Closing it does not affect the cache.
+     */
+    public record CachedObject(Path path, FileChannel channel, long size) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private final S3Service s3Service;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxObjectBytes;
+    private final int hotAfterRequests;
+    private final int maxTrackedKeys;
+    private final long maxRangeBytes;
+    private final ThreadPoolExecutor fillers;
+
+    // Cached file name -> size, in access order so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes; // Guarded by this, like files
+
+    private final Map<String, Integer> missCounts = new ConcurrentHashMap<>();
+    private final Set<String> filling = ConcurrentHashMap.newKeySet();
+
+    public MediaCache(S3Service s3Service, MeterRegistry meterRegistry,
+            @Value("${app.media-cache.enabled:false}") boolean enabled,
+            @Value("${app.media-cache.directory:${java.io.tmpdir}/courseverse-media}") String directory,
+            @Value("${app.media-cache.max-bytes:10737418240}") long maxBytes,
+            @Value("${app.media-cache.max-object-bytes:2147483648}") long maxObjectBytes,
+            @Value("${app.media-cache.hot-after-requests:3}") int hotAfterRequests,
+            @Value("${app.media-cache.max-tracked-keys:10000}") int maxTrackedKeys,
+            @Value("${app.media-cache.max-range-bytes:8388608}") long maxRangeBytes,
+            @Value("${app.media-cache.fill-workers:2}") int fillWorkers) {
+        this.s3Service = s3Service;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxBytes = maxBytes;
+        this.maxObjectBytes = Math.min(maxObjectBytes, maxBytes);
+        this.hotAfterRequests = Math.max(1, hotAfterRequests);
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.maxRangeBytes = maxRangeBytes;
+        this.fillers = new ThreadPoolExecutor(fillWorkers, fillWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fillWorkers * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "media-cache-fill");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("courseverse.media_cache.bytes", this, MediaCache::cachedBytes).register(meterRegistry);
+    }
+
+    /** Re-indexes files left by a previous run, oldest access first, and drops unfinished downloads. */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> existing;
+        try (Stream<Path> listing = Files.list(directory)) {
+            existing = listing.filter(Files::isRegularFile).toList();
+        }
+        record Found(Path path, BasicFileAttributes attributes) {
+        }
+        List<Found> found = new ArrayList<>();
+        for (Path path : existing) {
+            if (path.getFileName().toString().endsWith(PARTIAL_SUFFIX)) {
+                Files.deleteIfExists(path);
+            } else {
+                found.add(new Found(path, Files.readAttributes(path, BasicFileAttributes.class)));
+            }
+        }
+        found.sort(Comparator.comparing(file -> file.attributes().lastAccessTime()));
+        for (Found file : found) {
+            add(file.path().getFileName().toString(), file.attributes().size());
+        }
+        System.out.println("Media cache: " + files.size() + " files, " + totalBytes + " bytes in " + directory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fillers.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Most bytes to serve from a cached file in one response. */
+    public long getMaxRangeBytes() {
+        return maxRangeBytes;
+    }
+
+    /**
+     * Opens the cached copy of an object, or returns null when it is not
+     * cached (yet). Misses count towards the object becoming hot, at which
+     * point it is downloaded in the background.
+     */
+    public CachedObject open(String objectKey) throws IOException {
+        if (!enabled || objectKey == null) {
+            return null;
+        }
+        String name = fileName(objectKey);
+        synchronized (this) {
+            Long size = files.get(name); // Also marks it most recently used
+            if (size != null) {
+                try {
+                    Path path = directory.resolve(name);
+                    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                    meterRegistry.counter("courseverse.media_cache.requests", "result", "hit").increment();
+                    return new CachedObject(path, channel, size);
+                } catch (NoSuchFileException e) {
+                    // Deleted behind our back, forget it and treat as a miss
+                    files.remove(name);
+                    totalBytes -= size;
+                }
+            }
+        }
+        meterRegistry.counter("courseverse.media_cache.requests", "result", "miss").increment();
+        recordMiss(objectKey, name);
+        return null;
+    }
+
+    private void recordMiss(String objectKey, String name) {
+        if (missCounts.size() >= maxTrackedKeys) {
+            missCounts.clear(); // Only ever trips with a huge, evenly spread library
+        }
+        int misses = missCounts.merge(objectKey, 1, Integer::sum);
+        if (misses < hotAfterRequests || !filling.add(objectKey)) {
+            return;
+        }
+        try {
+            fillers.execute(() -> fill(objectKey, name));
+        } catch (RejectedExecutionException e) {
+            filling.remove(objectKey); // Busy; a later request tries again
+        }
+    }
+
+    private void fill(String objectKey, String name) {
+        Path partial = directory.resolve(name + PARTIAL_SUFFIX);
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            long size = s3Service.downloadObject(objectKey, partial, maxObjectBytes);
+            Files.move(partial, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                add(name, size);
+            }
+            missCounts.remove(objectKey);
+        } catch (Exception e) {
+            outcome = "error";
+            System.err.println("Error caching " + objectKey + " on disk: " + e.getMessage());
+        } finally {
+            filling.remove(objectKey);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + partial + ": " + e.getMessage());
+            }
+            meterRegistry.timer("courseverse.media_cache.fills", "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Adds a file and evicts least recently used ones until the cache fits. Caller holds the lock. */
+    private void add(String name, long size) {
+        Long previous = files.put(name, size);
+        totalBytes += size - (previous != null ? previous : 0);
+
+        Iterator<Map.Entry<String, Long>> eldest = files.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> evicted = eldest.next();
+            if (evicted.getKey().equals(name)) {
+                continue; // Never evict what was just added
+            }
+            eldest.remove();
+            totalBytes -= evicted.getValue();
+            meterRegistry.counter("courseverse.media_cache.evictions").increment();
+            try {
+                Files.deleteIfExists(directory.resolve(evicted.getKey()));
+            } catch (IOException e) {
+                System.err.println("Could not delete evicted " + evicted.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized long cachedBytes() {
+        return totalBytes;
+    }
+
+    /** Object keys contain '/' and arbitrary characters, so files are named by the key's hash. */
+    private static String fileName(String objectKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
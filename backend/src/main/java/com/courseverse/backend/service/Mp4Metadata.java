@@ -0,0 +1,177 @@
+package com.courseverse.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Duration and resolution of an MP4 (ISO BMFF) video, read from its boxes
+ * without downloading the media data.
+ *
+ * Top-level boxes are walked one header at a time: the ftyp/free/mdat boxes
+ * are skipped by their declared size, so only their 8-16 byte headers are
+ * read, and once moov is found it alone is fetched and parsed (mvhd for the
+ * duration, each trak's tkhd for the frame size). This works whether moov
+ * sits before mdat ("fast start") or after it.
+ */
+public record Mp4Metadata(Double durationSeconds, Integer width, Integer height, long sizeBytes, Long bitrate) {
+
+    private static final int MAX_TOP_LEVEL_BOXES = 1000;
+    private static final long UNKNOWN_DURATION_32 = 0xFFFFFFFFL;
+
+    /** Reads length bytes of the file starting at offset. */
+    @FunctionalInterface
+    public interface RangeReader {
+        byte[] read(long offset, int length) throws IOException;
+    }
+
+    /**
+     * Parses the file given its first bytes (typically one ranged GET), its
+     * total size and a reader for anything beyond them. Returns null when the
+     * file has no moov box, i.e. is not an MP4.
+     */
+    public static Mp4Metadata parse(byte[] head, long size, RangeReader reader, int maxMoovBytes)
+            throws IOException {
+        long offset = 0;
+        for (int boxes = 0; boxes < MAX_TOP_LEVEL_BOXES && offset + 8 <= size; boxes++) {
+            byte[] header = bytes(head, offset, (int) Math.min(16, size - offset), reader);
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            long boxSize = Integer.toUnsignedLong(buffer.getInt(0));
+            String type = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            int headerLength = 8;
+            if (boxSize == 1) {
+                if (header.length < 16) {
+                    throw new IOException("Truncated " + type + " box header");
+                }
+                boxSize = buffer.getLong(8); // 64-bit size, used by large mdat boxes
+                headerLength = 16;
+            } else if (boxSize == 0) {
+                boxSize = size - offset; // Box extends to the end of the file
+            }
+            if (boxSize < headerLength || boxSize > size - offset) {
+                throw new IOException("Invalid size for " + type + " box at offset " + offset);
+            }
+
+            if (type.equals("moov")) {
+                if (boxSize > maxMoovBytes) {
+                    throw new IOException("moov box of " + boxSize + " bytes exceeds the " + maxMoovBytes
+                            + " byte limit");
+                }
+                return fromMoov(bytes(head, offset, (int) boxSize, reader), headerLength, size);
+            }
+            offset += boxSize;
+        }
+        return null;
+    }
+
+    private static Mp4Metadata fromMoov(byte[] moov, int headerLength, long size) throws IOException {
+        long[] timescaleAndDuration = { 0, 0 };
+        long[] fragmentDuration = { 0 };
+        int[] frame = { 0, 0 };
+
+        forEachChild(moov, headerLength, moov.length, (type, start, end) -> {
+            switch (type) {
+                case "mvhd" -> readMovieHeader(moov, start, end, timescaleAndDuration);
+                case "trak" -> forEachChild(moov, start, end, (childType, childStart, childEnd) -> {
+                    if (childType.equals("tkhd") && frame[0] == 0) {
+                        readTrackFrame(moov, childStart, childEnd, frame); // Audio tracks have a 0x0 frame
+                    }
+                });
+                case "mvex" -> forEachChild(moov, start, end, (childType, childStart, childEnd) -> {
+                    if (childType.equals("mehd") && childStart + 8 <= childEnd) {
+                        // Fragmented MP4: the movie header may hold 0, the total is here
+                        ByteBuffer buffer = ByteBuffer.wrap(moov);
+                        if (moov[childStart] != 1) {
+                            fragmentDuration[0] = Integer.toUnsignedLong(buffer.getInt(childStart + 4));
+                        } else if (childStart + 12 <= childEnd) {
+                            fragmentDuration[0] = buffer.getLong(childStart + 4);
+                        }
+                    }
+                });
+                default -> {
+                }
+            }
+        });
+
+        long timescale = timescaleAndDuration[0];
+        long duration = timescaleAndDuration[1] > 0 ? timescaleAndDuration[1] : fragmentDuration[0];
+        Double durationSeconds = timescale > 0 && duration > 0 ? (double) duration / timescale : null;
+        Long bitrate = durationSeconds != null ? Math.round(size * 8 / durationSeconds) : null;
+        return new Mp4Metadata(durationSeconds,
+                frame[0] > 0 ? frame[0] : null,
+                frame[1] > 0 ? frame[1] : null,
+                size, bitrate);
+    }
+
+    /**
+     * mvhd: version/flags, then 32-bit (v0) or 64-bit (v1) times, timescale
+     * and duration. A box too short for them leaves the duration unknown.
+     */
+    private static void readMovieHeader(byte[] box, int start, int end, long[] timescaleAndDuration) {
+        if (start >= end || start + (box[start] == 1 ? 32 : 20) > end) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(box);
+        if (box[start] == 1) {
+            timescaleAndDuration[0] = Integer.toUnsignedLong(buffer.getInt(start + 20));
+            timescaleAndDuration[1] = buffer.getLong(start + 24);
+        } else {
+            timescaleAndDuration[0] = Integer.toUnsignedLong(buffer.getInt(start + 12));
+            long duration = Integer.toUnsignedLong(buffer.getInt(start + 16));
+            timescaleAndDuration[1] = duration == UNKNOWN_DURATION_32 ? 0 : duration;
+        }
+    }
+
+    /** tkhd: width and height are the last two fields, 16.16 fixed point. */
+    private static void readTrackFrame(byte[] box, int start, int end, int[] frame) {
+        if (start >= end) {
+            return;
+        }
+        int widthOffset = start + (box[start] == 1 ? 88 : 76);
+        if (widthOffset + 8 > end) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(box);
+        frame[0] = buffer.getInt(widthOffset) >>> 16;
+        frame[1] = buffer.getInt(widthOffset + 4) >>> 16;
+    }
+
+    @FunctionalInterface
+    private interface BoxVisitor {
+        void visit(String type, int contentStart, int end) throws IOException;
+    }
+
+    private static void forEachChild(byte[] data, int start, int end, BoxVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int offset = start;
+        while (offset + 8 <= end) {
+            long boxSize = Integer.toUnsignedLong(buffer.getInt(offset));
+            String type = new String(data, offset + 4, 4, StandardCharsets.ISO_8859_1);
+            int headerLength = 8;
+            if (boxSize == 1 && offset + 16 <= end) {
+                boxSize = buffer.getLong(offset + 8);
+                headerLength = 16;
+            } else if (boxSize == 0) {
+                boxSize = end - offset;
+            }
+            if (boxSize < headerLength || boxSize > end - offset) {
+                throw new IOException("Invalid size for " + type + " box");
+            }
+            visitor.visit(type, offset + headerLength, (int) (offset + boxSize));
+            offset += (int) boxSize;
+        }
+    }
+
+    /** Bytes [offset, offset + length), from head when it already holds them. */
+    private static byte[] bytes(byte[] head, long offset, int length, RangeReader reader) throws IOException {
+        if (offset + length <= head.length) {
+            return Arrays.copyOfRange(head, (int) offset, (int) offset + length);
+        }
+        byte[] bytes = reader.read(offset, length);
+        if (bytes.length < length) {
+            throw new IOException("Short read at offset " + offset);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,330 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.dto.MultipartUploadResponse;
+import com.courseverse.backend.dto.PresignedPartUrl;
+import com.courseverse.backend.dto.UploadedPart;
+import com.courseverse.backend.exception.AccessDeniedException;
+import com.courseverse.backend.exception.ResourceNotFoundException;
+import com.courseverse.backend.metrics.RequestAccounting;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsResponse;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.Part;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multipart uploads for large lesson videos: the server starts the upload and
+ * presigns part URLs, the client PUTs parts (in parallel, resuming after a
+ * failure by listing what S3 already has), then the server completes or
+ * aborts it.
+ *
+ * Sessions live in S3 only. The object key embeds the instructor's uid, which
+ * is how every later call checks that the caller owns the upload, so any
+ * instance can serve any step. Uploads still open after abandon-after-ms are
+ * aborted by a background sweep (the same job an S3 lifecycle rule with
+ * AbortIncompleteMultipartUpload would do, for buckets without one).
+ */
+@Service
+public class MultipartUploadService {
+
+    private static final String KEY_PREFIX = "lessons/";
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024; // S3 minimum, except for the last part
+    private static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024;
+    private static final int MAX_PARTS = 10_000;
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+    private final MeterRegistry meterRegistry;
+    private final long defaultPartSize;
+    private final int maxUrlsPerRequest;
+    private final Duration partUrlValidity;
+    private final long abandonAfterMillis;
+    private final long sweepIntervalMillis;
+    private final ScheduledThreadPoolExecutor sweeper;
+
+    public MultipartUploadService(S3Client s3Client, S3Presigner s3Presigner,
+            @Value("${app.aws.s3.bucket-name}") String bucketName,
+            MeterRegistry meterRegistry,
+            @Value("${app.multipart.part-size-bytes:16777216}") long defaultPartSize,
+            @Value("${app.multipart.max-urls-per-request:100}") int maxUrlsPerRequest,
+            @Value("${app.multipart.part-url-ttl-minutes:60}") long partUrlTtlMinutes,
+            @Value("${app.multipart.abandon-after-ms:86400000}") long abandonAfterMillis,
+            @Value("${app.multipart.sweep-interval-ms:3600000}") long sweepIntervalMillis) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+        this.meterRegistry = meterRegistry;
+        this.defaultPartSize = Math.max(MIN_PART_SIZE, defaultPartSize);
+        this.maxUrlsPerRequest = maxUrlsPerRequest;
+        this.partUrlValidity = Duration.ofMinutes(partUrlTtlMinutes);
+        this.abandonAfterMillis = abandonAfterMillis;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.sweeper = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "multipart-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (sweepIntervalMillis > 0) {
+            sweeper.scheduleWithFixedDelay(this::abortAbandonedUploads, sweepIntervalMillis, sweepIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public MultipartUploadResponse initiate(String userId, String originalFileName, String contentType,
+            long fileSize) {
+        if (originalFileName == null || originalFileName.isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        if (fileSize <= 0) {
+            throw new IllegalArgumentException("fileSize must be positive");
+        }
+        // Grow parts beyond the default when the file would otherwise need more than 10,000
+        long partSize = Math.max(defaultPartSize, ceilDiv(fileSize, MAX_PARTS));
+        if (partSize > MAX_PART_SIZE) {
+            throw new IllegalArgumentException("File is too large for a multipart upload");
+        }
+        int partCount = (int) ceilDiv(fileSize, partSize);
+
+        // e.g., "lessons/<uid>/123e4567-e89b-12d3-a456-426614174000/my-video.mp4"
+        String objectKey = KEY_PREFIX + userId + "/" + UUID.randomUUID() + "/" + originalFileName;
+        CreateMultipartUploadRequest.Builder request = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey);
+        if (contentType != null && !contentType.isBlank()) {
+            request.contentType(contentType);
+        }
+
+        long start = System.nanoTime();
+        String uploadId;
+        try {
+            RequestAccounting.recordS3Call();
+            uploadId = s3Client.createMultipartUpload(request.build()).uploadId();
+        } catch (RuntimeException e) {
+            record("multipart_create", start, "error");
+            throw e;
+        }
+        record("multipart_create", start, "success");
+        return new MultipartUploadResponse(objectKey, uploadId, partSize, partCount);
+    }
+
+    /** Presigns one PUT URL per requested part; signing is local, no S3 call is made. */
+    public List<PresignedPartUrl> presignParts(String userId, String objectKey, String uploadId,
+            List<Integer> partNumbers) {
+        checkOwner(userId, objectKey, uploadId);
+        if (partNumbers == null || partNumbers.isEmpty()) {
+            throw new IllegalArgumentException("partNumbers is required");
+        }
+        if (partNumbers.size() > maxUrlsPerRequest) {
+            throw new IllegalArgumentException("At most " + maxUrlsPerRequest + " part URLs per request");
+        }
+
+        List<PresignedPartUrl> urls = new ArrayList<>(partNumbers.size());
+        long start = System.nanoTime();
+        try {
+            for (Integer partNumber : partNumbers) {
+                if (partNumber == null || partNumber < 1 || partNumber > MAX_PARTS) {
+                    throw new IllegalArgumentException("Part numbers must be between 1 and " + MAX_PARTS);
+                }
+                UploadPartPresignRequest presignRequest = UploadPartPresignRequest.builder()
+                        .signatureDuration(partUrlValidity)
+                        .uploadPartRequest(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(objectKey)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .build())
+                        .build();
+                String url = s3Presigner.presignUploadPart(presignRequest).url().toString();
+                urls.add(new PresignedPartUrl(partNumber, url));
+                RequestAccounting.recordPresign();
+            }
+        } catch (RuntimeException e) {
+            record("presign_part", start, "error");
+            throw e;
+        }
+        record("presign_part", start, "success");
+        return urls;
+    }
+
+    /** Parts S3 has received so far, so an interrupted client uploads only what is missing. */
+    public List<UploadedPart> listParts(String userId, String objectKey, String uploadId) {
+        checkOwner(userId, objectKey, uploadId);
+        List<UploadedPart> parts = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            Integer marker = null;
+            ListPartsResponse page;
+            do {
+                RequestAccounting.recordS3Call();
+                page = s3Client.listParts(ListPartsRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .uploadId(uploadId)
+                        .partNumberMarker(marker)
+                        .build());
+                for (Part part : page.parts()) {
+                    parts.add(new UploadedPart(part.partNumber(), part.eTag(), part.size()));
+                }
+                marker = page.nextPartNumberMarker();
+            } while (Boolean.TRUE.equals(page.isTruncated()));
+        } catch (NoSuchUploadException e) {
+            record("multipart_list_parts", start, "error");
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        } catch (RuntimeException e) {
+            record("multipart_list_parts", start, "error");
+            throw e;
+        }
+        record("multipart_list_parts", start, "success");
+        return parts;
+    }
+
+    /**
+     * Assembles the object from its parts. Parts the client reports are used
+     * as given; without them, whatever S3 has received is used.
+     */
+    public String complete(String userId, String objectKey, String uploadId, List<UploadedPart> reportedParts) {
+        checkOwner(userId, objectKey, uploadId);
+        List<UploadedPart> parts = reportedParts == null || reportedParts.isEmpty()
+                ? listParts(userId, objectKey, uploadId)
+                : reportedParts;
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("No parts have been uploaded");
+        }
+        List<CompletedPart> completedParts = parts.stream()
+                .sorted(Comparator.comparingInt(UploadedPart::getPartNumber))
+                .map(part -> CompletedPart.builder().partNumber(part.getPartNumber()).eTag(part.getEtag()).build())
+                .toList();
+
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (NoSuchUploadException e) {
+            record("multipart_complete", start, "error");
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        } catch (RuntimeException e) {
+            record("multipart_complete", start, "error");
+            throw e;
+        }
+        record("multipart_complete", start, "success");
+        return objectKey;
+    }
+
+    public void abort(String userId, String objectKey, String uploadId) {
+        checkOwner(userId, objectKey, uploadId);
+        abortUpload(objectKey, uploadId);
+    }
+
+    /**
+     * Aborts every lesson upload started more than abandon-after-ms ago, which
+     * also frees the storage its parts were using. Safe to run on every
+     * instance: aborting an upload twice is a no-op.
+     */
+    void abortAbandonedUploads() {
+        Instant cutoff = Instant.now().minusMillis(abandonAfterMillis);
+        int aborted = 0;
+        try {
+            String keyMarker = null;
+            String uploadIdMarker = null;
+            ListMultipartUploadsResponse page;
+            do {
+                RequestAccounting.recordS3Call();
+                page = s3Client.listMultipartUploads(ListMultipartUploadsRequest.builder()
+                        .bucket(bucketName)
+                        .prefix(KEY_PREFIX)
+                        .keyMarker(keyMarker)
+                        .uploadIdMarker(uploadIdMarker)
+                        .build());
+                for (MultipartUpload upload : page.uploads()) {
+                    if (upload.initiated() != null && upload.initiated().isBefore(cutoff)) {
+                        abortUpload(upload.key(), upload.uploadId());
+                        aborted++;
+                    }
+                }
+                keyMarker = page.nextKeyMarker();
+                uploadIdMarker = page.nextUploadIdMarker();
+            } while (Boolean.TRUE.equals(page.isTruncated()));
+        } catch (RuntimeException e) {
+            System.err.println("Error sweeping abandoned multipart uploads: " + e.getMessage());
+        }
+        if (aborted > 0) {
+            System.out.println("Aborted " + aborted + " abandoned multipart uploads");
+        }
+    }
+
+    private void abortUpload(String objectKey, String uploadId) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (NoSuchUploadException e) {
+            // Already completed or aborted
+        } catch (RuntimeException e) {
+            record("multipart_abort", start, "error");
+            throw e;
+        }
+        record("multipart_abort", start, "success");
+    }
+
+    private static void checkOwner(String userId, String objectKey, String uploadId) {
+        if (objectKey == null || uploadId == null || uploadId.isBlank()) {
+            throw new IllegalArgumentException("objectKey and uploadId are required");
+        }
+        if (!objectKey.startsWith(KEY_PREFIX + userId + "/")) {
+            throw new AccessDeniedException("This upload belongs to another user.");
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private void record(String operation, long startNanos, String outcome) {
+        meterRegistry.timer("courseverse.s3", "operation", operation, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,114 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.dto.ContentUploadResponse;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.repository.ObjectReferenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Tracks which courses use each content-addressed object (content/<sha256>),
+ * so deleting a course, module or lesson only removes an S3 object once
+ * nothing references it anymore. Objects under other keys belong to a single
+ * lesson or course and are deleted directly, as before.
+ *
+ * Handing out a content key leases the object for app.uploads.content-lease-ms,
+ * and saving the course that uses it turns the lease into a reference, so a
+ * course deleted in between cannot take the object with it. An object kept
+ * only by a lease that then lapses unused stays in S3, like any abandoned upload.
+ */
+@Service
+public class ObjectReferenceService {
+
+    private final ObjectReferenceRepository objectReferenceRepository;
+    private final S3Service s3Service;
+    private final long leaseMillis;
+
+    public ObjectReferenceService(ObjectReferenceRepository objectReferenceRepository, S3Service s3Service,
+            @Value("${app.uploads.content-lease-ms:21600000}") long leaseMillis) {
+        this.objectReferenceRepository = objectReferenceRepository;
+        this.s3Service = s3Service;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * S3Service.generateContentUpload behind a lease on the content key. The
+     * lease is taken before S3 is asked whether the object exists, so an
+     * object reported as existing is also one that release() will keep.
+     */
+    public ContentUploadResponse generateContentUpload(String sha256Hex, String contentType)
+            throws ExecutionException, InterruptedException {
+        String objectKey = S3ObjectKeys.contentKeyForDigest(sha256Hex);
+        objectReferenceRepository.lease(objectKey, new Date(System.currentTimeMillis() + leaseMillis));
+        return s3Service.generateContentUpload(sha256Hex, contentType);
+    }
+
+    /**
+     * Counts one reference per use of a shared object in the course, each
+     * taking over a lease from generateContentUpload where there is one.
+     * Called before the course is saved, so a failed save leaves an object
+     * over-counted (kept too long) rather than under-counted (deleted while used).
+     */
+    public void retain(Course course) throws ExecutionException, InterruptedException {
+        for (String objectKey : contentKeys(course)) {
+            objectReferenceRepository.claim(objectKey);
+        }
+    }
+
+    /**
+     * Drops one reference to the object stored as keyOrUrl and deletes it from
+     * S3 when neither a reference nor a lease holds it anymore, returning
+     * whether it was deleted. Like
+     * S3Service.deleteObject, never throws: a failure only leaves the object behind.
+     */
+    public boolean release(String keyOrUrl) {
+        String objectKey = S3ObjectKeys.objectKeyOf(keyOrUrl);
+        if (objectKey == null) {
+            return false;
+        }
+        if (!S3ObjectKeys.isContentKey(objectKey)) {
+            s3Service.deleteObject(objectKey);
+            return true;
+        }
+        try {
+            long remaining = objectReferenceRepository.adjust(objectKey, -1);
+            if (remaining == 0) {
+                s3Service.deleteObject(objectKey);
+                return true;
+            }
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            System.err.println("Error releasing shared object " + objectKey + ", keeping it: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static List<String> contentKeys(Course course) {
+        List<String> keys = new ArrayList<>();
+        if (S3ObjectKeys.isContentKey(course.getThumbnailObjectKey())) {
+            keys.add(course.getThumbnailObjectKey());
+        }
+        if (course.getModules() != null) {
+            for (Module module : course.getModules()) {
+                if (module.getLessons() == null) {
+                    continue;
+                }
+                for (Lesson lesson : module.getLessons()) {
+                    if (S3ObjectKeys.isContentKey(lesson.getVideoUrl())) {
+                        keys.add(lesson.getVideoUrl());
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,280 @@
+package com.courseverse.backend.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A JSON document serialized once and kept as bytes, with holes where
+ * presigned thumbnail URLs are spliced in per request.
+ *
+ * The static segments between holes are stored plain and, when gzip is
+ * enabled, also as independently deflated blocks ending in a sync flush. A
+ * gzip response is then assembled from the precompressed segments with each
+ * URL written as an uncompressed (stored) deflate block, so neither Jackson nor
+ * a compressor runs per request. Buffers are direct (off-heap) when requested.
+ */
+public final class PreSerializedJson {
+
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final byte[] NULL_LITERAL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_STORED_BLOCK = 65535;
+    private static final int STORED_BLOCK_HEADER = 5;
+    private static final int GZIP_TRAILER = 8;
+
+    private final ByteBuffer plain;
+    private final int[] plainOffsets;
+    private final ByteBuffer deflated;
+    private final int[] deflatedOffsets;
+    private final List<String> slotKeys;
+
+    private PreSerializedJson(ByteBuffer plain, int[] plainOffsets, ByteBuffer deflated, int[] deflatedOffsets,
+            List<String> slotKeys) {
+        this.plain = plain;
+        this.plainOffsets = plainOffsets;
+        this.deflated = deflated;
+        this.deflatedOffsets = deflatedOffsets;
+        this.slotKeys = slotKeys;
+    }
+
+    /**
+     * Splits serialized JSON at each string value of the form
+     * {@code placeholder + index}, where index numbers the object keys in
+     * slotKeys in the order they appear in the document.
+     */
+    public static PreSerializedJson split(byte[] json, String placeholder, List<String> slotKeys, boolean offHeap,
+            boolean gzip) {
+        byte[] marker = ("\"" + placeholder).getBytes(StandardCharsets.UTF_8);
+        List<Integer> offsets = new ArrayList<>();
+        ByteArrayOutputStream statics = new ByteArrayOutputStream(json.length);
+        offsets.add(0);
+
+        int segmentStart = 0;
+        int slot = 0;
+        for (int i = indexOf(json, marker, 0); i >= 0; i = indexOf(json, marker, segmentStart)) {
+            int end = i + marker.length;
+            int index = 0;
+            while (end < json.length && json[end] >= '0' && json[end] <= '9') {
+                index = index * 10 + (json[end++] - '0');
+            }
+            if (end >= json.length || json[end] != '"' || index != slot) {
+                throw new IllegalStateException("Malformed thumbnail placeholder at byte " + i);
+            }
+            statics.write(json, segmentStart, i - segmentStart);
+            offsets.add(statics.size());
+            segmentStart = end + 1;
+            slot++;
+        }
+        if (slot != slotKeys.size()) {
+            throw new IllegalStateException("Expected " + slotKeys.size() + " thumbnail placeholders, found " + slot);
+        }
+        statics.write(json, segmentStart, json.length - segmentStart);
+        offsets.add(statics.size());
+
+        byte[] plainBytes = statics.toByteArray();
+        int[] plainOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+
+        ByteBuffer deflated = null;
+        int[] deflatedOffsets = null;
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(plainBytes.length / 4);
+            deflatedOffsets = new int[plainOffsets.length];
+            for (int s = 0; s + 1 < plainOffsets.length; s++) {
+                deflateSegment(plainBytes, plainOffsets[s], plainOffsets[s + 1], compressed);
+                deflatedOffsets[s + 1] = compressed.size();
+            }
+            deflated = store(compressed.toByteArray(), offHeap);
+        }
+
+        return new PreSerializedJson(store(plainBytes, offHeap), plainOffsets, deflated, deflatedOffsets,
+                List.copyOf(slotKeys));
+    }
+
+    /**
+     * Resolves every hole (an object key to a presigned URL, or null) and
+     * returns a response body ready to be written. Gzip is only used when it
+     * was enabled at build time.
+     */
+    public Body render(Function<String, String> urlResolver, boolean gzip) {
+        byte[][] values = new byte[slotKeys.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = jsonString(urlResolver.apply(slotKeys.get(i)));
+        }
+        return new Body(values, gzip && deflated != null);
+    }
+
+    /** Bytes held by this document, plain plus compressed. */
+    public long footprintBytes() {
+        return plain.capacity() + (deflated != null ? deflated.capacity() : 0);
+    }
+
+    /** A rendered response: the static segments plus this request's URLs. */
+    public final class Body {
+
+        private final byte[][] values;
+        private final boolean gzip;
+
+        private Body(byte[][] values, boolean gzip) {
+            this.values = values;
+            this.gzip = gzip;
+        }
+
+        /** Whether the body is gzip-encoded (Content-Encoding: gzip). */
+        public boolean gzip() {
+            return gzip;
+        }
+
+        public long contentLength() {
+            long length = 0;
+            if (gzip) {
+                length += GZIP_HEADER.length + deflated.capacity() + STORED_BLOCK_HEADER + GZIP_TRAILER;
+                for (byte[] value : values) {
+                    length += value.length + storedBlocks(value.length) * (long) STORED_BLOCK_HEADER;
+                }
+            } else {
+                length += plain.capacity();
+                for (byte[] value : values) {
+                    length += value.length;
+                }
+            }
+            return length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            if (gzip) {
+                writeGzip(out);
+                return;
+            }
+            for (int s = 0; s < values.length; s++) {
+                write(plain, plainOffsets[s], plainOffsets[s + 1], out);
+                out.write(values[s]);
+            }
+            write(plain, plainOffsets[values.length], plainOffsets[values.length + 1], out);
+        }
+
+        private void writeGzip(OutputStream out) throws IOException {
+            CRC32 crc = new CRC32();
+            long size = 0;
+
+            out.write(GZIP_HEADER);
+            for (int s = 0; s <= values.length; s++) {
+                write(deflated, deflatedOffsets[s], deflatedOffsets[s + 1], out);
+                crc.update(plain.slice(plainOffsets[s], plainOffsets[s + 1] - plainOffsets[s]));
+                size += plainOffsets[s + 1] - plainOffsets[s];
+
+                if (s < values.length) {
+                    writeStoredBlocks(values[s], out);
+                    crc.update(values[s]);
+                    size += values[s].length;
+                }
+            }
+            // Final empty stored block ends the deflate stream
+            out.write(new byte[] { 1, 0, 0, (byte) 0xff, (byte) 0xff });
+            writeIntLE((int) crc.getValue(), out);
+            writeIntLE((int) size, out);
+        }
+    }
+
+    private static byte[] jsonString(String value) {
+        if (value == null) {
+            return NULL_LITERAL;
+        }
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+        byte[] quoted = new byte[escaped.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    /**
+     * Compresses one segment with a fresh deflater, so it never refers back
+     * into other segments, and ends it with a sync flush so it stops on a byte
+     * boundary without marking the end of the stream.
+     */
+    private static void deflateSegment(byte[] data, int from, int to, ByteArrayOutputStream out) {
+        if (from == to) {
+            return;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(data, from, to - from);
+            byte[] buffer = new byte[8192];
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, written);
+            } while (written == buffer.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeStoredBlocks(byte[] value, OutputStream out) throws IOException {
+        for (int offset = 0; offset < value.length; offset += MAX_STORED_BLOCK) {
+            int length = Math.min(MAX_STORED_BLOCK, value.length - offset);
+            out.write(0); // BFINAL=0, BTYPE=00 (stored), padded to the byte boundary
+            out.write(length & 0xff);
+            out.write(length >>> 8);
+            out.write(~length & 0xff);
+            out.write((~length >>> 8) & 0xff);
+            out.write(value, offset, length);
+        }
+    }
+
+    private static int storedBlocks(int length) {
+        return (length + MAX_STORED_BLOCK - 1) / MAX_STORED_BLOCK;
+    }
+
+    private static void writeIntLE(int value, OutputStream out) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+
+    private static void write(ByteBuffer buffer, int from, int to, OutputStream out) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + from, to - from);
+            return;
+        }
+        byte[] chunk = new byte[Math.min(8192, Math.max(to - from, 1))];
+        ByteBuffer view = buffer.slice(from, to - from);
+        while (view.hasRemaining()) {
+            int length = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static ByteBuffer store(byte[] bytes, boolean offHeap) {
+        if (!offHeap) {
+            return ByteBuffer.wrap(bytes);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    private static int indexOf(byte[] data, byte[] target, int from) {
+        outer:
+        for (int i = from; i <= data.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (data[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
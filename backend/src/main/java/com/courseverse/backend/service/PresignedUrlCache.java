@@ -0,0 +1,59 @@
+package com.courseverse.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reuses presigned thumbnail read URLs instead of signing one per course on
+ * every catalog request. S3Service signs read URLs for an hour and this cache
+ * hands each one out for at most ttl-ms, so clients always get a URL that stays
+ * valid for at least (1 hour - ttl).
+ */
+@Component
+public class PresignedUrlCache {
+
+    private static final long READ_URL_VALIDITY_MILLIS = 3_600_000;
+
+    private record Entry(String url, long expiresAt) {
+    }
+
+    private final S3Service s3Service;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PresignedUrlCache(S3Service s3Service,
+            @Value("${app.presign-cache.ttl-ms:1800000}") long ttlMillis,
+            @Value("${app.presign-cache.max-entries:10000}") int maxEntries) {
+        if (ttlMillis >= READ_URL_VALIDITY_MILLIS) {
+            throw new IllegalArgumentException("app.presign-cache.ttl-ms must be below the one hour URL validity");
+        }
+        this.s3Service = s3Service;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /** Returns a presigned read URL for the key, or null if signing failed. */
+    public String get(String objectKey) {
+        if (objectKey == null || objectKey.isBlank()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(objectKey);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.url();
+        }
+
+        String url = s3Service.generatePresignedReadUrl(objectKey);
+        if (url != null) {
+            if (entries.size() >= maxEntries) {
+                entries.clear(); // One thumbnail per course, so this only trips on huge catalogs
+            }
+            entries.put(objectKey, new Entry(url, now + ttlMillis));
+        }
+        return url;
+    }
+}
@@ -0,0 +1,335 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.dto.ProgressHeartbeatRequest;
+import com.courseverse.backend.exception.AccessDeniedException;
+import com.courseverse.backend.exception.BulkheadFullException;
+import com.courseverse.backend.exception.ResourceNotFoundException;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Enrollment;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for playback heartbeats.
+ *
+ * Players report their position every few seconds; only the latest position
+ * per student and lesson is kept in memory, and every flush-interval-ms the
+ * changed enrollments are written to Firestore in batches, touching only the
+ * lessons that moved. Course progress is the mean of the lesson fractions,
+ * recomputed from the stored lessons by each write so that instances holding
+ * different lessons of the same enrollment never lower it.
+ *
+ * - A heartbeat only fails fast (503) when max-pending enrollments are
+ * waiting to be written, so a Firestore outage cannot grow the buffer forever.
+ * - A failed write is retried on the next flush, up to max-attempts.
+ * - On shutdown (after in-flight requests have finished, with
+ * server.shutdown=graceful) everything still pending is flushed.
+ *
+ * Progress buffered on an instance that crashes is lost, which for playback
+ * positions costs the student at most flush-interval-ms of progress.
+ */
+@Component
+public class ProgressBuffer {
+
+    private static final double COMPLETE_THRESHOLD = 0.95; // Credits runs that skip the end credits
+
+    private static final class CourseProgress {
+        final String enrollmentId;
+        final Set<String> lessonIds;
+        final Map<String, Double> lessonProgress;
+        final Map<String, Double> lessonPositions;
+        final Set<String> changedLessons = new HashSet<>();
+        int failedAttempts;
+        long lastTouched;
+        boolean evicted;
+
+        CourseProgress(String enrollmentId, Set<String> lessonIds, Map<String, Double> lessonProgress,
+                Map<String, Double> lessonPositions) {
+            this.enrollmentId = enrollmentId;
+            this.lessonIds = lessonIds;
+            this.lessonProgress = lessonProgress;
+            this.lessonPositions = lessonPositions;
+        }
+
+        double courseProgress() {
+            return EnrollmentRepository.ProgressUpdate.courseProgress(lessonIds, lessonProgress);
+        }
+    }
+
+    private record Pending(String key, CourseProgress state, Set<String> lessons,
+            EnrollmentRepository.ProgressUpdate update) {
+    }
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseService courseService;
+    private final long flushIntervalMillis;
+    private final int maxPending;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long idleEvictMillis;
+    private final Map<String, CourseProgress> states = new ConcurrentHashMap<>();
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor flusher;
+    private final Counter heartbeats;
+    private final Counter written;
+    private final Counter dropped;
+
+    public ProgressBuffer(EnrollmentRepository enrollmentRepository, CourseService courseService,
+            MeterRegistry meterRegistry,
+            @Value("${app.progress.flush-interval-ms:10000}") long flushIntervalMillis,
+            @Value("${app.progress.max-pending:50000}") int maxPending,
+            @Value("${app.progress.batch-size:400}") int batchSize,
+            @Value("${app.progress.max-attempts:5}") int maxAttempts,
+            @Value("${app.progress.idle-evict-ms:1800000}") long idleEvictMillis) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseService = courseService;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.idleEvictMillis = idleEvictMillis;
+        this.flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "progress-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = meterRegistry.counter("courseverse.progress.heartbeats");
+        this.written = meterRegistry.counter("courseverse.progress.flushed", "result", "written");
+        this.dropped = meterRegistry.counter("courseverse.progress.flushed", "result", "dropped");
+        Gauge.builder("courseverse.progress.pending", dirtyKeys, Set::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        // Items are dropped after max-attempts failures, so this terminates
+        for (int attempt = 0; attempt < maxAttempts && !dirtyKeys.isEmpty(); attempt++) {
+            flush();
+        }
+        if (!dirtyKeys.isEmpty()) {
+            System.err.println("Shutting down with " + dirtyKeys.size() + " unsaved progress updates");
+        }
+    }
+
+    /**
+     * Records a heartbeat for an enrolled student and returns the resulting
+     * course progress. The write to Firestore happens on the next flush.
+     */
+    public double record(String userId, String courseId, ProgressHeartbeatRequest heartbeat) {
+        String key = userId + '\u0000' + courseId;
+        double position = Double.isFinite(heartbeat.getPositionSeconds())
+                ? Math.max(0, heartbeat.getPositionSeconds())
+                : 0;
+        double duration = Double.isFinite(heartbeat.getDurationSeconds())
+                ? Math.max(0, heartbeat.getDurationSeconds())
+                : 0;
+
+        while (true) {
+            CourseProgress state = states.get(key);
+            if (state == null) {
+                // Loaded outside the map so concurrent heartbeats for other keys are not blocked
+                CourseProgress loaded = load(userId, courseId);
+                state = states.putIfAbsent(key, loaded);
+                if (state == null) {
+                    state = loaded;
+                }
+            }
+
+            synchronized (state) {
+                if (state.evicted) {
+                    continue; // Removed by a concurrent flush, start from the stored document again
+                }
+                if (!state.lessonIds.contains(heartbeat.getLessonId())) {
+                    throw new ResourceNotFoundException("Lesson not found");
+                }
+                if (!dirtyKeys.contains(key) && dirtyKeys.size() >= maxPending) {
+                    throw new BulkheadFullException("Too many unsaved progress updates, please retry shortly.",
+                            Math.max(1, TimeUnit.MILLISECONDS.toSeconds(flushIntervalMillis)));
+                }
+
+                String lessonId = heartbeat.getLessonId();
+                double fraction = duration > 0 ? Math.min(1.0, position / duration) : 0.0;
+                if (fraction >= COMPLETE_THRESHOLD) {
+                    fraction = 1.0;
+                }
+                // Rewinding moves the position but never lowers progress
+                state.lessonProgress.merge(lessonId, fraction, Math::max);
+                state.lessonPositions.put(lessonId, position);
+                state.changedLessons.add(lessonId);
+                state.lastTouched = System.currentTimeMillis();
+                dirtyKeys.add(key);
+                heartbeats.increment();
+                return state.courseProgress();
+            }
+        }
+    }
+
+    private CourseProgress load(String userId, String courseId) {
+        Enrollment enrollment;
+        try {
+            enrollment = enrollmentRepository.findByUserIdAndCourseId(userId, courseId)
+                    .orElseThrow(() -> new AccessDeniedException("You are not enrolled in this course."));
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException("Error loading enrollment", e);
+        }
+        Course course = courseService.getCourseById(courseId);
+
+        Set<String> lessonIds = new HashSet<>();
+        if (course.getModules() != null) {
+            for (Module module : course.getModules()) {
+                if (module.getLessons() == null) {
+                    continue;
+                }
+                for (Lesson lesson : module.getLessons()) {
+                    lessonIds.add(lesson.getLessonId());
+                }
+            }
+        }
+        Map<String, Double> lessonProgress = enrollment.getLessonProgress() != null
+                ? new HashMap<>(enrollment.getLessonProgress())
+                : new HashMap<>();
+        Map<String, Double> lessonPositions = enrollment.getLessonPositions() != null
+                ? new HashMap<>(enrollment.getLessonPositions())
+                : new HashMap<>();
+        return new CourseProgress(enrollment.getUid(), lessonIds, lessonProgress, lessonPositions);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the pending updates are retried next time
+            System.err.println("Progress flush failed: " + e.getMessage());
+        }
+    }
+
+    /** Writes every pending update, then forgets idle clean state. */
+    synchronized void flush() {
+        List<Pending> pending = new ArrayList<>();
+        Date now = new Date();
+        for (String key : List.copyOf(dirtyKeys)) {
+            dirtyKeys.remove(key);
+            CourseProgress state = states.get(key);
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                if (state.changedLessons.isEmpty()) {
+                    continue;
+                }
+                Set<String> lessons = new HashSet<>(state.changedLessons);
+                state.changedLessons.clear();
+                Map<String, Double> progress = new HashMap<>();
+                Map<String, Double> positions = new HashMap<>();
+                for (String lessonId : lessons) {
+                    progress.put(lessonId, state.lessonProgress.get(lessonId));
+                    positions.put(lessonId, state.lessonPositions.get(lessonId));
+                }
+                pending.add(new Pending(key, state, lessons, new EnrollmentRepository.ProgressUpdate(
+                        state.enrollmentId, state.lessonIds, progress, positions, now)));
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Pending> chunk = pending.subList(from, Math.min(pending.size(), from + batchSize));
+            try {
+                write(chunk);
+            } catch (ExecutionException e) {
+                // One missing enrollment fails the whole batch; find out which by writing singly
+                for (Pending item : chunk) {
+                    try {
+                        write(List.of(item));
+                    } catch (ExecutionException single) {
+                        failed(item, single);
+                    } catch (InterruptedException interrupted) {
+                        requeue(pending.subList(pending.indexOf(item), pending.size()));
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                requeue(pending.subList(from, pending.size()));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        evictIdle();
+    }
+
+    private void write(List<Pending> items) throws ExecutionException, InterruptedException {
+        enrollmentRepository.updateProgress(items.stream().map(Pending::update).toList());
+        for (Pending item : items) {
+            synchronized (item.state()) {
+                item.state().failedAttempts = 0;
+            }
+        }
+        written.increment(items.size());
+    }
+
+    private void failed(Pending item, ExecutionException e) {
+        CourseProgress state = item.state();
+        synchronized (state) {
+            if (++state.failedAttempts < maxAttempts) {
+                state.changedLessons.addAll(item.lessons());
+                dirtyKeys.add(item.key());
+                return;
+            }
+            // Most likely the enrollment was deleted; stop retrying and reload on the next heartbeat
+            state.evicted = true;
+            states.remove(item.key(), state);
+        }
+        dropped.increment();
+        System.err.println("Dropping progress for enrollment " + state.enrollmentId + " after "
+                + maxAttempts + " failed writes: " + e.getCause());
+    }
+
+    private void requeue(List<Pending> items) {
+        for (Pending item : items) {
+            synchronized (item.state()) {
+                item.state().changedLessons.addAll(item.lessons());
+                dirtyKeys.add(item.key());
+            }
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        for (Map.Entry<String, CourseProgress> entry : states.entrySet()) {
+            CourseProgress state = entry.getValue();
+            synchronized (state) {
+                if (state.changedLessons.isEmpty() && state.lastTouched < cutoff) {
+                    state.evicted = true;
+                    states.remove(entry.getKey(), state);
+                }
+            }
+        }
+    }
+}
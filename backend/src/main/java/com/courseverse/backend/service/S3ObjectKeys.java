@@ -0,0 +1,113 @@
+package com.courseverse.backend.service;
+
+/**
+ * Parsers that recover S3 object keys from URLs stored on older documents,
+ * and the naming of content-addressed objects.
+ */
+public final class S3ObjectKeys {
+
+    /** Objects stored under the SHA-256 of their bytes, shared by every course that uses them. */
+    public static final String CONTENT_PREFIX = "content/";
+
+    private S3ObjectKeys() {
+    }
+
+    public static String contentKey(String sha256Hex) {
+        return CONTENT_PREFIX + sha256Hex;
+    }
+
+    /**
+     * Content key for a SHA-256 sent by a client, in lower case. Throws
+     * IllegalArgumentException unless it is 64 hex characters.
+     */
+    public static String contentKeyForDigest(String sha256Hex) {
+        if (sha256Hex == null || !sha256Hex.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("sha256 must be 64 hex characters");
+        }
+        return contentKey(sha256Hex.toLowerCase());
+    }
+
+    public static boolean isContentKey(String objectKey) {
+        return objectKey != null && objectKey.startsWith(CONTENT_PREFIX);
+    }
+
+    /**
+     * Object key for a value stored on a document, which is either the key
+     * itself (lessons since uploads were presigned by key) or an S3 URL
+     * (older documents). Returns null when there is nothing to resolve.
+     */
+    public static String objectKeyOf(String keyOrUrl) {
+        if (keyOrUrl == null || keyOrUrl.isBlank()) {
+            return null;
+        }
+        if (!keyOrUrl.startsWith("http://") && !keyOrUrl.startsWith("https://")) {
+            return keyOrUrl;
+        }
+        return extractObjectKeyFromUrl(keyOrUrl);
+    }
+
+    /**
+     * Helper method to extract S3 object key from a presigned URL
+     * Example URL:
+     * https://bucket.s3.region.amazonaws.com/path/to/file.png?X-Amz-Algorithm=...
+     * Returns: path/to/file.png
+     */
+    public static String extractS3KeyFromUrl(String url) {
+        try {
+            if (url == null || url.isBlank()) {
+                return null;
+            }
+            // Find the start of the object key (after the bucket name)
+            // URL format: https://bucket.s3.region.amazonaws.com/OBJECT_KEY?query-params
+            int bucketEndIndex = url.indexOf(".amazonaws.com/");
+            if (bucketEndIndex == -1) {
+                return null;
+            }
+            int keyStartIndex = bucketEndIndex + ".amazonaws.com/".length();
+
+            // Find the end of the object key (before query parameters)
+            int queryStartIndex = url.indexOf("?", keyStartIndex);
+            if (queryStartIndex == -1) {
+                // No query parameters, key goes to end of URL
+                return url.substring(keyStartIndex);
+            }
+            return url.substring(keyStartIndex, queryStartIndex);
+        } catch (Exception e) {
+            System.err.println("Error extracting S3 key from URL: " + url);
+            return null;
+        }
+    }
+
+    /**
+     * Extract the S3 object key from a signed URL or direct S3 URL
+     * This method handles various URL formats
+     */
+    public static String extractObjectKeyFromUrl(String videoUrl) {
+        if (videoUrl == null || videoUrl.isBlank()) {
+            return null;
+        }
+
+        try {
+            // Handle presigned URLs (contains query parameters)
+            if (videoUrl.contains("?")) {
+                videoUrl = videoUrl.substring(0, videoUrl.indexOf("?"));
+            }
+
+            // Extract the part after the bucket name
+            // Format: https://bucket-name.s3.region.amazonaws.com/object-key
+            // or: https://bucket-name.s3.amazonaws.com/object-key
+            if (videoUrl.contains(".s3")) {
+                int startIndex = videoUrl.indexOf(".s3");
+                int slashIndex = videoUrl.indexOf("/", startIndex);
+                if (slashIndex != -1 && slashIndex < videoUrl.length() - 1) {
+                    return videoUrl.substring(slashIndex + 1);
+                }
+            }
+
+            return null;
+        } catch (Exception e) {
+            System.err.println("Error extracting object key: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,20 +1,41 @@
 package com.courseverse.backend.service;
 
+import com.courseverse.backend.dto.ContentUploadResponse;
 import com.courseverse.backend.dto.SignedUrlResponse;
+import com.courseverse.backend.metrics.RequestAccounting;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class S3Service {
@@ -22,13 +43,16 @@ public class S3Service {
     private final S3Presigner s3Presigner;
     private final S3Client s3Client;
     private final String bucketName;
+    private final MeterRegistry meterRegistry;
 
     public S3Service(S3Presigner s3Presigner,
             S3Client s3Client,
-            @Value("${app.aws.s3.bucket-name}") String bucketName) {
+            @Value("${app.aws.s3.bucket-name}") String bucketName,
+            MeterRegistry meterRegistry) {
         this.s3Presigner = s3Presigner;
         this.s3Client = s3Client;
         this.bucketName = bucketName;
+        this.meterRegistry = meterRegistry;
     }
 
     public SignedUrlResponse generatePresignedUploadUrl(String originalFileName) {
@@ -52,17 +76,111 @@ public class S3Service {
                 .build();
 
         // 3. Generate the pre-signed URL
-        PresignedPutObjectRequest presignedPutObjectRequest = s3Presigner.presignPutObject(presignRequest);
+        long start = System.nanoTime();
+        PresignedPutObjectRequest presignedPutObjectRequest;
+        try {
+            presignedPutObjectRequest = s3Presigner.presignPutObject(presignRequest);
+        } catch (RuntimeException e) {
+            record("presign_upload", start, "error");
+            throw e;
+        }
+        record("presign_upload", start, "success");
+        RequestAccounting.recordPresign();
         String url = presignedPutObjectRequest.url().toString();
 
         return new SignedUrlResponse(url, objectKey);
     }
 
+    /**
+     * Content-addressed upload: the object lives at content/<sha256>, so a file
+     * that was uploaded before (by anyone) is not uploaded again. Otherwise the
+     * PUT is presigned with an x-amz-checksum-sha256 header, and S3 rejects
+     * any body whose hash does not match, so an object under a content key
+     * always holds exactly those bytes. Callers go through
+     * ObjectReferenceService.generateContentUpload, which leases the key first
+     * so an existing object cannot be deleted before a course references it.
+     */
+    public ContentUploadResponse generateContentUpload(String sha256Hex, String contentType) {
+        String objectKey = S3ObjectKeys.contentKeyForDigest(sha256Hex);
+        String hash = objectKey.substring(S3ObjectKeys.CONTENT_PREFIX.length());
+        String checksum = Base64.getEncoder().encodeToString(HexFormat.of().parseHex(hash));
+
+        if (contentObjectExists(objectKey, checksum)) {
+            return new ContentUploadResponse(objectKey, false, null, Map.of());
+        }
+
+        PutObjectRequest.Builder objectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .checksumSHA256(checksum);
+        if (contentType != null && !contentType.isBlank()) {
+            objectRequest.contentType(contentType);
+        }
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(15))
+                .putObjectRequest(objectRequest.build())
+                .build();
+
+        long start = System.nanoTime();
+        PresignedPutObjectRequest presigned;
+        try {
+            presigned = s3Presigner.presignPutObject(presignRequest);
+        } catch (RuntimeException e) {
+            record("presign_upload", start, "error");
+            throw e;
+        }
+        record("presign_upload", start, "success");
+        RequestAccounting.recordPresign();
+
+        // The client must send the signed headers verbatim (browsers add Host themselves)
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : presigned.signedHeaders().entrySet()) {
+            if (!header.getKey().equalsIgnoreCase("host")) {
+                headers.put(header.getKey(), String.join(",", header.getValue()));
+            }
+        }
+        return new ContentUploadResponse(objectKey, true, presigned.url().toString(), headers);
+    }
+
+    /**
+     * HEAD on a content key. An object whose stored checksum does not match
+     * its key (only possible if written outside this service) is reported as
+     * missing so a verified upload replaces it.
+     */
+    private boolean contentObjectExists(String objectKey, String checksum) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .checksumMode(ChecksumMode.ENABLED)
+                    .build());
+            record("head", start, "success");
+            if (head.checksumSHA256() != null && !head.checksumSHA256().equals(checksum)) {
+                System.err.println("Checksum mismatch on " + objectKey + ", requesting a fresh upload");
+                return false;
+            }
+            return true;
+        } catch (NoSuchKeyException e) {
+            record("head", start, "success");
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                record("head", start, "success");
+                return false;
+            }
+            record("head", start, "error");
+            throw e;
+        }
+    }
+
     public String generatePresignedReadUrl(String objectKey) {
         if (objectKey == null || objectKey.isBlank()) {
             return null; // No video for this lesson
         }
 
+        long start = System.nanoTime();
         try {
             // 1. Create the GetObjectRequest
             GetObjectRequest getObjectRequest = GetObjectRequest.builder()
@@ -78,32 +196,212 @@ public class S3Service {
 
             // 3. Generate the pre-signed URL
             PresignedGetObjectRequest presignedGetObjectRequest = s3Presigner.presignGetObject(presignRequest);
+            record("presign_read", start, "success");
+            RequestAccounting.recordPresign();
             return presignedGetObjectRequest.url().toString();
 
         } catch (Exception e) {
             // Log the error
+            record("presign_read", start, "error");
             System.err.println("Error generating read URL for key " + objectKey + ": " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Reads a whole object into memory, for server-side processing of small
+     * objects such as images. Objects larger than maxBytes are refused before
+     * their body is read.
+     */
+    public byte[] getObjectBytes(String objectKey, long maxBytes) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+            if (head.contentLength() != null && head.contentLength() > maxBytes) {
+                throw new IllegalArgumentException(objectKey + " is " + head.contentLength()
+                        + " bytes, more than the " + maxBytes + " allowed");
+            }
+            RequestAccounting.recordS3Call();
+            ResponseBytes<GetObjectResponse> object = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+            record("get", start, "success");
+            return object.asByteArray();
+        } catch (RuntimeException e) {
+            record("get", start, "error");
+            throw e;
+        }
+    }
+
+    /**
+     * Streams a whole object into a file, for objects too large to hold in
+     * memory. Like getObjectBytes, objects larger than maxBytes are refused
+     * before their body is read. Returns the number of bytes written.
+     */
+    public long downloadObject(String objectKey, Path target, long maxBytes) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+            if (head.contentLength() != null && head.contentLength() > maxBytes) {
+                throw new IllegalArgumentException(objectKey + " is " + head.contentLength()
+                        + " bytes, more than the " + maxBytes + " allowed");
+            }
+            RequestAccounting.recordS3Call();
+            GetObjectResponse object = s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build(), ResponseTransformer.toFile(target));
+            record("download", start, "success");
+            return object.contentLength();
+        } catch (RuntimeException e) {
+            record("download", start, "error");
+            throw e;
+        }
+    }
+
+    /**
+     * Size and ETag of an object, plus its CRC32 when S3 holds one for the
+     * whole object (uploads made with a CRC32 checksum; multipart uploads
+     * only carry a checksum of their parts, marked by a "-N" suffix).
+     */
+    public record ObjectInfo(long size, String eTag, Long crc32) {
+    }
+
+    public ObjectInfo describeObject(String objectKey) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .checksumMode(ChecksumMode.ENABLED)
+                    .build());
+            record("head", start, "success");
+            Long crc32 = null;
+            if (head.checksumCRC32() != null && !head.checksumCRC32().contains("-")) {
+                crc32 = Integer.toUnsignedLong(ByteBuffer.wrap(Base64.getDecoder().decode(head.checksumCRC32()))
+                        .getInt());
+            }
+            return new ObjectInfo(head.contentLength(), head.eTag(), crc32);
+        } catch (RuntimeException e) {
+            record("head", start, "error");
+            throw e;
+        }
+    }
+
+    /**
+     * Opens length bytes of an object starting at offset as a stream, so
+     * large objects can be piped somewhere without holding them in memory.
+     * With an eTag, S3 refuses the read if the object has been replaced since.
+     * The caller must close the stream.
+     */
+    public InputStream openObject(String objectKey, String eTag, long offset, long length) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            InputStream stream = s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .ifMatch(eTag)
+                    .range("bytes=" + offset + "-" + (offset + length - 1))
+                    .build());
+            record("open", start, "success");
+            return stream;
+        } catch (RuntimeException e) {
+            record("open", start, "error");
+            throw e;
+        }
+    }
+
+    /** Bytes of an object read with a ranged GET, and the size of the whole object. */
+    public record ObjectRange(byte[] bytes, long objectSize) {
+    }
+
+    /**
+     * Reads at most length bytes of an object starting at offset, without
+     * transferring the rest of it. Fewer bytes come back when the object ends
+     * first.
+     */
+    public ObjectRange getObjectRange(String objectKey, long offset, int length) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            ResponseBytes<GetObjectResponse> object = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .range("bytes=" + offset + "-" + (offset + length - 1))
+                    .build());
+            record("get_range", start, "success");
+            return new ObjectRange(object.asByteArray(), objectSize(object.response()));
+        } catch (RuntimeException e) {
+            record("get_range", start, "error");
+            throw e;
+        }
+    }
+
+    /** The total from a Content-Range of "bytes a-b/total", or the length when the whole object came back. */
+    private static long objectSize(GetObjectResponse response) {
+        String contentRange = response.contentRange();
+        if (contentRange != null) {
+            int slash = contentRange.lastIndexOf('/');
+            if (slash >= 0 && !contentRange.endsWith("*")) {
+                return Long.parseLong(contentRange.substring(slash + 1).trim());
+            }
+        }
+        return response.contentLength() != null ? response.contentLength() : -1;
+    }
+
+    public void putObject(String objectKey, byte[] content, String contentType) {
+        long start = System.nanoTime();
+        try {
+            RequestAccounting.recordS3Call();
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .build(), RequestBody.fromBytes(content));
+            record("put", start, "success");
+        } catch (RuntimeException e) {
+            record("put", start, "error");
+            throw e;
+        }
+    }
+
     public void deleteObject(String objectKey) {
         if (objectKey == null || objectKey.isBlank()) {
             return; // Nothing to delete
         }
 
+        long start = System.nanoTime();
         try {
             DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
                     .bucket(bucketName)
                     .key(objectKey)
                     .build();
 
+            RequestAccounting.recordS3Call();
             s3Client.deleteObject(deleteRequest);
+            record("delete", start, "success");
             System.out.println("Successfully deleted object: " + objectKey);
         } catch (Exception e) {
+            record("delete", start, "error");
             System.err.println("Error deleting object " + objectKey + " from S3: " + e.getMessage());
             // We don't throw here - log but continue, as deletion failures shouldn't block
             // course deletion
         }
     }
+
+    private void record(String operation, long startNanos, String outcome) {
+        meterRegistry.timer("courseverse.s3", "operation", operation, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
 }
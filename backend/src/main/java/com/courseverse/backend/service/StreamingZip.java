@@ -0,0 +1,335 @@
+package com.courseverse.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A ZIP archive whose every byte position is known before any content is
+ * read, so it can be streamed on the fly and still answer Range requests:
+ * resuming at byte N produces exactly the bytes a full download has there.
+ *
+ * That rules out compression (sizes would depend on the content), so
+ * entries are STORED, which costs nothing for the videos that make up most
+ * of a bundle. CRC-32s are not known up front either, so each entry's CRC
+ * goes into a data descriptor after its data and into the central
+ * directory; it is computed while the entry streams by, and ranges that skip
+ * part of an entry need it from the entry itself. Content is never read just
+ * for its CRC: check isResumableAt before writing a range, and send the whole
+ * archive instead when it is false. ZIP64 fields are used only where a size
+ * or offset needs them.
+ * Readers must use the central directory (java.util.zip.ZipFile does):
+ * ZipInputStream cannot read STORED entries with data descriptors.
+ */
+public final class StreamingZip {
+
+    private static final long MAX_32 = 0xFFFFFFFFL;
+    private static final int MAX_16 = 0xFFFF;
+    private static final int FLAGS = 0x0808; // Data descriptor follows, names are UTF-8
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (1 << 5) | 1; // 1980-01-01, so identical content means identical bytes
+
+    /** The bytes of one entry. */
+    @FunctionalInterface
+    public interface Content {
+        /** Writes bytes [offset, offset + length) of the content to out. */
+        void writeTo(OutputStream out, long offset, long length) throws IOException;
+    }
+
+    /** An entry; crc may be null when it is not known yet. */
+    public record Entry(String name, long size, Long crc, Content content) {
+
+        public static Entry of(String name, byte[] bytes) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            return new Entry(name, bytes.length, crc.getValue(),
+                    (out, offset, length) -> out.write(bytes, (int) offset, (int) length));
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentWriter {
+        void write(OutputStream out, long offset, long length) throws IOException;
+    }
+
+    private record Segment(long start, long length, SegmentWriter writer) {
+    }
+
+    private final List<Entry> entries;
+    private final Long[] crcs;
+    private final BiConsumer<Entry, Long> crcListener;
+    private final List<Segment> segments = new ArrayList<>();
+    private final long[] dataOffsets;
+    private final long length;
+
+    /**
+     * Lays out the archive. crcListener is told every CRC computed while
+     * writing, so callers can remember it for later requests.
+     */
+    public StreamingZip(List<Entry> entries, BiConsumer<Entry, Long> crcListener) {
+        this.entries = List.copyOf(entries);
+        this.crcListener = crcListener;
+        this.crcs = new Long[this.entries.size()];
+        this.dataOffsets = new long[this.entries.size()];
+
+        long position = 0;
+        long[] localOffsets = new long[this.entries.size()];
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+            crcs[i] = entry.crc();
+            localOffsets[i] = position;
+            int index = i;
+
+            byte[] header = localHeader(entry);
+            position = add(position, header.length, bytes(header));
+            dataOffsets[i] = position;
+            position = add(position, entry.size(), (out, offset, count) -> writeData(index, out, offset, count));
+            position = add(position, descriptorLength(entry),
+                    (out, offset, count) -> out.write(descriptor(index), (int) offset, (int) count));
+        }
+
+        long directoryOffset = position;
+        long directoryLength = 0;
+        for (int i = 0; i < this.entries.size(); i++) {
+            directoryLength += directoryHeaderLength(this.entries.get(i), localOffsets[i]);
+        }
+        long directoryBytes = directoryLength;
+        position = add(position, directoryLength, (out, offset, count) -> {
+            byte[] directory = centralDirectory(localOffsets, directoryBytes);
+            out.write(directory, (int) offset, (int) count);
+        });
+
+        byte[] end = end(directoryOffset, directoryLength);
+        position = add(position, end.length, bytes(end));
+        this.length = position;
+    }
+
+    /** Total size of the archive in bytes. */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * True when a write starting at offset knows every CRC it needs: those
+     * of all entries whose data begins before offset. Entries from offset
+     * on stream whole, so their CRCs are computed on the way.
+     */
+    public boolean isResumableAt(long offset) {
+        for (int i = 0; i < entries.size() && dataOffsets[i] < offset; i++) {
+            if (crcs[i] == null && entries.get(i).size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes bytes [offset, offset + count) of the archive. Throws
+     * IllegalStateException, before writing anything, when offset is not
+     * isResumableAt.
+     */
+    public void write(OutputStream out, long offset, long count) throws IOException {
+        if (!isResumableAt(offset)) {
+            throw new IllegalStateException("CRCs of the entries before byte " + offset + " are not known");
+        }
+        long end = offset + count;
+        for (Segment segment : segments) {
+            long segmentEnd = segment.start() + segment.length();
+            if (segmentEnd <= offset || segment.length() == 0) {
+                continue;
+            }
+            if (segment.start() >= end) {
+                break;
+            }
+            long from = Math.max(offset, segment.start()) - segment.start();
+            long to = Math.min(end, segmentEnd) - segment.start();
+            segment.writer().write(out, from, to - from);
+        }
+    }
+
+    private long add(long position, long segmentLength, SegmentWriter writer) {
+        segments.add(new Segment(position, segmentLength, writer));
+        return position + segmentLength;
+    }
+
+    private static SegmentWriter bytes(byte[] bytes) {
+        return (out, offset, count) -> out.write(bytes, (int) offset, (int) count);
+    }
+
+    /** Streams entry data, computing the CRC on the way when the whole entry passes and it is not known. */
+    private void writeData(int index, OutputStream out, long offset, long count) throws IOException {
+        Entry entry = entries.get(index);
+        if (crcs[index] != null || offset != 0 || count != entry.size()) {
+            entry.content().writeTo(out, offset, count);
+            return;
+        }
+        CRC32 crc = new CRC32();
+        entry.content().writeTo(new CheckedOutputStream(out, crc), 0, count);
+        resolved(index, crc.getValue());
+    }
+
+    private long crc(int index) {
+        if (crcs[index] == null) {
+            if (entries.get(index).size() == 0) {
+                return 0; // CRC-32 of nothing
+            }
+            // Only reachable for a write that was not isResumableAt
+            throw new IllegalStateException("CRC of " + entries.get(index).name() + " is not known");
+        }
+        return crcs[index];
+    }
+
+    private void resolved(int index, long crc) {
+        crcs[index] = crc;
+        if (crcListener != null) {
+            crcListener.accept(entries.get(index), crc);
+        }
+    }
+
+    private static boolean isZip64(Entry entry) {
+        return entry.size() >= MAX_32;
+    }
+
+    private static byte[] name(Entry entry) {
+        return entry.name().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer buffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static byte[] localHeader(Entry entry) {
+        byte[] name = name(entry);
+        boolean zip64 = isZip64(entry);
+        ByteBuffer header = buffer(30 + name.length + (zip64 ? 20 : 0));
+        header.putInt(0x04034b50);
+        header.putShort((short) (zip64 ? 45 : 20));
+        header.putShort((short) FLAGS);
+        header.putShort((short) 0); // STORED
+        header.putShort((short) DOS_TIME);
+        header.putShort((short) DOS_DATE);
+        header.putInt(0); // CRC and sizes are in the data descriptor
+        header.putInt(zip64 ? (int) MAX_32 : 0);
+        header.putInt(zip64 ? (int) MAX_32 : 0);
+        header.putShort((short) name.length);
+        header.putShort((short) (zip64 ? 20 : 0));
+        header.put(name);
+        if (zip64) {
+            header.putShort((short) 0x0001);
+            header.putShort((short) 16);
+            header.putLong(0);
+            header.putLong(0);
+        }
+        return header.array();
+    }
+
+    private static int descriptorLength(Entry entry) {
+        return isZip64(entry) ? 24 : 16;
+    }
+
+    private byte[] descriptor(int index) {
+        Entry entry = entries.get(index);
+        ByteBuffer descriptor = buffer(descriptorLength(entry));
+        descriptor.putInt(0x08074b50);
+        descriptor.putInt((int) crc(index));
+        if (isZip64(entry)) {
+            descriptor.putLong(entry.size());
+            descriptor.putLong(entry.size());
+        } else {
+            descriptor.putInt((int) entry.size());
+            descriptor.putInt((int) entry.size());
+        }
+        return descriptor.array();
+    }
+
+    private static int directoryExtraLength(Entry entry, long localOffset) {
+        int fields = (isZip64(entry) ? 16 : 0) + (localOffset >= MAX_32 ? 8 : 0);
+        return fields > 0 ? 4 + fields : 0;
+    }
+
+    private static long directoryHeaderLength(Entry entry, long localOffset) {
+        return 46 + name(entry).length + directoryExtraLength(entry, localOffset);
+    }
+
+    private byte[] centralDirectory(long[] localOffsets, long directoryLength) {
+        ByteBuffer directory = buffer(Math.toIntExact(directoryLength));
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            byte[] name = name(entry);
+            boolean zip64Size = isZip64(entry);
+            boolean zip64Offset = localOffsets[i] >= MAX_32;
+            int extraLength = directoryExtraLength(entry, localOffsets[i]);
+
+            directory.putInt(0x02014b50);
+            directory.putShort((short) 45); // Made by
+            directory.putShort((short) (zip64Size || zip64Offset ? 45 : 20));
+            directory.putShort((short) FLAGS);
+            directory.putShort((short) 0);
+            directory.putShort((short) DOS_TIME);
+            directory.putShort((short) DOS_DATE);
+            directory.putInt((int) crc(i));
+            directory.putInt(zip64Size ? (int) MAX_32 : (int) entry.size());
+            directory.putInt(zip64Size ? (int) MAX_32 : (int) entry.size());
+            directory.putShort((short) name.length);
+            directory.putShort((short) extraLength);
+            directory.putShort((short) 0); // Comment
+            directory.putShort((short) 0); // Disk
+            directory.putShort((short) 0); // Internal attributes
+            directory.putInt(0); // External attributes
+            directory.putInt(zip64Offset ? (int) MAX_32 : (int) localOffsets[i]);
+            directory.put(name);
+            if (extraLength > 0) {
+                directory.putShort((short) 0x0001);
+                directory.putShort((short) (extraLength - 4));
+                if (zip64Size) {
+                    directory.putLong(entry.size());
+                    directory.putLong(entry.size());
+                }
+                if (zip64Offset) {
+                    directory.putLong(localOffsets[i]);
+                }
+            }
+        }
+        return directory.array();
+    }
+
+    private byte[] end(long directoryOffset, long directoryLength) {
+        int count = entries.size();
+        boolean zip64 = count >= MAX_16 || directoryOffset >= MAX_32 || directoryLength >= MAX_32;
+        ByteBuffer end = buffer((zip64 ? 56 + 20 : 0) + 22);
+        if (zip64) {
+            long recordOffset = directoryOffset + directoryLength;
+            end.putInt(0x06064b50);
+            end.putLong(44); // Size of the rest of this record
+            end.putShort((short) 45);
+            end.putShort((short) 45);
+            end.putInt(0);
+            end.putInt(0);
+            end.putLong(count);
+            end.putLong(count);
+            end.putLong(directoryLength);
+            end.putLong(directoryOffset);
+
+            end.putInt(0x07064b50);
+            end.putInt(0);
+            end.putLong(recordOffset);
+            end.putInt(1);
+        }
+        end.putInt(0x06054b50);
+        end.putShort((short) 0);
+        end.putShort((short) 0);
+        end.putShort((short) Math.min(count, MAX_16));
+        end.putShort((short) Math.min(count, MAX_16));
+        end.putInt((int) Math.min(directoryLength, MAX_32));
+        end.putInt((int) Math.min(directoryOffset, MAX_32));
+        end.putShort((short) 0);
+        return end.array();
+    }
+}
@@ -0,0 +1,243 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.dto.SyncResponse;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Enrollment;
+import com.courseverse.backend.repository.ChangeCursor;
+import com.courseverse.backend.repository.ChangePage;
+import com.courseverse.backend.repository.CourseRepository;
+import com.courseverse.backend.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Delta sync for clients that keep the catalog and their enrollments
+ * locally: given the token from their last sync, they get only the courses
+ * and enrollments written since and the ids of courses deleted since, read
+ * through the updatedAt and tombstone indexes, so the cost follows the
+ * number of changes rather than the size of the catalog.
+ *
+ * - No token, or one older than the tombstone retention (deletions may have
+ * been purged), gets a full sync with reset=true.
+ * - updatedAt and deletedAt are Firestore server timestamps, so changes from
+ * every instance are stamped by one clock. Tokens are cut from this
+ * instance's clock, and a commit can become visible a moment after its
+ * timestamp, so tokens trail the sync by overlap-ms. Changes in the overlap
+ * are sent again, which is harmless since clients upsert.
+ * - Each kind of change is paged at page-size in order of time, then
+ * document id, and the token holds a (time, id) cursor for each. When a
+ * page is full its cursor stops at the last change sent and hasMore tells
+ * the client to sync again; changes sharing that instant are not skipped.
+ * Tokens from before the cursors (plain milliseconds) are still accepted.
+ *
+ * Courses written before updatedAt existed only appear in full syncs.
+ */
+@Service
+public class SyncService {
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseService courseService;
+    private final MeterRegistry meterRegistry;
+    private final int pageSize;
+    private final long overlapMillis;
+    private final long tombstoneRetentionMillis;
+    private final long purgeIntervalMillis;
+    private final ScheduledThreadPoolExecutor purger;
+
+    public SyncService(CourseRepository courseRepository, EnrollmentRepository enrollmentRepository,
+            CourseService courseService, MeterRegistry meterRegistry,
+            @Value("${app.sync.page-size:500}") int pageSize,
+            @Value("${app.sync.overlap-ms:5000}") long overlapMillis,
+            @Value("${app.sync.tombstone-retention-ms:2592000000}") long tombstoneRetentionMillis,
+            @Value("${app.sync.purge-interval-ms:3600000}") long purgeIntervalMillis) {
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseService = courseService;
+        this.meterRegistry = meterRegistry;
+        this.pageSize = Math.max(1, pageSize);
+        this.overlapMillis = overlapMillis;
+        this.tombstoneRetentionMillis = tombstoneRetentionMillis;
+        this.purgeIntervalMillis = purgeIntervalMillis;
+        this.purger = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "sync-tombstone-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        purger.scheduleWithFixedDelay(this::purgeQuietly, purgeIntervalMillis, purgeIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /** Changes since the given token (null for everything) visible to the caller. */
+    public SyncResponse sync(String token, Principal principal) {
+        long now = System.currentTimeMillis();
+        SyncToken since = parseToken(token, now);
+        try {
+            if (since == null || since.oldest().atMicros() < (now - tombstoneRetentionMillis) * 1000) {
+                meterRegistry.counter("courseverse.sync.requests", "type", "full").increment();
+                return fullSync(now, principal);
+            }
+            meterRegistry.counter("courseverse.sync.requests", "type", "delta").increment();
+            return deltaSync(since, now, principal);
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException("Error during sync", e);
+        }
+    }
+
+    private SyncResponse fullSync(long now, Principal principal) throws ExecutionException, InterruptedException {
+        // Straight from the repository: a cached catalog could predate the token handed out with it
+        List<Course> courses = courseRepository.findAll().stream()
+                .map(courseService::withFreshThumbnailUrl)
+                .collect(Collectors.toList());
+        List<Enrollment> enrollments = enrollmentRepository.findByUserId(principal.getName());
+        ChangeCursor floor = ChangeCursor.after(new Date(now - overlapMillis));
+        return new SyncResponse(new SyncToken(floor, floor, floor).encode(), true, false, courses, List.of(),
+                enrollments);
+    }
+
+    private SyncResponse deltaSync(SyncToken since, long now, Principal principal)
+            throws ExecutionException, InterruptedException {
+        ChangePage<Course> updated = courseRepository.findUpdatedSince(since.courses(), pageSize);
+        ChangePage<CourseRepository.CourseTombstone> deleted = courseRepository.findDeletedSince(since.deletions(),
+                pageSize);
+        ChangePage<Enrollment> enrollments = enrollmentRepository.findByUserIdUpdatedSince(principal.getName(),
+                since.enrollments(), pageSize);
+
+        ChangeCursor floor = ChangeCursor.after(new Date(now - overlapMillis));
+        SyncToken next = new SyncToken(
+                resumeAfter(since.courses(), updated, floor),
+                resumeAfter(since.deletions(), deleted, floor),
+                resumeAfter(since.enrollments(), enrollments, floor));
+        boolean hasMore = isFull(updated) || isFull(deleted) || isFull(enrollments);
+
+        List<String> deletedIds = deleted.items().stream()
+                .map(CourseRepository.CourseTombstone::courseId)
+                .collect(Collectors.toList());
+        Set<String> deletedSet = Set.copyOf(deletedIds);
+        List<Course> courses = updated.items().stream()
+                .filter(course -> !deletedSet.contains(course.getUid())) // Deleted while the queries ran
+                .map(courseService::withFreshThumbnailUrl)
+                .collect(Collectors.toList());
+        return new SyncResponse(next.encode(), false, hasMore, courses, deletedIds, enrollments.items());
+    }
+
+    private boolean isFull(ChangePage<?> page) {
+        return page.items().size() >= pageSize;
+    }
+
+    /**
+     * Where the next sync of one kind of change starts: right after the last
+     * change of a full page, otherwise at the overlap floor, but never back
+     * past the cursor the client holds, which already trails by the overlap.
+     */
+    private ChangeCursor resumeAfter(ChangeCursor since, ChangePage<?> page, ChangeCursor floor) {
+        if (isFull(page)) {
+            return page.last();
+        }
+        return floor.compareTo(since) > 0 ? floor : since;
+    }
+
+    private SyncToken parseToken(String token, long now) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        SyncToken parsed = SyncToken.parse(token);
+        long latestMicros = (now + overlapMillis) * 1000;
+        if (parsed == null || parsed.oldest().atMicros() < 0 || parsed.courses().atMicros() > latestMicros
+                || parsed.deletions().atMicros() > latestMicros || parsed.enrollments().atMicros() > latestMicros) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+        return parsed;
+    }
+
+    /**
+     * Cursors into the course, tombstone and enrollment changes, encoded as
+     * "2." and base64url of "micros[:id]/micros[:id]/micros[:id]". Document
+     * ids never contain a slash, and the micros never a colon.
+     */
+    record SyncToken(ChangeCursor courses, ChangeCursor deletions, ChangeCursor enrollments) {
+
+        private static final String PREFIX = "2.";
+
+        ChangeCursor oldest() {
+            return Stream.of(courses, deletions, enrollments).min(Comparator.naturalOrder()).orElseThrow();
+        }
+
+        String encode() {
+            String cursors = Stream.of(courses, deletions, enrollments)
+                    .map(cursor -> cursor.id() == null ? Long.toString(cursor.atMicros())
+                            : cursor.atMicros() + ":" + cursor.id())
+                    .collect(Collectors.joining("/"));
+            return PREFIX + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(cursors.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** The token's cursors, or null if it is malformed. */
+        static SyncToken parse(String token) {
+            try {
+                if (!token.startsWith(PREFIX)) {
+                    // Milliseconds, before tokens held cursors
+                    ChangeCursor since = ChangeCursor.after(new Date(Long.parseLong(token)));
+                    return new SyncToken(since, since, since);
+                }
+                String[] cursors = new String(Base64.getUrlDecoder().decode(token.substring(PREFIX.length())),
+                        StandardCharsets.UTF_8).split("/", -1);
+                if (cursors.length != 3) {
+                    return null;
+                }
+                return new SyncToken(parseCursor(cursors[0]), parseCursor(cursors[1]), parseCursor(cursors[2]));
+            } catch (IllegalArgumentException e) {
+                return null; // Includes NumberFormatException
+            }
+        }
+
+        private static ChangeCursor parseCursor(String cursor) {
+            int colon = cursor.indexOf(':');
+            if (colon < 0) {
+                return new ChangeCursor(Long.parseLong(cursor), null);
+            }
+            String id = cursor.substring(colon + 1);
+            if (id.isEmpty()) {
+                throw new IllegalArgumentException("Empty document id");
+            }
+            return new ChangeCursor(Long.parseLong(cursor.substring(0, colon)), id);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = courseRepository.purgeTombstones(new Date(System.currentTimeMillis()
+                    - tombstoneRetentionMillis));
+            if (purged > 0) {
+                System.out.println("Purged " + purged + " course tombstones");
+            }
+        } catch (Exception e) {
+            System.err.println("Error purging course tombstones: " + e.getMessage());
+        }
+    }
+}
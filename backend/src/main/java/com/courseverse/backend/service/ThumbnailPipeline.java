@@ -0,0 +1,240 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.repository.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces resized JPEG copies of course thumbnails so catalog cards can be
+ * served an image close to their display size instead of the original.
+ *
+ * After a course is created its original is read from S3 and, for every
+ * configured width smaller than the original, scaled down and written to
+ * thumbnails/<original key>/w<width>.jpg; the keys are then stored on the
+ * course as thumbnailVariants. Work runs on a fixed pool of workers with a
+ * bounded queue, so a burst of new courses cannot exhaust memory; jobs that
+ * do not fit are dropped and the course keeps serving its original.
+ */
+@Component
+public class ThumbnailPipeline {
+
+    private static final String KEY_PREFIX = "thumbnails/";
+
+    private final S3Service s3Service;
+    private final CourseRepository courseRepository;
+    private final CatalogCache catalogCache;
+    private final MeterRegistry meterRegistry;
+    private final int[] widths;
+    private final float quality;
+    private final long maxSourceBytes;
+    private final ThreadPoolExecutor workers;
+
+    public ThumbnailPipeline(S3Service s3Service, CourseRepository courseRepository, CatalogCache catalogCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.thumbnails.widths:160,320,640,1280}") String widths,
+            @Value("${app.thumbnails.jpeg-quality:0.8}") float quality,
+            @Value("${app.thumbnails.max-source-bytes:20971520}") long maxSourceBytes,
+            @Value("${app.thumbnails.workers:2}") int workers,
+            @Value("${app.thumbnails.queue-capacity:100}") int queueCapacity) {
+        this.s3Service = s3Service;
+        this.courseRepository = courseRepository;
+        this.catalogCache = catalogCache;
+        this.meterRegistry = meterRegistry;
+        this.widths = Arrays.stream(widths.split(","))
+                .map(String::trim)
+                .filter(width -> !width.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .filter(width -> width > 0)
+                .sorted()
+                .distinct()
+                .toArray();
+        this.quality = quality;
+        this.maxSourceBytes = maxSourceBytes;
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Queues derivative generation for a course's thumbnail. */
+    public void generate(String courseId, String originalKey) {
+        if (courseId == null || originalKey == null || originalKey.isBlank() || widths.length == 0) {
+            return;
+        }
+        try {
+            workers.execute(() -> process(courseId, originalKey));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("courseverse.thumbnails", "outcome", "rejected").increment();
+            System.err.println("Thumbnail queue full, course " + courseId + " keeps its original thumbnail");
+        }
+    }
+
+    /**
+     * The key to presign for a card about width pixels wide: the smallest
+     * variant at least that wide, or the original when there is none (the
+     * original is larger than every variant) or no width was requested.
+     */
+    public static String select(String originalKey, NavigableMap<Integer, String> variants, int width) {
+        if (width <= 0 || variants == null || variants.isEmpty()) {
+            return originalKey;
+        }
+        Map.Entry<Integer, String> fit = variants.ceilingEntry(width);
+        return fit != null ? fit.getValue() : originalKey;
+    }
+
+    /** A course's stored variants, ordered by width; empty if there are none or they are malformed. */
+    public static NavigableMap<Integer, String> byWidth(Map<String, String> variants) {
+        NavigableMap<Integer, String> byWidth = new TreeMap<>();
+        if (variants == null) {
+            return byWidth;
+        }
+        for (Map.Entry<String, String> variant : variants.entrySet()) {
+            try {
+                byWidth.put(Integer.parseInt(variant.getKey()), variant.getValue());
+            } catch (NumberFormatException e) {
+                // Not written by this pipeline, ignore
+            }
+        }
+        return byWidth;
+    }
+
+    private void process(String courseId, String originalKey) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            byte[] source = s3Service.getObjectBytes(originalKey, maxSourceBytes);
+            BufferedImage image = decode(source, widths[widths.length - 1]);
+            if (image == null) {
+                outcome = "unsupported";
+                System.err.println("Thumbnail " + originalKey + " is not in a format ImageIO can read");
+                return;
+            }
+
+            Map<String, String> variants = new HashMap<>();
+            for (int width : widths) {
+                if (width >= image.getWidth()) {
+                    break; // Never upscale; the original serves these sizes
+                }
+                String key = KEY_PREFIX + originalKey + "/w" + width + ".jpg";
+                s3Service.putObject(key, encodeJpeg(resize(image, width)), "image/jpeg");
+                variants.put(String.valueOf(width), key);
+            }
+
+            courseRepository.updateThumbnailVariants(courseId, variants);
+            catalogCache.invalidate(CatalogCache.courseKey(courseId));
+            catalogCache.invalidate(CatalogCache.CATALOG_KEY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "error";
+        } catch (Exception e) {
+            outcome = "error";
+            System.err.println("Error generating thumbnails for course " + courseId + ": " + e.getMessage());
+        } finally {
+            meterRegistry.timer("courseverse.thumbnails", "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Decodes the image, skipping pixels while reading when it is much larger
+     * than needed: a 6000px photo is decoded at a fraction of its size rather
+     * than into a full 6000px buffer.
+     */
+    private static BufferedImage decode(byte[] source, int largestWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Keep at least twice the largest output width, so downscaling still has detail to average
+                int factor = Math.max(1, reader.getWidth(0) / (2 * largestWidth));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales down in steps of at most half the size, which keeps bilinear
+     * filtering from skipping pixels. Transparent areas become white, as
+     * JPEG has no alpha channel.
+     */
+    private static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1,
+                (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
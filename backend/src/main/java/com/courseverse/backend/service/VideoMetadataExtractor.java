@@ -0,0 +1,190 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.LessonVideoMetadata;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.repository.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Fills in duration, resolution and bitrate of lesson videos after a course
+ * is created, so the course can show its total length, and the CRC-32 that
+ * lets offline bundles resume on any instance without re-reading videos.
+ *
+ * For the metadata, videos are never downloaded: the first head-bytes of
+ * each file are read with a ranged GET, and Mp4Metadata follows the box
+ * headers from there, reading only the moov box (plus, when moov sits after
+ * the media data, the few header bytes needed to find it). The CRC-32 is
+ * taken from the HeadObject response when the upload carried a CRC32
+ * checksum. Only with app.video-metadata.crc32 on (off by default: it reads
+ * and pays egress for every video in full) is it otherwise computed by
+ * streaming the video through once. Work runs on a fixed pool with a
+ * bounded queue like ThumbnailPipeline; a course whose job is dropped simply
+ * shows no durations.
+ */
+@Component
+public class VideoMetadataExtractor {
+
+    private final S3Service s3Service;
+    private final CourseRepository courseRepository;
+    private final CatalogCache catalogCache;
+    private final MeterRegistry meterRegistry;
+    private final int headBytes;
+    private final int maxMoovBytes;
+    private final boolean computeCrc;
+    private final ThreadPoolExecutor workers;
+
+    public VideoMetadataExtractor(S3Service s3Service, CourseRepository courseRepository, CatalogCache catalogCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.video-metadata.head-bytes:65536}") int headBytes,
+            @Value("${app.video-metadata.max-moov-bytes:16777216}") int maxMoovBytes,
+            @Value("${app.video-metadata.workers:2}") int workers,
+            @Value("${app.video-metadata.queue-capacity:100}") int queueCapacity,
+            @Value("${app.video-metadata.crc32:false}") boolean computeCrc) {
+        this.s3Service = s3Service;
+        this.courseRepository = courseRepository;
+        this.catalogCache = catalogCache;
+        this.meterRegistry = meterRegistry;
+        this.headBytes = headBytes;
+        this.maxMoovBytes = maxMoovBytes;
+        this.computeCrc = computeCrc;
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "video-metadata-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Queues extraction for the course's lesson videos that have no duration (or CRC) yet. */
+    public void extract(Course course) {
+        Map<String, String> objectKeysByLessonId = pendingVideos(course);
+        if (objectKeysByLessonId.isEmpty()) {
+            return;
+        }
+        try {
+            workers.execute(() -> process(course.getUid(), objectKeysByLessonId));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("courseverse.video_metadata", "outcome", "rejected").increment();
+            System.err.println("Video metadata queue full, skipping course " + course.getUid());
+        }
+    }
+
+    private void process(String courseId, Map<String, String> objectKeysByLessonId) {
+        Map<String, LessonVideoMetadata> metadataByLessonId = new HashMap<>();
+        for (Map.Entry<String, String> video : objectKeysByLessonId.entrySet()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            LessonVideoMetadata metadata = read(video.getValue());
+            if (metadata != null) {
+                metadataByLessonId.put(video.getKey(), metadata);
+            }
+        }
+        if (metadataByLessonId.isEmpty()) {
+            return;
+        }
+
+        try {
+            courseRepository.updateLessonVideoMetadata(courseId, metadataByLessonId);
+            catalogCache.invalidate(CatalogCache.courseKey(courseId));
+            catalogCache.invalidate(CatalogCache.CATALOG_KEY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Error storing video metadata for course " + courseId + ": " + e.getMessage());
+        }
+    }
+
+    private LessonVideoMetadata read(String objectKey) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            S3Service.ObjectInfo object = s3Service.describeObject(objectKey);
+            Long crc32 = crc32(objectKey, object);
+            S3Service.ObjectRange head = s3Service.getObjectRange(objectKey, 0, headBytes);
+            Mp4Metadata mp4 = Mp4Metadata.parse(head.bytes(), head.objectSize(),
+                    (offset, length) -> s3Service.getObjectRange(objectKey, offset, length).bytes(),
+                    maxMoovBytes);
+            if (mp4 == null) {
+                outcome = "unsupported";
+                return crc32 != null
+                        ? new LessonVideoMetadata(null, object.size(), null, null, null, crc32, object.eTag())
+                        : null;
+            }
+            return new LessonVideoMetadata(mp4.durationSeconds(), mp4.sizeBytes(), mp4.width(), mp4.height(),
+                    mp4.bitrate(), crc32, object.eTag());
+        } catch (Exception e) {
+            outcome = "error";
+            System.err.println("Error reading video metadata of " + objectKey + ": " + e.getMessage());
+            return null;
+        } finally {
+            meterRegistry.timer("courseverse.video_metadata", "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** The object's CRC-32, or null when it is not known and may not be computed; never throws. */
+    private Long crc32(String objectKey, S3Service.ObjectInfo object) {
+        if (object.crc32() != null) {
+            return object.crc32();
+        }
+        if (!computeCrc) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        if (object.size() > 0) {
+            // If-Match: a replaced object fails rather than yielding a CRC for the wrong ETag
+            try (InputStream in = new CheckedInputStream(
+                    s3Service.openObject(objectKey, object.eTag(), 0, object.size()), crc)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error computing CRC-32 of " + objectKey + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return crc.getValue();
+    }
+
+    private Map<String, String> pendingVideos(Course course) {
+        Map<String, String> objectKeysByLessonId = new LinkedHashMap<>();
+        if (course.getUid() == null || course.getModules() == null) {
+            return objectKeysByLessonId;
+        }
+        for (Module module : course.getModules()) {
+            if (module.getLessons() == null) {
+                continue;
+            }
+            for (Lesson lesson : module.getLessons()) {
+                String objectKey = S3ObjectKeys.objectKeyOf(lesson.getVideoUrl());
+                boolean missingCrc = computeCrc && lesson.getVideoCrc32() == null;
+                if (objectKey != null && (lesson.getDurationSeconds() == null || missingCrc)) {
+                    objectKeysByLessonId.put(lesson.getLessonId(), objectKey);
+                }
+            }
+        }
+        return objectKeysByLessonId;
+    }
+}
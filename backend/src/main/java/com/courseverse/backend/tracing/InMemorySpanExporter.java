@@ -0,0 +1,57 @@
+package com.courseverse.backend.tracing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent spans in a fixed-size ring buffer, for local
+ * debugging and for capturing per-stage breakdowns during load tests.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final AtomicReferenceArray<SpanData> buffer;
+    private final AtomicLong written = new AtomicLong();
+
+    public InMemorySpanExporter(int capacity) {
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void export(SpanData span) {
+        long slot = written.getAndIncrement();
+        buffer.set((int) (slot % buffer.length()), span);
+    }
+
+    /** Recent spans, oldest first. */
+    public List<SpanData> getSpans() {
+        long end = written.get();
+        long start = Math.max(0, end - buffer.length());
+        List<SpanData> spans = new ArrayList<>();
+        for (long i = start; i < end; i++) {
+            SpanData span = buffer.get((int) (i % buffer.length()));
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    /** Recent spans grouped by trace id, in order of first appearance. */
+    public Map<String, List<SpanData>> getTraces() {
+        Map<String, List<SpanData>> traces = new LinkedHashMap<>();
+        for (SpanData span : getSpans()) {
+            traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+        }
+        return traces;
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+}
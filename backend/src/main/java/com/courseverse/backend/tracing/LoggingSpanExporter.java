@@ -0,0 +1,17 @@
+package com.courseverse.backend.tracing;
+
+/**
+ * Prints one line per span, in the same System.out style as the rest of the app.
+ */
+public class LoggingSpanExporter implements SpanExporter {
+
+    @Override
+    public void export(SpanData span) {
+        System.out.println("[trace " + span.traceId() + "] " + span.name()
+                + " span=" + span.spanId()
+                + " parent=" + (span.parentSpanId() != null ? span.parentSpanId() : "-")
+                + " duration=" + span.durationMicros() + "us"
+                + (span.error() ? " ERROR" : "")
+                + (span.attributes().isEmpty() ? "" : " " + span.attributes()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.courseverse.backend.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An in-progress unit of work. Spans are made current when started and must
+ * be closed on the same thread, typically with try-with-resources:
+ *
+ * <pre>
+ * try (Span span = tracer.startSpan("s3.presign")) { ... }
+ * </pre>
+ */
+public final class Span implements AutoCloseable {
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final boolean sampled;
+    private final Span previous;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private boolean error;
+    private boolean closed;
+
+    Span(Tracer tracer, String traceId, String spanId, String parentSpanId, String name, boolean sampled,
+            Span previous) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.sampled = sampled;
+        this.previous = previous;
+        this.startEpochMicros = System.currentTimeMillis() * 1000;
+        this.startNanos = System.nanoTime();
+    }
+
+    public Span tag(String key, String value) {
+        if (sampled && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public Span error(Throwable throwable) {
+        this.error = true;
+        return tag("error", throwable.getClass().getSimpleName());
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    Span getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        tracer.finish(this);
+    }
+
+    SpanData toData() {
+        long durationMicros = (System.nanoTime() - startNanos) / 1000;
+        return new SpanData(traceId, spanId, parentSpanId, name, startEpochMicros, durationMicros, error,
+                Collections.unmodifiableMap(new LinkedHashMap<>(attributes)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.courseverse.backend.tracing;
+
+import java.util.Map;
+
+/**
+ * Immutable record of a finished span, as handed to a SpanExporter.
+ */
+public record SpanData(
+        String traceId,
+        String spanId,
+        String parentSpanId, // null for the root span of a trace
+        String name,
+        long startEpochMicros,
+        long durationMicros,
+        boolean error,
+        Map<String, String> attributes) {
+}
@@ -0,0 +1,9 @@
+package com.courseverse.backend.tracing;
+
+/**
+ * Receives every finished, sampled span. Implementations must be thread-safe
+ * and fast, since export happens on the thread that ends the span.
+ */
+public interface SpanExporter {
+    void export(SpanData span);
+}
@@ -0,0 +1,39 @@
+package com.courseverse.backend.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/spans: recent traces captured by the in-memory exporter
+ * (app.tracing.exporter=memory). Empty for other exporters.
+ */
+@Component
+@Endpoint(id = "spans")
+public class SpansEndpoint {
+
+    private final SpanExporter exporter;
+
+    public SpansEndpoint(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public Map<String, List<SpanData>> traces() {
+        if (exporter instanceof InMemorySpanExporter inMemory) {
+            return inMemory.getTraces();
+        }
+        return Map.of();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        if (exporter instanceof InMemorySpanExporter inMemory) {
+            inMemory.clear();
+        }
+    }
+}
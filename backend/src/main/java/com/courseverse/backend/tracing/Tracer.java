@@ -0,0 +1,133 @@
+package com.courseverse.backend.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Minimal in-process tracer. The current span lives in a ThreadLocal; work
+ * handed to another thread must be wrapped with {@link #wrap(Runnable)} so its
+ * spans join the submitting request's trace.
+ *
+ * Sampling is decided once per trace (app.tracing.sample-rate) and inherited
+ * by every child span. Unsampled spans are still created so context
+ * propagates, but they are never exported.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final SpanExporter exporter;
+    private final double sampleRate;
+
+    public Tracer(SpanExporter exporter, @Value("${app.tracing.sample-rate:1.0}") double sampleRate) {
+        this.exporter = exporter;
+        this.sampleRate = sampleRate;
+    }
+
+    /** Starts a span as a child of the current span (or a new trace) and makes it current. */
+    public Span startSpan(String name) {
+        Span parent = CURRENT.get();
+        Span span;
+        if (parent == null) {
+            span = new Span(this, newTraceId(), newSpanId(), null, name, sample(), null);
+        } else {
+            span = new Span(this, parent.getTraceId(), newSpanId(), parent.getSpanId(), name, parent.isSampled(),
+                    parent);
+        }
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Starts the local root span of a request that arrived with a W3C
+     * traceparent header, continuing the caller's trace.
+     */
+    public Span startSpan(String name, String traceparent) {
+        String[] parts = traceparent != null ? traceparent.split("-") : new String[0];
+        if (parts.length != 4 || parts[1].length() != 32 || parts[2].length() != 16) {
+            return startSpan(name);
+        }
+        boolean sampled = parts[3].endsWith("1");
+        Span span = new Span(this, parts[1], newSpanId(), parts[2], name, sampled, CURRENT.get());
+        CURRENT.set(span);
+        return span;
+    }
+
+    public Span currentSpan() {
+        return CURRENT.get();
+    }
+
+    /** Formats the current span as a W3C traceparent header value, or null. */
+    public String currentTraceparent() {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return null;
+        }
+        return "00-" + span.getTraceId() + "-" + span.getSpanId() + (span.isSampled() ? "-01" : "-00");
+    }
+
+    /** Propagates the current trace context to a task run on another thread. */
+    public Runnable wrap(Runnable task) {
+        Span parent = CURRENT.get();
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        Span parent = CURRENT.get();
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    void finish(Span span) {
+        if (CURRENT.get() == span) {
+            restore(span.getPrevious());
+        }
+        if (span.isSampled()) {
+            try {
+                exporter.export(span.toData());
+            } catch (Exception e) {
+                System.err.println("Error exporting span: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void restore(Span span) {
+        if (span == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(span);
+        }
+    }
+
+    private boolean sample() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+
+    private static String newSpanId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -0,0 +1,43 @@
+package com.courseverse.backend.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a span around every public service and repository method, named
+ * after the class and method, e.g. "CourseService.getLessonContent".
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Pointcut("within(com.courseverse.backend.service..*) && @within(org.springframework.stereotype.Service)")
+    void serviceMethods() {
+    }
+
+    @Pointcut("within(com.courseverse.backend.repository..*) && @within(org.springframework.stereotype.Repository)")
+    void repositoryMethods() {
+    }
+
+    @Around("(serviceMethods() || repositoryMethods()) && execution(public * *(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = joinPoint.getTarget().getClass().getSimpleName() + "." + joinPoint.getSignature().getName();
+        try (Span span = tracer.startSpan(name)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable t) {
+                span.error(t);
+                throw t;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.courseverse.backend.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the root span of every API request, so auth, service, repository and
+ * S3 spans all hang off one trace. Continues an incoming traceparent and
+ * returns the trace context in the response's traceparent header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        try (Span span = tracer.startSpan("http.request", request.getHeader(TRACEPARENT))) {
+            span.tag("http.method", request.getMethod());
+            response.setHeader(TRACEPARENT, tracer.currentTraceparent());
+            try {
+                filterChain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                span.error(e);
+                throw e;
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                span.tag("http.route", pattern != null ? pattern.toString() : request.getRequestURI());
+                span.tag("http.status", String.valueOf(response.getStatus()));
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.courseverse.backend.controller;
+
+import com.courseverse.backend.service.StreamingZip;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RangeResponsesTest {
+
+    private static final MediaType ZIP = MediaType.valueOf("application/zip");
+
+    @Test
+    void noRangeSendsTheWholeBody() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        RangeResponses.Span span = RangeResponses.begin(1000, ZIP, null, Long.MAX_VALUE, response);
+
+        assertEquals(new RangeResponses.Span(0, 1000), span);
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(1000, response.getContentLengthLong());
+    }
+
+    @Test
+    void singleRangeIsPartialContent() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        RangeResponses.Span span = RangeResponses.begin(1000, ZIP, "bytes=100-199", Long.MAX_VALUE, response);
+
+        assertEquals(new RangeResponses.Span(100, 100), span);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(100, response.getContentLengthLong());
+    }
+
+    @Test
+    void openAndSuffixRanges() {
+        MockHttpServletResponse open = new MockHttpServletResponse();
+        assertEquals(new RangeResponses.Span(900, 100),
+                RangeResponses.begin(1000, ZIP, "bytes=900-", Long.MAX_VALUE, open));
+        assertEquals("bytes 900-999/1000", open.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        MockHttpServletResponse suffix = new MockHttpServletResponse();
+        assertEquals(new RangeResponses.Span(950, 50),
+                RangeResponses.begin(1000, ZIP, "bytes=-50", Long.MAX_VALUE, suffix));
+        assertEquals("bytes 950-999/1000", suffix.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void rangesAreCappedAtMaxRangeBytes() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        RangeResponses.Span span = RangeResponses.begin(1000, ZIP, "bytes=0-", 300, response);
+
+        assertEquals(new RangeResponses.Span(0, 300), span);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-299/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(RangeResponses.begin(1000, ZIP, "bytes=1000-", Long.MAX_VALUE, response));
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void malformedRangeIsIgnored() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals(new RangeResponses.Span(0, 1000),
+                RangeResponses.begin(1000, ZIP, "bytes=oops", Long.MAX_VALUE, response));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void multipleRangesGetTheFirstOne() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals(new RangeResponses.Span(0, 10),
+                RangeResponses.begin(1000, ZIP, "bytes=0-9,500-509", Long.MAX_VALUE, response));
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-9/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(10, response.getContentLengthLong());
+    }
+
+    /** Asking for many ranges must not get around the cap with a 200 for the whole body. */
+    @Test
+    void multipleRangesAreCappedToo() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals(new RangeResponses.Span(0, 300),
+                RangeResponses.begin(1000, ZIP, "bytes=0-,10-20", 300, response));
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-299/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void unsatisfiableFirstOfSeveralRanges() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(RangeResponses.begin(1000, ZIP, "bytes=2000-,0-9", Long.MAX_VALUE, response));
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void emptyBodyHasNoSatisfiableRange() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(RangeResponses.begin(0, ZIP, "bytes=0-,-10", Long.MAX_VALUE, response));
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */0", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void spansAreNeverNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new RangeResponses.Span(2000, -1000));
+        assertThrows(IllegalArgumentException.class, () -> new RangeResponses.Span(-1, 10));
+    }
+
+    @Test
+    void startOfTheRequestedRange() {
+        assertEquals(0, RangeResponses.start(null, 1000));
+        assertEquals(250, RangeResponses.start("bytes=250-", 1000));
+        assertEquals(900, RangeResponses.start("bytes=-100", 1000));
+        assertEquals(0, RangeResponses.start("bytes=2000-", 1000));
+        assertEquals(300, RangeResponses.start("bytes=300-399,0-9", 1000));
+        assertEquals(0, RangeResponses.start("bytes=2000-,0-9", 1000));
+    }
+
+    @Test
+    void writeFileHandsTheSpanToTomcatSendfile(@TempDir Path directory) throws IOException {
+        Path path = Files.write(directory.resolve("video.mp4"), new byte[1000]);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(RangeResponses.SENDFILE_SUPPORT, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try (FileChannel file = FileChannel.open(path)) {
+            RangeResponses.writeFile(path, file, new RangeResponses.Span(100, 50), request, response);
+        }
+
+        assertEquals(path.toRealPath().toString(), request.getAttribute(RangeResponses.SENDFILE_FILENAME));
+        assertEquals(100L, request.getAttribute(RangeResponses.SENDFILE_START));
+        assertEquals(150L, request.getAttribute(RangeResponses.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length, "Tomcat writes the body");
+    }
+
+    @Test
+    void writeFileCopiesWithoutSendfile(@TempDir Path directory) throws IOException {
+        byte[] content = new byte[1000];
+        new Random(2).nextBytes(content);
+        Path path = Files.write(directory.resolve("video.mp4"), content);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try (FileChannel file = FileChannel.open(path)) {
+            RangeResponses.writeFile(path, file, new RangeResponses.Span(100, 50), request, response);
+        }
+
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 150), response.getContentAsByteArray());
+        assertNull(request.getAttribute(RangeResponses.SENDFILE_FILENAME));
+    }
+
+    /** Deleted before Tomcat could open it: the open channel still has the bytes. */
+    @Test
+    void writeFileCopiesAFileThatIsGone(@TempDir Path directory) throws IOException {
+        Path path = Files.write(directory.resolve("video.mp4"), "0123456789".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(RangeResponses.SENDFILE_SUPPORT, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try (FileChannel file = FileChannel.open(path)) {
+            Files.delete(path);
+            RangeResponses.writeFile(path, file, new RangeResponses.Span(2, 3), request, response);
+        }
+
+        assertEquals("234", response.getContentAsString());
+        assertNull(request.getAttribute(RangeResponses.SENDFILE_FILENAME));
+    }
+
+    /** A bundle download resumed with Range continues with exactly the bytes of a full download. */
+    @Test
+    void resumedBundleMatchesTheFullDownload() throws IOException {
+        byte[] video = new byte[300_000];
+        new Random(1).nextBytes(video);
+        List<StreamingZip.Entry> entries = List.of(
+                StreamingZip.Entry.of("manifest.json", "{}".getBytes(StandardCharsets.UTF_8)),
+                StreamingZip.Entry.of("lessons/l1/video.mp4", video),
+                StreamingZip.Entry.of("lessons/l2/text.txt", "notes".getBytes(StandardCharsets.UTF_8)));
+        byte[] full = download(new StreamingZip(entries, null), null);
+
+        for (long start : new long[] { 1, 40, 123_456, full.length - 22 }) {
+            StreamingZip zip = new StreamingZip(entries, null);
+            assertArrayEquals(Arrays.copyOfRange(full, (int) start, full.length),
+                    download(zip, "bytes=" + start + "-"), "resumed at " + start);
+        }
+    }
+
+    private static byte[] download(StreamingZip zip, String range) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RangeResponses.Span span = RangeResponses.begin(zip.length(), ZIP, range, Long.MAX_VALUE, response);
+        zip.write(response.getOutputStream(), span.start(), span.length());
+        byte[] body = response.getContentAsByteArray();
+        assertEquals(span.length(), body.length);
+        return body;
+    }
+}
@@ -0,0 +1,58 @@
+package com.courseverse.backend.repository;
+
+import com.courseverse.backend.resilience.CircuitBreaker;
+import com.courseverse.backend.tracing.Tracer;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class FirestoreReadExecutorTest {
+
+    @SuppressWarnings("unchecked")
+    private final FirestoreReadExecutor reads = new FirestoreReadExecutor(new MockEnvironment(),
+            new CircuitBreaker("firestore", 100, 1000), new Tracer(span -> { }, 0),
+            mock(ObjectProvider.class), 50, false, 0.95, 20, 50, 0.1);
+
+    @AfterEach
+    void shutdown() {
+        reads.shutdown();
+    }
+
+    @Test
+    void successfulAttemptsAreRecorded() throws Exception {
+        assertEquals("doc", reads.read("op", () -> ApiFutures.immediateFuture("doc")));
+
+        assertEquals(1, reads.getHistograms().get("op").count());
+    }
+
+    @Test
+    void failedAttemptsAreRecorded() {
+        assertThrows(ExecutionException.class,
+                () -> reads.read("op", () -> ApiFutures.immediateFailedFuture(new IllegalStateException("down"))));
+
+        assertEquals(1, reads.getHistograms().get("op").count());
+    }
+
+    /** Leaving out reads that never finished would make the hedge delay shortest when Firestore is slowest. */
+    @Test
+    void attemptsCutOffByTheDeadlineAreRecordedAtTheDeadline() {
+        SettableApiFuture<String> stuck = SettableApiFuture.create();
+
+        assertThrows(ExecutionException.class, () -> reads.read("op", () -> stuck));
+
+        LatencyHistogram histogram = reads.getHistograms().get("op");
+        assertEquals(1, histogram.count());
+        assertTrue(histogram.percentile(1.0, 1) >= 50_000, histogram.percentile(1.0, 1) + " us");
+        assertTrue(stuck.isCancelled());
+    }
+}
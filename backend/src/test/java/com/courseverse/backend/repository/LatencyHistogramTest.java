@@ -0,0 +1,93 @@
+package com.courseverse.backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsBoundTheirValuesWithinAQuarter() {
+        for (long micros = 1; micros < 1L << 36; micros = micros * 11 / 10 + 1) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.bucketFor(micros));
+            assertTrue(upper >= micros, micros + " us in a bucket ending at " + upper);
+            assertTrue(upper <= micros + micros / 4 + 1, micros + " us in a bucket ending at " + upper);
+        }
+    }
+
+    @Test
+    void bucketsAreOrdered() {
+        int previous = LatencyHistogram.bucketFor(1);
+        for (long micros = 2; micros < 100_000; micros++) {
+            int bucket = LatencyHistogram.bucketFor(micros);
+            assertTrue(bucket >= previous, micros + " us");
+            // Up to 4 us a power of two spans fewer values than sub-buckets, so some stay empty
+            assertTrue(micros <= 4 || bucket <= previous + 1, micros + " us");
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void outOfRangeValuesUseTheEndBuckets() {
+        assertEquals(0, LatencyHistogram.bucketFor(0));
+        assertEquals(0, LatencyHistogram.bucketFor(-5));
+        assertEquals(LatencyHistogram.bucketFor(Long.MAX_VALUE), LatencyHistogram.bucketFor(1L << 40));
+    }
+
+    @Test
+    void percentileNeedsMinimumSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000);
+        assertEquals(-1, histogram.percentile(0.5, 0));
+
+        for (int i = 0; i < 9; i++) {
+            histogram.record(1_000);
+        }
+        assertEquals(-1, histogram.percentile(0.5, 10));
+        histogram.record(1_000);
+        assertEquals(bound(1_000), histogram.percentile(0.5, 10));
+    }
+
+    @Test
+    void percentilesPickTheBucketHoldingTheRank() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000);
+        for (int i = 0; i < 90; i++) {
+            histogram.record(2_000);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(50_000);
+        }
+        histogram.record(3_000_000);
+
+        assertEquals(100, histogram.count());
+        assertEquals(bound(2_000), histogram.percentile(0.5, 1));
+        assertEquals(bound(2_000), histogram.percentile(0.9, 1));
+        assertEquals(bound(50_000), histogram.percentile(0.95, 1));
+        assertEquals(bound(50_000), histogram.percentile(0.99, 1));
+        assertEquals(bound(3_000_000), histogram.percentile(1.0, 1));
+    }
+
+    /** Halving at the threshold lets recent samples outweigh old ones. */
+    @Test
+    void decayFollowsRecentLatency() {
+        LatencyHistogram histogram = new LatencyHistogram(200);
+        for (int i = 0; i < 150; i++) {
+            histogram.record(100);
+        }
+        for (int i = 0; i < 50; i++) {
+            histogram.record(100_000);
+        }
+        assertEquals(100, histogram.count(), "halved at 200 samples");
+        assertEquals(bound(100), histogram.percentile(0.5, 1));
+
+        // 150 of each lifetime, but the fast ones have been halved twice
+        for (int i = 0; i < 100; i++) {
+            histogram.record(100_000);
+        }
+        assertEquals(bound(100_000), histogram.percentile(0.5, 1));
+    }
+
+    private static long bound(long micros) {
+        return LatencyHistogram.upperBound(LatencyHistogram.bucketFor(micros));
+    }
+}
@@ -0,0 +1,107 @@
+package com.courseverse.backend.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void admitsUpToTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(3, limiter.getInFlight());
+
+        limiter.release(MILLIS, false);
+        assertEquals(2, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhileLatencyStaysNearTheBest() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100);
+
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            sample(limiter, 10 * MILLIS);
+            assertTrue(limiter.getLimit() >= previous, "sample " + i);
+            previous = limiter.getLimit();
+        }
+        assertTrue(previous > 20, "grew to " + previous);
+
+        // Up to RTT_TOLERANCE times the best RTT still counts as healthy
+        sample(limiter, 19 * MILLIS);
+        assertTrue(limiter.getLimit() >= previous);
+    }
+
+    @Test
+    void growthStopsAtTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 50);
+
+        for (int i = 0; i < 500; i++) {
+            sample(limiter, 10 * MILLIS);
+        }
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 200);
+        sample(limiter, 10 * MILLIS);
+        int healthy = limiter.getLimit();
+
+        sample(limiter, 100 * MILLIS);
+        assertTrue(limiter.getLimit() < healthy, healthy + " -> " + limiter.getLimit());
+
+        // Gradient is floored at 0.5, where limit = 0.5 * limit + sqrt(limit) settles at 4
+        for (int i = 0; i < 200; i++) {
+            sample(limiter, 100 * MILLIS);
+        }
+        assertEquals(5, limiter.getLimit(), "held at the minimum");
+    }
+
+    @Test
+    void unsampledReleasesLeaveTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100);
+        sample(limiter, 10 * MILLIS);
+        int limit = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10_000 * MILLIS, false);
+        }
+        assertEquals(limit, limiter.getLimit());
+    }
+
+    /** A lasting latency shift is re-learned as the new best RTT, so the limit recovers. */
+    @Test
+    void bestRttIsForgottenPeriodically() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 1000);
+        sample(limiter, MILLIS);
+        for (int i = 1; i < 999; i++) {
+            sample(limiter, 3 * MILLIS);
+        }
+        int shifted = limiter.getLimit();
+        assertTrue(shifted < 100, "shrank to " + shifted);
+
+        for (int i = 0; i < 100; i++) {
+            sample(limiter, 3 * MILLIS);
+        }
+        assertTrue(limiter.getLimit() > shifted, shifted + " -> " + limiter.getLimit());
+    }
+
+    private static void sample(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(rttNanos, true);
+    }
+}
@@ -0,0 +1,28 @@
+package com.courseverse.backend.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EndpointClassTest {
+
+    @Test
+    void classifiesByPathPrefix() {
+        assertEquals(EndpointClass.PUBLIC_CATALOG, EndpointClass.classify("/api/v1/courses"));
+        assertEquals(EndpointClass.PUBLIC_CATALOG, EndpointClass.classify("/api/v1/courses/c1"));
+        assertEquals(EndpointClass.ADMIN, EndpointClass.classify("/api/v1/admin/users"));
+        assertEquals(EndpointClass.INSTRUCTOR, EndpointClass.classify("/api/v1/uploads"));
+        assertEquals(EndpointClass.STUDENT, EndpointClass.classify("/api/v1/sync"));
+        assertEquals(EndpointClass.MEDIA, EndpointClass.classify("/api/v1/student/courses/c1/lessons/l1/video"));
+        assertNull(EndpointClass.classify("/api/v1/courses/health"));
+    }
+
+    @Test
+    void prefixesMatchWholeSegments() {
+        assertNull(EndpointClass.classify("/api/v1/coursesX"));
+        assertNull(EndpointClass.classify("/api/v1/administrators"));
+        assertNull(EndpointClass.classify("/api/v1/studentsvideo"));
+        assertNull(EndpointClass.classify("/api/v1/synced"));
+    }
+}
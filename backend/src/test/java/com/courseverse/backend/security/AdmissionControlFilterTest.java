@@ -0,0 +1,71 @@
+package com.courseverse.backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Fast cached catalog hits must not make ordinary student latency look like queueing. */
+    @Test
+    void classesLearnTheirOwnLatency() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new MockEnvironment()
+                .withProperty("app.admission.initial-limit", "50")
+                .withProperty("app.admission.min-limit", "10"), meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            call(filter, "/api/v1/courses/c1", (request, response) -> { });
+            call(filter, "/api/v1/student/courses", (request, response) -> LockSupport.parkNanos(5_000_000));
+        }
+
+        assertTrue(limit("student") >= 50, "student limit " + limit("student"));
+        assertTrue(limit("public-catalog") >= 50, "catalog limit " + limit("public-catalog"));
+    }
+
+    @Test
+    void perClassLimitsOverrideTheDefaults() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new MockEnvironment()
+                .withProperty("app.admission.initial-limit", "50")
+                .withProperty("app.admission.admin.initial-limit", "1"), meterRegistry);
+
+        assertEquals(1, limit("admin"));
+        assertEquals(50, limit("instructor"));
+
+        // The one admin slot is taken by the request in progress, so a nested one is shed
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        call(filter, "/api/v1/admin/users", (request, response) -> {
+            MockHttpServletRequest inner = new MockHttpServletRequest("GET", "/api/v1/admin/users");
+            filter.doFilter(inner, nested, (innerRequest, innerResponse) -> { });
+        });
+        assertEquals(429, nested.getStatus());
+        assertEquals(1.0, meterRegistry.get("courseverse.admission.shed").tag("endpoint_class", "admin")
+                .counter().count());
+    }
+
+    @Test
+    void mediaAndUnclassifiedPathsAreNotLimited() {
+        new AdmissionControlFilter(new MockEnvironment(), meterRegistry);
+
+        assertTrue(meterRegistry.find("courseverse.admission.limit").tag("endpoint_class", "media")
+                .gauges().isEmpty());
+    }
+
+    private static void call(AdmissionControlFilter filter, String path, FilterChain chain) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), chain);
+    }
+
+    private double limit(String endpointClass) {
+        return meterRegistry.get("courseverse.admission.limit").tag("endpoint_class", endpointClass).gauge().value();
+    }
+}
@@ -0,0 +1,72 @@
+package com.courseverse.backend.security;
+
+import com.courseverse.backend.resilience.Bulkhead;
+import com.courseverse.backend.resilience.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkheadFilterTest {
+
+    private final BulkheadFilter filter = new BulkheadFilter(new MockEnvironment()
+            .withProperty("app.bulkhead.admin.max-concurrent", "1")
+            .withProperty("app.bulkhead.admin.max-queued", "0")
+            .withProperty("app.bulkhead.admin.retry-after-seconds", "5"), new SimpleMeterRegistry());
+
+    /** Token verification runs further down the chain, so a full class rejects before paying for it. */
+    @Test
+    void fullClassIsRejectedBeforeTheRestOfTheChain() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        int[] verified = {0};
+        call("/api/v1/admin/users", new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/admin/users"), nested,
+                        (innerRequest, innerResponse) -> verified[0]++));
+
+        assertEquals(503, nested.getStatus());
+        assertEquals("5", nested.getHeader("Retry-After"));
+        assertEquals(0, verified[0]);
+        assertEquals(0, active(EndpointClass.ADMIN)); // The outer request released its slot
+    }
+
+    @Test
+    void asyncRequestsHoldTheirSlotUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/admin/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertEquals(1, active(EndpointClass.ADMIN));
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, active(EndpointClass.ADMIN));
+    }
+
+    @Test
+    void otherClassesAndUnclassifiedPathsAreNotAffected() throws Exception {
+        MockHttpServletResponse catalog = new MockHttpServletResponse();
+        MockHttpServletResponse unclassified = new MockHttpServletResponse();
+        call("/api/v1/admin/users", new MockHttpServletResponse(), (request, response) -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses/c1"), catalog,
+                    (innerRequest, innerResponse) -> { });
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/administrators"), unclassified,
+                    (innerRequest, innerResponse) -> { });
+        });
+
+        assertEquals(200, catalog.getStatus());
+        assertEquals(200, unclassified.getStatus());
+    }
+
+    private void call(String path, MockHttpServletResponse response, FilterChain chain) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+    }
+
+    private int active(EndpointClass endpointClass) {
+        Bulkhead bulkhead = filter.getBulkheads().get(endpointClass);
+        return bulkhead.getActiveCount();
+    }
+}
@@ -0,0 +1,88 @@
+package com.courseverse.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Far from zero, like System.nanoTime(), which may even be negative
+    private final AtomicLong clock = new AtomicLong(-5 * SECOND);
+
+    @Test
+    void startsFullAndEmptiesAfterCapacityRequests() {
+        TokenBucket bucket = new TokenBucket(3, 1, clock::get);
+
+        assertTrue(bucket.isFull());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(), "request " + i);
+        }
+        assertEquals(SECOND, bucket.tryConsume());
+        assertFalse(bucket.isFull());
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 4, clock::get); // One token every 250 ms
+        bucket.tryConsume();
+        bucket.tryConsume();
+
+        clock.addAndGet(100_000_000);
+        assertEquals(150_000_000, bucket.tryConsume(), "rejected requests take no tokens");
+        clock.addAndGet(150_000_000);
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(250_000_000, bucket.tryConsume());
+
+        clock.addAndGet(500_000_000);
+        assertTrue(bucket.isFull());
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 10, clock::get);
+        bucket.tryConsume();
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(), "request " + i);
+        }
+        assertTrue(bucket.tryConsume() > 0);
+    }
+
+    @Test
+    void slowRefillWaitsSpanSeconds() {
+        TokenBucket bucket = new TokenBucket(1, 0.5, clock::get);
+        bucket.tryConsume();
+
+        assertEquals(2 * SECOND, bucket.tryConsume());
+        clock.addAndGet(SECOND / 2);
+        assertEquals(3 * SECOND / 2, bucket.tryConsume());
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, TokenBucket.retryAfterSeconds(1));
+        assertEquals(1, TokenBucket.retryAfterSeconds(SECOND));
+        assertEquals(2, TokenBucket.retryAfterSeconds(SECOND + 1));
+        assertEquals(2, TokenBucket.retryAfterSeconds(3 * SECOND / 2));
+        assertEquals(1, TokenBucket.retryAfterSeconds(0));
+    }
+
+    /** A bucket that never refills asks for a very long wait, not a wrapped-around one. */
+    @Test
+    void retryAfterOfANeverRefillingBucketDoesNotOverflow() {
+        TokenBucket bucket = new TokenBucket(1, 0, clock::get);
+        bucket.tryConsume();
+
+        long wait = bucket.tryConsume();
+        assertEquals(Long.MAX_VALUE, wait);
+        assertEquals(Long.MAX_VALUE / SECOND + 1, TokenBucket.retryAfterSeconds(wait));
+    }
+}
@@ -0,0 +1,163 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogCacheTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private final Tracer tracer = new Tracer(span -> { }, 0);
+    private CatalogCache cache;
+
+    @AfterEach
+    void shutdown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void freshValuesAreServedWithoutReloading() {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 100, tracer);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("k", () -> "v" + loads.incrementAndGet()).value());
+        CatalogCache.Lookup<String> again = cache.get("k", () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v1", again.value());
+        assertFalse(again.stale());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void leastRecentlyUsedKeysAreEvictedBeyondMaxEntries() {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 2, tracer);
+        cache.get("a", () -> "a");
+        cache.get("b", () -> "b");
+        cache.get("a", () -> "reloaded"); // b is now the least recently used
+        cache.get("c", () -> "c");
+
+        assertNull(cache.peek("b"));
+        assertNotNull(cache.peek("a"));
+        assertNotNull(cache.peek("c"));
+    }
+
+    /** Lookups of made-up course ids must not fill the heap. */
+    @Test
+    void unknownIdsStayWithinMaxEntries() {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 100, tracer);
+        for (int i = 0; i < 10_000; i++) {
+            cache.get(CatalogCache.courseKey("missing-" + i), Optional::empty);
+        }
+
+        int cached = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (cache.peek(CatalogCache.courseKey("missing-" + i)) != null) {
+                cached++;
+            }
+        }
+        assertEquals(100, cached);
+    }
+
+    @Test
+    void notFoundIsOnlyKeptForItsOwnTtl() {
+        cache = new CatalogCache(HOUR, HOUR, 0, 100, tracer);
+        AtomicInteger loads = new AtomicInteger();
+        String key = CatalogCache.courseKey("c1");
+
+        assertEquals(Optional.empty(), cache.get(key, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).value());
+        CatalogCache.Lookup<Optional<String>> created = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return Optional.of("created since");
+        });
+
+        // Reloaded synchronously rather than served stale
+        assertEquals(Optional.of("created since"), created.value());
+        assertFalse(created.stale());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidatedKeysAreReloaded() {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 100, tracer);
+        cache.get("k", () -> "old");
+
+        cache.invalidate("k");
+
+        assertEquals("new", cache.get("k", () -> "new").value());
+    }
+
+    /** A refresh that read the data before an admin edit must not cache it as fresh. */
+    @Test
+    void backgroundRefreshStartedBeforeAnInvalidationIsDropped() throws Exception {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 100, tracer);
+        cache.get("k", () -> "v1");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        cache.refreshInBackground("k", () -> {
+            loading.countDown();
+            invalidated.await();
+            done.countDown();
+            return "read before the edit";
+        });
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.invalidate("k");
+        invalidated.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // The refresh installs its result right after returning it
+        for (int i = 0; i < 100 && !"read before the edit".equals(cache.peek("k").value()); i++) {
+            Thread.sleep(10);
+        }
+        CatalogCache.Lookup<String> cached = cache.peek("k");
+        assertEquals("v1", cached.value());
+        assertTrue(cached.stale(), "still invalidated");
+        assertEquals("after the edit", cache.get("k", () -> "after the edit").value());
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsServedButNotCached() {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 100, tracer);
+        cache.get("k", () -> "v1");
+        cache.invalidate("k");
+
+        CatalogCache.Lookup<String> lookup = cache.get("k", () -> {
+            cache.invalidate("k"); // An edit lands while this load is in flight
+            return "v2";
+        });
+
+        assertEquals("v2", lookup.value());
+        assertTrue(cache.peek("k").stale());
+        assertEquals("v3", cache.get("k", () -> "v3").value());
+    }
+
+    @Test
+    void loadsWithoutAnInvalidationAreCached() {
+        cache = new CatalogCache(HOUR, HOUR, HOUR, 100, tracer);
+        cache.get("k", () -> "v1");
+        cache.invalidate("k");
+        cache.get("k", () -> "v2");
+
+        CatalogCache.Lookup<String> cached = cache.peek("k");
+        assertEquals("v2", cached.value());
+        assertFalse(cached.stale());
+    }
+}
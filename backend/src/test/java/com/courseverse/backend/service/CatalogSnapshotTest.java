@@ -0,0 +1,184 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotTest {
+
+    private static final long WRITTEN_AT = 1_760_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsEveryField() throws Exception {
+        Course full = fullCourse();
+        // A field added to the model without a fixture value, and so maybe without a codec entry, fails here
+        assertEveryFieldSet(full);
+        assertEveryFieldSet(full.getModules().get(0));
+        assertEveryFieldSet(full.getModules().get(0).getLessons().get(0));
+
+        CatalogSnapshot snapshot = snapshot();
+        snapshot.write(List.of(full, sparseCourse()), WRITTEN_AT);
+        CatalogSnapshot.Snapshot read = snapshot.read();
+
+        assertEquals(WRITTEN_AT, read.writtenAt());
+        assertEquals(List.of(full, sparseCourse()), read.courses());
+    }
+
+    @Test
+    void emptyCatalogRoundTrips() throws IOException {
+        CatalogSnapshot snapshot = snapshot();
+        snapshot.write(List.of(), WRITTEN_AT);
+
+        assertEquals(List.of(), snapshot.read().courses());
+    }
+
+    /** Old snapshots have a different layout, so they are rejected rather than misread. */
+    @Test
+    void otherVersionIsRejected() throws IOException {
+        CatalogSnapshot snapshot = snapshot();
+        snapshot.write(List.of(fullCourse()), WRITTEN_AT);
+        Path file = directory.resolve("catalog.snapshot");
+
+        for (int version : new int[] { CatalogSnapshot.VERSION - 1, CatalogSnapshot.VERSION + 1 }) {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            bytes.putInt(4, version);
+            resign(bytes);
+            Path other = directory.resolve("v" + version + ".snapshot");
+            Files.write(other, bytes.array());
+
+            IOException e = assertThrows(IOException.class, () -> snapshotAt(other).read());
+            assertEquals("not a version " + CatalogSnapshot.VERSION + " catalog snapshot", e.getMessage());
+        }
+    }
+
+    @Test
+    void corruptOrTruncatedSnapshotIsRejected() throws IOException {
+        CatalogSnapshot snapshot = snapshot();
+        snapshot.write(List.of(fullCourse()), WRITTEN_AT);
+        byte[] bytes = Files.readAllBytes(directory.resolve("catalog.snapshot"));
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] ^= 1;
+        Path corrupt = directory.resolve("corrupt.snapshot");
+        Files.write(corrupt, flipped);
+        assertThrows(IOException.class, () -> snapshotAt(corrupt).read());
+
+        Path truncated = directory.resolve("truncated.snapshot");
+        Files.write(truncated, new byte[10]);
+        assertThrows(IOException.class, () -> snapshotAt(truncated).read());
+    }
+
+    @Test
+    void rewriteReplacesThePreviousSnapshot() throws IOException {
+        CatalogSnapshot snapshot = snapshot();
+        snapshot.write(List.of(fullCourse()), WRITTEN_AT);
+        snapshot.write(List.of(sparseCourse()), WRITTEN_AT + 1);
+
+        CatalogSnapshot.Snapshot read = snapshot.read();
+        assertEquals(WRITTEN_AT + 1, read.writtenAt());
+        assertEquals(List.of(sparseCourse()), read.courses());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count(), "no temporary files left behind");
+        }
+    }
+
+    private CatalogSnapshot snapshot() {
+        return snapshotAt(directory.resolve("catalog.snapshot"));
+    }
+
+    private static CatalogSnapshot snapshotAt(Path path) {
+        return new CatalogSnapshot(null, null, path.toString(), 60_000);
+    }
+
+    /** Recomputes the trailing CRC-32 so only the changed field is wrong. */
+    private static void resign(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 0, bytes.capacity() - 4);
+        bytes.putInt(bytes.capacity() - 4, (int) crc.getValue());
+    }
+
+    private static Course fullCourse() {
+        Lesson video = new Lesson();
+        video.setLessonId("l1");
+        video.setTitle("Welcome — ünïcödé");
+        video.setVideoUrl("videos/c1/l1.mp4");
+        video.setTextContent("Transcript\nwith lines");
+        video.setDurationSeconds(734.25);
+        video.setVideoSizeBytes(5_000_000_000L);
+        video.setVideoWidth(1920);
+        video.setVideoHeight(1080);
+        video.setVideoBitrate(54_481_000L);
+        video.setVideoCrc32(0xFFFF_FFFFL);
+        video.setVideoETag("\"d41d8cd98f00b204e9800998ecf8427e-12\"");
+
+        Lesson text = new Lesson();
+        text.setLessonId("l2");
+        text.setTitle("");
+        text.setTextContent("Read me");
+
+        Module module = new Module();
+        module.setModuleId("m1");
+        module.setTitle("Getting started");
+        module.setLessons(new ArrayList<>(List.of(video, text)));
+
+        Module empty = new Module();
+        empty.setModuleId("m2");
+        empty.setTitle("Coming soon");
+        empty.setLessons(new ArrayList<>());
+
+        Course course = new Course();
+        course.setUid("c1");
+        course.setTitle("Java from scratch");
+        course.setDescription("Everything about \"Java\"");
+        course.setInstructorId("i1");
+        course.setInstructorName("Ada");
+        course.setModules(new ArrayList<>(List.of(module, empty)));
+        course.setThumbnailUrl("https://example.com/thumb.jpg");
+        course.setThumbnailObjectKey("thumbnails/c1.jpg");
+        course.setThumbnailVariants(Map.of("320", "thumbnails/c1-320.jpg", "640", "thumbnails/c1-640.jpg"));
+        course.setEnrollmentCount(42);
+        course.setPublishStatus("Published");
+        course.setUpdatedAt(new Date(WRITTEN_AT - 1000));
+        return course;
+    }
+
+    /** Nulls everywhere they are allowed, including the modules and lesson lists. */
+    private static Course sparseCourse() {
+        Module noLessons = new Module();
+        Course withModule = new Course();
+        withModule.setModules(new ArrayList<>(List.of(noLessons)));
+        withModule.setPublishStatus(null);
+        return withModule;
+    }
+
+    private static void assertEveryFieldSet(Object model) throws IllegalAccessException {
+        for (Field field : model.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            assertNotNull(field.get(model), model.getClass().getSimpleName() + "." + field.getName());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.courseverse.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Mp4MetadataTest {
+
+    private static final int MAX_MOOV = 1 << 20;
+
+    @Test
+    void fastStartVersion0Boxes() throws IOException {
+        byte[] file = concat(ftyp(), moov(mvhd0(1000, 125_000), trak(tkhd0(0, 0)), trak(tkhd0(1920, 1080))),
+                box("mdat", new byte[4000]));
+
+        Mp4Metadata metadata = parse(file, file.length);
+
+        assertEquals(125.0, metadata.durationSeconds());
+        assertEquals(1920, metadata.width(), "the audio track's 0x0 frame is skipped");
+        assertEquals(1080, metadata.height());
+        assertEquals(file.length, metadata.sizeBytes());
+        assertEquals(Math.round(file.length * 8 / 125.0), metadata.bitrate());
+    }
+
+    @Test
+    void version1Boxes() throws IOException {
+        byte[] file = concat(ftyp(), moov(mvhd1(90_000, 0x1_0000_0000L), trak(tkhd1(1280, 720))));
+
+        Mp4Metadata metadata = parse(file, file.length);
+
+        assertEquals(0x1_0000_0000L / 90_000.0, metadata.durationSeconds());
+        assertEquals(1280, metadata.width());
+        assertEquals(720, metadata.height());
+    }
+
+    /** A 64-bit mdat header before moov: only the headers and moov are fetched, not the media. */
+    @Test
+    void largeSizeMdatBeforeMoovIsSkipped() throws IOException {
+        long mdatSize = 0x1_0000_0010L;
+        byte[] head = concat(ftyp(), ByteBuffer.allocate(16).putInt(1).put(ascii("mdat")).putLong(mdatSize).array());
+        byte[] moov = moov(mvhd0(600, 6000), trak(tkhd0(640, 480)));
+        long moovOffset = ftyp().length + mdatSize;
+        long size = moovOffset + moov.length;
+        AtomicInteger reads = new AtomicInteger();
+
+        Mp4Metadata metadata = Mp4Metadata.parse(head, size, (offset, length) -> {
+            reads.incrementAndGet();
+            assertEquals(moovOffset, offset);
+            return Arrays.copyOf(moov, length);
+        }, MAX_MOOV);
+
+        assertEquals(10.0, metadata.durationSeconds());
+        assertEquals(640, metadata.width());
+        assertEquals(size, metadata.sizeBytes());
+        assertEquals(2, reads.get(), "moov header, then moov");
+    }
+
+    @Test
+    void sizeZeroBoxRunsToTheEndOfTheFile() throws IOException {
+        byte[] moov = moov(mvhd0(1000, 2000));
+        ByteBuffer.wrap(moov).putInt(0, 0);
+        byte[] file = concat(ftyp(), moov);
+
+        assertEquals(2.0, parse(file, file.length).durationSeconds());
+    }
+
+    @Test
+    void fragmentedDurationComesFromMehd() throws IOException {
+        byte[] version0 = concat(ftyp(), moov(mvhd0(1000, 0),
+                box("mvex", box("mehd", ByteBuffer.allocate(8).putInt(0).putInt(30_000).array()))));
+        byte[] version1 = concat(ftyp(), moov(mvhd0(1000, 0),
+                box("mvex", box("mehd", ByteBuffer.allocate(12).putInt(0x0100_0000).putLong(45_000).array()))));
+
+        assertEquals(30.0, parse(version0, version0.length).durationSeconds());
+        assertEquals(45.0, parse(version1, version1.length).durationSeconds());
+    }
+
+    @Test
+    void fileWithoutMoovIsNotAnMp4() throws IOException {
+        byte[] file = concat(ftyp(), box("mdat", new byte[100]));
+
+        assertNull(parse(file, file.length));
+    }
+
+    @Test
+    void oversizedMoovIsRejected() {
+        byte[] file = concat(ftyp(), moov(mvhd0(1000, 1000), box("free", new byte[2000])));
+
+        assertThrows(IOException.class, () -> Mp4Metadata.parse(file, file.length, this::unexpectedRead, 1000));
+    }
+
+    /** Short headers and empty boxes leave fields null instead of failing or reading out of bounds. */
+    @Test
+    void truncatedChildBoxesLeaveFieldsUnknown() throws IOException {
+        byte[][] files = {
+                concat(ftyp(), moov(box("mvhd", new byte[10]))),
+                concat(ftyp(), moov(box("mvhd", new byte[0]))),
+                concat(ftyp(), moov(box("mvhd", version1(new byte[24])))),
+                concat(ftyp(), moov(mvhd0(1000, 0), box("mvex", box("mehd", new byte[0])))),
+                concat(ftyp(), moov(mvhd0(1000, 0), box("mvex", box("mehd", version1(new byte[8]))))),
+                concat(ftyp(), moov(trak(box("tkhd", new byte[0])))),
+                concat(ftyp(), moov(trak(box("tkhd", new byte[40])))),
+        };
+        for (byte[] file : files) {
+            Mp4Metadata metadata = parse(file, file.length);
+            assertNull(metadata.durationSeconds());
+            assertNull(metadata.width());
+            assertNull(metadata.bitrate());
+        }
+    }
+
+    @Test
+    void malformedSizesAreIOExceptions() {
+        byte[] childPastParent = concat(ftyp(), moov(mvhd0(1000, 1000)));
+        ByteBuffer.wrap(childPastParent).putInt(ftyp().length + 8, 10_000);
+        byte[] childTooSmall = concat(ftyp(), moov(mvhd0(1000, 1000)));
+        ByteBuffer.wrap(childTooSmall).putInt(ftyp().length + 8, 4);
+        byte[] childLargeSizeOverflow = concat(ftyp(), moov(
+                ByteBuffer.allocate(16).putInt(1).put(ascii("free")).putLong(Long.MAX_VALUE).array()));
+        byte[] boxPastEnd = concat(ftyp(), box("mdat", new byte[10]));
+        ByteBuffer.wrap(boxPastEnd).putInt(ftyp().length, 1000);
+        byte[] largeSizeOverflow = concat(ftyp(),
+                ByteBuffer.allocate(16).putInt(1).put(ascii("mdat")).putLong(Long.MAX_VALUE - 4).array());
+        byte[] negativeLargeSize = concat(ftyp(),
+                ByteBuffer.allocate(16).putInt(1).put(ascii("mdat")).putLong(-16).array());
+        byte[] truncatedLargeSize = concat(ftyp(), ByteBuffer.allocate(12).putInt(1).put(ascii("mdat")).array());
+
+        for (byte[] file : new byte[][] { childPastParent, childTooSmall, childLargeSizeOverflow, boxPastEnd,
+                largeSizeOverflow, negativeLargeSize, truncatedLargeSize }) {
+            assertThrows(IOException.class, () -> parse(file, file.length));
+        }
+    }
+
+    @Test
+    void shortReadIsAnIOException() {
+        byte[] moov = moov(mvhd0(1000, 1000));
+        byte[] head = ftyp();
+
+        assertThrows(IOException.class, () -> Mp4Metadata.parse(head, head.length + moov.length,
+                (offset, length) -> Arrays.copyOf(moov, length / 2), MAX_MOOV));
+    }
+
+    /** Endless tiny boxes stop at the top-level box limit instead of reading the whole file. */
+    @Test
+    void topLevelWalkIsBounded() throws IOException {
+        AtomicInteger reads = new AtomicInteger();
+        byte[] free = box("free", new byte[0]);
+
+        assertNull(Mp4Metadata.parse(new byte[0], Long.MAX_VALUE / 2, (offset, length) -> {
+            reads.incrementAndGet();
+            return Arrays.copyOf(free, length);
+        }, MAX_MOOV));
+        assertTrue(reads.get() <= 1000, reads.get() + " reads");
+    }
+
+    private static Mp4Metadata parse(byte[] file, long size) throws IOException {
+        return Mp4Metadata.parse(file, size, (offset, length) -> {
+            throw new AssertionError("the whole file was in head, read at " + offset);
+        }, MAX_MOOV);
+    }
+
+    private byte[] unexpectedRead(long offset, int length) {
+        throw new AssertionError("unexpected read at " + offset);
+    }
+
+    private static byte[] ftyp() {
+        return box("ftyp", concat(ascii("isom"), new byte[4], ascii("isomavc1")));
+    }
+
+    private static byte[] moov(byte[]... children) {
+        return box("moov", concat(children));
+    }
+
+    private static byte[] trak(byte[]... children) {
+        return box("trak", concat(children));
+    }
+
+    private static byte[] mvhd0(int timescale, int duration) {
+        return box("mvhd", ByteBuffer.allocate(100).putInt(12, timescale).putInt(16, duration).array());
+    }
+
+    private static byte[] mvhd1(int timescale, long duration) {
+        return box("mvhd", version1(ByteBuffer.allocate(112).putInt(20, timescale).putLong(24, duration).array()));
+    }
+
+    private static byte[] tkhd0(int width, int height) {
+        return box("tkhd", ByteBuffer.allocate(84).putInt(76, width << 16).putInt(80, height << 16).array());
+    }
+
+    private static byte[] tkhd1(int width, int height) {
+        return box("tkhd", version1(ByteBuffer.allocate(96).putInt(88, width << 16).putInt(92, height << 16).array()));
+    }
+
+    private static byte[] version1(byte[] content) {
+        content[0] = 1;
+        return content;
+    }
+
+    private static byte[] box(String type, byte[] content) {
+        return ByteBuffer.allocate(8 + content.length).putInt(8 + content.length).put(ascii(type)).put(content)
+                .array();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,170 @@
+package com.courseverse.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreSerializedJsonTest {
+
+    private static final String PLACEHOLDER = "test-thumbnail-";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, String> URLS = Map.of(
+            "thumbnails/a.jpg", "https://bucket.s3.amazonaws.com/thumbnails/a.jpg?X-Amz-Signature=abc&X-Amz-Expires=900",
+            "thumbnails/b.jpg", "https://example.com/\"quoted\"/\\back/ünïcödé/ ",
+            "thumbnails/c.jpg", "x".repeat(150_000)); // Longer than one stored deflate block
+
+    @Test
+    void plainRenderMatchesJackson() throws IOException {
+        for (boolean offHeap : new boolean[] { false, true }) {
+            PreSerializedJson document = split(offHeap, true);
+            PreSerializedJson.Body body = document.render(URLS::get, false);
+
+            assertFalse(body.gzip());
+            byte[] written = write(body);
+            assertEquals(body.contentLength(), written.length);
+            assertArrayEquals(expected(URLS::get), written);
+        }
+    }
+
+    @Test
+    void gzipRenderDecompressesToJackson() throws IOException {
+        for (boolean offHeap : new boolean[] { false, true }) {
+            PreSerializedJson document = split(offHeap, true);
+            PreSerializedJson.Body body = document.render(URLS::get, true);
+
+            assertTrue(body.gzip());
+            byte[] written = write(body);
+            assertEquals(body.contentLength(), written.length);
+            assertArrayEquals(expected(URLS::get), gunzip(written));
+        }
+    }
+
+    /** GZIPInputStream checks the trailer too, but a wrong one must fail here rather than only in clients. */
+    @Test
+    void gzipTrailerHoldsTheCrcAndSizeOfTheJson() throws IOException {
+        byte[] json = expected(URLS::get);
+        byte[] written = write(split(false, true).render(URLS::get, true));
+
+        ByteBuffer trailer = ByteBuffer.wrap(written, written.length - 8, 8).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        assertEquals((int) crc.getValue(), trailer.getInt());
+        assertEquals(json.length, trailer.getInt(), "ISIZE");
+    }
+
+    @Test
+    void eachRenderSplicesItsOwnUrls() throws IOException {
+        PreSerializedJson document = split(false, true);
+        Function<String, String> other = key -> "https://cdn.example.com/" + key + "?v=2";
+        Function<String, String> missing = key -> key.endsWith("b.jpg") ? null : URLS.get(key);
+
+        assertArrayEquals(expected(other), gunzip(write(document.render(other, true))));
+        assertArrayEquals(expected(missing), gunzip(write(document.render(missing, true))));
+        assertArrayEquals(expected(missing), write(document.render(missing, false)));
+        assertArrayEquals(expected(URLS::get), gunzip(write(document.render(URLS::get, true))));
+    }
+
+    @Test
+    void gzipIsOnlyUsedWhenBuiltIn() throws IOException {
+        PreSerializedJson document = split(false, false);
+        PreSerializedJson.Body body = document.render(URLS::get, true);
+
+        assertFalse(body.gzip());
+        assertArrayEquals(expected(URLS::get), write(body));
+    }
+
+    /** Holes at the very start and end leave empty static segments on either side. */
+    @Test
+    void documentThatIsOnlyAHole() throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(PLACEHOLDER + 0);
+        PreSerializedJson document = PreSerializedJson.split(json, PLACEHOLDER, List.of("k"), false, true);
+        byte[] url = MAPPER.writeValueAsBytes("https://example.com/k");
+
+        assertArrayEquals(url, write(document.render(key -> "https://example.com/k", false)));
+        assertArrayEquals(url, gunzip(write(document.render(key -> "https://example.com/k", true))));
+    }
+
+    @Test
+    void documentWithoutHoles() throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(List.of(Map.of("title", "No thumbnails")));
+        PreSerializedJson document = PreSerializedJson.split(json, PLACEHOLDER, List.of(), false, true);
+
+        assertArrayEquals(json, write(document.render(key -> "unused", false)));
+        assertArrayEquals(json, gunzip(write(document.render(key -> "unused", true))));
+    }
+
+    @Test
+    void placeholderCountMustMatchTheSlots() throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(List.of(PLACEHOLDER + 0, PLACEHOLDER + 1));
+        byte[] outOfOrder = MAPPER.writeValueAsBytes(List.of(PLACEHOLDER + 1, PLACEHOLDER + 0));
+
+        assertThrows(IllegalStateException.class,
+                () -> PreSerializedJson.split(json, PLACEHOLDER, List.of("a"), false, true));
+        assertThrows(IllegalStateException.class,
+                () -> PreSerializedJson.split(json, PLACEHOLDER, List.of("a", "b", "c"), false, true));
+        assertThrows(IllegalStateException.class,
+                () -> PreSerializedJson.split(outOfOrder, PLACEHOLDER, List.of("a", "b"), false, true));
+    }
+
+    /** Course-like objects; keys are slotted in document order, as CourseJsonCache does. */
+    private static List<Map<String, Object>> courses(Function<String, String> thumbnailUrl) {
+        List<Map<String, Object>> courses = new ArrayList<>();
+        String[] keys = { "thumbnails/a.jpg", null, "thumbnails/b.jpg", "thumbnails/c.jpg" };
+        for (int i = 0; i < keys.length; i++) {
+            Map<String, Object> course = new LinkedHashMap<>();
+            course.put("courseId", "c" + i);
+            course.put("title", "Course " + i + " — \"intro\"");
+            course.put("thumbnailUrl", keys[i] != null ? thumbnailUrl.apply(keys[i]) : null);
+            course.put("tags", List.of("java", "spring"));
+            course.put("description", "Lorem ipsum dolor sit amet ".repeat(20 * (i + 1)));
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    private static PreSerializedJson split(boolean offHeap, boolean gzip) throws IOException {
+        List<String> slotKeys = new ArrayList<>();
+        byte[] json = MAPPER.writeValueAsBytes(courses(key -> {
+            slotKeys.add(key);
+            return PLACEHOLDER + (slotKeys.size() - 1);
+        }));
+        assertEquals(List.of("thumbnails/a.jpg", "thumbnails/b.jpg", "thumbnails/c.jpg"), slotKeys);
+        return PreSerializedJson.split(json, PLACEHOLDER, slotKeys, offHeap, gzip);
+    }
+
+    private static byte[] expected(Function<String, String> thumbnailUrl) throws IOException {
+        return MAPPER.writeValueAsBytes(courses(thumbnailUrl));
+    }
+
+    private static byte[] write(PreSerializedJson.Body body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
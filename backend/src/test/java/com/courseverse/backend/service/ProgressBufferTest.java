@@ -0,0 +1,319 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.dto.ProgressHeartbeatRequest;
+import com.courseverse.backend.exception.BulkheadFullException;
+import com.courseverse.backend.exception.ResourceNotFoundException;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.model.Enrollment;
+import com.courseverse.backend.model.Lesson;
+import com.courseverse.backend.model.Module;
+import com.courseverse.backend.repository.ChangeCursor;
+import com.courseverse.backend.repository.ChangePage;
+import com.courseverse.backend.repository.EnrollmentRepository;
+import com.courseverse.backend.repository.EnrollmentRepository.ProgressUpdate;
+import com.courseverse.backend.repository.InMemoryEnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProgressBufferTest {
+
+    private static final long KEEP = 3_600_000;
+    private static final long EVICT_AT_ONCE = -1; // Every clean state is older than now + 1 ms
+
+    private final FlakyEnrollmentRepository repository = new FlakyEnrollmentRepository();
+    private final CourseService courseService = mock(CourseService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(courseService.getCourseById("c1")).thenReturn(course("c1", "l1", "l2", "l3", "l4"));
+    }
+
+    /** Many heartbeats become one update per enrollment, holding only the lessons that moved. */
+    @Test
+    void heartbeatsAreCoalescedPerEnrollment() throws Exception {
+        String enrollmentId = enroll("u1", "c1");
+        ProgressBuffer buffer = buffer(400, 5, KEEP);
+
+        buffer.record("u1", "c1", heartbeat("l1", 10, 100));
+        buffer.record("u1", "c1", heartbeat("l1", 30, 100));
+        buffer.record("u1", "c1", heartbeat("l2", 50, 100));
+        double progress = buffer.record("u1", "c1", heartbeat("l1", 20, 100)); // Rewind
+        assertEquals((0.3 + 0.5) / 4, progress, 1e-9);
+        assertTrue(repository.calls.isEmpty(), "nothing written before the flush");
+
+        buffer.flush();
+
+        assertEquals(1, repository.calls.size());
+        List<ProgressUpdate> batch = repository.calls.get(0);
+        assertEquals(1, batch.size());
+        ProgressUpdate update = batch.get(0);
+        assertEquals(enrollmentId, update.enrollmentId());
+        assertEquals(Map.of("l1", 0.3, "l2", 0.5), update.lessonProgress(), "rewinding never lowers progress");
+        assertEquals(Map.of("l1", 20.0, "l2", 50.0), update.lessonPositions(), "latest position wins");
+
+        Enrollment stored = stored("u1", "c1");
+        assertEquals((0.3 + 0.5) / 4, stored.getProgress(), 1e-9);
+        assertEquals(Map.of("l1", 20.0, "l2", 50.0), stored.getLessonPositions());
+
+        buffer.flush();
+        assertEquals(1, repository.calls.size(), "a clean buffer writes nothing");
+
+        buffer.record("u1", "c1", heartbeat("l3", 100, 100));
+        buffer.flush();
+        assertEquals(Set.of("l3"), repository.calls.get(1).get(0).lessonProgress().keySet());
+        assertEquals((0.3 + 0.5 + 1.0) / 4, stored("u1", "c1").getProgress(), 1e-9);
+    }
+
+    @Test
+    void nearlyFinishedLessonsCountAsComplete() throws Exception {
+        enroll("u1", "c1");
+        ProgressBuffer buffer = buffer(400, 5, KEEP);
+
+        buffer.record("u1", "c1", heartbeat("l1", 96, 100));
+        assertEquals(0.25, buffer.record("u1", "c1", heartbeat("l2", 0, 0)), 1e-9, "unknown duration counts 0");
+    }
+
+    @Test
+    void pendingUpdatesAreFlushedOnShutdown() throws Exception {
+        enroll("u1", "c1");
+        enroll("u2", "c1");
+        ProgressBuffer buffer = buffer(1, 5, KEEP);
+
+        buffer.record("u1", "c1", heartbeat("l1", 50, 100));
+        buffer.record("u2", "c1", heartbeat("l2", 100, 100));
+        buffer.shutdown();
+
+        assertEquals(2, repository.calls.size(), "batch size 1");
+        assertEquals(Map.of("l1", 0.5), stored("u1", "c1").getLessonProgress());
+        assertEquals(Map.of("l2", 1.0), stored("u2", "c1").getLessonProgress());
+    }
+
+    /** Evicted state is reloaded from the stored document, picking up writes from other instances. */
+    @Test
+    void idleCleanStateIsEvictedAfterAFlush() throws Exception {
+        enroll("u1", "c1");
+        ProgressBuffer evicting = buffer(400, 5, EVICT_AT_ONCE);
+        evicting.record("u1", "c1", heartbeat("l1", 50, 100));
+        evicting.flush();
+
+        // Another instance writes l2 in the meantime
+        writeDirectly("u1", "c1", Map.of("l2", 1.0));
+
+        assertEquals((0.5 + 1.0 + 0.25) / 4, evicting.record("u1", "c1", heartbeat("l3", 25, 100)), 1e-9);
+    }
+
+    @Test
+    void recentOrDirtyStateIsKept() throws Exception {
+        enroll("u1", "c1");
+        ProgressBuffer buffer = buffer(400, 5, KEEP);
+        buffer.record("u1", "c1", heartbeat("l1", 50, 100));
+        buffer.flush();
+
+        writeDirectly("u1", "c1", Map.of("l2", 1.0));
+
+        // Still served from memory, which has not seen l2
+        assertEquals((0.5 + 0.25) / 4, buffer.record("u1", "c1", heartbeat("l3", 25, 100)), 1e-9);
+    }
+
+    /** A batch that fails is retried one by one, so only the broken enrollment is held back. */
+    @Test
+    void failedBatchIsRetriedSinglyAndRequeued() throws Exception {
+        enroll("u1", "c1");
+        String broken = enroll("u2", "c1");
+        ProgressBuffer buffer = buffer(400, 3, KEEP);
+        repository.failing.add(broken);
+
+        buffer.record("u1", "c1", heartbeat("l1", 50, 100));
+        buffer.record("u2", "c1", heartbeat("l2", 50, 100));
+        buffer.flush();
+
+        assertEquals(Map.of("l1", 0.5), stored("u1", "c1").getLessonProgress());
+        assertNull(stored("u2", "c1").getLessonProgress());
+
+        // Re-queued with its lessons; a later heartbeat for another lesson joins the same retry
+        buffer.record("u2", "c1", heartbeat("l3", 100, 100));
+        repository.failing.clear();
+        repository.calls.clear();
+        buffer.flush();
+
+        assertEquals(1, repository.calls.size());
+        assertEquals(Map.of("l2", 0.5, "l3", 1.0), stored("u2", "c1").getLessonProgress());
+        assertEquals(0.0, meterRegistry.counter("courseverse.progress.flushed", "result", "dropped").count());
+    }
+
+    @Test
+    void updatesAreDroppedAfterMaxAttempts() throws Exception {
+        String broken = enroll("u1", "c1");
+        ProgressBuffer buffer = buffer(400, 2, KEEP);
+        repository.failing.add(broken);
+
+        buffer.record("u1", "c1", heartbeat("l1", 50, 100));
+        buffer.flush();
+        buffer.flush();
+        assertEquals(1.0, meterRegistry.counter("courseverse.progress.flushed", "result", "dropped").count());
+
+        repository.failing.clear();
+        repository.calls.clear();
+        buffer.flush();
+        assertTrue(repository.calls.isEmpty(), "nothing left to retry");
+
+        // The next heartbeat starts again from the stored document
+        buffer.record("u1", "c1", heartbeat("l2", 100, 100));
+        buffer.flush();
+        assertEquals(Map.of("l2", 1.0), stored("u1", "c1").getLessonProgress());
+    }
+
+    @Test
+    void interruptedFlushRequeuesEverything() throws Exception {
+        enroll("u1", "c1");
+        ProgressBuffer buffer = buffer(400, 5, KEEP);
+        buffer.record("u1", "c1", heartbeat("l1", 50, 100));
+        repository.interrupt = true;
+
+        buffer.flush();
+        assertTrue(Thread.interrupted(), "interrupt status is restored");
+        assertNull(stored("u1", "c1").getLessonProgress());
+
+        repository.interrupt = false;
+        buffer.flush();
+        assertEquals(Map.of("l1", 0.5), stored("u1", "c1").getLessonProgress());
+    }
+
+    @Test
+    void tooManyPendingEnrollmentsFailFast() throws Exception {
+        enroll("u1", "c1");
+        enroll("u2", "c1");
+        ProgressBuffer buffer = buffer(400, 5, KEEP, 1);
+
+        buffer.record("u1", "c1", heartbeat("l1", 10, 100));
+        buffer.record("u1", "c1", heartbeat("l2", 10, 100)); // Already pending, so still accepted
+        assertThrows(BulkheadFullException.class, () -> buffer.record("u2", "c1", heartbeat("l1", 10, 100)));
+
+        buffer.flush();
+        buffer.record("u2", "c1", heartbeat("l1", 10, 100));
+    }
+
+    @Test
+    void unknownLessonIsRejected() throws Exception {
+        enroll("u1", "c1");
+        ProgressBuffer buffer = buffer(400, 5, KEEP);
+
+        assertThrows(ResourceNotFoundException.class, () -> buffer.record("u1", "c1", heartbeat("x1", 1, 10)));
+        buffer.flush();
+        assertTrue(repository.calls.isEmpty());
+    }
+
+    private ProgressBuffer buffer(int batchSize, int maxAttempts, long idleEvictMillis) {
+        return buffer(batchSize, maxAttempts, idleEvictMillis, 50_000);
+    }
+
+    private ProgressBuffer buffer(int batchSize, int maxAttempts, long idleEvictMillis, int maxPending) {
+        // start() is never called, so nothing flushes behind the test's back
+        return new ProgressBuffer(repository, courseService, meterRegistry, 10, maxPending, batchSize, maxAttempts,
+                idleEvictMillis);
+    }
+
+    private String enroll(String userId, String courseId) {
+        return repository.save(new Enrollment(null, userId, courseId, new Date(), 0.0, null, null, null, null))
+                .getUid();
+    }
+
+    private Enrollment stored(String userId, String courseId) {
+        return repository.findByUserIdAndCourseId(userId, courseId).orElseThrow();
+    }
+
+    private void writeDirectly(String userId, String courseId, Map<String, Double> lessonProgress)
+            throws ExecutionException {
+        Enrollment enrollment = stored(userId, courseId);
+        repository.stored.updateProgress(List.of(new ProgressUpdate(enrollment.getUid(), Set.of("l1", "l2", "l3", "l4"),
+                lessonProgress, Map.of(), new Date())));
+    }
+
+    private static ProgressHeartbeatRequest heartbeat(String lessonId, double position, double duration) {
+        ProgressHeartbeatRequest heartbeat = new ProgressHeartbeatRequest();
+        heartbeat.setLessonId(lessonId);
+        heartbeat.setPositionSeconds(position);
+        heartbeat.setDurationSeconds(duration);
+        return heartbeat;
+    }
+
+    private static Course course(String courseId, String... lessonIds) {
+        List<Lesson> lessons = new ArrayList<>();
+        for (String lessonId : lessonIds) {
+            Lesson lesson = new Lesson();
+            lesson.setLessonId(lessonId);
+            lessons.add(lesson);
+        }
+        Module module = new Module();
+        module.setModuleId("m1");
+        module.setLessons(lessons);
+        Course course = new Course();
+        course.setUid(courseId);
+        course.setModules(List.of(module));
+        return course;
+    }
+
+    /**
+     * The in-memory repository, recording every progress batch and failing
+     * those that hold a listed enrollment, as a deleted document would.
+     */
+    private static final class FlakyEnrollmentRepository implements EnrollmentRepository {
+
+        final InMemoryEnrollmentRepository stored = new InMemoryEnrollmentRepository();
+        final List<List<ProgressUpdate>> calls = new ArrayList<>();
+        final Set<String> failing = new HashSet<>();
+        boolean interrupt;
+
+        @Override
+        public Enrollment save(Enrollment enrollment) {
+            return stored.save(enrollment);
+        }
+
+        @Override
+        public Optional<Enrollment> findByUserIdAndCourseId(String userId, String courseId) {
+            return stored.findByUserIdAndCourseId(userId, courseId);
+        }
+
+        @Override
+        public List<Enrollment> findByUserId(String userId) {
+            return stored.findByUserId(userId);
+        }
+
+        @Override
+        public ChangePage<Enrollment> findByUserIdUpdatedSince(String userId, ChangeCursor after, int limit) {
+            return stored.findByUserIdUpdatedSince(userId, after, limit);
+        }
+
+        @Override
+        public void updateProgress(List<ProgressUpdate> updates) throws ExecutionException, InterruptedException {
+            if (interrupt) {
+                throw new InterruptedException();
+            }
+            calls.add(List.copyOf(updates));
+            for (ProgressUpdate update : updates) {
+                if (failing.contains(update.enrollmentId())) {
+                    throw new ExecutionException(new IllegalStateException("Write failed: " + update.enrollmentId()));
+                }
+            }
+            stored.updateProgress(updates);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.courseverse.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingZipTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fullArchiveUnzipsToTheEntries() throws IOException {
+        byte[] video = randomBytes(200_000, 1);
+        Map<StreamingZip.Entry, Long> computed = new HashMap<>();
+        StreamingZip zip = new StreamingZip(List.of(
+                StreamingZip.Entry.of("manifest.json", "{\"courseId\":\"c1\"}".getBytes(StandardCharsets.UTF_8)),
+                StreamingZip.Entry.of("lessons/l1/text.txt", "Grüße".getBytes(StandardCharsets.UTF_8)),
+                unknownCrc("lessons/l1/video.mp4", video),
+                StreamingZip.Entry.of("empty.txt", new byte[0])), computed::put);
+
+        byte[] archive = write(zip, 0, zip.length());
+        assertEquals(zip.length(), archive.length);
+
+        try (ZipFile zipFile = open(archive)) {
+            assertEquals(4, zipFile.size());
+            assertArrayEquals("{\"courseId\":\"c1\"}".getBytes(StandardCharsets.UTF_8),
+                    read(zipFile, "manifest.json"));
+            assertArrayEquals("Grüße".getBytes(StandardCharsets.UTF_8), read(zipFile, "lessons/l1/text.txt"));
+            assertArrayEquals(video, read(zipFile, "lessons/l1/video.mp4"));
+            assertArrayEquals(new byte[0], read(zipFile, "empty.txt"));
+            assertEquals(crc(video), zipFile.getEntry("lessons/l1/video.mp4").getCrc());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("lessons/l1/video.mp4").getMethod());
+        }
+        // Only the entry whose CRC was not known up front is reported
+        assertEquals(1, computed.size());
+        assertEquals(crc(video), (long) computed.values().iterator().next());
+    }
+
+    @Test
+    void rangedWritesMatchTheFullArchive() throws IOException {
+        List<StreamingZip.Entry> entries = List.of(
+                StreamingZip.Entry.of("a.txt", randomBytes(1_000, 2)),
+                StreamingZip.Entry.of("b.bin", randomBytes(70_000, 3)),
+                StreamingZip.Entry.of("c.txt", randomBytes(10, 4)));
+        byte[] full = write(new StreamingZip(entries, null), 0, new StreamingZip(entries, null).length());
+
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            long start = random.nextInt(full.length);
+            long count = 1 + random.nextInt((int) (full.length - start));
+            StreamingZip zip = new StreamingZip(entries, null);
+            assertArrayEquals(Arrays.copyOfRange(full, (int) start, (int) (start + count)), write(zip, start, count),
+                    "bytes " + start + "+" + count);
+        }
+    }
+
+    @Test
+    void resumeNeedsTheCrcsOfSkippedEntries() throws IOException {
+        byte[] first = randomBytes(5_000, 6);
+        byte[] second = randomBytes(5_000, 7);
+        List<StreamingZip.Entry> entries = List.of(unknownCrc("first.bin", first), unknownCrc("second.bin", second));
+        StreamingZip zip = new StreamingZip(entries, null);
+        byte[] full = write(new StreamingZip(entries, null), 0, zip.length());
+
+        assertTrue(zip.isResumableAt(0));
+        assertTrue(zip.isResumableAt(30 + "first.bin".length()), "first entry's data still streams whole");
+        long inFirst = 100;
+        assertFalse(zip.isResumableAt(inFirst));
+        assertThrows(IllegalStateException.class, () -> zip.write(OutputStream.nullOutputStream(), inFirst, 10));
+
+        // Known CRCs, as CourseBundleService passes in from the lesson or S3, make any offset resumable
+        List<StreamingZip.Entry> known = List.of(
+                new StreamingZip.Entry("first.bin", first.length, crc(first), entries.get(0).content()),
+                new StreamingZip.Entry("second.bin", second.length, crc(second), entries.get(1).content()));
+        for (long start : new long[] { inFirst, full.length - 100, full.length - 1 }) {
+            StreamingZip resumed = new StreamingZip(known, null);
+            assertTrue(resumed.isResumableAt(start));
+            assertArrayEquals(Arrays.copyOfRange(full, (int) start, full.length),
+                    write(resumed, start, full.length - start));
+        }
+    }
+
+    @Test
+    void crcsComputedByAFullWriteMakeTheSameArchiveResumable() throws IOException {
+        byte[] video = randomBytes(10_000, 8);
+        StreamingZip zip = new StreamingZip(List.of(unknownCrc("video.mp4", video)), null);
+        assertFalse(zip.isResumableAt(zip.length() - 1));
+
+        byte[] full = write(zip, 0, zip.length());
+
+        assertTrue(zip.isResumableAt(zip.length() - 1));
+        assertArrayEquals(Arrays.copyOfRange(full, full.length - 50, full.length), write(zip, full.length - 50, 50));
+    }
+
+    @Test
+    void layoutDependsOnlyOnNamesAndSizes() {
+        StreamingZip a = new StreamingZip(List.of(StreamingZip.Entry.of("x", new byte[100])), null);
+        StreamingZip b = new StreamingZip(List.of(unknownCrc("x", randomBytes(100, 9))), null);
+        assertEquals(a.length(), b.length());
+    }
+
+    /**
+     * An entry over 4 GiB followed by a small one, so sizes and the second
+     * entry's offset need ZIP64 fields. Zero blocks are skipped on disk, so
+     * the archive only takes a few blocks of real space.
+     */
+    @Test
+    void largeEntriesUseZip64() throws IOException {
+        long bigSize = 0x1_0000_0000L + 16;
+        byte[] after = "after the big one".getBytes(StandardCharsets.UTF_8);
+        StreamingZip zip = new StreamingZip(List.of(
+                new StreamingZip.Entry("big.bin", bigSize, null, StreamingZipTest::zeros),
+                StreamingZip.Entry.of("after.txt", after)), null);
+
+        Path file = directory.resolve("big.zip");
+        try (RandomAccessFile out = new RandomAccessFile(file.toFile(), "rw")) {
+            zip.write(new SparseOutputStream(out), 0, zip.length());
+            assertEquals(zip.length(), out.length());
+        }
+
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            ZipEntry big = zipFile.getEntry("big.bin");
+            assertNotNull(big);
+            assertEquals(bigSize, big.getSize());
+            assertEquals(bigSize, big.getCompressedSize());
+            assertEquals(crcOfZeros(bigSize), big.getCrc());
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("after.txt"))) {
+                assertArrayEquals(after, in.readAllBytes());
+            }
+        }
+    }
+
+    private static StreamingZip.Entry unknownCrc(String name, byte[] bytes) {
+        return new StreamingZip.Entry(name, bytes.length, null,
+                (out, offset, length) -> out.write(bytes, (int) offset, (int) length));
+    }
+
+    private static void zeros(OutputStream out, long offset, long length) throws IOException {
+        byte[] block = new byte[1 << 20];
+        for (long remaining = length; remaining > 0; remaining -= block.length) {
+            out.write(block, 0, (int) Math.min(block.length, remaining));
+        }
+    }
+
+    private static byte[] write(StreamingZip zip, long offset, long count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zip.write(out, offset, count);
+        assertEquals(count, out.size(), "bytes written");
+        return out.toByteArray();
+    }
+
+    private ZipFile open(byte[] archive) throws IOException {
+        Path file = Files.createTempFile(directory, "bundle", ".zip");
+        Files.write(file, archive);
+        return new ZipFile(file.toFile());
+    }
+
+    private static byte[] read(ZipFile zipFile, String name) throws IOException {
+        try (InputStream in = zipFile.getInputStream(zipFile.getEntry(name))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static long crcOfZeros(long length) {
+        CRC32 crc = new CRC32();
+        byte[] block = new byte[1 << 20];
+        for (long remaining = length; remaining > 0; remaining -= block.length) {
+            crc.update(block, 0, (int) Math.min(block.length, remaining));
+        }
+        return crc.getValue();
+    }
+
+    /** Writes to a file, seeking over all-zero writes instead of storing them. */
+    private static final class SparseOutputStream extends OutputStream {
+
+        private static final byte[] ZEROS = new byte[1 << 20];
+
+        private final RandomAccessFile file;
+
+        SparseOutputStream(RandomAccessFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            file.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len <= ZEROS.length && Arrays.mismatch(b, off, off + len, ZEROS, 0, len) < 0) {
+                long end = file.getFilePointer() + len;
+                file.setLength(Math.max(file.length(), end));
+                file.seek(end);
+                return;
+            }
+            file.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.courseverse.backend.service;
+
+import com.courseverse.backend.dto.SyncResponse;
+import com.courseverse.backend.model.Course;
+import com.courseverse.backend.repository.ChangeCursor;
+import com.courseverse.backend.repository.ChangePage;
+import com.courseverse.backend.repository.CourseRepository;
+import com.courseverse.backend.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SyncServiceTest {
+
+    private static final Principal USER = () -> "u1";
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private final CourseService courseService = mock(CourseService.class);
+    private final List<Course> written = new ArrayList<>();
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(courseService.withFreshThumbnailUrl(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(courseRepository.findAll()).thenReturn(List.of());
+        when(courseRepository.findUpdatedSince(any(), anyInt())).thenAnswer(invocation -> {
+            ChangeCursor after = invocation.getArgument(0);
+            List<Course> page = written.stream()
+                    .filter(course -> cursor(course).compareTo(after) > 0)
+                    .sorted((a, b) -> cursor(a).compareTo(cursor(b)))
+                    .limit(invocation.<Integer>getArgument(1))
+                    .collect(Collectors.toList());
+            return new ChangePage<>(page, page.isEmpty() ? null : cursor(page.get(page.size() - 1)));
+        });
+        when(courseRepository.findDeletedSince(any(), anyInt())).thenReturn(new ChangePage<>(List.of(), null));
+        when(enrollmentRepository.findByUserIdUpdatedSince(anyString(), any(), anyInt()))
+                .thenReturn(new ChangePage<>(List.of(), null));
+        syncService = new SyncService(courseRepository, enrollmentRepository, courseService,
+                new SimpleMeterRegistry(), 2, 0, 3_600_000, 3_600_000);
+    }
+
+    /** A page boundary inside one millisecond must neither skip nor repeat the changes sharing it. */
+    @Test
+    void pagesThroughChangesStampedWithTheSameInstant() {
+        String token = syncService.sync(null, USER).getToken();
+        Date at = new Date(System.currentTimeMillis() + 1);
+        for (String id : List.of("e", "a", "d", "b", "c")) {
+            written.add(course(id, at));
+        }
+
+        List<String> synced = new ArrayList<>();
+        SyncResponse response;
+        int syncs = 0;
+        do {
+            response = syncService.sync(token, USER);
+            response.getCourses().forEach(course -> synced.add(course.getUid()));
+            token = response.getToken();
+            syncs++;
+        } while (response.isHasMore() && syncs < 10);
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), synced);
+        assertEquals(3, syncs);
+    }
+
+    @Test
+    void tokensOfPlainMillisecondsAreStillAccepted() {
+        written.add(course("a", new Date(System.currentTimeMillis() - 1000)));
+
+        SyncResponse response = syncService.sync(Long.toString(System.currentTimeMillis() - 2000), USER);
+
+        assertFalse(response.isReset());
+        assertEquals(1, response.getCourses().size());
+        assertTrue(response.getToken().startsWith("2."));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync("2.not base64", USER));
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync("2.MQ", USER)); // One cursor
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync("-1", USER));
+    }
+
+    private static Course course(String id, Date updatedAt) {
+        Course course = new Course();
+        course.setUid(id);
+        course.setUpdatedAt(updatedAt);
+        return course;
+    }
+
+    private static ChangeCursor cursor(Course course) {
+        return ChangeCursor.of(course.getUpdatedAt(), course.getUid());
+    }
+}